@@ -0,0 +1,113 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.collections;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.events.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A set of benchmarks to measure the cost of cancelling events
+ * sent by a given entity from a {@link FutureEventQueue},
+ * as network switches do for every forwarded packet.
+ * It compares the former approach of traversing the entire queue
+ * looking for the events to cancel with the
+ * {@link FutureEventQueue#removeIf(SimEntity, java.util.function.Predicate)} method,
+ * which uses an index of events by source entity.
+ *
+ * <p>The queue keeps {@link #queueSize} events from other entities,
+ * so that we can check if the cancel cost grows with the queue size.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see FutureQueueFirstBatchPolling
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@State(Scope.Thread)
+public class FutureQueueCancelling {
+    private static final int TAG = 1;
+
+    @Param({"1000", "100000", "1000000"})
+    private int queueSize;
+
+    private FutureQueue futureQueue;
+    private FutureQueueHeap futureQueueHeap;
+
+    /**
+     * The entity whose events are cancelled.
+     */
+    private SimEntity source;
+
+    @Setup(Level.Iteration)
+    public void doSetup() {
+        final CloudSim simulation = new CloudSim();
+        source = new DatacenterBrokerSimple(simulation);
+        final SimEntity other = new DatacenterBrokerSimple(simulation);
+
+        futureQueue = new FutureQueue();
+        futureQueueHeap = new FutureQueueHeap();
+        for (int i = 0; i < queueSize; i++) {
+            futureQueue.addEvent(createEvent(1 + i, other));
+            futureQueueHeap.addEvent(createEvent(1 + i, other));
+        }
+    }
+
+    /**
+     * Cancels an event from a {@link FutureQueue}
+     * by traversing the entire queue.
+     * @return
+     */
+    @Benchmark
+    public boolean testFutureQueueCancelByScanning() {
+        futureQueue.addEvent(createEvent(queueSize / 2.0, source));
+        return futureQueue.removeIf(evt -> evt.getSource() == source && evt.getTag() == TAG);
+    }
+
+    /**
+     * Cancels an event from a {@link FutureQueue}
+     * using the index of events by source entity.
+     * @return
+     */
+    @Benchmark
+    public boolean testFutureQueueCancelBySource() {
+        futureQueue.addEvent(createEvent(queueSize / 2.0, source));
+        return futureQueue.removeIf(source, evt -> evt.getTag() == TAG);
+    }
+
+    /**
+     * Cancels an event from a {@link FutureQueueHeap}
+     * using the index of events by source entity.
+     * @return
+     */
+    @Benchmark
+    public boolean testFutureQueueHeapCancelBySource() {
+        futureQueueHeap.addEvent(createEvent(queueSize / 2.0, source));
+        return futureQueueHeap.removeIf(source, evt -> evt.getTag() == TAG);
+    }
+
+    private CloudSimEvent createEvent(final double time, final SimEntity src) {
+        return new CloudSimEvent(time, src, SimEntity.NULL, TAG, null);
+    }
+}
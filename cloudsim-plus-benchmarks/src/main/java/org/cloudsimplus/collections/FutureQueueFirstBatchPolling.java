@@ -0,0 +1,129 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.collections;
+
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.events.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A set of benchmarks to measure the cost of a simulation clock tick,
+ * which gets the events happening at the time of the first event
+ * inside a {@link FutureEventQueue}.
+ * It compares the former approach of traversing the entire queue
+ * looking for such events with the {@link FutureEventQueue#pollFirstBatch()}.
+ *
+ * <p>The queue keeps {@link #queueSize} events happening after the
+ * events of the tick, so that we can check if the tick cost
+ * grows with the queue size.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see FutureQueueVsFutureQueueHeap
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@State(Scope.Thread)
+public class FutureQueueFirstBatchPolling {
+    /**
+     * Number of events happening at the same time in each tick.
+     */
+    private static final int EVENTS_BY_TICK = 10;
+
+    @Param({"1000", "100000", "1000000"})
+    private int queueSize;
+
+    private FutureQueue futureQueue;
+    private FutureQueueHeap futureQueueHeap;
+
+    @Setup(Level.Iteration)
+    public void doSetup() {
+        futureQueue = new FutureQueue();
+        futureQueueHeap = new FutureQueueHeap();
+        for (int i = 0; i < queueSize; i++) {
+            futureQueue.addEvent(createEvent(1 + i));
+            futureQueueHeap.addEvent(createEvent(1 + i));
+        }
+    }
+
+    /**
+     * Gets the events for the next tick from a {@link FutureQueue}
+     * by traversing the entire queue.
+     * @return
+     */
+    @Benchmark
+    public List<SimEvent> testFutureQueueFullScan() {
+        addTickEvents(futureQueue);
+        final List<SimEvent> batch = new ArrayList<>();
+        final SimEvent first = futureQueue.first();
+        for (final Iterator<SimEvent> it = futureQueue.iterator(); it.hasNext(); ) {
+            final SimEvent evt = it.next();
+            if (evt.getTime() == first.getTime()) {
+                batch.add(evt);
+                it.remove();
+            }
+        }
+
+        return batch;
+    }
+
+    /**
+     * Gets the events for the next tick from a {@link FutureQueue}
+     * using {@link FutureQueue#pollFirstBatch()}.
+     * @return
+     */
+    @Benchmark
+    public List<SimEvent> testFutureQueuePollFirstBatch() {
+        addTickEvents(futureQueue);
+        return futureQueue.pollFirstBatch();
+    }
+
+    /**
+     * Gets the events for the next tick from a {@link FutureQueueHeap}
+     * using {@link FutureQueueHeap#pollFirstBatch()}.
+     * @return
+     */
+    @Benchmark
+    public List<SimEvent> testFutureQueueHeapPollFirstBatch() {
+        addTickEvents(futureQueueHeap);
+        return futureQueueHeap.pollFirstBatch();
+    }
+
+    /**
+     * Adds the events for the next tick,
+     * which happen before all the events already in the queue.
+     * @param queue the queue to add the events
+     */
+    private void addTickEvents(final FutureEventQueue queue) {
+        for (int i = 0; i < EVENTS_BY_TICK; i++) {
+            queue.addEvent(createEvent(0));
+        }
+    }
+
+    private CloudSimEvent createEvent(final double time) {
+        return new CloudSimEvent(time, SimEntity.NULL, SimEntity.NULL, 0, null);
+    }
+}
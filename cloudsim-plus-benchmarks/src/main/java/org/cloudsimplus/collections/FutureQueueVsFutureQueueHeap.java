@@ -0,0 +1,113 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.collections;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.events.*;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A set of benchmarks to compare the performance of the {@link FutureEventQueue}
+ * implementations used by the {@link org.cloudbus.cloudsim.core.CloudSim} engine:
+ * - the default {@link FutureQueue}, backed by a {@link java.util.TreeSet};
+ * - the {@link FutureQueueHeap}, backed by an array-based 4-ary heap.
+ *
+ * <p>Each benchmark keeps a queue with {@link #queueSize} events,
+ * simulating a running simulation with many pending events.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see SortedSetVsLinkedList
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@State(Scope.Thread)
+public class FutureQueueVsFutureQueueHeap {
+    /**
+     * The probability to add an event using {@link FutureEventQueue#addEventFirst(SimEvent)},
+     * such as for events with negative tags.
+     */
+    private static final double ADD_FIRST_PROBABILITY = 0.1;
+
+    /**
+     * The max delay for new events, from the time of the first event in the queue.
+     */
+    private static final int MAX_DELAY = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int queueSize;
+
+    private FutureQueue futureQueue;
+    private FutureQueueHeap futureQueueHeap;
+    private RandomGenerator prng;
+
+    @Setup(Level.Iteration)
+    public void doSetup() {
+        futureQueue = new FutureQueue();
+        futureQueueHeap = new FutureQueueHeap();
+        prng = new Well19937c(1);
+        for (int i = 0; i < queueSize; i++) {
+            final double time = prng.nextInt(MAX_DELAY);
+            futureQueue.addEvent(createEvent(time));
+            futureQueueHeap.addEvent(createEvent(time));
+        }
+    }
+
+    /**
+     * Adds an event to the {@link FutureQueue} then removes its first event,
+     * keeping the queue size stable.
+     * @return
+     */
+    @Benchmark
+    public SimEvent testFutureQueueAddAndRemoveFirst() {
+        return addAndRemoveFirst(futureQueue);
+    }
+
+    /**
+     * Adds an event to the {@link FutureQueueHeap} then removes its first event,
+     * keeping the queue size stable.
+     * @return
+     */
+    @Benchmark
+    public SimEvent testFutureQueueHeapAddAndRemoveFirst() {
+        return addAndRemoveFirst(futureQueueHeap);
+    }
+
+    private SimEvent addAndRemoveFirst(final FutureEventQueue queue) {
+        final SimEvent evt = createEvent(queue.first().getTime() + prng.nextInt(MAX_DELAY));
+        if(prng.nextDouble() < ADD_FIRST_PROBABILITY) {
+            queue.addEventFirst(evt);
+        } else {
+            queue.addEvent(evt);
+        }
+
+        final SimEvent first = queue.first();
+        queue.remove(first);
+        return first;
+    }
+
+    private CloudSimEvent createEvent(final double time) {
+        return new CloudSimEvent(time, SimEntity.NULL, SimEntity.NULL, 0, null);
+    }
+}
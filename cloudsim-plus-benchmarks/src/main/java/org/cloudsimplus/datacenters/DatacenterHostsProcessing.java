@@ -0,0 +1,114 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.datacenters;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A benchmark to measure the cost of updating the processing of the Hosts
+ * inside a {@link Datacenter} at every clock tick.
+ * It runs a simulation with {@link #hosts} Hosts, where just
+ * a {@link #busyPercent percentage} of them have VMs.
+ * Since the Datacenter just updates the Hosts which require it,
+ * the simulation time for an idle-heavy Datacenter must be proportional
+ * to the number of busy Hosts, instead of the total number of Hosts.
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class DatacenterHostsProcessing {
+    private static final int HOST_PES = 4;
+    private static final int PE_MIPS = 1000;
+    private static final int CLOUDLET_LENGTH = 10000;
+
+    @Param({"1000", "10000", "50000"})
+    private int hosts;
+
+    /**
+     * The percentage of Hosts which will have a VM running a Cloudlet.
+     */
+    @Param({"1", "100"})
+    private int busyPercent;
+
+    private CloudSim simulation;
+
+    @Setup(Level.Invocation)
+    public void doSetup() {
+        simulation = new CloudSim();
+        final List<Host> hostList = new ArrayList<>(hosts);
+        for (int i = 0; i < hosts; i++) {
+            hostList.add(createHost());
+        }
+
+        final Datacenter datacenter = new DatacenterSimple(simulation, hostList);
+        datacenter.setSchedulingInterval(1);
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        final int busyHosts = Math.max(1, hosts * busyPercent / 100);
+        final List<Vm> vmList = new ArrayList<>(busyHosts);
+        final List<Cloudlet> cloudletList = new ArrayList<>(busyHosts);
+        for (int i = 0; i < busyHosts; i++) {
+            vmList.add(new VmSimple(PE_MIPS, HOST_PES));
+            cloudletList.add(new CloudletSimple(CLOUDLET_LENGTH, HOST_PES));
+        }
+
+        broker.submitVmList(vmList);
+        broker.submitCloudletList(cloudletList);
+    }
+
+    /**
+     * Runs the simulation until all Cloudlets finish.
+     * @return the final simulation time
+     */
+    @Benchmark
+    public double testSimulation() {
+        return simulation.start();
+    }
+
+    private Host createHost() {
+        final List<Pe> peList = new ArrayList<>(HOST_PES);
+        for (int i = 0; i < HOST_PES; i++) {
+            peList.add(new PeSimple(PE_MIPS));
+        }
+
+        return new HostSimple(16384, 100000, 1000000, peList);
+    }
+}
@@ -23,35 +23,60 @@
  */
 package org.cloudsimplus.heuristics;
 
+import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
 import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
 import org.cloudbus.cloudsim.distributions.UniformDistr;
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 
 /**
  * A set of benchmarks for the {@link CloudletToVmMappingSolution} class.
+ * Since neighbor solutions share the mapping of the source solution
+ * and have their cost computed just from the two VMs changed,
+ * the time to create and evaluate a neighbor must not grow with the number of Cloudlets and VMs,
+ * while the time to recompute the cost of an entire solution does.
  *
  * @author Manoel Campos da Silva Filho
  */
 @BenchmarkMode({Mode.AverageTime, Mode.Throughput})
 @State(Scope.Thread)
 public class CloudletToVmMappingSolutionBenchmark {
+    /**
+     * The number of VMs is 1/10 of the number of Cloudlets.
+     */
+    @Param({"100", "10000"})
+    private int cloudlets;
+
     private CloudletToVmMappingSimulatedAnnealing heuristic;
     private CloudletToVmMappingSolution instance1;
     private CloudletToVmMappingSolution instance2;
+    private List<Cloudlet> cloudletList;
+    private List<Vm> vmList;
 
     @Setup
     public void doSetup() {
-        CloudletToVmMappingSimulatedAnnealing heuristic =
-            new CloudletToVmMappingSimulatedAnnealing(0, new UniformDistr(0, 1));
+        final UtilizationModel um = UtilizationModel.NULL;
+        cloudletList = IntStream.range(0, cloudlets)
+                                .mapToObj(i -> new CloudletSimple(i, 1, i % 4 + 1).setUtilizationModel(um))
+                                .collect(Collectors.toList());
+        vmList = IntStream.range(0, cloudlets / 10)
+                          .mapToObj(i -> (Vm)new VmSimple(i, 1000, i % 8 + 1))
+                          .collect(Collectors.toList());
+
+        heuristic = new CloudletToVmMappingSimulatedAnnealing(0, new UniformDistr(0, 1));
         instance1 = createInstance();
         instance2 = createInstance();
         /*Call the getCost the first time without measure it
@@ -62,11 +87,8 @@ public class CloudletToVmMappingSolutionBenchmark {
 
     private CloudletToVmMappingSolution createInstance() {
         final CloudletToVmMappingSolution result = new CloudletToVmMappingSolution(heuristic);
-        UtilizationModel um = UtilizationModel.NULL;
-        IntStream.range(0, 100).forEach(i
-                -> result.bindCloudletToVm(
-                        new CloudletSimple(i, 1, 1).setUtilizationModel(um),
-                        new VmSimple(i, 1000, 1))
+        IntStream.range(0, cloudletList.size()).forEach(i
+                -> result.bindCloudletToVm(cloudletList.get(i), vmList.get(i % vmList.size()))
         );
 
         return result;
@@ -77,6 +99,16 @@ public class CloudletToVmMappingSolutionBenchmark {
         return heuristic.createNeighbor(instance1);
     }
 
+    /**
+     * Creates a neighbor and gets its cost,
+     * as performed in every iteration of the heuristic.
+     * @return the neighbor's cost
+     */
+    @Benchmark
+    public double testCreateNeighborAndGetCost() {
+        return heuristic.createNeighbor(instance1).getCost();
+    }
+
     @Benchmark
     public double testGetCostWhenFirstCall() {
         return instance1.getCost(true);
@@ -95,4 +127,44 @@ public class CloudletToVmMappingSolutionBenchmark {
     public double testGetCostWhenSecondCall() {
         return instance2.getCost();
     }
+
+    /**
+     * Runs the entire heuristic,
+     * which performs about 9,200 neighborhood searches,
+     * divided among the {@link HeuristicToSolve#chains chains}.
+     * The solve time is expected to drop with the number of chains,
+     * up to the number of available CPU cores,
+     * while the returned cost allows comparing the solution quality.
+     * @param state the state containing a new heuristic to solve
+     * @return the cost of the solution found
+     */
+    @Benchmark
+    public double testSolve(final HeuristicToSolve state) {
+        return state.heuristic.solve().getCost();
+    }
+
+    /**
+     * Provides a new heuristic before each execution of {@link #testSolve(HeuristicToSolve)},
+     * since a heuristic can't be reused after it's solved.
+     */
+    @State(Scope.Thread)
+    public static class HeuristicToSolve {
+        /**
+         * The number of chains that perform the solution search in parallel.
+         */
+        @Param({"1", "2", "4"})
+        private int chains;
+
+        private CloudletToVmMappingSimulatedAnnealing heuristic;
+
+        @Setup(Level.Invocation)
+        public void doSetup(final CloudletToVmMappingSolutionBenchmark benchmark) {
+            heuristic = new CloudletToVmMappingSimulatedAnnealing(1, new UniformDistr(0, 1));
+            heuristic.setColdTemperature(0.0001);
+            heuristic.setCoolingRate(0.001);
+            heuristic.setCloudletList(benchmark.cloudletList);
+            heuristic.setVmList(benchmark.vmList);
+            heuristic.setChains(chains);
+        }
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.network;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.network.CloudletExecutionTask;
+import org.cloudbus.cloudsim.cloudlets.network.CloudletReceiveTask;
+import org.cloudbus.cloudsim.cloudlets.network.CloudletSendTask;
+import org.cloudbus.cloudsim.cloudlets.network.NetworkCloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.network.NetworkHost;
+import org.cloudbus.cloudsim.network.switches.AbstractSwitch;
+import org.cloudbus.cloudsim.network.switches.AggregateSwitch;
+import org.cloudbus.cloudsim.network.switches.EdgeSwitch;
+import org.cloudbus.cloudsim.network.switches.RootSwitch;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.vms.network.NetworkVm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A benchmark to measure the cost of forwarding packets through a 3-tier
+ * {@link RootSwitch}/{@link AggregateSwitch}/{@link EdgeSwitch} network,
+ * with and without {@link AbstractSwitch#isPacketBatchingEnabled() packet batching}.
+ * Each {@link NetworkCloudlet} in the first half of the Hosts sends
+ * {@link #packets} packets to a Cloudlet in the second half.
+ * Since batching sends all packets waiting in a switch port as a single event,
+ * the simulation time must be much lower when it is enabled.
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class NetworkSwitchBatching {
+    private static final int AGGREGATE_SWITCHES = 2;
+    private static final int EDGE_SWITCHES_BY_AGGREGATE = 4;
+    private static final int HOSTS_BY_EDGE_SWITCH = 4;
+    private static final int HOSTS = AGGREGATE_SWITCHES * EDGE_SWITCHES_BY_AGGREGATE * HOSTS_BY_EDGE_SWITCH;
+
+    private static final int HOST_PES = 4;
+    private static final int PE_MIPS = 1000;
+    private static final long PACKET_BYTES = 1000;
+    private static final long TASK_LENGTH = 1000;
+    private static final long TASK_MEMORY = 100;
+
+    @Param({"100", "1000"})
+    private int packets;
+
+    @Param({"false", "true"})
+    private boolean batching;
+
+    private CloudSim simulation;
+
+    @Setup(Level.Invocation)
+    public void doSetup() {
+        simulation = new CloudSim();
+        final List<Host> hostList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            hostList.add(createHost());
+        }
+
+        final NetworkDatacenter datacenter = new NetworkDatacenter(simulation, hostList, new VmAllocationPolicySimple());
+        createNetwork(datacenter);
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        final List<NetworkVm> vmList = new ArrayList<>(HOSTS);
+        final List<NetworkCloudlet> cloudletList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            final NetworkVm vm = new NetworkVm(i, PE_MIPS, HOST_PES);
+            vm.setRam(1024).setBw(1000).setSize(10000);
+            vmList.add(vm);
+
+            final NetworkCloudlet cloudlet = new NetworkCloudlet(i, TASK_LENGTH, HOST_PES);
+            cloudlet.setMemory(TASK_MEMORY).setVm(vm);
+            cloudletList.add(cloudlet);
+        }
+
+        final int half = HOSTS / 2;
+        for (int i = 0; i < half; i++) {
+            addTasks(cloudletList.get(i), cloudletList.get(i + half));
+        }
+
+        broker.submitVmList(vmList);
+        broker.submitCloudletList(cloudletList);
+    }
+
+    /**
+     * Runs the simulation until all Cloudlets finish.
+     * @return the final simulation time
+     */
+    @Benchmark
+    public double testSimulation() {
+        return simulation.start();
+    }
+
+    private void addTasks(final NetworkCloudlet sender, final NetworkCloudlet receiver) {
+        sender.addTask(new CloudletExecutionTask(0, TASK_LENGTH));
+        final CloudletSendTask sendTask = new CloudletSendTask(1);
+        sender.addTask(sendTask);
+        for (int i = 0; i < packets; i++) {
+            sendTask.addPacket(receiver, PACKET_BYTES);
+        }
+
+        receiver.addTask(new CloudletExecutionTask(0, TASK_LENGTH));
+        final CloudletReceiveTask receiveTask = new CloudletReceiveTask(1, sender.getVm());
+        receiveTask.setExpectedPacketsToReceive(packets);
+        receiver.addTask(receiveTask);
+    }
+
+    private void createNetwork(final NetworkDatacenter datacenter) {
+        final RootSwitch rootSwitch = new RootSwitch(simulation, datacenter);
+        rootSwitch.setPacketBatchingEnabled(batching);
+        datacenter.addSwitch(rootSwitch);
+
+        final List<NetworkHost> hostList = datacenter.getHostList();
+        int hostIndex = 0;
+        for (int i = 0; i < AGGREGATE_SWITCHES; i++) {
+            final AggregateSwitch aggregateSwitch = new AggregateSwitch(simulation, datacenter);
+            aggregateSwitch.setPacketBatchingEnabled(batching);
+            connect(rootSwitch, aggregateSwitch);
+            datacenter.addSwitch(aggregateSwitch);
+
+            for (int j = 0; j < EDGE_SWITCHES_BY_AGGREGATE; j++) {
+                final EdgeSwitch edgeSwitch = new EdgeSwitch(simulation, datacenter);
+                edgeSwitch.setPacketBatchingEnabled(batching);
+                connect(aggregateSwitch, edgeSwitch);
+                datacenter.addSwitch(edgeSwitch);
+
+                for (int k = 0; k < HOSTS_BY_EDGE_SWITCH; k++) {
+                    edgeSwitch.connectHost(hostList.get(hostIndex++));
+                }
+            }
+        }
+    }
+
+    private void connect(final AbstractSwitch uplinkSwitch, final AbstractSwitch downlinkSwitch) {
+        uplinkSwitch.getDownlinkSwitches().add(downlinkSwitch);
+        downlinkSwitch.getUplinkSwitches().add(uplinkSwitch);
+    }
+
+    private Host createHost() {
+        final List<Pe> peList = new ArrayList<>(HOST_PES);
+        for (int i = 0; i < HOST_PES; i++) {
+            peList.add(new PeSimple(PE_MIPS));
+        }
+
+        return new NetworkHost(16384, 100000, 1000000, peList);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.traces;
+
+import org.cloudbus.cloudsim.util.TraceReaderAbstract;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * A set of benchmarks to measure the time to read and split
+ * the lines of a trace file into fields.
+ * It compares the former approach of reading each line as a String and
+ * splitting it using a regular expression with the byte-level
+ * tokenizer used by {@link TraceReaderAbstract}.
+ *
+ * <p>The trace has {@link #lines} lines with 13 fields each (as a Google task events trace),
+ * delimited by a comma (as Google traces) or by whitespaces (as SWF traces).</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class TraceFileParsing {
+    private static final int FIELDS = 13;
+
+    @Param({"100000", "1000000"})
+    private int lines;
+
+    @Param({",", "\\s+"})
+    private String delimiterRegex;
+
+    private byte[] trace;
+
+    @Setup(Level.Trial)
+    public void doSetup() {
+        final Random random = new Random(1);
+        final String delimiter = ",".equals(delimiterRegex) ? "," : "   ";
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            for (int j = 0; j < FIELDS; j++) {
+                builder.append(j == 0 ? "" : delimiter).append(random.nextInt(1000000));
+            }
+
+            builder.append('\n');
+        }
+
+        trace = builder.toString().getBytes();
+    }
+
+    /**
+     * Reads the trace by creating a String for each line and splitting it
+     * using a regular expression.
+     * @return the number of fields read
+     */
+    @Benchmark
+    public long testRegexSplitting() throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(trace)));
+        long fields = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            fields += line.trim().split(delimiterRegex, -1).length;
+        }
+
+        return fields;
+    }
+
+    /**
+     * Reads the trace using the byte-level tokenizer from {@link TraceReaderAbstract}.
+     * @return the number of fields read
+     */
+    @Benchmark
+    public long testTokenizer() {
+        final FieldCountingReader reader = new FieldCountingReader(trace, delimiterRegex);
+        reader.read();
+        return reader.fields;
+    }
+
+    /**
+     * A {@link TraceReaderAbstract} that just counts the number of fields read.
+     */
+    private static final class FieldCountingReader extends TraceReaderAbstract {
+        private long fields;
+
+        private FieldCountingReader(final byte[] trace, final String delimiterRegex) {
+            super("trace.txt", new ByteArrayInputStream(trace));
+            setFieldDelimiterRegex(delimiterRegex);
+        }
+
+        private void read() {
+            final Function<String[], Boolean> counter = parsedLine -> {
+                fields += parsedLine.length;
+                return true;
+            };
+            readFile(counter);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package org.cloudbus.cloudsim.allocationpolicies;
+
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerSpaceShared;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.*;
+
+/**
+ * An index of the Hosts used by a {@link VmAllocationPolicyAbstract},
+ * which enables finding a suitable Host for a VM without
+ * checking every Host in the Datacenter.
+ *
+ * <p>Hosts are stored into buckets according to their active state and
+ * {@link Host#getFreePesNumber() number of free PEs}.
+ * Inside each bucket, Hosts are sorted by their position in the Datacenter's Host list.
+ * This way, the buckets can be traversed in the order a policy prefers Hosts
+ * (such as the ones with most or fewest free PEs first) and the first suitable Host found
+ * is exactly the one the policy would select by checking the entire Host list.</p>
+ *
+ * <p>A Host using a {@link VmSchedulerSpaceShared} can only be suitable for a VM
+ * if it has at least as many free PEs as the VM requires.
+ * Such Hosts are kept apart, so that the search starts at the first bucket having enough free PEs
+ * (a ceiling lookup), skipping every Host without enough free PEs, without even checking it.
+ * Hosts using other schedulers (such as time-shared ones) may be suitable for a VM
+ * even without enough free PEs, so they are always checked
+ * by calling {@link Host#isSuitableForVm(Vm)}, in the order the policy prefers.</p>
+ *
+ * <p>Only the number of free PEs is used as a key.
+ * RAM, bandwidth and storage aren't indexed, therefore,
+ * when such resources are what actually prevents placing a VM,
+ * the Hosts having enough free PEs are still checked one by one
+ * by calling {@link Host#isSuitableForVm(Vm)}, just as a linear search would.</p>
+ *
+ * <p>The index must be {@link #update(Host) updated} every time the number of free PEs,
+ * the active state or the {@link Host#getVmScheduler() VmScheduler} of a Host changes.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+final class HostCapacityIndex {
+    /**
+     * The key used to index a Host, storing the values of
+     * the Host's attributes at the time it was indexed.
+     */
+    private static final class Entry {
+        private final int position;
+        private boolean active;
+        private int freePes;
+
+        /**
+         * Indicates if the Host can only be suitable for a VM
+         * when it has at least the number of PEs required by the VM.
+         */
+        private boolean freePesRequired;
+
+        private Entry(final int position) {
+            this.position = position;
+        }
+    }
+
+    /**
+     * Traverses the Hosts inside a map of buckets, in the order of the buckets
+     * and then in the order of the Hosts' positions.
+     */
+    private static final class Cursor {
+        private final Iterator<Map.Entry<Integer, NavigableMap<Integer, Host>>> buckets;
+        private Iterator<Map.Entry<Integer, Host>> hosts = Collections.emptyIterator();
+        private Map.Entry<Integer, Host> current;
+        private int freePes;
+
+        private Cursor(final NavigableMap<Integer, NavigableMap<Integer, Host>> buckets) {
+            this.buckets = buckets.entrySet().iterator();
+            next();
+        }
+
+        private void next() {
+            while (!hosts.hasNext() && buckets.hasNext()) {
+                final Map.Entry<Integer, NavigableMap<Integer, Host>> bucket = buckets.next();
+                freePes = bucket.getKey();
+                hosts = bucket.getValue().entrySet().iterator();
+            }
+
+            current = hosts.hasNext() ? hosts.next() : null;
+        }
+
+        private boolean isFinished() {
+            return current == null;
+        }
+
+        private int getPosition() {
+            return current.getKey();
+        }
+
+        private Host getHost() {
+            return current.getValue();
+        }
+    }
+
+    private final Map<Host, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * Maps where each key is a number of free PEs and each value is another map
+     * containing the Hosts with that number of free PEs, sorted by their position in the Host list.
+     * There are maps for active and inactive Hosts, which are yet split into
+     * Hosts that require enough free PEs to be suitable for a VM and the other ones.
+     */
+    private final NavigableMap<Integer, NavigableMap<Integer, Host>> activeBuckets = new TreeMap<>();
+    private final NavigableMap<Integer, NavigableMap<Integer, Host>> inactiveBuckets = new TreeMap<>();
+    private final NavigableMap<Integer, NavigableMap<Integer, Host>> activeFreePesRequiredBuckets = new TreeMap<>();
+    private final NavigableMap<Integer, NavigableMap<Integer, Host>> inactiveFreePesRequiredBuckets = new TreeMap<>();
+
+    /**
+     * Creates an index for a given list of Hosts.
+     * @param hostList the list of Hosts to index
+     */
+    HostCapacityIndex(final List<? extends Host> hostList) {
+        for (int position = 0; position < hostList.size(); position++) {
+            final Host host = hostList.get(position);
+            final Entry entry = new Entry(position);
+            entries.put(host, entry);
+            add(host, entry);
+        }
+    }
+
+    /**
+     * Gets the number of indexed Hosts.
+     * @return
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Updates the position of a Host in the index
+     * if its number of free PEs, active state or VmScheduler has changed.
+     *
+     * @param host the Host to update
+     */
+    void update(final Host host) {
+        final Entry entry = entries.get(host);
+        if (entry == null ||
+            (entry.active == host.isActive() && entry.freePes == host.getFreePesNumber() &&
+             entry.freePesRequired == isFreePesRequired(host)))
+        {
+            return;
+        }
+
+        final NavigableMap<Integer, NavigableMap<Integer, Host>> buckets = getBuckets(entry.active, entry.freePesRequired);
+        final NavigableMap<Integer, Host> bucket = buckets.get(entry.freePes);
+        bucket.remove(entry.position);
+        if (bucket.isEmpty()) {
+            buckets.remove(entry.freePes);
+        }
+
+        add(host, entry);
+    }
+
+    private void add(final Host host, final Entry entry) {
+        entry.active = host.isActive();
+        entry.freePes = host.getFreePesNumber();
+        entry.freePesRequired = isFreePesRequired(host);
+        getBuckets(entry.active, entry.freePesRequired)
+            .computeIfAbsent(entry.freePes, freePes -> new TreeMap<>())
+            .put(entry.position, host);
+    }
+
+    /**
+     * Checks if a Host can only be suitable for a VM when it has at least the number of free PEs the VM requires.
+     * That is just assumed for the {@link VmSchedulerSpaceShared} itself (not its subclasses),
+     * which only allocates free PEs to VMs.
+     *
+     * @param host the Host to check
+     * @return true if the Host requires enough free PEs to be suitable for a VM, false otherwise
+     */
+    private static boolean isFreePesRequired(final Host host) {
+        return host.getVmScheduler().getClass() == VmSchedulerSpaceShared.class;
+    }
+
+    private NavigableMap<Integer, NavigableMap<Integer, Host>> getBuckets(final boolean active, final boolean freePesRequired) {
+        if (freePesRequired) {
+            return active ? activeFreePesRequiredBuckets : inactiveFreePesRequiredBuckets;
+        }
+
+        return active ? activeBuckets : inactiveBuckets;
+    }
+
+    /**
+     * Finds the first Host suitable for a given VM, traversing active Hosts before inactive ones.
+     * Hosts having the same active state are traversed according to their number of free PEs
+     * and then according to their position in the Host list.
+     * Hosts that require more free PEs than they have to be suitable for the VM are skipped.
+     *
+     * @param vm the VM to find a Host for
+     * @param mostFreePesFirst true to traverse Hosts with the most free PEs first,
+     *                         false to traverse Hosts with the fewest free PEs first
+     * @return an {@link Optional} containing the suitable Host found
+     *         or an empty {@link Optional} if no suitable Host was found
+     */
+    Optional<Host> findFirstSuitableHost(final Vm vm, final boolean mostFreePesFirst) {
+        //The number of PEs the VmScheduler checks when selecting free PEs for the VM
+        final int requiredPes = vm.getCurrentRequestedMips().size();
+        final Optional<Host> optional =
+            findFirstSuitableHost(activeFreePesRequiredBuckets, activeBuckets, vm, requiredPes, mostFreePesFirst);
+        return optional.isPresent() ?
+                    optional :
+                    findFirstSuitableHost(inactiveFreePesRequiredBuckets, inactiveBuckets, vm, requiredPes, mostFreePesFirst);
+    }
+
+    /**
+     * Finds the first suitable Host for a VM, merging Hosts requiring free PEs
+     * (starting at the first bucket with enough free PEs)
+     * with the other ones, in the order the policy prefers.
+     */
+    private static Optional<Host> findFirstSuitableHost(
+        final NavigableMap<Integer, NavigableMap<Integer, Host>> freePesRequiredBuckets,
+        final NavigableMap<Integer, NavigableMap<Integer, Host>> buckets,
+        final Vm vm, final int requiredPes, final boolean mostFreePesFirst)
+    {
+        final NavigableMap<Integer, NavigableMap<Integer, Host>> enoughPesBuckets = freePesRequiredBuckets.tailMap(requiredPes, true);
+        final Cursor pruned = new Cursor(mostFreePesFirst ? enoughPesBuckets.descendingMap() : enoughPesBuckets);
+        final Cursor all = new Cursor(mostFreePesFirst ? buckets.descendingMap() : buckets);
+        while (!pruned.isFinished() || !all.isFinished()) {
+            final Cursor cursor = isNext(pruned, all, mostFreePesFirst) ? pruned : all;
+            final Host host = cursor.getHost();
+            if (host.isSuitableForVm(vm)) {
+                return Optional.of(host);
+            }
+
+            cursor.next();
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Checks if the current Host of a cursor comes before the current Host of another one,
+     * considering the order of free PEs the policy prefers and then the Hosts' positions.
+     */
+    private static boolean isNext(final Cursor cursor, final Cursor other, final boolean mostFreePesFirst) {
+        if (cursor.isFinished() || other.isFinished()) {
+            return other.isFinished();
+        }
+
+        if (cursor.freePes != other.freePes) {
+            return mostFreePesFirst == cursor.freePes > other.freePes;
+        }
+
+        return cursor.getPosition() < other.getPosition();
+    }
+}
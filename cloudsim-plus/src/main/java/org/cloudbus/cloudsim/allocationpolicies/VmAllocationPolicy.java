@@ -103,6 +103,23 @@ public interface VmAllocationPolicy {
      */
     void deallocateHostForVm(Vm vm);
 
+    /**
+     * Notifies the policy that the number of free PEs, the active state
+     * or the VmScheduler of a given Host has changed, so that the policy can update
+     * any index it may use to find Hosts for VMs.
+     * This method is called by the Host itself and does nothing by default.
+     *
+     * @param host the Host whose capacity has changed
+     */
+    default void notifyHostCapacityChange(Host host) {/**/}
+
+    /**
+     * Notifies the policy that Hosts were added to or removed from its {@link Datacenter},
+     * so that the policy can rebuild any index it may use to find Hosts for VMs.
+     * This method is called by the Datacenter itself and does nothing by default.
+     */
+    default void notifyHostListChange() {/**/}
+
     /**
      * Sets a {@link BiFunction} that selects a Host for a given Vm.
      * This Function receives the current VmAllocationPolicy and the
@@ -10,6 +10,7 @@ package org.cloudbus.cloudsim.allocationpolicies;
 import org.cloudbus.cloudsim.allocationpolicies.migration.VmAllocationPolicyMigration;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
 import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
 import org.cloudbus.cloudsim.provisioners.ResourceProvisioner;
 import org.cloudbus.cloudsim.resources.Pe;
 import org.cloudbus.cloudsim.resources.Processor;
@@ -60,6 +61,21 @@ public abstract class VmAllocationPolicyAbstract implements VmAllocationPolicy {
     /**@see #getHostCountForParallelSearch() */
     private int hostCountForParallelSearch;
 
+    /**
+     * An index of the Hosts by their active state and number of free PEs,
+     * which is just created when a subclass finds a Host for a VM
+     * by calling {@link #findFirstSuitableHost(Vm, boolean)}.
+     * It's null if the index wasn't created yet or if the Hosts cannot be indexed.
+     * @see #isHostCapacityIndexAvailable()
+     */
+    private HostCapacityIndex hostCapacityIndex;
+
+    /**
+     * The number of Hosts in the {@link #getHostList()} when it was checked that
+     * the Hosts cannot be indexed, or -1 if such a check wasn't performed.
+     */
+    private int unindexableHostsCount = -1;
+
     /**
      * Creates a VmAllocationPolicy.
      */
@@ -97,6 +113,7 @@ public abstract class VmAllocationPolicyAbstract implements VmAllocationPolicy {
     @Override
     public final void setDatacenter(final Datacenter datacenter) {
         this.datacenter = requireNonNull(datacenter);
+        notifyHostListChange();
     }
 
     @Override
@@ -324,6 +341,86 @@ public abstract class VmAllocationPolicyAbstract implements VmAllocationPolicy {
         vm.getHost().destroyVm(vm);
     }
 
+    @Override
+    public void notifyHostCapacityChange(final Host host) {
+        if(hostCapacityIndex != null) {
+            hostCapacityIndex.update(host);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The Host index is discarded and lazily rebuilt
+     * the next time a Host is searched for a VM.
+     */
+    @Override
+    public void notifyHostListChange() {
+        this.hostCapacityIndex = null;
+        this.unindexableHostsCount = -1;
+    }
+
+    /**
+     * Checks if the Hosts can be found using a {@link HostCapacityIndex},
+     * creating the index if it wasn't created yet or the number of Hosts has changed.
+     * The index is discarded every time a Host is added to or removed from the Datacenter
+     * and it is updated every time a Host {@link #notifyHostCapacityChange(Host) notifies its capacity has changed}.
+     * Hosts are just indexed if they are all {@link HostSimple} instances belonging to the
+     * {@link #getDatacenter() Datacenter} which uses this policy,
+     * since such Hosts {@link #notifyHostCapacityChange(Host) notify} the policy
+     * when their capacity changes, enabling the index to be kept up-to-date.
+     *
+     * @return true if the index can be used, false otherwise
+     * @see #findFirstSuitableHost(Vm, boolean)
+     */
+    protected final boolean isHostCapacityIndexAvailable() {
+        final List<Host> hostList = getHostList();
+        if(hostCapacityIndex != null && hostCapacityIndex.size() == hostList.size()){
+            return true;
+        }
+
+        if(unindexableHostsCount == hostList.size()){
+            return false;
+        }
+
+        if(isHostListIndexable(hostList)) {
+            hostCapacityIndex = new HostCapacityIndex(hostList);
+            unindexableHostsCount = -1;
+            return true;
+        }
+
+        hostCapacityIndex = null;
+        unindexableHostsCount = hostList.size();
+        return false;
+    }
+
+    private boolean isHostListIndexable(final List<Host> hostList) {
+        for (final Host host : hostList) {
+            if(!(host instanceof HostSimple) || host.getDatacenter() != datacenter){
+                return false;
+            }
+        }
+
+        return datacenter.getVmAllocationPolicy() == this;
+    }
+
+    /**
+     * Finds the first suitable Host for a given VM using the {@link HostCapacityIndex}.
+     * Active Hosts are checked before inactive ones. Then, Hosts are checked according to
+     * their number of free PEs and finally according to their position in the {@link #getHostList()}.
+     * This way, the Host returned is the same one that would be found by traversing the entire Host list
+     * and selecting the suitable Host with the maximum (or minimum) number of free PEs.
+     *
+     * <p>This method must only be called if {@link #isHostCapacityIndexAvailable()} returns true.</p>
+     *
+     * @param vm the VM to find a Host for
+     * @param mostFreePesFirst true to select the Host with the most free PEs,
+     *                         false to select the Host with the fewest free PEs
+     * @return an {@link Optional} containing a suitable Host to place the VM or an empty {@link Optional} if not found
+     */
+    protected final Optional<Host> findFirstSuitableHost(final Vm vm, final boolean mostFreePesFirst) {
+        return hostCapacityIndex.findFirstSuitableHost(vm, mostFreePesFirst);
+    }
+
     /**
      * {@inheritDoc}
      * The default implementation of such a Function is provided by the method {@link #findHostForVm(Vm)}.
@@ -35,9 +35,12 @@ import java.util.stream.Stream;
  * the host for a VM, that one with the most number of PEs in use,
  * which are enough for a VM.
  *
- * <p>This is a really computationally complex policy since the worst-case complexity
- * to allocate a Host for a VM is O(N), where N is the number of Hosts.
- * Such an implementation is not appropriate for large scale scenarios.</p>
+ * <p>The worst-case complexity to allocate a Host for a VM is O(N), where N is the number of Hosts.
+ * However, Hosts are indexed by their active state and number of free PEs,
+ * so that Hosts using a {@link org.cloudbus.cloudsim.schedulers.vm.VmSchedulerSpaceShared}
+ * which don't have enough free PEs for the VM are skipped, in logarithmic time.
+ * Then, just the Hosts having fewer free PEs than the selected one are checked
+ * (usually only a few ones).</p>
  *
  * <p><b>NOTE: This policy doesn't perform optimization of VM allocation by means of VM migration.</b></p>
  *
@@ -55,6 +58,10 @@ public class VmAllocationPolicyBestFit extends VmAllocationPolicyAbstract {
      */
     @Override
     protected Optional<Host> defaultFindHostForVm(final Vm vm) {
+        if(isHostCapacityIndexAvailable()){
+            return findFirstSuitableHost(vm, false);
+        }
+
         /* Since it's being used the min operation, the active comparator must be reversed so that
          * we get active hosts with minimum number of free PEs. */
         final Comparator<Host> activeComparator = Comparator.comparing(Host::isActive).reversed();
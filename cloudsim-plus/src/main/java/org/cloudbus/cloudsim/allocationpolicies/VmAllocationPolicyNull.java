@@ -33,6 +33,7 @@ final class VmAllocationPolicyNull implements VmAllocationPolicy {
         return false;
     }
     @Override public void deallocateHostForVm(Vm vm) {/**/}
+    @Override public void notifyHostCapacityChange(Host host) {/**/}
     @Override public List<Host> getHostList() { return Collections.emptyList(); }
     @Override public Map<Vm, Host> getOptimizedAllocationMap(List<? extends Vm> vmList) { return Collections.emptyMap(); }
     @Override public Optional<Host> findHostForVm(Vm vm) { return Optional.empty(); }
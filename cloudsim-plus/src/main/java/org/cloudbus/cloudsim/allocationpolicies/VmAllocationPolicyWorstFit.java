@@ -35,9 +35,12 @@ import java.util.stream.Stream;
  * the host for a VM, that one with the least number of PEs in use,
  * which are enough for the VM.
  *
- * <p>This is a really computationally complex policy since the worst-case complexity
- * to allocate a Host for a VM is O(N), where N is the number of Hosts.
- * Such an implementation is not appropriate for large scale scenarios.
+ * <p>The worst-case complexity to allocate a Host for a VM is O(N), where N is the number of Hosts.
+ * However, Hosts are indexed by their active state and number of free PEs,
+ * so that Hosts using a {@link org.cloudbus.cloudsim.schedulers.vm.VmSchedulerSpaceShared}
+ * which don't have enough free PEs for the VM are skipped, in logarithmic time.
+ * Then, just the Hosts having more free PEs than the selected one are checked
+ * (usually only a few ones).
  * <b>Additionally, such a policy may increase resource idleness.</b></p>
  *
  * <p><b>NOTE: This policy doesn't perform optimization of VM allocation by means of VM migration.</b></p>
@@ -56,6 +59,10 @@ public class VmAllocationPolicyWorstFit extends VmAllocationPolicyAbstract {
      */
     @Override
     protected Optional<Host> defaultFindHostForVm(final Vm vm) {
+        if(isHostCapacityIndexAvailable()){
+            return findFirstSuitableHost(vm, true);
+        }
+
         final Comparator<Host> activeComparator = Comparator.comparing(Host::isActive);
         final Comparator<Host> comparator = activeComparator.thenComparingLong(Host::getFreePesNumber);
 
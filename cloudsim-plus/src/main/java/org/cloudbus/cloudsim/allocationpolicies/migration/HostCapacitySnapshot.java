@@ -0,0 +1,191 @@
+package org.cloudbus.cloudsim.allocationpolicies.migration;
+
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerSpaceShared;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A lightweight snapshot of the capacity and load of the Hosts used by a
+ * {@link VmAllocationPolicyMigrationAbstract} to plan VM migrations
+ * without temporarily creating VMs into the actual Hosts.
+ *
+ * <p>The first time a Host is evaluated, the snapshot stores its available resources,
+ * the MIPS requested and used by the VMs currently placed into it and its
+ * {@link VmAllocationPolicyMigration#getOverUtilizationThreshold(Host) over utilization threshold}.
+ * Then, every time a VM is {@link #addVm(Host, Vm) planned} to be migrated into a Host,
+ * only the snapshot of that Host is updated to consider the resources such a VM will use.</p>
+ *
+ * <p>While no VM is planned to be placed into a Host, {@link Host#isSuitableForVm(Vm)} is used to
+ * check if a VM fits into it. After that, the snapshot also checks if the remaining RAM, BW, storage and PEs
+ * are enough for the VM. The remaining PEs are checked according to the Host's VmScheduler:
+ * the number of free PEs for a {@link VmSchedulerSpaceShared}
+ * and the available MIPS for a {@link VmSchedulerTimeShared}.
+ * Other VmSchedulers are just checked by {@link Host#isSuitableForVm(Vm)}.</p>
+ *
+ * <p>Hosts can be evaluated in parallel, since the entries are created on demand inside a concurrent map
+ * and a VM is never planned to be placed into a Host while Hosts are being evaluated.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+final class HostCapacitySnapshot {
+    /**
+     * The values stored for a Host, which are updated as VMs are planned to be placed into it.
+     */
+    private static final class Entry {
+        private final double totalMipsCapacity;
+        private final double overUtilizationThreshold;
+        private double requestedMips;
+        private double utilizationMips;
+        private double availableMips;
+        private long freePes;
+        private long availableRam;
+        private long availableBw;
+        private long availableStorage;
+
+        /**
+         * The number of VMs planned to be placed into the Host.
+         */
+        private int plannedVms;
+
+        private Entry(final VmAllocationPolicyMigrationAbstract policy, final Host host) {
+            this.totalMipsCapacity = host.getTotalMipsCapacity();
+            this.overUtilizationThreshold = policy.getOverUtilizationThreshold(host);
+            this.requestedMips = policy.getHostTotalRequestedMips(host);
+            this.utilizationMips = policy.getUtilizationOfCpuMips(host);
+            this.availableMips = host.getTotalAvailableMips();
+            this.freePes = host.getFreePesNumber();
+            this.availableRam = host.getRam().getAvailableResource();
+            this.availableBw = host.getBw().getAvailableResource();
+            this.availableStorage = host.getAvailableStorage();
+        }
+    }
+
+    private final VmAllocationPolicyMigrationAbstract policy;
+    private final Map<Host, Entry> entries;
+
+    /**
+     * Creates an empty snapshot, whose entries are created as Hosts are evaluated.
+     * @param policy the policy the snapshot is used by
+     */
+    HostCapacitySnapshot(final VmAllocationPolicyMigrationAbstract policy) {
+        this.policy = policy;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+    private Entry getEntry(final Host host) {
+        return entries.computeIfAbsent(host, h -> new Entry(policy, h));
+    }
+
+    /**
+     * Checks if a Host is suitable for a given VM,
+     * considering the resources used by the VMs planned to be placed into it.
+     *
+     * @param host the Host to check
+     * @param vm the VM to check if it fits into the Host
+     * @return true if the VM fits into the Host's remaining resources, false otherwise
+     */
+    boolean isSuitableForVm(final Host host, final Vm vm) {
+        if (!host.isSuitableForVm(vm)) {
+            return false;
+        }
+
+        final Entry entry = getEntry(host);
+        if (entry.plannedVms == 0) {
+            return true;
+        }
+
+        return entry.availableRam >= vm.getCurrentRequestedRam() &&
+               entry.availableBw >= vm.getCurrentRequestedBw() &&
+               entry.availableStorage >= vm.getStorage().getCapacity() &&
+               hasPesForVm(host, entry, vm);
+    }
+
+    /**
+     * Checks if the PEs of a Host not yet used by the VMs planned to be placed into it
+     * are enough for a given VM, as the Host's VmScheduler would do.
+     */
+    private boolean hasPesForVm(final Host host, final Entry entry, final Vm vm) {
+        final Class<?> schedulerClass = host.getVmScheduler().getClass();
+        if (schedulerClass == VmSchedulerSpaceShared.class) {
+            return entry.freePes >= vm.getNumberOfPes();
+        }
+
+        if (schedulerClass == VmSchedulerTimeShared.class) {
+            return entry.availableMips >= vm.getCurrentRequestedTotalMips();
+        }
+
+        return true;
+    }
+
+    /**
+     * Gets the percentage of the Host's MIPS capacity requested by its VMs,
+     * including the ones planned to be placed into it.
+     *
+     * @param host the Host to get the requested MIPS percentage
+     * @return the requested MIPS percentage (in scale from 0 to 1)
+     */
+    double getCpuPercentRequested(final Host host) {
+        final Entry entry = getEntry(host);
+        return entry.requestedMips / entry.totalMipsCapacity;
+    }
+
+    /**
+     * Gets the percentage of the Host's MIPS capacity that will be requested
+     * if a given VM is placed into it, considering the VM will request its entire capacity,
+     * as a newly created VM does.
+     *
+     * @param host the Host to get the requested MIPS percentage
+     * @param vm the VM that may be placed into the Host
+     * @return the requested MIPS percentage (in scale from 0 to 1)
+     */
+    double getCpuPercentRequested(final Host host, final Vm vm) {
+        final Entry entry = getEntry(host);
+        return (entry.requestedMips + vm.getTotalMipsCapacity()) / entry.totalMipsCapacity;
+    }
+
+    /**
+     * Gets the utilization of the Host's CPU in MIPS, including the VMs planned to be placed into it.
+     * @param host the Host to get the CPU utilization
+     * @return the utilization of the CPU in MIPS
+     * @see VmAllocationPolicyMigrationAbstract#getUtilizationOfCpuMips(Host)
+     */
+    double getUtilizationOfCpuMips(final Host host) {
+        return getEntry(host).utilizationMips;
+    }
+
+    /**
+     * Gets the over utilization threshold of a Host,
+     * which is computed just once for each snapshot.
+     *
+     * @param host the Host to get the threshold
+     * @return the over utilization threshold
+     */
+    double getOverUtilizationThreshold(final Host host) {
+        return getEntry(host).overUtilizationThreshold;
+    }
+
+    /**
+     * Updates the snapshot of a Host to consider the resources a VM
+     * planned to be placed into it will use.
+     *
+     * @param host the Host the VM is planned to be placed into
+     * @param vm the VM to add to the Host's snapshot
+     */
+    void addVm(final Host host, final Vm vm) {
+        final Entry entry = getEntry(host);
+        final double mips = vm.getCurrentRequestedTotalMips();
+        entry.plannedVms++;
+        entry.requestedMips += mips;
+        entry.utilizationMips += mips;
+        entry.availableMips -= mips;
+        entry.freePes -= Math.min(entry.freePes, vm.getNumberOfPes());
+        entry.availableRam -= vm.getCurrentRequestedRam();
+        entry.availableBw -= vm.getCurrentRequestedBw();
+        entry.availableStorage -= vm.getStorage().getCapacity();
+    }
+}
@@ -59,9 +59,12 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
     private VmSelectionPolicy vmSelectionPolicy;
 
     /**
-     * A map between a VM and the host where it is placed.
+     * A snapshot of the Hosts' capacity used to plan VM placements
+     * without temporarily creating VMs into the candidate Hosts.
+     * A new snapshot is created every time a new placement has to be planned
+     * and it's discarded (set to null) when the planning finishes.
      */
-    private final Map<Vm, Host> savedAllocation;
+    private HostCapacitySnapshot snapshot;
 
     /** @see #areHostsUnderloaded() */
     private boolean hostsUnderloaded;
@@ -95,7 +98,6 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
     {
         super(findHostForVmFunction);
         this.underUtilizationThreshold = DEF_UNDER_UTILIZATION_THRESHOLD;
-        this.savedAllocation = new HashMap<>();
         setVmSelectionPolicy(vmSelectionPolicy);
     }
 
@@ -105,16 +107,39 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
         final Set<Host> overloadedHosts = getOverloadedHosts();
         this.hostsOverloaded = !overloadedHosts.isEmpty();
         printOverUtilizedHosts(overloadedHosts);
-        saveAllocation();
 
-        final Map<Vm, Host> migrationMap = getMigrationMapFromOverloadedHosts(overloadedHosts);
-        updateMigrationMapFromUnderloadedHosts(overloadedHosts, migrationMap);
-        if(migrationMap.isEmpty()){
+        this.snapshot = new HostCapacitySnapshot(this);
+        try {
+            /*The VMs selected to be migrated from overloaded Hosts are temporarily destroyed
+            into such Hosts until the planning finishes.*/
+            final List<Vm> vmsFromOverloadedHosts = getVmsToMigrateFromOverloadedHosts(overloadedHosts);
+            final Map<Vm, Host> migrationMap = getMigrationMapFromOverloadedHosts(overloadedHosts, vmsFromOverloadedHosts);
+            updateMigrationMapFromUnderloadedHosts(overloadedHosts, migrationMap);
+            if(migrationMap.isEmpty()){
+                return migrationMap;
+            }
+
+            restoreAllocation(vmsFromOverloadedHosts);
             return migrationMap;
+        } finally {
+            this.snapshot = null;
         }
+    }
 
-        restoreAllocation();
-        return migrationMap;
+    /**
+     * Places back the VMs which were temporarily destroyed into their overloaded Hosts,
+     * while selecting VMs to migrate.
+     * Since VMs planned to be migrated are just added to the {@link #snapshot}, the other Hosts don't need to be restored.
+     *
+     * @param vmsFromOverloadedHosts the VMs selected to migrate from overloaded Hosts
+     */
+    private void restoreAllocation(final List<Vm> vmsFromOverloadedHosts) {
+        for (final Vm vm : vmsFromOverloadedHosts) {
+            if (!vm.getHost().createTemporaryVm(vm)) {
+                LOGGER.error("VmAllocationPolicy: Couldn't restore {} on {}", vm, vm.getHost());
+                return;
+            }
+        }
     }
 
     /**
@@ -134,9 +159,8 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
 
         /*
         During the computation of the new placement for VMs,
-        the current VM placement is changed temporarily, before the actual migration of VMs.
-        If VMs are being migrated from overloaded Hosts, they in fact already were removed
-        from such Hosts and moved to destination ones.
+        the VMs from overloaded Hosts are planned to be moved to destination ones,
+        before the actual migration of VMs.
         The target Host that maybe was shut down, might become underloaded too.
         This way, such Hosts are added to be ignored when
         looking for underloaded Hosts.
@@ -147,17 +171,17 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
         // overloaded + underloaded hosts
         final Set<Host> ignoredTargetHosts = getIgnoredHosts(overloadedHosts, switchedOffHosts);
 
-        final int numberOfHosts = getHostList().size();
+        /*
+        Since the Hosts aren't changed during planning, the underloaded ones are got just once,
+        sorted from the most to the least underloaded.
+        The ones which become ignored as VMs are planned to be migrated to them are just skipped.
+        */
+        final List<Host> underloadedHosts = getUnderloadedHosts(ignoredSourceHosts);
 
         this.hostsUnderloaded = false;
-        while (true) {
-            if (numberOfHosts == ignoredSourceHosts.size()) {
-                break;
-            }
-
-            final Host underloadedHost = getUnderloadedHost(ignoredSourceHosts);
-            if (underloadedHost == Host.NULL) {
-                break;
+        for (final Host underloadedHost : underloadedHosts) {
+            if (ignoredSourceHosts.contains(underloadedHost)) {
+                continue;
             }
             this.hostsUnderloaded = true;
 
@@ -232,24 +256,27 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
     }
 
     /**
-     * Checks if a host will be over utilized after placing of a candidate VM.
+     * Checks if a host will not be over utilized after placing of a candidate VM,
+     * considering the VMs already planned to be placed into it.
      *
      * @param host the host to verify
      * @param vm the candidate vm
-     * @return true, if the host will be over utilized after VM placement;
+     * @return true, if the host will not be over utilized after VM placement;
      *         false otherwise
      */
     private boolean isNotHostOverloadedAfterAllocation(final Host host, final Vm vm) {
-        final Vm tempVm = new VmSimple(vm);
-
-        if (!host.createTemporaryVm(tempVm)) {
-            return false;
-        }
+        return snapshot.isSuitableForVm(host, vm) &&
+               snapshot.getCpuPercentRequested(host, vm) <= snapshot.getOverUtilizationThreshold(host);
+    }
 
-        final double usagePercent = getHostCpuPercentRequested(host);
-        final boolean notOverloadedAfterAllocation = !isHostOverloaded(host, usagePercent);
-        host.destroyTemporaryVm(tempVm);
-        return notOverloadedAfterAllocation;
+    /**
+     * Checks if a host is under utilized, considering the VMs planned to be placed into it.
+     *
+     * @param host the host
+     * @return true, if the host is under utilized; false otherwise
+     */
+    private boolean isHostUnderloadedAfterAllocation(final Host host) {
+        return snapshot.getCpuPercentRequested(host) < getUnderUtilizationThreshold();
     }
 
     /**
@@ -298,7 +325,12 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
     protected Optional<Host> defaultFindHostForVm(final Vm vm) {
         final Set<Host> excludedHosts = new HashSet<>();
         excludedHosts.add(vm.getHost());
-        return findHostForVm(vm, excludedHosts);
+        this.snapshot = new HostCapacitySnapshot(this);
+        try {
+            return findHostForVm(vm, excludedHosts);
+        } finally {
+            this.snapshot = null;
+        }
     }
 
     /**
@@ -326,7 +358,9 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
      * one with most efficient power usage for the given VM.
      *
      * <p>This method performs the basic filtering and delegates additional ones
-     * and the final selection of the Host to other method.</p>
+     * and the final selection of the Host to other method.
+     * The Hosts are evaluated in parallel if the {@link #isParallelHostSearchEnabled() parallel search}
+     * is enabled.</p>
      *
      * @param vm the VM
      * @param excludedHosts the excluded hosts
@@ -336,10 +370,12 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
      * @see #findHostForVmInternal(Vm, Stream)
      */
     private Optional<Host> findHostForVm(final Vm vm, final Set<? extends Host> excludedHosts, final Predicate<Host> predicate) {
-        final Stream<Host> stream = this.getHostList().stream()
+        //A copy of the VM requesting its entire capacity, as a newly created VM does
+        final Vm tempVm = new VmSimple(vm);
+        final Stream<Host> stream = getHostStream()
             .filter(host -> !excludedHosts.contains(host))
             .filter(host -> host.isSuitableForVm(vm))
-            .filter(host -> isNotHostOverloadedAfterAllocation(host, vm))
+            .filter(host -> isNotHostOverloadedAfterAllocation(host, tempVm))
             .filter(predicate);
 
         return findHostForVmInternal(vm, stream);
@@ -378,15 +414,15 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
      * from overloaded Hosts.
      *
      * @param overloadedHosts the list of overloaded Hosts
+     * @param vmsToMigrate the VMs selected to migrate from the overloaded Hosts
      * @return the new VM placement map where each key is a VM
      * and each value is the Host to place it.
      */
-    private Map<Vm, Host> getMigrationMapFromOverloadedHosts(final Set<Host> overloadedHosts) {
+    private Map<Vm, Host> getMigrationMapFromOverloadedHosts(final Set<Host> overloadedHosts, final List<Vm> vmsToMigrate) {
         if(overloadedHosts.isEmpty()) {
             return  new HashMap<>();
         }
 
-        final List<Vm> vmsToMigrate = getVmsToMigrateFromOverloadedHosts(overloadedHosts);
         sortByCpuUtilization(vmsToMigrate, getDatacenter().getSimulation().clock());
         final Map<Vm, Host> migrationMap = new HashMap<>();
 
@@ -428,7 +464,7 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
         sortByCpuUtilization(vmsToMigrate, getDatacenter().getSimulation().clock());
         for (final Vm vm : vmsToMigrate) {
             //try to find a target Host to place a VM from an underloaded Host that is not underloaded too
-            final Optional<Host> optional = findHostForVm(vm, excludedHosts, host -> !isHostUnderloaded(host));
+            final Optional<Host> optional = findHostForVm(vm, excludedHosts, host -> !isHostUnderloadedAfterAllocation(host));
             if (!optional.isPresent()) {
                 LOGGER.warn(
                     "{}: VmAllocationPolicy: A new Host, which isn't also underloaded or won't be overloaded, couldn't be found to migrate {}. Migration of VMs from the underloaded {} cancelled.",
@@ -454,13 +490,13 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
 
     private <T extends Host> void addVmToMigrationMap(final Map<Vm, T> migrationMap, final Vm vm, final T targetHost) {
         /*
-        Temporarily creates the VM into the target Host so that
+        Adds the VM to the target Host's snapshot so that
         when the next VM is got to be migrated, if the same Host
         is selected as destination, the resource to be
         used by the previous VM will be considered when
         assessing the suitability of such a Host for the next VM.
          */
-        targetHost.createTemporaryVm(vm);
+        snapshot.addVm(targetHost, vm);
         migrationMap.put(vm, targetHost);
     }
 
@@ -533,14 +569,14 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
      * @return the over utilized hosts
      */
     private Set<Host> getOverloadedHosts() {
-        return this.getHostList().stream()
+        return getHostStream()
             .filter(this::isHostOverloaded)
             .filter(host -> host.getVmsMigratingOut().isEmpty())
             .collect(toSet());
     }
 
     /**
-     * Gets the most underloaded Host.
+     * Gets the underloaded Hosts, sorted from the most to the least underloaded.
      * If a Host is underloaded but it has VMs migrating in,
      * then it's not included in the returned List
      * because the VMs to be migrated to move the Host from
@@ -549,18 +585,31 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
      * done anymore. It just has to wait the VMs to finish
      * the migration.
      *
-     * @param excludedHosts the Hosts that have to be ignored when looking for the under utilized Host
-     * @return the most under utilized host or {@link Host#NULL} if no Host is found
+     * @param excludedHosts the Hosts that have to be ignored when looking for the under utilized Hosts
+     * @return the list of under utilized Hosts
      */
-    private Host getUnderloadedHost(final Set<? extends Host> excludedHosts) {
-        return this.getHostList().stream()
+    private List<Host> getUnderloadedHosts(final Set<? extends Host> excludedHosts) {
+        return getHostStream()
             .filter(host -> !excludedHosts.contains(host))
             .filter(Host::isActive)
             .filter(this::isHostUnderloaded)
             .filter(host -> host.getVmsMigratingIn().isEmpty())
             .filter(this::notAllVmsAreMigratingOut)
-            .min(comparingDouble(Host::getCpuPercentUtilization))
-            .orElse(Host.NULL);
+            .sorted(comparingDouble(Host::getCpuPercentUtilization))
+            .collect(toList());
+    }
+
+    /**
+     * Gets a Stream of the Hosts, which is parallel if the
+     * {@link #isParallelHostSearchEnabled() parallel search} is enabled.
+     * Since Hosts aren't changed while they are being evaluated, they can be evaluated in parallel.
+     * The encounter order is kept, so that the results are the same as when Hosts are evaluated sequentially.
+     *
+     * @return the Host Stream
+     */
+    private Stream<Host> getHostStream() {
+        final List<Host> hostList = getHostList();
+        return isParallelHostSearchEnabled() ? hostList.parallelStream() : hostList.stream();
     }
 
     private double getHostCpuPercentRequested(final Host host) {
@@ -572,7 +621,7 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
      * @param host
      * @return
      */
-    private double getHostTotalRequestedMips(final Host host) {
+    double getHostTotalRequestedMips(final Host host) {
         return host.getVmList().stream()
             .mapToDouble(Vm::getCurrentRequestedTotalMips)
             .sum();
@@ -590,48 +639,6 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
         return host.getVmList().stream().anyMatch(vm -> !vm.isInMigration());
     }
 
-    /**
-     * Saves the current map between a VM and the host where it is placed.
-     *
-     * @see #savedAllocation
-     */
-    private void saveAllocation() {
-        savedAllocation.clear();
-        for (final Host host : getHostList()) {
-            for (final Vm vm : host.getVmList()) {
-                /* TODO: this VM loop has a quadratic wost-case complexity (when
-                    all Vms already in the VM list are migrating into this Host).
-                *  Instead of looping over the vmsMigratingIn list for every VM,
-                *  we could add a Host migratingIn attribute to the Vm.
-                * Then, for every VM on the Host, we check this VM attribute
-                * to see if the VM is migrating into the Host. */
-                if (!host.getVmsMigratingIn().contains(vm)) {
-                    savedAllocation.put(vm, host);
-                }
-            }
-        }
-    }
-
-    /**
-     * Restore VM allocation from the allocation history.
-     *
-     * @see #savedAllocation
-     */
-    private void restoreAllocation() {
-        for (final Host host : getHostList()) {
-            host.destroyAllVms();
-            host.reallocateMigratingInVms();
-        }
-
-        for (final Vm vm : savedAllocation.keySet()) {
-            final Host host = savedAllocation.get(vm);
-            if (!host.createTemporaryVm(vm)) {
-                LOGGER.error("VmAllocationPolicy: Couldn't restore {} on {}", vm, host);
-                return;
-            }
-        }
-    }
-
     /**
      * Gets the power consumption of a host after the supposed placement of a candidate VM.
      * The VM is not in fact placed at the host.
@@ -654,7 +661,9 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
 
     /**
      * Gets the max power consumption of a host after placement of a candidate
-     * VM. The VM is not in fact placed at the host. We assume that load is
+     * VM, considering the VMs already planned to be placed into it
+     * (if this method is called while VM placements are being planned).
+     * The VM is not in fact placed at the host. We assume that load is
      * balanced between PEs. The only restriction is: VM's max MIPS less than PE's MIPS
      *
      * @param host the host
@@ -663,7 +672,7 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
      */
     protected double getMaxUtilizationAfterAllocation(final Host host, final Vm vm) {
         final double requestedTotalMips = vm.getCurrentRequestedTotalMips();
-        final double hostUtilizationMips = getUtilizationOfCpuMips(host);
+        final double hostUtilizationMips = snapshot == null ? getUtilizationOfCpuMips(host) : snapshot.getUtilizationOfCpuMips(host);
         final double hostPotentialMipsUse = hostUtilizationMips + requestedTotalMips;
         return hostPotentialMipsUse / host.getTotalMipsCapacity();
     }
@@ -731,9 +740,10 @@ public abstract class VmAllocationPolicyMigrationAbstract extends VmAllocationPo
      * as an array.
      * @param host the Host to get the CPU utilization values
      * @return the utilization values array
+     * @see Host#getUtilizationHistorySumArray()
      */
     protected double[] getHostCpuUsageArray(final Host host) {
-        return host.getUtilizationHistorySum().values().stream().mapToDouble(cpuUsage -> cpuUsage).toArray();
+        return host.getUtilizationHistorySumArray();
     }
 
     @Override
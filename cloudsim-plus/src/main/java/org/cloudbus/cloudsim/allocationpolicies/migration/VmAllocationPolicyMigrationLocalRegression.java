@@ -14,10 +14,6 @@ import org.cloudbus.cloudsim.selectionpolicies.VmSelectionPolicy;
 import org.cloudbus.cloudsim.util.MathUtil;
 import org.cloudbus.cloudsim.vms.Vm;
 
-import java.util.Comparator;
-import java.util.DoubleSummaryStatistics;
-import java.util.Map;
-
 /**
  * A VM allocation policy that uses <a href="https://en.wikipedia.org/wiki/Local_regression">Local Regression (LR)</a> to predict host utilization (load)
  * and define if a host is overloaded or not.
@@ -118,19 +114,17 @@ public class VmAllocationPolicyMigrationLocalRegression extends VmAllocationPoli
     public double computeHostUtilizationMeasure(final Host host) throws IllegalStateException {
         final int length = 10; // we use 10 to make the regression responsive enough to latest values
 
-        final Comparator<Map.Entry<Double, DoubleSummaryStatistics>> keyComparator = Comparator.comparingDouble(Map.Entry::getKey);
-        final double[] utilizationHistoryReversed = host.getUtilizationHistory()
-            .entrySet()
-            .stream()
-            .sorted(keyComparator.reversed())
-            .limit(length)
-            .mapToDouble(entry -> entry.getValue().getSum())
-            .toArray();
-
-        if (utilizationHistoryReversed.length < length) {
+        //Just the latest values are read, instead of getting an array with the entire history
+        final int historySize = host.getUtilizationHistorySumSize();
+        if (historySize < length) {
             throw new IllegalStateException("There is not enough Host history to estimate its utilization using Local Regression");
         }
 
+        final double[] utilizationHistoryReversed = new double[length];
+        for (int i = 0; i < length; i++) {
+            utilizationHistoryReversed[i] = host.getUtilizationHistorySumAt(historySize - 1 - i);
+        }
+
         final double[] estimates = getParameterEstimates(utilizationHistoryReversed);
         final double migrationIntervals = Math.ceil(getMaximumVmMigrationTime(host) / getSchedulingInterval());
         return estimates[0] + estimates[1] * (length + migrationIntervals);
@@ -33,6 +33,7 @@ final class VmAllocationPolicyMigrationNull implements VmAllocationPolicyMigrati
         return false;
     }
     @Override public void deallocateHostForVm(Vm vm) {/**/}
+    @Override public void notifyHostCapacityChange(Host host) {/**/}
     @Override public Optional<Host> findHostForVm(Vm vm) { return Optional.empty(); }
     @Override public boolean isVmMigrationSupported() { return false; }
     @Override public int getHostCountForParallelSearch() { return 0; }
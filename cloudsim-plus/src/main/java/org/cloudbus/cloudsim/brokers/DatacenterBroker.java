@@ -446,4 +446,34 @@ public interface DatacenterBroker extends SimEntity {
      * </ul>
      */
     void setRetryFailedVms(boolean retryFailedVms);
+
+    /**
+     * Checks if the broker has to be shut down when it becomes idle,
+     * that is, when it has no waiting Cloudlets or VMs and all its VMs were destroyed.
+     * <p>The default implementation always returns true,
+     * as it happens for brokers that don't implement this method.</p>
+     *
+     * @return true if the broker is shut down when idle (the default), false otherwise
+     * @see #setShutdownWhenIdle(boolean)
+     */
+    default boolean isShutdownWhenIdle() {
+        return true;
+    }
+
+    /**
+     * Sets if the broker has to be shut down when it becomes idle,
+     * that is, when it has no waiting Cloudlets or VMs and all its VMs were destroyed.
+     * Disabling it keeps the broker alive to receive Cloudlets and VMs submitted later,
+     * such as the ones created from a trace file read in parts along the simulation execution.
+     * The broker is always shut down when the simulation ends.
+     *
+     * <p>The default implementation ignores the given value,
+     * since brokers that don't implement this method decide by themselves when to shut down.</p>
+     *
+     * @param shutdownWhenIdle true to shut down the broker when idle, false to keep it alive
+     * @return
+     */
+    default DatacenterBroker setShutdownWhenIdle(final boolean shutdownWhenIdle) {
+        return this;
+    }
 }
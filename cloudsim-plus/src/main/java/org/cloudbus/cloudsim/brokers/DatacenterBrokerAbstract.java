@@ -76,6 +76,9 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
     /** @see #isRetryFailedVms() */
     private boolean retryFailedVms;
 
+    /** @see #isShutdownWhenIdle() */
+    private boolean shutdownWhenIdle;
+
     /** @see #getVmFailedList() */
     private final List<Vm> vmFailedList;
 
@@ -88,6 +91,24 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
     /** @see #getVmCreatedList() */
     private final List<Vm> vmCreatedList;
 
+    /** @see #getVmFreePesIndex() */
+    private final VmFreePesIndex vmFreePesIndex;
+
+    /**
+     * Maps each idle VM which had an event scheduled to check if it's idle enough to be destroyed
+     * to the {@link VmSimple#getLastBusyTime() last time the VM was busy} when such an event was scheduled.
+     * This way, just one event is scheduled each time a VM becomes idle.
+     */
+    private final Map<Vm, Double> vmIdlenessVerificationMap;
+
+    /**
+     * The Cloudlets bound or sent to each VM that haven't finished yet
+     * (including the ones that returned to the broker without finishing),
+     * so that the Cloudlets affected by the destruction of a VM can be found
+     * without iterating over all submitted Cloudlets.
+     */
+    private final Map<Vm, Set<Cloudlet>> vmCloudletsMap;
+
     /** @see #getCloudletWaitingList() */
     private final List<Cloudlet> cloudletWaitingList;
 
@@ -158,10 +179,14 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
         vmCreationAcks = 0;
 
         this.retryFailedVms = true;
+        this.shutdownWhenIdle = true;
         this.vmFailedList = new ArrayList<>();
         this.vmWaitingList = new ArrayList<>();
         this.vmExecList = new ArrayList<>();
         this.vmCreatedList = new ArrayList<>();
+        this.vmFreePesIndex = new VmFreePesIndex();
+        this.vmIdlenessVerificationMap = new HashMap<>();
+        this.vmCloudletsMap = new HashMap<>();
         this.cloudletWaitingList = new ArrayList<>();
         this.cloudletsFinishedList = new ArrayList<>();
         this.cloudletsCreatedList = new ArrayList<>();
@@ -329,6 +354,7 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
         setBrokerForEntities(list);
         lastSubmittedCloudlet = setIdForEntitiesWithoutOne(list, lastSubmittedCloudlet);
         cloudletSubmittedList.addAll(list);
+        list.stream().filter(Cloudlet::isBoundToVm).forEach(this::addVmCloudlet);
         setSimulationForCloudletUtilizationModels(list);
         cloudletWaitingList.addAll(list);
         wereThereWaitingCloudlets = true;
@@ -743,6 +769,7 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
         vmWaitingList.remove(vm);
         vmExecList.add(vm);
         vmCreatedList.add(vm);
+        vmFreePesIndex.add(vm);
     }
 
     /**
@@ -752,16 +779,44 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
      */
     private void processCloudletReturn(final SimEvent evt) {
         final Cloudlet cloudlet = (Cloudlet) evt.getData();
+        final Vm vm = cloudlet.getVm();
         cloudletsFinishedList.add(cloudlet);
-        ((VmSimple) cloudlet.getVm()).addExpectedFreePesNumber(cloudlet.getNumberOfPes());
-        LOGGER.info("{}: {}: {} finished in {} and returned to broker.", getSimulation().clockStr(), getName(), cloudlet, cloudlet.getVm());
+        vmFreePesIndex.addExpectedFreePesNumber((VmSimple) vm, cloudlet.getNumberOfPes());
+        LOGGER.info("{}: {}: {} finished in {} and returned to broker.", getSimulation().clockStr(), getName(), cloudlet, vm);
+
+        if (cloudlet.isFinished()) {
+            removeVmCloudlet(vm, cloudlet);
+        }
 
-        if (cloudlet.getVm().getCloudletScheduler().isEmpty()) {
-            requestIdleVmDestruction(cloudlet.getVm());
+        /*Just the VM of the returned Cloudlet may have become idle.
+        Other VMs are checked when their own Cloudlets return or their processing is updated.*/
+        requestIdleVmDestruction(vm);
+        if (vm.getCloudletScheduler().isEmpty()) {
             return;
         }
 
-        requestVmDestructionAfterAllCloudletsFinished();
+        requestCreationOfWaitingVmsIfThereAreWaitingCloudlets();
+    }
+
+    /**
+     * Adds a Cloudlet to the {@link #vmCloudletsMap set of Cloudlets} of the VM it's bound to.
+     * @param cloudlet the Cloudlet to add
+     */
+    private void addVmCloudlet(final Cloudlet cloudlet) {
+        vmCloudletsMap.computeIfAbsent(cloudlet.getVm(), vm -> new LinkedHashSet<>()).add(cloudlet);
+    }
+
+    /**
+     * Removes a finished Cloudlet from the {@link #vmCloudletsMap set of Cloudlets} of a VM.
+     *
+     * @param vm the VM to remove the Cloudlet from
+     * @param cloudlet the Cloudlet to remove
+     */
+    private void removeVmCloudlet(final Vm vm, final Cloudlet cloudlet) {
+        final Set<Cloudlet> cloudlets = vmCloudletsMap.get(vm);
+        if (cloudlets != null && cloudlets.remove(cloudlet) && cloudlets.isEmpty()) {
+            vmCloudletsMap.remove(vm);
+        }
     }
 
     /**
@@ -773,7 +828,13 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
             requestIdleVmDestruction(vmExecList.get(i));
         }
 
+        requestCreationOfWaitingVmsIfThereAreWaitingCloudlets();
+    }
 
+    /**
+     * Requests the creation of waiting VMs if there are Cloudlets waiting for them.
+     */
+    private void requestCreationOfWaitingVmsIfThereAreWaitingCloudlets() {
         if (cloudletWaitingList.isEmpty()) {
             return;
         }
@@ -801,12 +862,11 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
             }
 
             if(isVmIdlenessVerificationRequired((VmSimple)vm)) {
-                getSimulation().send(
-                    new CloudSimEvent(vmDestructionDelayFunction.apply(vm),
-                        vm.getHost().getDatacenter(),
-                        CloudSimTags.VM_UPDATE_CLOUDLET_PROCESSING));
+                scheduleVmIdlenessVerification((VmSimple)vm);
                 return this;
             }
+        } else {
+            vmIdlenessVerificationMap.remove(vm);
         }
 
         if (isTimeToShutdownBroker() && isBrokerIdle()) {
@@ -816,20 +876,44 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
         return this;
     }
 
+    /**
+     * Sends an event to check if a VM is idle enough to be destroyed after the
+     * {@link #getVmDestructionDelayFunction() VM destruction delay}, if such an event
+     * was not sent yet since the VM became idle.
+     *
+     * @param vm the idle VM to check
+     */
+    private void scheduleVmIdlenessVerification(final VmSimple vm) {
+        final Double lastBusyTime = vm.getLastBusyTime();
+        if(lastBusyTime.equals(vmIdlenessVerificationMap.put(vm, lastBusyTime))) {
+            return;
+        }
+
+        getSimulation().send(
+            new CloudSimEvent(vmDestructionDelayFunction.apply(vm),
+                vm.getHost().getDatacenter(),
+                CloudSimTags.VM_UPDATE_CLOUDLET_PROCESSING));
+    }
+
     @Override
     public List<Cloudlet> destroyVm(final Vm vm) {
         if(vm.isCreated()) {
             final List<Cloudlet> cloudletsAffected = new ArrayList<>();
-
-            for (final Iterator<Cloudlet> it = cloudletSubmittedList.iterator(); it.hasNext(); ) {
-                final Cloudlet cloudlet = it.next();
-                if(cloudlet.getVm().equals(vm) && !cloudlet.isFinished()) {
-                    cloudlet.setVm(Vm.NULL);
-                    cloudletsAffected.add(cloudlet.reset());
-                    it.remove();
+            final Set<Cloudlet> vmCloudlets = vmCloudletsMap.getOrDefault(vm, Collections.emptySet());
+            if(vmCloudlets.stream().anyMatch(cloudlet -> isCloudletAffectedByVmDestruction(cloudlet, vm))) {
+                //Iterates over the submitted Cloudlets just when some of them is affected, to keep their order
+                for (final Iterator<Cloudlet> it = cloudletSubmittedList.iterator(); it.hasNext(); ) {
+                    final Cloudlet cloudlet = it.next();
+                    if(vmCloudlets.contains(cloudlet) && isCloudletAffectedByVmDestruction(cloudlet, vm)) {
+                        cloudlet.setVm(Vm.NULL);
+                        cloudletsAffected.add(cloudlet.reset());
+                        it.remove();
+                    }
                 }
             }
 
+            vmCloudletsMap.remove(vm);
+            vmIdlenessVerificationMap.remove(vm);
             vm.getHost().destroyVm(vm);
             vm.getCloudletScheduler().clear();
             return cloudletsAffected;
@@ -839,6 +923,10 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
         return new ArrayList<>();
     }
 
+    private boolean isCloudletAffectedByVmDestruction(final Cloudlet cloudlet, final Vm vm) {
+        return cloudlet.getVm().equals(vm) && !cloudlet.isFinished();
+    }
+
     /**
      * Checks if an event must be sent to verify if a VM became idle.
      * That will happen when the {@link #getVmDestructionDelayFunction() VM destruction delay}
@@ -867,7 +955,7 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
     }
 
     private boolean isTimeToShutdownBroker() {
-        return isAlive() &&
+        return isAlive() && shutdownWhenIdle &&
             (!getSimulation().isTerminationTimeSet() || getSimulation().isTimeToTerminateSimulationUnderRequest());
     }
 
@@ -927,6 +1015,7 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
          * created Cloudlets into a separate list.
          * Cloudlets in such new list were removed just after the loop,
          * degrading performance in large scale simulations. */
+        final Map<Datacenter, Map<Double, List<Cloudlet>>> cloudletsToSubmit = new LinkedHashMap<>();
         for (final Iterator<Cloudlet> it = cloudletWaitingList.iterator(); it.hasNext(); ) {
             final CloudletSimple cloudlet = (CloudletSimple)it.next();
             if (!cloudlet.getLastTriedDatacenter().equals(Datacenter.NULL)) {
@@ -940,20 +1029,47 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
                 continue;
             }
 
-            ((VmSimple) lastSelectedVm).removeExpectedFreePesNumber(cloudlet.getNumberOfPes());
+            vmFreePesIndex.removeExpectedFreePesNumber((VmSimple) lastSelectedVm, cloudlet.getNumberOfPes());
 
             logCloudletCreationRequest(cloudlet);
             cloudlet.setVm(lastSelectedVm);
-            send(getDatacenter(lastSelectedVm),
-                cloudlet.getSubmissionDelay(), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
+            addVmCloudlet(cloudlet);
+            cloudletsToSubmit
+                .computeIfAbsent(getDatacenter(lastSelectedVm), dc -> new LinkedHashMap<>())
+                .computeIfAbsent(cloudlet.getSubmissionDelay(), delay -> new ArrayList<>())
+                .add(cloudlet);
             cloudlet.setLastTriedDatacenter(getDatacenter(lastSelectedVm));
             cloudletsCreatedList.add(cloudlet);
             it.remove();
         }
 
+        cloudletsToSubmit.forEach(this::sendCloudletsToDatacenter);
         allWaitingCloudletsSubmittedToVm();
     }
 
+    /**
+     * Sends Cloudlets to a Datacenter, using a single {@link CloudSimTags#CLOUDLET_SUBMIT_LIST} event
+     * for all Cloudlets with the same submission delay.
+     * Since such a tag is just handled by Datacenters that
+     * {@link Datacenter#isCloudletListSubmissionSupported() support} it,
+     * Cloudlets are sent in individual {@link CloudSimTags#CLOUDLET_SUBMIT} events
+     * to any other Datacenter.
+     *
+     * @param datacenter the Datacenter to send the Cloudlets to
+     * @param cloudletsByDelay a map where each key is a submission delay
+     *                         and the value is the list of Cloudlets with such a delay
+     */
+    private void sendCloudletsToDatacenter(final Datacenter datacenter, final Map<Double, List<Cloudlet>> cloudletsByDelay) {
+        cloudletsByDelay.forEach((delay, cloudlets) -> {
+            if (cloudlets.size() > 1 && datacenter.isCloudletListSubmissionSupported()) {
+                send(datacenter, delay, CloudSimTags.CLOUDLET_SUBMIT_LIST, cloudlets);
+                return;
+            }
+
+            cloudlets.forEach(cloudlet -> send(datacenter, delay, CloudSimTags.CLOUDLET_SUBMIT, cloudlet));
+        });
+    }
+
     private void logPostponingCloudletExecution(final Cloudlet cloudlet) {
         final String vmMsg = cloudlet.getVm() == Vm.NULL ?
                                 "it couldn't be mapped to any VM" :
@@ -1014,6 +1130,16 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
         return (List<T>) vmCreatedList;
     }
 
+    /**
+     * Gets the index of {@link #getVmCreatedList() created VMs}
+     * by their {@link Vm#getExpectedFreePesNumber() expected number of free PEs},
+     * used by VM mappers to select a VM for a Cloudlet without iterating over all VMs.
+     * @return the index of created VMs by their expected number of free PEs
+     */
+    VmFreePesIndex getVmFreePesIndex() {
+        return vmFreePesIndex;
+    }
+
     @Override
     public <T extends Vm> List<T> getVmExecList() {
         return (List<T>) vmExecList;
@@ -1230,4 +1356,15 @@ public abstract class DatacenterBrokerAbstract extends CloudSimEntity implements
     public void setRetryFailedVms(final boolean retryFailedVms) {
         this.retryFailedVms = retryFailedVms;
     }
+
+    @Override
+    public boolean isShutdownWhenIdle() {
+        return shutdownWhenIdle;
+    }
+
+    @Override
+    public DatacenterBroker setShutdownWhenIdle(final boolean shutdownWhenIdle) {
+        this.shutdownWhenIdle = shutdownWhenIdle;
+        return this;
+    }
 }
@@ -4,7 +4,6 @@ import org.cloudbus.cloudsim.cloudlets.Cloudlet;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.vms.Vm;
 
-import java.util.Comparator;
 
 /**
  * A implementation of {@link DatacenterBroker} that uses a Best Fit
@@ -41,11 +40,7 @@ public class DatacenterBrokerBestFit extends DatacenterBrokerSimple {
             return cloudlet.getVm();
         }
 
-        final Vm mappedVm = getVmCreatedList()
-            .stream()
-            .filter(vm -> vm.getExpectedFreePesNumber() >= cloudlet.getNumberOfPes())
-            .min(Comparator.comparingLong(Vm::getExpectedFreePesNumber))
-            .orElse(Vm.NULL);
+        final Vm mappedVm = getVmFreePesIndex().getBestFitVm(cloudlet.getNumberOfPes());
 
         if (mappedVm == Vm.NULL) {
             LOGGER.warn("{}: {}: {} (PEs: {}) couldn't be mapped to any suitable VM.",
@@ -0,0 +1,240 @@
+package org.cloudbus.cloudsim.brokers;
+
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An index of the VMs created by a {@link DatacenterBrokerAbstract broker},
+ * keyed by their {@link Vm#getExpectedFreePesNumber() expected number of free PEs},
+ * which enables selecting a VM to run a Cloudlet in logarithmic time.
+ *
+ * <p>Each VM has a position, which is the order it was added to the index
+ * (the same order VMs are added to the {@link DatacenterBroker#getVmCreatedList() list of created VMs}).
+ * VMs are grouped by their expected free PEs into a {@link TreeMap},
+ * where VMs with the same number of free PEs are sorted by position.
+ * A segment tree storing the maximum expected free PEs for ranges of positions
+ * enables finding the first VM, from a given position, having a minimum number of free PEs.</p>
+ *
+ * <p>The expected free PEs of indexed VMs must be changed only by the
+ * {@link #addExpectedFreePesNumber(VmSimple, long)} and {@link #removeExpectedFreePesNumber(VmSimple, long)}
+ * methods, so that the index is kept up-to-date.
+ * If they are changed directly in a VM, the index just keeps the previous value
+ * for that VM until it's updated again through such methods.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+final class VmFreePesIndex {
+    /**
+     * The value stored in the leaves of the segment tree that don't correspond to any VM.
+     */
+    private static final long NO_VM = -1;
+
+    /**
+     * The indexed VMs, in the order they were added.
+     */
+    private final List<Vm> vmList;
+
+    /**
+     * The position of each indexed VM inside the {@link #vmList}.
+     */
+    private final Map<Vm, Integer> positions;
+
+    /**
+     * The indexed VMs grouped by their expected free PEs,
+     * where each group maps the position of a VM to the VM itself.
+     */
+    private final TreeMap<Long, TreeMap<Integer, Vm>> vmsByFreePes;
+
+    /**
+     * A segment tree where the node 1 is the root, the children of a node i are the nodes 2i and 2i+1
+     * and the leaves start at the {@link #capacity}.
+     * Each node stores the maximum expected free PEs among the VMs in its range of positions.
+     */
+    private long[] maxFreePesTree;
+
+    /**
+     * The maximum number of VMs the {@link #maxFreePesTree} can store
+     * before it has to be rebuilt with a larger capacity.
+     */
+    private int capacity;
+
+    /**
+     * Creates an empty index.
+     */
+    VmFreePesIndex() {
+        this.vmList = new ArrayList<>();
+        this.positions = new HashMap<>();
+        this.vmsByFreePes = new TreeMap<>();
+        this.capacity = 1;
+        this.maxFreePesTree = new long[]{NO_VM, NO_VM};
+    }
+
+    /**
+     * Adds a VM to the end of the index, if it was not added yet.
+     * @param vm the VM to add
+     */
+    void add(final Vm vm) {
+        if (positions.containsKey(vm)) {
+            return;
+        }
+
+        final int position = vmList.size();
+        vmList.add(vm);
+        positions.put(vm, position);
+        if (position == capacity) {
+            grow();
+        }
+
+        index(vm, position);
+    }
+
+    /**
+     * Adds a given number of expected free PEs to a VM, updating the index.
+     *
+     * @param vm the VM to update
+     * @param pesToAdd the number of expected free PEs to add
+     * @see VmSimple#addExpectedFreePesNumber(long)
+     */
+    void addExpectedFreePesNumber(final VmSimple vm, final long pesToAdd) {
+        updateExpectedFreePesNumber(vm, v -> v.addExpectedFreePesNumber(pesToAdd));
+    }
+
+    /**
+     * Removes a given number of expected free PEs from a VM, updating the index.
+     *
+     * @param vm the VM to update
+     * @param pesToRemove the number of expected free PEs to remove
+     * @see VmSimple#removeExpectedFreePesNumber(long)
+     */
+    void removeExpectedFreePesNumber(final VmSimple vm, final long pesToRemove) {
+        updateExpectedFreePesNumber(vm, v -> v.removeExpectedFreePesNumber(pesToRemove));
+    }
+
+    private void updateExpectedFreePesNumber(final VmSimple vm, final Consumer<VmSimple> update) {
+        final Integer position = positions.get(vm);
+        if (position == null) {
+            update.accept(vm);
+            return;
+        }
+
+        unindex(vm, position);
+        update.accept(vm);
+        index(vm, position);
+    }
+
+    private void index(final Vm vm, final int position) {
+        vmsByFreePes.computeIfAbsent(vm.getExpectedFreePesNumber(), pes -> new TreeMap<>()).put(position, vm);
+        updateTree(position, vm.getExpectedFreePesNumber());
+    }
+
+    /**
+     * Removes a VM from the group of its expected free PEs.
+     * The group is found from the number of free PEs stored in the {@link #maxFreePesTree}
+     * when the VM was indexed, instead of the VM's current number,
+     * since it may have been changed directly in the VM, without updating the index.
+     *
+     * @param vm the VM to remove
+     * @param position the position of the VM
+     */
+    private void unindex(final Vm vm, final int position) {
+        final long freePes = maxFreePesTree[capacity + position];
+        final TreeMap<Integer, Vm> group = vmsByFreePes.get(freePes);
+        group.remove(position);
+        if (group.isEmpty()) {
+            vmsByFreePes.remove(freePes);
+        }
+    }
+
+    /**
+     * Gets the VM with the lowest number of expected free PEs that is at least
+     * a given number of PEs. If multiple VMs have such a number of PEs,
+     * the first one added to the index is returned.
+     *
+     * @param requiredPes the minimum number of expected free PEs the VM must have
+     * @return the best fit VM or {@link Vm#NULL} if no VM has the required PEs
+     */
+    Vm getBestFitVm(final long requiredPes) {
+        final Map.Entry<Long, TreeMap<Integer, Vm>> entry = vmsByFreePes.ceilingEntry(requiredPes);
+        return entry == null ? Vm.NULL : entry.getValue().firstEntry().getValue();
+    }
+
+    /**
+     * Gets the position of the first VM having at least a given number of expected free PEs,
+     * starting the search from a given position and moving to the beginning of the index
+     * when its end is reached.
+     *
+     * @param requiredPes the minimum number of expected free PEs the VM must have
+     * @param startPosition the position to start the search from
+     * @return the position of the first fit VM or -1 if no VM has the required PEs
+     */
+    int getFirstFitPosition(final long requiredPes, final int startPosition) {
+        final int position = findFirst(1, 0, capacity - 1, startPosition, requiredPes);
+        return position == -1 && startPosition > 0 ? findFirst(1, 0, capacity - 1, 0, requiredPes) : position;
+    }
+
+    /**
+     * Gets the VM at a given position.
+     * @param position the position of the VM to get
+     * @return the VM at such a position
+     */
+    Vm getVm(final int position) {
+        return vmList.get(position);
+    }
+
+    /**
+     * Finds the first position, inside the range of a segment tree node,
+     * that is not lower than a given position and has at least a given number of expected free PEs.
+     * It just goes down the nodes whose maximum number of free PEs is enough.
+     *
+     * @param node the node of the segment tree to search into
+     * @param nodeStart the first position in the range of the node
+     * @param nodeEnd the last position in the range of the node
+     * @param minPosition the minimum position to return
+     * @param requiredPes the minimum number of expected free PEs
+     * @return the found position or -1 if none was found
+     */
+    private int findFirst(
+        final int node, final int nodeStart, final int nodeEnd,
+        final int minPosition, final long requiredPes)
+    {
+        if (nodeEnd < minPosition || maxFreePesTree[node] < requiredPes) {
+            return -1;
+        }
+
+        if (nodeStart == nodeEnd) {
+            return nodeStart;
+        }
+
+        final int middle = (nodeStart + nodeEnd) / 2;
+        final int position = findFirst(2 * node, nodeStart, middle, minPosition, requiredPes);
+        return position == -1 ? findFirst(2 * node + 1, middle + 1, nodeEnd, minPosition, requiredPes) : position;
+    }
+
+    private void updateTree(final int position, final long freePes) {
+        int node = capacity + position;
+        maxFreePesTree[node] = freePes;
+        for (node /= 2; node > 0; node /= 2) {
+            maxFreePesTree[node] = Math.max(maxFreePesTree[2 * node], maxFreePesTree[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Doubles the capacity of the segment tree, rebuilding it.
+     */
+    private void grow() {
+        capacity *= 2;
+        maxFreePesTree = new long[2 * capacity];
+        Arrays.fill(maxFreePesTree, NO_VM);
+        for (int i = 0; i < vmList.size(); i++) {
+            maxFreePesTree[capacity + i] = vmList.get(i).getExpectedFreePesNumber();
+        }
+
+        for (int node = capacity - 1; node > 0; node--) {
+            maxFreePesTree[node] = Math.max(maxFreePesTree[2 * node], maxFreePesTree[2 * node + 1]);
+        }
+    }
+}
@@ -20,7 +20,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -116,7 +117,7 @@ public class CloudSim implements Simulation {
     /**
      * The queue of events that will be sent in a future simulation time.
      */
-    private final FutureQueue future;
+    private final FutureEventQueue future;
 
     /**
      * The deferred event queue.
@@ -169,8 +170,92 @@ public class CloudSim implements Simulation {
     private final Set<EventListener<EventInfo>> onSimulationPauseListeners;
     private final Set<EventListener<EventInfo>> onClockTickListeners;
     private final Set<EventListener<EventInfo>> onSimulationStartListeners;
+
+    /**
+     * Indicates if entities from different logical processes
+     * are executed in parallel.
+     * @see #enableParallelProcessing(ToIntFunction)
+     */
     private boolean processEventsInParallel;
 
+    /**
+     * @see #enableParallelProcessing(ToIntFunction)
+     */
+    private ToIntFunction<SimEntity> logicalProcessMapper;
+
+    /**
+     * The actions changing the {@link #future} queue which were requested by the entity
+     * being executed by the current thread, while entities are {@link #processEventsInParallel processed in parallel}.
+     * Such actions are just performed after all entities finish running,
+     * in the same order the entities would run sequentially.
+     * It's null for a thread which isn't running an entity in parallel.
+     */
+    private final ThreadLocal<List<Runnable>> parallelOutbox = new ThreadLocal<>();
+
+    /**
+     * A future event sent by an entity running in parallel,
+     * which is just added to the {@link #future} queue after all entities finish running.
+     */
+    private final class BufferedFutureEvent implements Runnable {
+        private final SimEvent evt;
+
+        /**
+         * Indicates if the event must be added to the head of the queue.
+         * @see FutureEventQueue#addEventFirst(SimEvent)
+         */
+        private final boolean first;
+        private boolean cancelled;
+
+        private BufferedFutureEvent(final SimEvent evt, final boolean first) {
+            this.evt = evt;
+            this.first = first;
+        }
+
+        @Override
+        public void run() {
+            if (!cancelled) {
+                addFutureEvent(evt, first);
+            }
+        }
+
+        /**
+         * Checks if this event was sent by a given entity and matches a given predicate.
+         */
+        private boolean matches(final SimEntity src, final Predicate<SimEvent> predicate) {
+            return !cancelled && evt.getSource() == src && predicate.test(evt);
+        }
+
+        /**
+         * Checks if an event already in the {@link #future} queue
+         * will be processed before this buffered one.
+         * @param other the event in the queue
+         * @return
+         */
+        private boolean isAfter(final SimEvent other) {
+            if (other.getTime() != evt.getTime()) {
+                return other.getTime() < evt.getTime();
+            }
+
+            /*A buffered event will get a higher serial than any event in the queue,
+            * unless it's added to the head of the queue. In such a case, it gets serial 0.*/
+            return !first || other.getSerial() == 0;
+        }
+
+        /**
+         * Checks if this buffered event will be processed before another buffered one,
+         * considering that this event was sent before the other one.
+         * @param other a buffered event sent after this one
+         * @return
+         */
+        private boolean isBefore(final BufferedFutureEvent other) {
+            if (evt.getTime() != other.evt.getTime()) {
+                return evt.getTime() < other.evt.getTime();
+            }
+
+            return first || !other.first;
+        }
+    }
+
     /**
      * Creates a CloudSim simulation.
      * Internally it creates a CloudInformationService.
@@ -192,8 +277,39 @@ public class CloudSim implements Simulation {
      * @see CloudInformationService
      */
     public CloudSim(final double minTimeBetweenEvents) {
+        this(minTimeBetweenEvents, new FutureQueue());
+    }
+
+    /**
+     * Creates a CloudSim simulation that uses a given queue to store future events.
+     * Internally it creates a {@link CloudInformationService}.
+     *
+     * @param future the queue to store future events, such as a {@link FutureQueue}
+     *               (used by default) or a {@link FutureQueueHeap}
+     *               (which performs better for simulations with millions of events)
+     * @see CloudInformationService
+     * @see #CloudSim(double, FutureEventQueue)
+     */
+    public CloudSim(final FutureEventQueue future){
+        this(0.1, future);
+    }
+
+    /**
+     * Creates a CloudSim simulation that tracks events happening in a time interval
+     * as little as the minTimeBetweenEvents parameter
+     * and uses a given queue to store future events.
+     * Internally it creates a {@link CloudInformationService}.
+     *
+     * @param minTimeBetweenEvents the minimal period between events. Events
+     * within shorter periods after the last event are discarded.
+     * @param future the queue to store future events, such as a {@link FutureQueue}
+     *               (used by default) or a {@link FutureQueueHeap}
+     *               (which performs better for simulations with millions of events)
+     * @see CloudInformationService
+     */
+    public CloudSim(final double minTimeBetweenEvents, final FutureEventQueue future) {
         this.entities = new ArrayList<>();
-        this.future = new FutureQueue();
+        this.future = requireNonNull(future);
         this.deferred = new DeferredQueue();
         this.waitPredicates = new HashMap<>();
         this.networkTopology = NetworkTopology.NULL;
@@ -203,7 +319,7 @@ public class CloudSim implements Simulation {
         this.onEventProcessingListeners = new HashSet<>();
         this.onSimulationPauseListeners = new HashSet<>();
         this.onClockTickListeners = new HashSet<>();
-        this.onSimulationStartListeners = new HashSet<>();
+        this.onSimulationStartListeners = new LinkedHashSet<>();
 
         // NOTE: the order for the lines below is important
         this.calendar = Calendar.getInstance();
@@ -487,6 +603,12 @@ public class CloudSim implements Simulation {
     @Override
     public void addEntity(final CloudSimEntity entity) {
         requireNonNull(entity);
+        final List<Runnable> outbox = getParallelOutbox();
+        if (outbox != null) {
+            outbox.add(() -> addEntity(entity));
+            return;
+        }
+
         if (running) {
             final SimEvent evt = new CloudSimEvent(SimEvent.Type.CREATE, 0, entity, SimEntity.NULL, -1, entity);
             future.addEvent(evt);
@@ -511,9 +633,8 @@ public class CloudSim implements Simulation {
             return false;
         }
 
-        final SimEvent first = future.first();
-        if(first.getTime() <= until) {
-            processFutureEventsHappeningAtSameTimeOfTheFirstOne(first);
+        if(future.first().getTime() <= until) {
+            processFutureEventsHappeningAtSameTimeOfTheFirstOne();
             return true;
         }
 
@@ -558,17 +679,15 @@ public class CloudSim implements Simulation {
                 .min().orElse(minTimeBetweenEvents);
     }
 
-    private void processFutureEventsHappeningAtSameTimeOfTheFirstOne(final SimEvent firstEvent) {
-        processEvent(firstEvent);
-        future.remove(firstEvent);
-
-        //Uses iterator to increase efficiency and avoid ConcurrentModificationException while removing
-        for(final Iterator<SimEvent> it = future.iterator(); it.hasNext();){
-            SimEvent evt = it.next();
-            if(evt.getTime() == firstEvent.getTime()){
-                processEvent(evt);
-                it.remove();
-            }
+    /**
+     * Removes from the {@link #future} queue the first event and all subsequent ones
+     * happening at the same time, then processes them in the queue order.
+     * Events happening later are not traversed.
+     * @see FutureEventQueue#pollFirstBatch()
+     */
+    private void processFutureEventsHappeningAtSameTimeOfTheFirstOne() {
+        for (final SimEvent evt : future.pollFirstBatch()) {
+            processEvent(evt);
         }
     }
 
@@ -578,6 +697,11 @@ public class CloudSim implements Simulation {
      */
     @SuppressWarnings("ForLoopReplaceableByForEach")
     private void executeRunnableEntities(final double until) {
+        if (processEventsInParallel) {
+            executeRunnableEntitiesInParallel(until);
+            return;
+        }
+
         /*Uses an indexed for instead of anything else to avoid
         ConcurrencyModificationException when a HostFaultInjection is created inside a Datacenter*/
         for (int i = 0; i < entities.size(); i++) {
@@ -592,6 +716,138 @@ public class CloudSim implements Simulation {
         executeRunnableEntities(Double.MAX_VALUE);
     }
 
+    /**
+     * Executes the runnable entities which have events to process,
+     * running entities from different logical processes in parallel.
+     * Entities from the same logical process are executed sequentially in the same thread.
+     *
+     * <p>The events sent by each entity are buffered and just added to the {@link #future} queue
+     * after all entities finish, following the order entities are executed in the sequential mode.
+     * This way, events get the same serials they would get sequentially.</p>
+     *
+     * <p>An entity which {@link CloudSimEntity#isParallelExecutionSupported() doesn't support parallel execution}
+     * works as a barrier: the entities before it are executed and their buffered events added to the queue.
+     * Then it's executed alone, seeing the same future events it would see in the sequential mode.</p>
+     *
+     * @param until the time up to which events must be processed
+     * @see #enableParallelProcessing(ToIntFunction)
+     */
+    @SuppressWarnings("ForLoopReplaceableByForEach")
+    private void executeRunnableEntitiesInParallel(final double until) {
+        final List<CloudSimEntity> runnableEntities = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            final CloudSimEntity ent = entities.get(i);
+            if (ent.getState() == SimEntity.State.RUNNABLE && hasEventsToProcess(ent, until)) {
+                runnableEntities.add(ent);
+            }
+        }
+
+        int start = 0;
+        for (int i = 0; i < runnableEntities.size(); i++) {
+            final CloudSimEntity ent = runnableEntities.get(i);
+            if (!ent.isParallelExecutionSupported()) {
+                executeEntitiesInParallel(runnableEntities.subList(start, i), until);
+                ent.run(until);
+                start = i + 1;
+            }
+        }
+
+        executeEntitiesInParallel(runnableEntities.subList(start, runnableEntities.size()), until);
+    }
+
+    /**
+     * Executes a list of runnable entities, running entities from different
+     * logical processes in parallel, then adds the events they sent
+     * to the {@link #future} queue in the order of the list.
+     *
+     * @param runnableEntities the entities to execute, in the order they are executed in the sequential mode
+     * @param until the time up to which events must be processed
+     */
+    private void executeEntitiesInParallel(final List<CloudSimEntity> runnableEntities, final double until) {
+        final Map<Integer, List<CloudSimEntity>> logicalProcesses = new LinkedHashMap<>();
+        for (final CloudSimEntity ent : runnableEntities) {
+            logicalProcesses
+                .computeIfAbsent(logicalProcessMapper.applyAsInt(ent), lp -> new ArrayList<>())
+                .add(ent);
+        }
+
+        //Entities without events to process do nothing when executed
+        if (logicalProcesses.size() < 2) {
+            runnableEntities.forEach(ent -> ent.run(until));
+            return;
+        }
+
+        final Map<CloudSimEntity, List<Runnable>> outboxes = new IdentityHashMap<>();
+        runnableEntities.forEach(ent -> outboxes.put(ent, new ArrayList<>()));
+        new ArrayList<>(logicalProcesses.values())
+            .parallelStream()
+            .forEach(logicalProcess -> executeLogicalProcess(logicalProcess, outboxes, until));
+
+        runnableEntities.forEach(ent -> outboxes.get(ent).forEach(Runnable::run));
+    }
+
+    /**
+     * Sequentially executes the entities from a logical process in the current thread,
+     * buffering the changes they request to the {@link #future} queue.
+     *
+     * <p>If an entity uses parallel streams, the fork/join pool may steal the execution of
+     * another logical process to the same thread, while the entity waits for its stream.
+     * This way, the outbox previously set for the thread is restored at the end,
+     * instead of just being removed.</p>
+     *
+     * @param logicalProcess the entities in the logical process
+     * @param outboxes a map where each key is an entity and the value is its {@link #parallelOutbox}
+     * @param until the time up to which events must be processed
+     */
+    private void executeLogicalProcess(
+        final List<CloudSimEntity> logicalProcess,
+        final Map<CloudSimEntity, List<Runnable>> outboxes,
+        final double until)
+    {
+        final List<Runnable> previousOutbox = parallelOutbox.get();
+        try {
+            for (final CloudSimEntity ent : logicalProcess) {
+                parallelOutbox.set(outboxes.get(ent));
+                ent.run(until);
+            }
+        } finally {
+            if (previousOutbox == null) {
+                parallelOutbox.remove();
+            } else {
+                parallelOutbox.set(previousOutbox);
+            }
+        }
+    }
+
+    private boolean hasEventsToProcess(final CloudSimEntity ent, final double until) {
+        return ent.hasEventBuffer() || deferred.findFirst(ent, evt -> evt.getTime() <= until) != SimEvent.NULL;
+    }
+
+    /**
+     * Gets the {@link #parallelOutbox} of the entity running in the current thread.
+     * @return the outbox or null if entities aren't running in parallel
+     */
+    private List<Runnable> getParallelOutbox() {
+        return processEventsInParallel ? parallelOutbox.get() : null;
+    }
+
+    /**
+     * Adds an event to the {@link #future} queue or to the {@link #parallelOutbox}
+     * if the current thread is running an entity in parallel.
+     * @param evt the event to add
+     * @param first true to add the event to the head of the queue, false to add it in the regular order
+     */
+    private void addFutureEvent(final SimEvent evt, final boolean first) {
+        final List<Runnable> outbox = getParallelOutbox();
+        if (outbox != null) {
+            outbox.add(new BufferedFutureEvent(evt, first));
+        } else if (first) {
+            future.addEventFirst(evt);
+        } else {
+            future.addEvent(evt);
+        }
+    }
+
     private void sendNow(final SimEntity dest, final int tag) {
         sendNow(cis, dest, tag, null);
     }
@@ -610,9 +866,7 @@ public class CloudSim implements Simulation {
     public void send(final SimEvent evt) {
         requireNonNull(evt);
         //Events with a negative tag have higher priority (except the "end of the simulation" event)
-        if(evt.getTag() < 0 && evt.getTag() != CloudSimTags.END_OF_SIMULATION)
-            future.addEventFirst(evt);
-        else future.addEvent(evt);
+        addFutureEvent(evt, evt.getTag() < 0 && evt.getTag() != CloudSimTags.END_OF_SIMULATION);
     }
 
     @Override
@@ -622,7 +876,7 @@ public class CloudSim implements Simulation {
 
     @Override
     public void sendFirst(SimEvent evt) {
-        future.addEventFirst(evt);
+        addFutureEvent(evt, true);
     }
 
     @Override
@@ -630,69 +884,70 @@ public class CloudSim implements Simulation {
         src.setState(SimEntity.State.WAITING);
         if (predicate != ANY_EVT) {
             // If a predicate has been used, store it in order to check incoming events that matches it
-            waitPredicates.put(src, predicate);
+            sync(() -> { waitPredicates.put(src, predicate); });
         }
     }
 
     @Override
     public SimEvent select(final SimEntity dest, final Predicate<SimEvent> predicate) {
-        final SimEvent evt = findFirstDeferred(dest, predicate);
-        if(evt != SimEvent.NULL) {
-            deferred.remove(evt);
-        }
-
-        return evt;
+        return sync(() -> deferred.removeFirst(dest, predicate));
     }
 
     @Override
     public SimEvent findFirstDeferred(final SimEntity dest, final Predicate<SimEvent> predicate) {
-        return filterEventsToDestinationEntity(deferred, predicate, dest).findFirst().orElse(SimEvent.NULL);
-    }
-
-    /**
-     * Gets a stream of events inside a specific queue that match a given predicate
-     * and are targeted to an specific entity.
-     *
-     * @param queue the queue to get the events from
-     * @param predicate the event selection predicate
-     * @param dest Id of entity that the event has to be sent to
-     * @return a Stream of events from the queue
-     */
-    private Stream<SimEvent> filterEventsToDestinationEntity(final EventQueue queue, final Predicate<SimEvent> predicate, final SimEntity dest) {
-        return filterEvents(queue, predicate.and(evt -> evt.getDestination() == dest));
+        return sync(() -> deferred.findFirst(dest, predicate));
     }
 
     @Override
     public SimEvent cancel(final SimEntity src, final Predicate<SimEvent> predicate) {
-        final SimEvent canceled =
-                future.stream()
-                      .filter(isEventSourceEqualsTo(predicate, src))
-                      .findFirst()
-                      .orElse(SimEvent.NULL);
-        future.remove(canceled);
-        return canceled;
+        final List<Runnable> outbox = getParallelOutbox();
+        if (outbox == null) {
+            return future.removeFirst(src, predicate);
+        }
+
+        /*Finds the first matching event buffered by the running entity.
+        * If there is an event in the queue which would be processed before it,
+        * such an event is the one to cancel.*/
+        BufferedFutureEvent buffered = null;
+        for (final Runnable action : outbox) {
+            if (action instanceof BufferedFutureEvent) {
+                final BufferedFutureEvent candidate = (BufferedFutureEvent) action;
+                if (candidate.matches(src, predicate) && (buffered == null || candidate.isBefore(buffered))) {
+                    buffered = candidate;
+                }
+            }
+        }
+
+        if (buffered == null) {
+            return sync(() -> future.removeFirst(src, predicate));
+        }
+
+        final BufferedFutureEvent first = buffered;
+        final SimEvent evt = sync(() -> future.removeFirst(src, predicate.and(first::isAfter)));
+        if (evt != SimEvent.NULL) {
+            return evt;
+        }
+
+        first.cancelled = true;
+        return first.evt;
     }
 
     @Override
     public boolean cancelAll(final SimEntity src, final Predicate<SimEvent> predicate) {
-        final int previousSize = future.size();
-        future.removeIf(isEventSourceEqualsTo(predicate, src));
-        return previousSize < future.size();
-    }
+        final List<Runnable> outbox = getParallelOutbox();
+        if (outbox == null) {
+            return future.removeIf(src, predicate);
+        }
 
-    private Predicate<SimEvent> isEventSourceEqualsTo(final Predicate<SimEvent> predicate, final SimEntity src) {
-        return predicate.and(evt -> evt.getSource().equals(src));
-    }
+        boolean removed = false;
+        for (final Runnable action : outbox) {
+            if (action instanceof BufferedFutureEvent && ((BufferedFutureEvent) action).matches(src, predicate)) {
+                ((BufferedFutureEvent) action).cancelled = true;
+                removed = true;
+            }
+        }
 
-    /**
-     * Gets a stream of events inside a specific queue that match a given predicate.
-     *
-     * @param queue the queue to get the events from
-     * @param predicate the event selection predicate
-     * @return a Stream of events from the queue
-     */
-    private Stream<SimEvent> filterEvents(final EventQueue queue, final Predicate<SimEvent> predicate) {
-        return queue.stream().filter(predicate);
+        return sync(() -> future.removeIf(src, predicate)) || removed;
     }
 
     /**
@@ -733,6 +988,22 @@ public class CloudSim implements Simulation {
         else runnable.run();
     }
 
+    /**
+     * Checks if the simulation must {@link #processEventsInParallel process events in parallel}
+     * and then synchronizes some code block encapsulated into a {@link Supplier},
+     * returning the value it produces.
+     *
+     * @param supplier The {@link Supplier} that encapsulates the code block to be called synchronously.
+     * @param <T> the type of the value returned by the code block
+     * @return the value returned by the code block
+     * @see #sync(Runnable)
+     */
+    private <T> T sync(final Supplier<T> supplier){
+        if(processEventsInParallel)
+            synchronized(this){ return supplier.get(); }
+        else return supplier.get();
+    }
+
     /**
      * Notifies all Listeners about onClockTick event when the simulation clock changes.
      * If multiple events are received consecutively but for the same simulation time,
@@ -878,7 +1149,7 @@ public class CloudSim implements Simulation {
     }
 
     private void addHoldingFutureEvent(SimEntity src, SimEvent evt) {
-        future.addEvent(evt);
+        addFutureEvent(evt, false);
         src.setState(SimEntity.State.HOLDING);
     }
 
@@ -932,9 +1203,17 @@ public class CloudSim implements Simulation {
 
     @Override
     public long getNumberOfFutureEvents(final Predicate<SimEvent> predicate){
-        return future.stream()
+        /*Events sent by entities from other logical processes running at the same time
+        * are not in the queue yet, so the result would depend on threads' timing.*/
+        if (getParallelOutbox() != null) {
+            throw new IllegalStateException(
+                "The number of future events can't be got by an entity executed in parallel. " +
+                "Such an entity must not support parallel execution. See CloudSimEntity.isParallelExecutionSupported().");
+        }
+
+        return sync(() -> future.stream()
                 .filter(predicate)
-                .count();
+                .count());
     }
 
     private boolean isThereFutureEvtsAndNextOneHappensAfterTimeToPause() {
@@ -951,7 +1230,7 @@ public class CloudSim implements Simulation {
     }
 
     private boolean isNextFutureEventHappeningAfterTimeToPause() {
-        return future.iterator().next().getTime() >= pauseAt;
+        return future.first().getTime() >= pauseAt;
     }
 
     @Override
@@ -1024,15 +1303,64 @@ public class CloudSim implements Simulation {
         this.lastCloudletProcessingUpdate = lastCloudletProcessingUpdate;
     }
 
+    /**
+     * Enables executing entities from different logical processes (LPs) in parallel,
+     * such as the {@link Datacenter}s of a federation and their own {@link DatacenterBroker}s.
+     * At each simulation clock tick, entities having events to process are grouped by their LP.
+     * Each LP runs its entities sequentially (in the order they were created) in its own thread.
+     *
+     * <p>The events sent by entities are buffered and added to the future event queue
+     * after all LPs finish, in the same order they would be sent if entities were executed sequentially.
+     * This way, the simulation is deterministic and produces the same results as the sequential mode,
+     * as long as entities from different LPs don't share mutable objects
+     * (such as {@link org.cloudbus.cloudsim.vms.Vm}s and {@link Cloudlet}s).
+     * Entities that share objects must be mapped to the same LP.
+     * Only the order of log messages may change.</p>
+     *
+     * <p>An entity created while entities are running in parallel
+     * is just added to the simulation (getting its id) after all LPs finish.</p>
+     *
+     * <p>Entities querying the whole future event queue, such as a
+     * {@link org.cloudsimplus.faultinjection.HostFaultInjection},
+     * {@link CloudSimEntity#isParallelExecutionSupported() don't support parallel execution}.
+     * They are executed alone, after the events sent by the entities executed before them
+     * are added to the queue.</p>
+     *
+     * @param logicalProcessMapper a function that receives an entity and returns the number of its LP
+     * @see #disableParallelProcessing()
+     */
+    public void enableParallelProcessing(final ToIntFunction<SimEntity> logicalProcessMapper) {
+        this.logicalProcessMapper = requireNonNull(logicalProcessMapper);
+        this.processEventsInParallel = true;
+    }
+
+    /**
+     * Disables executing entities in parallel, making all entities to run sequentially.
+     * @see #enableParallelProcessing(ToIntFunction)
+     */
+    public void disableParallelProcessing() {
+        this.processEventsInParallel = false;
+        this.logicalProcessMapper = null;
+    }
+
+    /**
+     * Checks if entities from different logical processes are executed in parallel.
+     * @return
+     * @see #enableParallelProcessing(ToIntFunction)
+     */
+    public boolean isProcessingEventsInParallel() {
+        return processEventsInParallel;
+    }
+
     /**
      * Gets the maximum number of events that have ever existed at the same time
-     * inside the {@link FutureQueue}.
+     * inside the {@link FutureEventQueue}.
      */
     public long getMaxEventsNumber() {
         return future.getMaxEventsNumber();
     }
 
-    /** Gets the total number of events generated in the {@link FutureQueue} */
+    /** Gets the total number of events generated in the {@link FutureEventQueue} */
     public long getGeneratedEventsNumber() {
         return future.getSerial();
     }
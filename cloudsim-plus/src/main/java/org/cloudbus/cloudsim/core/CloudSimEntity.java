@@ -418,6 +418,29 @@ public abstract class CloudSimEntity implements SimEntity {
         buffer = evt;
     }
 
+    /**
+     * Checks if the entity can be executed in parallel with entities from other logical processes,
+     * when the {@link CloudSim#enableParallelProcessing(java.util.function.ToIntFunction) parallel processing}
+     * is enabled.
+     * An entity which queries the whole future event queue,
+     * such as by calling {@link Simulation#getNumberOfFutureEvents(java.util.function.Predicate)},
+     * must not support it. That way, it's executed alone, seeing the same events
+     * it would see if entities were executed sequentially.
+     *
+     * @return true if the entity can be executed in parallel (the default), false otherwise
+     */
+    protected boolean isParallelExecutionSupported() {
+        return true;
+    }
+
+    /**
+     * Checks if there is an event in the entity's buffer, waiting to be processed.
+     * @return
+     */
+    boolean hasEventBuffer() {
+        return buffer != null;
+    }
+
     // --------------- EVENT / MESSAGE SEND WITH NETWORK DELAY METHODS ------------------
 
     /**
@@ -217,6 +217,26 @@ public final class CloudSimTags {
      */
     public static final int CLOUDLET_UPDATE_ATTRIBUTES = BASE + 27;
 
+    /**
+     * Denotes the submission of a list of Cloudlets at once, without acknowledgement.
+     * This tag is normally used between a DatacenterBroker and a Datacenter that
+     * {@link Datacenter#isCloudletListSubmissionSupported() supports} it
+     * (such as a {@link org.cloudbus.cloudsim.datacenters.DatacenterSimple})
+     * to avoid sending one event for each Cloudlet.
+     * When an event of this type is sent, the {@link SimEvent#getData()}
+     * must be a {@link java.util.List} of {@link Cloudlet} objects.
+     */
+    public static final int CLOUDLET_SUBMIT_LIST = BASE + 28;
+
+    /**
+     * Denotes a request to read the next time window of a trace file
+     * which is read in parts as the simulation clock advances,
+     * such as a Google Cluster trace read using a streaming time window.
+     * When an event of this type is sent, the {@link SimEvent#getData()}
+     * must be the start time (in seconds) of the window to read.
+     */
+    public static final int TRACE_WINDOW_READ = BASE + 29;
+
     /**
      * Denotes a request to create a new VM in a {@link Datacenter} with
      * where the {@link SimEvent#getData()} of the reply event
@@ -286,6 +306,14 @@ public final class CloudSimTags {
 
     public static final int NETWORK_EVENT_SEND = BASE + 44;
 
+    /**
+     * Denotes a request to a {@link org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter}
+     * to update the network flows being transferred by its
+     * {@link org.cloudbus.cloudsim.network.flows.FlowNetwork},
+     * which is sent when the earliest active flow is expected to finish.
+     */
+    public static final int NETWORK_FLOW_UPDATE = BASE + 45;
+
     /**
      * Denotes the transmission of packets down through the network topology.
      */
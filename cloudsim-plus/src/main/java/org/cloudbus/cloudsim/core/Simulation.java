@@ -180,6 +180,13 @@ public interface Simulation {
      */
     Simulation addOnSimulationPauseListener(EventListener<EventInfo> listener);
 
+    /**
+     * Adds an {@link EventListener} object that will be notified when the simulation starts.
+     * Listeners are notified in the order they were added.
+     *
+     * @param listener the event listener to add
+     * @return
+     */
     Simulation addOnSimulationStartListener(EventListener<EventInfo> listener);
 
     /**
@@ -1,30 +1,88 @@
 package org.cloudbus.cloudsim.core.events;
 
+import org.cloudbus.cloudsim.core.SimEntity;
+
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An {@link EventQueue} that orders {@link SimEvent}s based on their time attribute.
  * Since a new event's time is usually equal or higher than the previous event
- * in regular simulations, this classes uses a {@link LinkedList} instead
+ * in regular simulations, this classes uses a linked list instead
  * of a {@link java.util.SortedSet} such as {@link java.util.TreeSet}
- * because the {@link LinkedList} provides constant O(1) complexity
+ * because the linked list provides constant O(1) complexity
  * to add elements to the end.
  *
+ * <p>Events are also indexed by their {@link SimEvent#getDestination() destination entity}.
+ * Each entity has its own bucket of events, keeping the same time order of the queue.
+ * This way, looking for events targeted to a given entity by
+ * {@link #findFirst(SimEntity, Predicate)} and {@link #removeFirst(SimEntity, Predicate)}
+ * just traverses the events of that entity,
+ * no matter how many events other entities have in the queue.
+ * Events are stored in nodes linked both to the queue and to their bucket,
+ * which enables removing a found event in constant time.</p>
+ *
  * @author Marcos Dias de Assuncao
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 4.4.2
  */
 public class DeferredQueue implements EventQueue {
     /**
+     * A node storing an event into the queue,
+     * which is linked to the previous and next events in the entire queue
+     * and in the bucket of the event destination entity.
+     */
+    private static final class Node {
+        private final SimEvent event;
+        private final Bucket bucket;
+        private Node prev;
+        private Node next;
+        private Node prevInBucket;
+        private Node nextInBucket;
+
+        private Node(final SimEvent event, final Bucket bucket) {
+            this.event = event;
+            this.bucket = bucket;
+        }
+    }
+
+    /**
+     * The events targeted to a given destination entity.
+     */
+    private static final class Bucket {
+        private final SimEntity destination;
+        private Node head;
+        private Node tail;
+
+        private Bucket(final SimEntity destination) {
+            this.destination = destination;
+        }
+    }
+
+    /**
+     * The first and last nodes in the queue.
      * Despite the events are sorted by time and there are
      * sorted collections such as {@link java.util.SortedSet},
      * since the time of a new event is usually higher than the previous
-     * one, in such a case, the {@link LinkedList#add(Object)} provides
-     * better performance, which is O(1).
+     * one, in such a case, adding it to the end of a linked list
+     * provides better performance, which is O(1).
      */
-    private final List<SimEvent> list = new LinkedList<>();
+    private Node head;
+    private Node tail;
+
+    private int size;
+
+    /**
+     * A map where each key is a destination entity
+     * and the value is the bucket of events targeted to that entity.
+     * A bucket is removed as soon as it becomes empty,
+     * so that the map doesn't keep growing over long simulations.
+     * It uses an {@link IdentityHashMap} because events are selected
+     * by comparing the reference to the destination entity.
+     */
+    private final Map<SimEntity, Bucket> buckets = new IdentityHashMap<>();
 
     /**
      * The max time that an added event is scheduled.
@@ -39,40 +97,184 @@ public class DeferredQueue implements EventQueue {
      * Adds a new event to the queue, preserving the temporal order
      * of the events.
      *
+     * <p>An event older than every queued event is inserted at the head of the queue,
+     * instead of being appended at its tail.</p>
+     *
      * @param newEvent the event to be added to the queue.
      */
     public void addEvent(final SimEvent newEvent) {
         // The event has to be inserted as the last of all events
         // with the same event_time(). Yes, this matters.
         final double eventTime = newEvent.getTime();
-        maxSize = Math.max(maxSize, list.size());
+        maxSize = Math.max(maxSize, size);
+        final Bucket bucket = buckets.computeIfAbsent(newEvent.getDestination(), Bucket::new);
+        final Node node = new Node(newEvent, bucket);
         if (eventTime >= maxTime) {
-            list.add(newEvent);
+            linkAfter(tail, node);
+            linkAfterInBucket(bucket, bucket.tail, node);
             maxTime = eventTime;
             addedToTail++;
             return;
         }
 
         /*
-         * Adds an event in some position from the tail of the list.
-         * If the event time is smaller than the maxTime, traverses the list
-         * to find the place to insert the event.
-         * It uses a reverse iterator because usually in such cases,
-         * the time of the new event is close to the last events.
-         * Starting from the tail of the list will ensure the lowest number
+         * Adds an event in some position from the tail of the queue.
+         * If the event time is smaller than the maxTime, traverses the queue
+         * from the tail to find the place to insert the event,
+         * because usually in such cases, the time of the new event is close to the last events.
+         * Starting from the tail of the queue will ensure the lowest number
          * of iterations of the best cases.
+         * The same is done to insert the event into its bucket.
          * */
-        final ListIterator<SimEvent> reverseIterator = list.listIterator(list.size() - 1);
-        while (reverseIterator.hasPrevious()) {
-            if (reverseIterator.previous().getTime() <= eventTime) {
-                reverseIterator.next();
-                reverseIterator.add(newEvent);
-                addedToMiddle++;
-                return;
+        Node previous = tail;
+        while (previous != null && previous.event.getTime() > eventTime) {
+            previous = previous.prev;
+        }
+
+        Node previousInBucket = bucket.tail;
+        while (previousInBucket != null && previousInBucket.event.getTime() > eventTime) {
+            previousInBucket = previousInBucket.prevInBucket;
+        }
+
+        linkAfter(previous, node);
+        linkAfterInBucket(bucket, previousInBucket, node);
+        addedToMiddle++;
+    }
+
+    /**
+     * Inserts a node in the queue, after a given one.
+     * @param previous the node to insert the new one after it
+     *                 or null to insert the new node at the head of the queue
+     * @param node the node to insert
+     */
+    private void linkAfter(final Node previous, final Node node) {
+        node.prev = previous;
+        node.next = previous == null ? head : previous.next;
+        if (node.next == null) {
+            tail = node;
+        } else {
+            node.next.prev = node;
+        }
+
+        if (previous == null) {
+            head = node;
+        } else {
+            previous.next = node;
+        }
+
+        size++;
+    }
+
+    /**
+     * Inserts a node in a bucket, after a given one.
+     * @param bucket the bucket to insert the node
+     * @param previous the node to insert the new one after it
+     *                 or null to insert the new node at the head of the bucket
+     * @param node the node to insert
+     */
+    private void linkAfterInBucket(final Bucket bucket, final Node previous, final Node node) {
+        node.prevInBucket = previous;
+        node.nextInBucket = previous == null ? bucket.head : previous.nextInBucket;
+        if (node.nextInBucket == null) {
+            bucket.tail = node;
+        } else {
+            node.nextInBucket.prevInBucket = node;
+        }
+
+        if (previous == null) {
+            bucket.head = node;
+        } else {
+            previous.nextInBucket = node;
+        }
+    }
+
+    /**
+     * Removes a node from the queue and from its bucket.
+     * @param node the node to remove
+     */
+    private void unlink(final Node node) {
+        final Bucket bucket = node.bucket;
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+
+        if (node.prevInBucket == null) {
+            bucket.head = node.nextInBucket;
+        } else {
+            node.prevInBucket.nextInBucket = node.nextInBucket;
+        }
+
+        if (node.nextInBucket == null) {
+            bucket.tail = node.prevInBucket;
+        } else {
+            node.nextInBucket.prevInBucket = node.prevInBucket;
+        }
+
+        if (bucket.head == null) {
+            buckets.remove(bucket.destination);
+        }
+
+        size--;
+    }
+
+    /**
+     * Gets the first node in the bucket of a given entity, whose event matches a predicate.
+     * @param dest the destination entity of the event
+     * @param predicate the event selection predicate
+     * @return the node found or null if no event matches the predicate
+     */
+    private Node findFirstNode(final SimEntity dest, final Predicate<SimEvent> predicate) {
+        final Bucket bucket = buckets.get(dest);
+        if (bucket == null) {
+            return null;
+        }
+
+        for (Node node = bucket.head; node != null; node = node.nextInBucket) {
+            if (predicate.test(node.event)) {
+                return node;
             }
         }
 
-        list.add(newEvent);
+        return null;
+    }
+
+    /**
+     * Gets the first event targeted to a given entity which matches a predicate,
+     * just traversing the events of that entity.
+     *
+     * @param dest the destination entity of the event
+     * @param predicate the event selection predicate
+     * @return the event found or {@link SimEvent#NULL} if no event matches the predicate
+     */
+    public SimEvent findFirst(final SimEntity dest, final Predicate<SimEvent> predicate) {
+        final Node node = findFirstNode(dest, predicate);
+        return node == null ? SimEvent.NULL : node.event;
+    }
+
+    /**
+     * Removes the first event targeted to a given entity which matches a predicate,
+     * just traversing the events of that entity.
+     *
+     * @param dest the destination entity of the event
+     * @param predicate the event selection predicate
+     * @return the removed event or {@link SimEvent#NULL} if no event matches the predicate
+     */
+    public SimEvent removeFirst(final SimEntity dest, final Predicate<SimEvent> predicate) {
+        final Node node = findFirstNode(dest, predicate);
+        if (node == null) {
+            return SimEvent.NULL;
+        }
+
+        unlink(node);
+        return node.event;
     }
 
     /**
@@ -81,7 +283,36 @@ public class DeferredQueue implements EventQueue {
      * @return the iterator
      */
     public Iterator<SimEvent> iterator() {
-        return list.iterator();
+        return new Iterator<SimEvent>() {
+            private Node next = head;
+            private Node last;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public SimEvent next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+
+                last = next;
+                next = next.next;
+                return last.event;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+
+                unlink(last);
+                last = null;
+            }
+        };
     }
 
     /**
@@ -90,7 +321,8 @@ public class DeferredQueue implements EventQueue {
      * @return the stream
      */
     public Stream<SimEvent> stream() {
-        return list.stream();
+        final int characteristics = Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED;
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size, characteristics), false);
     }
 
     /**
@@ -99,12 +331,12 @@ public class DeferredQueue implements EventQueue {
      * @return the number of events in the queue.
      */
     public int size() {
-        return list.size();
+        return size;
     }
 
     @Override
     public boolean isEmpty() {
-        return list.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -114,7 +346,14 @@ public class DeferredQueue implements EventQueue {
      * @return true, if successful
      */
     public boolean remove(final SimEvent event) {
-        return list.remove(event);
+        final Node node = findFirstNode(event.getDestination(), evt -> evt == event);
+        if (node == null) {
+            //The destination may have been changed after the event was added
+            return removeIf(evt -> evt == event);
+        }
+
+        unlink(node);
+        return true;
     }
 
     /**
@@ -124,27 +363,37 @@ public class DeferredQueue implements EventQueue {
      * @return true, if successful
      */
     public boolean removeAll(final Collection<SimEvent> events) {
-        return list.removeAll(events);
+        return removeIf(events::contains);
     }
 
     public boolean removeIf(final Predicate<SimEvent> predicate) {
-        return list.removeIf(predicate);
+        final int previousSize = size;
+        for (final Iterator<SimEvent> it = iterator(); it.hasNext(); ) {
+            if (predicate.test(it.next())) {
+                it.remove();
+            }
+        }
+
+        return size < previousSize;
     }
 
     /**
      * Clears the queue.
      */
     public void clear() {
-        list.clear();
+        head = null;
+        tail = null;
+        size = 0;
+        buckets.clear();
     }
 
     @Override
     public SimEvent first() throws NoSuchElementException {
-        if (list.isEmpty()) {
+        if (head == null) {
             throw new NoSuchElementException("The Deferred Queue is empty.");
         }
 
-        return list.get(0);
+        return head.event;
     }
 
     /**
@@ -165,6 +414,14 @@ public class DeferredQueue implements EventQueue {
         return addedToMiddle;
     }
 
+    /**
+     * Gets the number of destination entities which currently have events in the queue.
+     * @return the number of event buckets
+     */
+    /* default */ int getBucketsNumber() {
+        return buckets.size();
+    }
+
     /**
      * Keeps track of the maximum number of events
      * added to the queue, just for debug purpose.
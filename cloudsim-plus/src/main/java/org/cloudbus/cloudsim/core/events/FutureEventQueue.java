@@ -0,0 +1,141 @@
+package org.cloudbus.cloudsim.core.events;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * An interface to be implemented by {@link EventQueue}s that store
+ * the future simulation events, which are those ones
+ * that will be processed by the {@link CloudSim} engine
+ * when the simulation clock reaches their time.
+ *
+ * <p>Implementations must ensure the {@link #first()} event is always
+ * the one with the lowest time. Events with the same time must be
+ * ordered by their {@link SimEvent#getSerial() serial}
+ * and events having the same time and serial must follow
+ * the order they were added to the queue.
+ * However, the {@link #iterator()} and {@link #stream()}
+ * methods aren't required to return events in such an order.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ * @see FutureQueue
+ * @see FutureQueueHeap
+ */
+public interface FutureEventQueue extends EventQueue {
+    /**
+     * Adds a new event to the head of the queue,
+     * so that it's processed before all other events scheduled to the same time.
+     *
+     * @param newEvent The event to be put in the queue.
+     */
+    void addEventFirst(SimEvent newEvent);
+
+    /**
+     * Removes the {@link #first()} event and all the subsequent ones happening at the same time,
+     * stopping at the first event happening later.
+     * This way, it doesn't need to traverse the entire queue to find
+     * the events to be processed at the next simulation time.
+     *
+     * @return the list of removed events, in the queue order
+     *         (which is empty if the queue is empty)
+     */
+    default List<SimEvent> pollFirstBatch(){
+        final List<SimEvent> batch = new ArrayList<>();
+        if(isEmpty()){
+            return batch;
+        }
+
+        final double time = first().getTime();
+        while(!isEmpty() && first().getTime() == time){
+            final SimEvent evt = first();
+            remove(evt);
+            batch.add(evt);
+        }
+
+        return batch;
+    }
+
+    /**
+     * Removes the event from the queue.
+     *
+     * @param event the event
+     * @return true, if successful
+     */
+    boolean remove(SimEvent event);
+
+    /**
+     * Removes all the events from the queue.
+     *
+     * @param events the events
+     * @return true, if successful
+     */
+    boolean removeAll(Collection<SimEvent> events);
+
+    /**
+     * Removes all the events matching a given predicate.
+     *
+     * @param predicate the predicate to select the events to remove
+     * @return true if any event was removed, false otherwise
+     */
+    boolean removeIf(Predicate<SimEvent> predicate);
+
+    /**
+     * Gets the first event in the queue order which matches a given predicate.
+     *
+     * @param predicate the predicate to select the event
+     * @return the first matching event or {@link SimEvent#NULL} if no event matches the predicate
+     */
+    SimEvent findFirst(Predicate<SimEvent> predicate);
+
+    /**
+     * Removes the first event in the queue order which was sent by a given entity
+     * and matches a given predicate.
+     * Implementations may index events by their source
+     * to avoid traversing the entire queue.
+     *
+     * @param src the entity that sent the event
+     * @param predicate the predicate to select the event
+     * @return the removed event or {@link SimEvent#NULL} if no event matches the predicate
+     */
+    default SimEvent removeFirst(final SimEntity src, final Predicate<SimEvent> predicate){
+        final SimEvent evt = findFirst(predicate.and(e -> e.getSource().equals(src)));
+        if(evt != SimEvent.NULL) {
+            remove(evt);
+        }
+
+        return evt;
+    }
+
+    /**
+     * Removes all the events sent by a given entity which match a given predicate.
+     * Implementations may index events by their source
+     * to avoid traversing the entire queue.
+     *
+     * @param src the entity that sent the events
+     * @param predicate the predicate to select the events to remove
+     * @return true if any event was removed, false otherwise
+     */
+    default boolean removeIf(final SimEntity src, final Predicate<SimEvent> predicate){
+        return removeIf(predicate.and(evt -> evt.getSource().equals(src)));
+    }
+
+    /**
+     * Clears the queue.
+     */
+    void clear();
+
+    /** Gets an incremental number used for {@link SimEvent#getSerial()} event attribute. */
+    long getSerial();
+
+    /**
+     * Maximum number of events that have ever existed at the same time
+     * inside the queue.
+     */
+    long getMaxEventsNumber();
+}
@@ -0,0 +1,143 @@
+package org.cloudbus.cloudsim.core.events;
+
+import org.cloudbus.cloudsim.core.SimEntity;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * An index of the events inside a {@link FutureEventQueue} by their
+ * {@link SimEvent#getSource() source entity}, used to cancel events
+ * sent by a given entity without traversing the entire queue.
+ *
+ * <p>A source entity is just indexed when events from it are cancelled for the first time
+ * (which happens for entities such as network switches and the {@link org.cloudbus.cloudsim.core.CloudInformationService}).
+ * This way, events from the other entities don't pay the cost of being indexed.
+ * Cancelling events from an indexed source costs O(n), where n is the number of
+ * events from that source inside the queue, instead of the number of events in the entire queue.
+ * For each event from an indexed source, it's stored the order in which the event was added to the queue,
+ * to untie events having the same time and serial.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+final class FutureEventsSourceIndex {
+    /**
+     * A map where each key is an indexed source entity and the value is another map
+     * containing the events from that source inside the queue
+     * and the order they were added to the queue.
+     * Source entities are compared by {@link SimEntity#equals(Object)},
+     * as they were when cancelling events by traversing the queue,
+     * while events are compared by reference (using an {@link IdentityHashMap}).
+     */
+    private final Map<SimEntity, Map<SimEvent, Long>> eventsBySource = new HashMap<>();
+
+    /**
+     * Checks if a given source entity is already indexed.
+     * @param src the source entity to check
+     * @return true if the source is indexed, false otherwise
+     */
+    boolean isIndexed(final SimEntity src) {
+        return eventsBySource.containsKey(src);
+    }
+
+    /**
+     * Starts indexing the events from a given source.
+     * The events from such a source already in the queue must be
+     * {@link #add(SimEvent, long) added} afterwards.
+     * @param src the source entity to index
+     */
+    void index(final SimEntity src) {
+        eventsBySource.put(src, new IdentityHashMap<>());
+    }
+
+    /**
+     * Adds an event to the index if its source is indexed.
+     * @param evt the event added to the queue
+     * @param order the order the event was added to the queue
+     */
+    void add(final SimEvent evt, final long order) {
+        if (eventsBySource.isEmpty()) {
+            return;
+        }
+
+        final Map<SimEvent, Long> events = eventsBySource.get(evt.getSource());
+        if (events != null) {
+            events.put(evt, order);
+        }
+    }
+
+    /**
+     * Removes an event from the index (if its source is indexed).
+     * @param evt the event removed from the queue
+     */
+    void remove(final SimEvent evt) {
+        if (eventsBySource.isEmpty()) {
+            return;
+        }
+
+        final Map<SimEvent, Long> events = eventsBySource.get(evt.getSource());
+        if (events != null) {
+            events.remove(evt);
+        }
+    }
+
+    /**
+     * Removes all events from the index, keeping the sources indexed.
+     */
+    void clear() {
+        eventsBySource.values().forEach(Map::clear);
+    }
+
+    /**
+     * Gets the first event in the queue order which was sent by an indexed source
+     * and matches a given predicate.
+     *
+     * @param src the indexed source entity
+     * @param predicate the event selection predicate
+     * @return the first matching event or {@link SimEvent#NULL} if no event matches the predicate
+     */
+    SimEvent first(final SimEntity src, final Predicate<SimEvent> predicate) {
+        SimEvent first = SimEvent.NULL;
+        long firstOrder = Long.MAX_VALUE;
+        for (final Map.Entry<SimEvent, Long> entry : eventsBySource.get(src).entrySet()) {
+            final SimEvent evt = entry.getKey();
+            if (predicate.test(evt) && (first == SimEvent.NULL || isBefore(evt, entry.getValue(), first, firstOrder))) {
+                first = evt;
+                firstOrder = entry.getValue();
+            }
+        }
+
+        return first;
+    }
+
+    /**
+     * Gets all the events sent by an indexed source which match a given predicate.
+     *
+     * @param src the indexed source entity
+     * @param predicate the event selection predicate
+     * @return the list of matching events (in no specific order)
+     */
+    List<SimEvent> filter(final SimEntity src, final Predicate<SimEvent> predicate) {
+        final List<SimEvent> list = new ArrayList<>();
+        for (final SimEvent evt : eventsBySource.get(src).keySet()) {
+            if (predicate.test(evt)) {
+                list.add(evt);
+            }
+        }
+
+        return list;
+    }
+
+    private static boolean isBefore(final SimEvent evt, final long order, final SimEvent other, final long otherOrder) {
+        if (evt.getTime() != other.getTime()) {
+            return evt.getTime() < other.getTime();
+        }
+
+        if (evt.getSerial() != other.getSerial()) {
+            return evt.getSerial() < other.getSerial();
+        }
+
+        return order < otherOrder;
+    }
+}
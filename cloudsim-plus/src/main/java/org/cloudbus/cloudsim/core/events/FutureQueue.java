@@ -8,55 +8,94 @@
 
 package org.cloudbus.cloudsim.core.events;
 
+import org.cloudbus.cloudsim.core.SimEntity;
+
 import java.util.*;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 /**
- * An {@link EventQueue} that stores future simulation events.
+ * A {@link FutureEventQueue} that stores future simulation events.
  * It uses a {@link TreeSet} in order ensure the events
  * are stored ordered. Using a {@link java.util.LinkedList}
  * as defined by {@link DeferredQueue} to improve performance
  * doesn't work for this queue.
+ * This is the default queue used by {@link org.cloudbus.cloudsim.core.CloudSim}.
+ * Simulations with millions of future events may
+ * use a {@link FutureQueueHeap} instead.
  *
  * @author Marcos Dias de Assuncao
  * @author Manoel Campos da Silva Filho
  * @see java.util.TreeSet
+ * @see FutureQueueHeap
  * @since CloudSim Toolkit 1.0
  */
-public class FutureQueue implements EventQueue {
+public class FutureQueue implements FutureEventQueue {
 
     /**
      * The sorted set of events.
      */
-    private final SortedSet<SimEvent> sortedSet = new TreeSet<>();
+    private final NavigableSet<SimEvent> sortedSet = new TreeSet<>();
+
+    /**
+     * Indexes the events by their source entity to enable
+     * cancelling events without traversing the entire queue.
+     */
+    private final FutureEventsSourceIndex sourceIndex = new FutureEventsSourceIndex();
 
     /** @see #getSerial() */
     private long serial;
 
+    /**
+     * The total number of events ever added to the queue,
+     * used to define the order an event was added to the {@link #sourceIndex}.
+     */
+    private long insertionCount;
+
     /** @see #getMaxEventsNumber() */
     private long maxEventsNumber;
 
     @Override
     public void addEvent(final SimEvent newEvent) {
         newEvent.setSerial(serial++);
-        sortedSet.add(newEvent);
+        insert(newEvent);
         maxEventsNumber = Math.max(maxEventsNumber, sortedSet.size());
     }
 
-    /**
-     * Adds a new event to the head of the queue.
-     *
-     * @param newEvent The event to be put in the queue.
-     */
+    @Override
     public void addEventFirst(final SimEvent newEvent) {
         newEvent.setSerial(0);
+        insert(newEvent);
+    }
+
+    private void insert(final SimEvent newEvent) {
         sortedSet.add(newEvent);
+        sourceIndex.add(newEvent, insertionCount++);
     }
 
     @Override
     public Iterator<SimEvent> iterator() {
-        return sortedSet.iterator();
+        final Iterator<SimEvent> iterator = sortedSet.iterator();
+        return new Iterator<SimEvent>() {
+            private SimEvent last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public SimEvent next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                sourceIndex.remove(last);
+            }
+        };
     }
 
     @Override
@@ -74,51 +113,131 @@ public class FutureQueue implements EventQueue {
         return sortedSet.isEmpty();
     }
 
-    /**
-     * Removes the event from the queue.
-     *
-     * @param event the event
-     * @return true, if successful
-     */
+    @Override
+    public List<SimEvent> pollFirstBatch() {
+        final List<SimEvent> batch = new ArrayList<>();
+        if(sortedSet.isEmpty()){
+            return batch;
+        }
+
+        final double time = sortedSet.first().getTime();
+        while(!sortedSet.isEmpty() && sortedSet.first().getTime() == time){
+            final SimEvent evt = sortedSet.pollFirst();
+            sourceIndex.remove(evt);
+            batch.add(evt);
+        }
+
+        return batch;
+    }
+
+    @Override
     public boolean remove(final SimEvent event) {
-        return sortedSet.remove(event);
+        if(removeFromSortedSet(event)){
+            sourceIndex.remove(event);
+            return true;
+        }
+
+        return false;
     }
 
-    /**
-     * Removes all the events from the queue.
-     *
-     * @param events the events
-     * @return true, if successful
-     */
+    private boolean removeFromSortedSet(final SimEvent event) {
+        /* The head is removed directly because events having the same time and serial
+         * (such as the ones added by addEventFirst) may not be found by the TreeSet
+         * when it looks for an event using the compareTo method. */
+        if(!sortedSet.isEmpty() && sortedSet.first() == event){
+            sortedSet.pollFirst();
+            return true;
+        }
+
+        if(sortedSet.remove(event)){
+            return true;
+        }
+
+        //Just events with serial 0 may have the same time and serial of other ones
+        return event.getSerial() == 0 && sortedSet.removeIf(evt -> evt == event);
+    }
+
+    @Override
     public boolean removeAll(final Collection<SimEvent> events) {
-        return sortedSet.removeAll(events);
+        return removeIf(events::contains);
     }
 
+    @Override
     public boolean removeIf(final Predicate<SimEvent> predicate){
-        return sortedSet.removeIf(predicate);
+        return sortedSet.removeIf(evt -> {
+            if(predicate.test(evt)){
+                sourceIndex.remove(evt);
+                return true;
+            }
+
+            return false;
+        });
     }
 
     @Override
-    public SimEvent first() throws NoSuchElementException {
-        return sortedSet.first();
+    public SimEvent removeFirst(final SimEntity src, final Predicate<SimEvent> predicate) {
+        indexSource(src);
+        final SimEvent evt = sourceIndex.first(src, predicate);
+        if(evt != SimEvent.NULL) {
+            remove(evt);
+        }
+
+        return evt;
+    }
+
+    @Override
+    public boolean removeIf(final SimEntity src, final Predicate<SimEvent> predicate) {
+        indexSource(src);
+        final List<SimEvent> events = sourceIndex.filter(src, predicate);
+        events.forEach(this::remove);
+        return !events.isEmpty();
     }
 
     /**
-     * Clears the queue.
+     * Starts indexing the events from a given source entity,
+     * if it isn't indexed yet.
+     * @param src the source entity to index
      */
+    private void indexSource(final SimEntity src) {
+        if(sourceIndex.isIndexed(src)){
+            return;
+        }
+
+        sourceIndex.index(src);
+        /*Since the set is sorted, events are indexed in the queue order.
+        * The order assigned for each one is lower than the order of any event added later.*/
+        long order = insertionCount - sortedSet.size();
+        for (final SimEvent evt : sortedSet) {
+            if(evt.getSource().equals(src)) {
+                sourceIndex.add(evt, order);
+            }
+
+            order++;
+        }
+    }
+
+    @Override
+    public SimEvent findFirst(final Predicate<SimEvent> predicate) {
+        return sortedSet.stream().filter(predicate).findFirst().orElse(SimEvent.NULL);
+    }
+
+    @Override
+    public SimEvent first() throws NoSuchElementException {
+        return sortedSet.first();
+    }
+
+    @Override
     public void clear() {
         sortedSet.clear();
+        sourceIndex.clear();
     }
 
-    /** Gets an incremental number used for {@link SimEvent#getSerial()} event attribute. */
+    @Override
     public long getSerial() {
         return serial;
     }
 
-    /**
-     * Maximum number of events that have ever existed at the same time
-     * inside the queue.
-     */
+    @Override
     public long getMaxEventsNumber() {
         return maxEventsNumber;
     }
@@ -0,0 +1,470 @@
+package org.cloudbus.cloudsim.core.events;
+
+import org.cloudbus.cloudsim.core.SimEntity;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link FutureEventQueue} backed by an array-based 4-ary heap
+ * keyed on the event time and serial.
+ * It's an alternative to the {@link FutureQueue} for simulations
+ * generating millions of events.
+ * Adding an event doesn't allocate any node object
+ * (as the {@link TreeSet} used by the {@link FutureQueue} does)
+ * and the keys are compared directly from primitive arrays,
+ * without calling {@link SimEvent#compareTo(SimEvent)}.
+ * A 4-ary heap has half of the height of a binary heap,
+ * reducing the number of element swaps when an event is added or removed.
+ *
+ * <p>The events are ordered exactly as in a {@link FutureQueue}:
+ * by time, then by serial and then by the order they were added to the queue.
+ * This way, events added by {@link #addEventFirst(SimEvent)} keep their priority.
+ * However, the {@link #iterator()} and {@link #stream()} methods
+ * return the events in the heap order, which is not sorted.</p>
+ *
+ * <p>Events cancelled by {@link #removeFirst(SimEntity, Predicate)} and
+ * {@link #removeIf(SimEntity, Predicate)} are found using an index of events by source entity
+ * and are lazily removed: they are just marked as cancelled
+ * and skipped when they reach the head of the queue.
+ * This way, cancelling an event doesn't require searching it into the heap.
+ * Cancelled events are physically removed at once when they become
+ * the majority of the heap.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class FutureQueueHeap implements FutureEventQueue {
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * The events in the heap order.
+     * Each event at the index i has its time, serial and
+     * insertion order stored at the same index i
+     * of the {@link #times}, {@link #serials} and {@link #insertions} arrays.
+     */
+    private SimEvent[] events;
+    private double[] times;
+    private long[] serials;
+
+    /**
+     * The order each event was added to the queue,
+     * used to untie events with the same time and serial.
+     */
+    private long[] insertions;
+
+    private int size;
+
+    /**
+     * The total number of events ever added to the queue,
+     * used to define the {@link #insertions} order of a new event.
+     */
+    private long insertionCount;
+
+    /** @see #getSerial() */
+    private long serial;
+
+    /**
+     * Events that were cancelled but are still inside the heap.
+     * The head of the heap is never a cancelled event.
+     */
+    private final Set<SimEvent> cancelled = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Indexes the events by their source entity to enable
+     * cancelling events without traversing the entire queue.
+     */
+    private final FutureEventsSourceIndex sourceIndex = new FutureEventsSourceIndex();
+
+    /** @see #getMaxEventsNumber() */
+    private long maxEventsNumber;
+
+    /**
+     * Creates a FutureQueueHeap with a default initial capacity.
+     */
+    public FutureQueueHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a FutureQueueHeap with a given initial capacity.
+     * The queue grows as needed.
+     *
+     * @param initialCapacity the number of events the queue can store before growing
+     */
+    public FutureQueueHeap(final int initialCapacity) {
+        if(initialCapacity <= 0){
+            throw new IllegalArgumentException("The initial capacity must be greater than zero.");
+        }
+
+        events = new SimEvent[initialCapacity];
+        times = new double[initialCapacity];
+        serials = new long[initialCapacity];
+        insertions = new long[initialCapacity];
+    }
+
+    @Override
+    public void addEvent(final SimEvent newEvent) {
+        newEvent.setSerial(serial++);
+        insert(newEvent);
+        maxEventsNumber = Math.max(maxEventsNumber, size());
+    }
+
+    @Override
+    public void addEventFirst(final SimEvent newEvent) {
+        newEvent.setSerial(0);
+        insert(newEvent);
+    }
+
+    private void insert(final SimEvent newEvent) {
+        //A cancelled event being added again must not be skipped
+        if(cancelled.contains(newEvent)){
+            purgeCancelled();
+        }
+
+        if(size == events.length){
+            grow();
+        }
+
+        sourceIndex.add(newEvent, insertionCount);
+        set(size, newEvent, newEvent.getTime(), newEvent.getSerial(), insertionCount++);
+        siftUp(size++);
+    }
+
+    private void grow() {
+        final int capacity = events.length + (events.length >> 1) + 1;
+        events = Arrays.copyOf(events, capacity);
+        times = Arrays.copyOf(times, capacity);
+        serials = Arrays.copyOf(serials, capacity);
+        insertions = Arrays.copyOf(insertions, capacity);
+    }
+
+    private void set(final int index, final SimEvent evt, final double time, final long serial, final long insertion) {
+        events[index] = evt;
+        times[index] = time;
+        serials[index] = serial;
+        insertions[index] = insertion;
+    }
+
+    private void move(final int from, final int to) {
+        set(to, events[from], times[from], serials[from], insertions[from]);
+    }
+
+    /**
+     * Checks if the key of the event at a given index is lower than the given key.
+     */
+    private boolean isLower(final int index, final double time, final long serial, final long insertion) {
+        if (times[index] != time) {
+            return times[index] < time;
+        }
+
+        if (serials[index] != serial) {
+            return serials[index] < serial;
+        }
+
+        return insertions[index] < insertion;
+    }
+
+    /**
+     * Moves the event at a given index up to the heap
+     * until its parent has a lower key.
+     */
+    private void siftUp(int index) {
+        final SimEvent evt = events[index];
+        final double time = times[index];
+        final long serial = serials[index];
+        final long insertion = insertions[index];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 2;
+            if (isLower(parent, time, serial, insertion)) {
+                break;
+            }
+
+            move(parent, index);
+            index = parent;
+        }
+
+        set(index, evt, time, serial, insertion);
+    }
+
+    /**
+     * Moves the event at a given index down to the heap
+     * until all its children have a higher key.
+     * @return the new index of the event
+     */
+    private int siftDown(int index) {
+        final SimEvent evt = events[index];
+        final double time = times[index];
+        final long serial = serials[index];
+        final long insertion = insertions[index];
+        while (true) {
+            final int firstChild = (index << 2) + 1;
+            if (firstChild >= size) {
+                break;
+            }
+
+            int minChild = firstChild;
+            final int lastChild = Math.min(firstChild + 4, size);
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (isLower(child, times[minChild], serials[minChild], insertions[minChild])) {
+                    minChild = child;
+                }
+            }
+
+            if (!isLower(minChild, time, serial, insertion)) {
+                break;
+            }
+
+            move(minChild, index);
+            index = minChild;
+        }
+
+        set(index, evt, time, serial, insertion);
+        return index;
+    }
+
+    private void removeAt(final int index) {
+        final int last = --size;
+        if (index != last) {
+            move(last, index);
+            if (siftDown(index) == index) {
+                siftUp(index);
+            }
+        }
+
+        events[last] = null;
+    }
+
+    /**
+     * Physically removes the cancelled events from the head of the heap,
+     * until the head is an active event.
+     */
+    private void skipCancelledHead() {
+        while (size > 0 && !cancelled.isEmpty() && cancelled.remove(events[0])) {
+            removeAt(0);
+        }
+    }
+
+    /**
+     * Marks an event as cancelled, so that it's lazily removed from the heap.
+     * @param evt the event to cancel
+     */
+    private void cancel(final SimEvent evt) {
+        sourceIndex.remove(evt);
+        cancelled.add(evt);
+        skipCancelledHead();
+        if (cancelled.size() > size / 2) {
+            purgeCancelled();
+        }
+    }
+
+    /**
+     * Physically removes all cancelled events from the heap.
+     */
+    private void purgeCancelled() {
+        removeIf(evt -> false);
+    }
+
+    /**
+     * Checks if an event at a given index is active (not cancelled).
+     */
+    private boolean isActive(final int index) {
+        return cancelled.isEmpty() || !cancelled.contains(events[index]);
+    }
+
+    /**
+     * Rebuilds the heap in linear time after the array of events is changed.
+     */
+    private void heapify() {
+        if (size < 2) {
+            return;
+        }
+
+        for (int i = (size - 2) >>> 2; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The events are returned in the heap order, which is not sorted.
+     * The returned iterator doesn't allow removing elements.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Iterator<SimEvent> iterator() {
+        if (cancelled.isEmpty()) {
+            return Collections.unmodifiableList(Arrays.asList(events).subList(0, size)).iterator();
+        }
+
+        return stream().iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The events are returned in the heap order, which is not sorted.
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Stream<SimEvent> stream() {
+        final Stream<SimEvent> stream = Arrays.stream(events, 0, size);
+        return cancelled.isEmpty() ? stream : stream.filter(evt -> !cancelled.contains(evt));
+    }
+
+    @Override
+    public int size() {
+        return size - cancelled.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public List<SimEvent> pollFirstBatch() {
+        final List<SimEvent> batch = new ArrayList<>();
+        if (size == 0) {
+            return batch;
+        }
+
+        final double time = times[0];
+        while (size > 0 && times[0] == time) {
+            final SimEvent evt = events[0];
+            removeAt(0);
+            sourceIndex.remove(evt);
+            skipCancelledHead();
+            batch.add(evt);
+        }
+
+        return batch;
+    }
+
+    @Override
+    public boolean remove(final SimEvent event) {
+        if (cancelled.contains(event)) {
+            return false;
+        }
+
+        for (int i = 0; i < size; i++) {
+            if (events[i] == event) {
+                removeAt(i);
+                sourceIndex.remove(event);
+                skipCancelledHead();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean removeAll(final Collection<SimEvent> events) {
+        return removeIf(events::contains);
+    }
+
+    @Override
+    public boolean removeIf(final Predicate<SimEvent> predicate) {
+        boolean removed = false;
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isActive(i)) {
+                continue;
+            }
+
+            if (predicate.test(events[i])) {
+                sourceIndex.remove(events[i]);
+                removed = true;
+            } else {
+                move(i, newSize++);
+            }
+        }
+
+        cancelled.clear();
+        if (newSize == size) {
+            return false;
+        }
+
+        Arrays.fill(events, newSize, size, null);
+        size = newSize;
+        heapify();
+        return removed;
+    }
+
+    @Override
+    public SimEvent removeFirst(final SimEntity src, final Predicate<SimEvent> predicate) {
+        indexSource(src);
+        final SimEvent evt = sourceIndex.first(src, predicate);
+        if (evt != SimEvent.NULL) {
+            cancel(evt);
+        }
+
+        return evt;
+    }
+
+    @Override
+    public boolean removeIf(final SimEntity src, final Predicate<SimEvent> predicate) {
+        indexSource(src);
+        final List<SimEvent> list = sourceIndex.filter(src, predicate);
+        list.forEach(this::cancel);
+        return !list.isEmpty();
+    }
+
+    /**
+     * Starts indexing the events from a given source entity,
+     * if it isn't indexed yet.
+     * @param src the source entity to index
+     */
+    private void indexSource(final SimEntity src) {
+        if (sourceIndex.isIndexed(src)) {
+            return;
+        }
+
+        sourceIndex.index(src);
+        for (int i = 0; i < size; i++) {
+            if (events[i].getSource().equals(src) && isActive(i)) {
+                sourceIndex.add(events[i], insertions[i]);
+            }
+        }
+    }
+
+    @Override
+    public SimEvent findFirst(final Predicate<SimEvent> predicate) {
+        int first = -1;
+        for (int i = 0; i < size; i++) {
+            if (isActive(i) && predicate.test(events[i]) && (first == -1 || isLower(i, times[first], serials[first], insertions[first]))) {
+                first = i;
+            }
+        }
+
+        return first == -1 ? SimEvent.NULL : events[first];
+    }
+
+    @Override
+    public SimEvent first() throws NoSuchElementException {
+        if (size == 0) {
+            throw new NoSuchElementException("The Future Queue is empty.");
+        }
+
+        return events[0];
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(events, 0, size, null);
+        size = 0;
+        cancelled.clear();
+        sourceIndex.clear();
+    }
+
+    @Override
+    public long getSerial() {
+        return serial;
+    }
+
+    @Override
+    public long getMaxEventsNumber() {
+        return maxEventsNumber;
+    }
+}
@@ -70,6 +70,33 @@ public interface Datacenter extends SimEntity, PowerAware, TimeZoned {
      */
     <T extends Host> List<T> getHostList();
 
+    /**
+     * Notifies the Datacenter that the processing of a given Host has to be updated
+     * the next time the Datacenter updates the processing of its Hosts.
+     * The Datacenter may skip Hosts which don't {@link Host#isProcessingUpdateRequired() require}
+     * such an update, until this method is called for them.
+     * It's called by the Host itself, for instance when a VM is placed into it.
+     *
+     * <p>The default implementation does nothing,
+     * which is enough for Datacenters that update the processing of all their Hosts.</p>
+     *
+     * @param host the Host whose processing has to be updated
+     */
+    default void requestHostProcessingUpdate(final Host host) {/**/}
+
+    /**
+     * Checks if the Datacenter handles {@link org.cloudbus.cloudsim.core.CloudSimTags#CLOUDLET_SUBMIT_LIST} events,
+     * so that a broker can submit multiple Cloudlets in a single event.
+     *
+     * <p>The default implementation returns false,
+     * so that Cloudlets are submitted one by one to Datacenters that don't implement this method.</p>
+     *
+     * @return true if a list of Cloudlets can be submitted at once, false otherwise
+     */
+    default boolean isCloudletListSubmissionSupported() {
+        return false;
+    }
+
     /**
      * Gets a Host in a given position inside the Host List.
      * @param index the position of the List to get the Host
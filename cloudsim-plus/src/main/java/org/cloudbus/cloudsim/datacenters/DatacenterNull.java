@@ -36,6 +36,7 @@ final class DatacenterNull implements Datacenter, SimEntityNullBase {
     @Override public Host getHostById(long id) { return Host.NULL; }
     @Override public <T extends Host> Datacenter addHostList(List<T> hostList) { return this; }
     @Override public <T extends Host> Datacenter removeHost(T host) { return this; }
+    @Override public void requestHostProcessingUpdate(Host host) {/**/}
     @Override public Datacenter addHost(Host host) { return this; }
     @Override public double getSchedulingInterval() { return 0; }
     @Override public Datacenter setSchedulingInterval(double schedulingInterval) { return this; }
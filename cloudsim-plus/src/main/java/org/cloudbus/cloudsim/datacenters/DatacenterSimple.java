@@ -13,6 +13,7 @@ import org.cloudbus.cloudsim.cloudlets.Cloudlet;
 import org.cloudbus.cloudsim.core.CloudSimEntity;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.core.events.CloudSimEvent;
 import org.cloudbus.cloudsim.core.events.PredicateType;
 import org.cloudbus.cloudsim.core.events.SimEvent;
 import org.cloudbus.cloudsim.hosts.Host;
@@ -67,6 +68,21 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
 
     private List<? extends Host> hostList;
 
+    /**
+     * The positions (inside the {@link #hostList}) of the Hosts whose processing
+     * has to be updated the next time {@link #updateHostsProcessing()} is called.
+     * Hosts which don't {@link Host#isProcessingUpdateRequired() require} such an update
+     * are removed from this set after being updated. This way, idle Hosts are skipped
+     * until {@link #requestHostProcessingUpdate(Host)} is called for them.
+     */
+    private final BitSet hostsToUpdate = new BitSet();
+
+    /**
+     * A map where each key is a Host and the value is its position inside the {@link #hostList}.
+     * It's rebuilt when the size of the {@link #hostList} changes.
+     */
+    private final Map<Host, Integer> hostPositions = new IdentityHashMap<>();
+
     /** @see #getCharacteristics() */
     private final DatacenterCharacteristics characteristics;
 
@@ -76,6 +92,15 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
     /** @see #getLastProcessTime() */
     private double lastProcessTime;
 
+    /**
+     * The times of the {@link CloudSimTags#VM_UPDATE_CLOUDLET_PROCESSING} events
+     * sent when Cloudlets were submitted, which are used to
+     * {@link #requestCloudletProcessingUpdate(double) coalesce} such updates.
+     * Times not greater than the current simulation time are from events already processed
+     * and are removed as new updates are requested.
+     */
+    private final NavigableSet<Double> cloudletSubmissionUpdateTimes = new TreeSet<>();
+
 
     /** @see #getSchedulingInterval() */
     private double schedulingInterval;
@@ -352,6 +377,10 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
             case CloudSimTags.CLOUDLET_SUBMIT_ACK:
                 processCloudletSubmit(evt, true);
                 return true;
+            // A list of new Cloudlets arrives at once
+            case CloudSimTags.CLOUDLET_SUBMIT_LIST:
+                processCloudletListSubmit(evt);
+                return true;
             // Cancels a previously submitted Cloudlet
             case CloudSimTags.CLOUDLET_CANCEL:
                 processCloudlet(evt, CloudSimTags.CLOUDLET_CANCEL);
@@ -449,6 +478,24 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
         submitCloudletToVm(cloudlet, ack);
     }
 
+    /**
+     * Processes the submission of a list of Cloudlets by a DatacenterBroker
+     * at once, without acknowledgement.
+     * Each Cloudlet is submitted by {@link #processCloudletSubmit(SimEvent, boolean)},
+     * as if it had arrived in its own {@link CloudSimTags#CLOUDLET_SUBMIT} event.
+     * Cloudlets requiring their processing to be updated at the same time
+     * share a single update event.
+     *
+     * @param evt information about the event just happened, whose data is the list of submitted Cloudlets
+     * @see CloudSimTags#CLOUDLET_SUBMIT_LIST
+     */
+    protected void processCloudletListSubmit(final SimEvent evt) {
+        for (final Object cloudlet : (List<?>) evt.getData()) {
+            processCloudletSubmit(
+                new CloudSimEvent(0, evt.getSource(), this, CloudSimTags.CLOUDLET_SUBMIT, cloudlet), false);
+        }
+    }
+
     /**
      * Submits a cloudlet to be executed inside its bind VM.
      *
@@ -465,14 +512,27 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
 
         // if this cloudlet is in the exec queue
         if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
-             send(this,
-                getCloudletProcessingUpdateInterval(estimatedFinishTime),
-                CloudSimTags.VM_UPDATE_CLOUDLET_PROCESSING);
+            requestCloudletProcessingUpdate(getCloudletProcessingUpdateInterval(estimatedFinishTime));
         }
 
         sendCloudletSubmitAckToBroker(cloudlet, ack);
     }
 
+    /**
+     * Sends an event to update the processing of Cloudlets after a given delay,
+     * unless an update was already requested to the same time.
+     * This way, when lots of Cloudlets are submitted at the same time, just one update
+     * is sent for each distinct time Cloudlets processing has to be updated, instead of one for each Cloudlet.
+     *
+     * @param delay the delay to update the processing of Cloudlets
+     */
+    private void requestCloudletProcessingUpdate(final double delay) {
+        cloudletSubmissionUpdateTimes.headSet(clock(), true).clear();
+        if (cloudletSubmissionUpdateTimes.add(clock() + delay)) {
+            send(this, delay, CloudSimTags.VM_UPDATE_CLOUDLET_PROCESSING);
+        }
+    }
+
     /**
      * Gets the time when the next update of cloudlets has to be performed.
      * This is the minimum value between the {@link #getSchedulingInterval()} and the given time
@@ -721,10 +781,15 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
      * or {@link Double#MAX_VALUE} if there is no next Cloudlet to execute
      */
     private double updateHostsProcessing() {
+        indexHostPositionsIfChanged();
         double nextSimulationDelay = Double.MAX_VALUE;
-        for (final Host host : getHostList()) {
+        for (int i = hostsToUpdate.nextSetBit(0); i >= 0 && i < hostList.size(); i = hostsToUpdate.nextSetBit(i + 1)) {
+            final Host host = hostList.get(i);
             final double delay = host.updateProcessing(clock());
             nextSimulationDelay = Math.min(delay, nextSimulationDelay);
+            if (!host.isProcessingUpdateRequired()) {
+                hostsToUpdate.clear(i);
+            }
         }
 
         // Guarantees a minimal interval before scheduling the event
@@ -740,6 +805,37 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
         return nextSimulationDelay;
     }
 
+    /**
+     * Rebuilds the {@link #hostPositions} map if the size of the {@link #hostList} has changed,
+     * requesting the processing update of all Hosts.
+     */
+    private void indexHostPositionsIfChanged() {
+        if (hostPositions.size() == hostList.size()) {
+            return;
+        }
+
+        hostPositions.clear();
+        for (int i = 0; i < hostList.size(); i++) {
+            hostPositions.put(hostList.get(i), i);
+        }
+
+        hostsToUpdate.clear();
+        hostsToUpdate.set(0, hostList.size());
+    }
+
+    @Override
+    public boolean isCloudletListSubmissionSupported() {
+        return true;
+    }
+
+    @Override
+    public void requestHostProcessingUpdate(final Host host) {
+        final Integer position = hostPositions.get(host);
+        if (position != null) {
+            hostsToUpdate.set(position);
+        }
+    }
+
     /**
      * Updates processing of each Host, that fires the update of VMs,
      * which in turn updates cloudlets running in this Datacenter.
@@ -1026,6 +1122,11 @@ public class DatacenterSimple extends CloudSimEntity implements Datacenter {
     @Override
     public <T extends Host> Datacenter removeHost(final T host) {
         hostList.remove(host);
+        //Host positions have changed
+        hostPositions.clear();
+
+        //Makes the VmAllocationPolicy rebuild any internal data it may have about the Hosts
+        vmAllocationPolicy.notifyHostListChange();
         return this;
     }
 
@@ -8,16 +8,20 @@
 package org.cloudbus.cloudsim.datacenters.network;
 
 import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.core.events.SimEvent;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
 import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
 import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.network.flows.FlowNetwork;
 import org.cloudbus.cloudsim.network.switches.EdgeSwitch;
 import org.cloudbus.cloudsim.network.switches.Switch;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import static java.util.stream.Collectors.toList;
 
@@ -50,6 +54,11 @@ public class NetworkDatacenter extends DatacenterSimple {
      */
     private final List<Switch> switchMap;
 
+    /**
+     * @see #getFlowNetwork()
+     */
+    private FlowNetwork flowNetwork;
+
     /**
      * Creates a NetworkDatacenter with the given parameters.
      *
@@ -70,6 +79,21 @@ public class NetworkDatacenter extends DatacenterSimple {
         super(simulation, hostList, vmAllocationPolicy);
 
         switchMap = new ArrayList<>();
+        flowNetwork = FlowNetwork.NULL;
+    }
+
+    @Override
+    public void processEvent(final SimEvent evt) {
+        if (evt.getTag() != CloudSimTags.NETWORK_FLOW_UPDATE) {
+            super.processEvent(evt);
+            return;
+        }
+
+        /*Packets of finished flows are just added to the received list of Hosts,
+        so the Hosts' processing must be updated to deliver them to the target Cloudlets.*/
+        if (flowNetwork.updateFlows() > 0) {
+            schedule(this, getSimulation().getMinTimeBetweenEvents(), CloudSimTags.VM_UPDATE_CLOUDLET_PROCESSING);
+        }
     }
 
     /**
@@ -100,4 +124,39 @@ public class NetworkDatacenter extends DatacenterSimple {
     public List<Switch> getSwitchMap() {
         return Collections.unmodifiableList(switchMap);
     }
+
+    /**
+     * Gets the {@link FlowNetwork} used to simulate the network at the flow level.
+     * @return the FlowNetwork or {@link FlowNetwork#NULL} if every single packet is simulated
+     *         through the {@link Switch}es (the default)
+     * @see #isFlowNetworkEnabled()
+     */
+    public FlowNetwork getFlowNetwork() {
+        return flowNetwork;
+    }
+
+    /**
+     * Sets a {@link FlowNetwork} to simulate the network at the flow level.
+     * This way, the packets sent at once from a Cloudlet to another one placed on a different Host
+     * are transferred as a single flow, instead of being sent one by one through the {@link Switch}es.
+     * The Switches are still used to define the path and bandwidth of each flow.
+     *
+     * @param flowNetwork the FlowNetwork to set or {@link FlowNetwork#NULL}
+     *                    to simulate every single packet (the default)
+     * @return this Datacenter
+     */
+    public NetworkDatacenter setFlowNetwork(final FlowNetwork flowNetwork) {
+        this.flowNetwork = Objects.requireNonNull(flowNetwork);
+        flowNetwork.setDatacenter(this);
+        return this;
+    }
+
+    /**
+     * Checks if the network is simulated at the flow level.
+     * @return true if a {@link FlowNetwork} is set, false if every single packet is simulated
+     * @see #setFlowNetwork(FlowNetwork)
+     */
+    public boolean isFlowNetworkEnabled() {
+        return flowNetwork != FlowNetwork.NULL;
+    }
 }
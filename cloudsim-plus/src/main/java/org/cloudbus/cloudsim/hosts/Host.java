@@ -446,6 +446,27 @@ public interface Host extends Machine, Comparable<Host> {
      */
     double updateProcessing(double currentTime);
 
+    /**
+     * Checks if the processing of this Host has to be {@link #updateProcessing(double) updated}
+     * every time its {@link Datacenter} updates the processing of Hosts.
+     * It's required when the Host has VMs or some feature needs to be notified about every update,
+     * such as the {@link #enableStateHistory() state history},
+     * the {@link #addOnUpdateProcessingListener(EventListener) update processing listeners}
+     * or an {@link #getIdleShutdownDeadline() idle shutdown deadline} for an active Host.
+     * Otherwise, updating the Host processing makes no difference and the Datacenter may skip it,
+     * until it's notified the update is required again by
+     * {@link Datacenter#requestHostProcessingUpdate(Host)}.
+     *
+     * <p>The default implementation always returns true,
+     * so that the Host is updated every time, as it happens
+     * for Hosts that don't implement this method.</p>
+     *
+     * @return true if the processing update is required, false otherwise
+     */
+    default boolean isProcessingUpdateRequired() {
+        return true;
+    }
+
     /**
      * Try to allocate resources to a new VM in the Host.
      *
@@ -646,9 +667,93 @@ public interface Host extends Machine, Comparable<Host> {
      * and each value is the total Host's CPU utilization for each time.
      *
      * @see #getUtilizationHistory()
+     * @see #getUtilizationHistorySumArray()
      */
     SortedMap<Double, Double> getUtilizationHistorySum();
 
+    /**
+     * Gets the total Host's CPU utilization values (between [0 and 1])
+     * from the {@link #getUtilizationHistorySum()}, sorted by time.
+     *
+     * <p>The history is updated incrementally as VMs add entries to their utilization history.
+     * This way, getting the values doesn't require building the entire history again,
+     * as it happens when calling {@link #getUtilizationHistory()}.</p>
+     *
+     * <p>The default implementation gets the values from the {@link #getUtilizationHistorySum()} map.</p>
+     *
+     * @return a new array with the total Host's CPU utilization for each time
+     * @see #setUtilizationHistoryMaxEntries(int)
+     */
+    default double[] getUtilizationHistorySumArray() {
+        return getUtilizationHistorySum().values().stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    /**
+     * Gets the number of entries in the {@link #getUtilizationHistorySum()}.
+     *
+     * <p>The default implementation gets the size of the {@link #getUtilizationHistorySum()} map.</p>
+     *
+     * @return the number of entries in the Host's CPU utilization history
+     * @see #getUtilizationHistorySumAt(int)
+     */
+    default int getUtilizationHistorySumSize() {
+        return getUtilizationHistorySum().size();
+    }
+
+    /**
+     * Gets the total Host's CPU utilization (between [0 and 1])
+     * at a given position of the {@link #getUtilizationHistorySum()}, sorted by time.
+     * It enables reading just some values, without creating an array
+     * with the entire history by calling {@link #getUtilizationHistorySumArray()}.
+     *
+     * <p>The default implementation gets the value from the {@link #getUtilizationHistorySumArray()}.</p>
+     *
+     * @param index the position of the entry, where 0 is the oldest one
+     * @return the total Host's CPU utilization at that position
+     * @throws IndexOutOfBoundsException if the index is not in the range [0, {@link #getUtilizationHistorySumSize()})
+     */
+    default double getUtilizationHistorySumAt(final int index) {
+        return getUtilizationHistorySumArray()[index];
+    }
+
+    /**
+     * Gets the total Host's CPU utilization (between [0 and 1])
+     * for a given time from the {@link #getUtilizationHistorySum()}.
+     *
+     * @param time the time to get the Host's CPU utilization
+     * @return the total Host's CPU utilization for that time
+     *         or 0 if there isn't utilization history for such a time
+     */
+    default double getUtilizationHistorySum(final double time) {
+        return getUtilizationHistorySum().getOrDefault(time, 0.0);
+    }
+
+    /**
+     * Gets the maximum number of entries to keep in the {@link #getUtilizationHistorySum()}.
+     * When such a number is reached, the oldest entries are discarded.
+     * By default, there is no limit.
+     * @return
+     */
+    default int getUtilizationHistoryMaxEntries() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Sets the maximum number of entries to keep in the {@link #getUtilizationHistorySum()}.
+     * When such a number is reached, the oldest entries are discarded.
+     * That is useful to reduce memory usage in long simulations, when just
+     * the most recent history is required (such as for detecting Host over utilization).
+     *
+     * <p>The default implementation ignores the given value,
+     * keeping the entire history.</p>
+     *
+     * @param maxEntries the maximum number of entries to set
+     * @return
+     */
+    default Host setUtilizationHistoryMaxEntries(final int maxEntries) {
+        return this;
+    }
+
     /**
      * Gets the {@link PowerModel} used by the host
      * to define how it consumes power.
@@ -110,6 +110,7 @@ final class HostNull implements Host {
     @Override public double updateProcessing(double currentTime) {
         return 0.0;
     }
+    @Override public boolean isProcessingUpdateRequired() { return false; }
     @Override public boolean createVm(Vm vm) {
         return false;
     }
@@ -156,6 +157,12 @@ final class HostNull implements Host {
     @Override public long getRamUtilization() { return 0; }
     @Override public SortedMap<Double, DoubleSummaryStatistics> getUtilizationHistory() { return Collections.emptySortedMap(); }
     @Override public SortedMap<Double, Double> getUtilizationHistorySum() { return Collections.emptySortedMap(); }
+    @Override public double[] getUtilizationHistorySumArray() { return new double[0]; }
+    @Override public double getUtilizationHistorySum(double time) { return 0; }
+    @Override public int getUtilizationHistorySumSize() { return 0; }
+    @Override public double getUtilizationHistorySumAt(int index) { return 0; }
+    @Override public int getUtilizationHistoryMaxEntries() { return 0; }
+    @Override public Host setUtilizationHistoryMaxEntries(int maxEntries) { return this; }
     @Override public PowerModel getPowerModel() { return PowerModel.NULL; }
     @Override public Host setPowerModel(PowerModel powerModel) { return this; }
     @Override public double getPreviousUtilizationOfCpu() { return 0; }
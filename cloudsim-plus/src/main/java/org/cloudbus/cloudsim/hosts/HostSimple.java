@@ -18,6 +18,7 @@ import org.cloudbus.cloudsim.resources.*;
 import org.cloudbus.cloudsim.schedulers.vm.VmScheduler;
 import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerSpaceShared;
 import org.cloudbus.cloudsim.util.Conversion;
+import org.cloudbus.cloudsim.util.TimeSeries;
 import org.cloudbus.cloudsim.util.TimeUtil;
 import org.cloudbus.cloudsim.vms.UtilizationHistory;
 import org.cloudbus.cloudsim.vms.Vm;
@@ -57,7 +58,10 @@ public class HostSimple implements Host {
     private static long defaultStorageCapacity = (long)Conversion.gigaToMega(500);
 
     /** @see #getStateHistory() */
-    private final List<HostStateHistoryEntry> stateHistory;
+    private final TimeSeries stateHistory;
+
+    /** A read-only view of the {@link #stateHistory} as a List of entry objects. */
+    private final List<HostStateHistoryEntry> stateHistoryList;
 
     /**@see #getPowerModel() */
     private PowerModel powerModel;
@@ -137,6 +141,9 @@ public class HostSimple implements Host {
     private List<ResourceProvisioner> provisioners;
     private final List<Vm> vmCreatedList;
 
+    /** @see #getUtilizationHistorySum() */
+    private final HostUtilizationHistory utilizationHistory;
+
     /**
      * The previous amount of MIPS used.
      */
@@ -278,11 +285,13 @@ public class HostSimple implements Host {
 
         this.resources = new ArrayList<>();
         this.vmCreatedList = new ArrayList<>();
+        this.utilizationHistory = new HostUtilizationHistory(this);
         this.provisioners = new ArrayList<>();
         this.vmsMigratingIn = new HashSet<>();
         this.vmsMigratingOut = new HashSet<>();
         this.powerModel = PowerModel.NULL;
-        this.stateHistory = new LinkedList<>();
+        this.stateHistory = new TimeSeries(3);
+        this.stateHistoryList = stateHistory.asList(this::getStateHistoryEntry);
     }
 
     /**
@@ -377,6 +386,35 @@ public class HostSimple implements Host {
         return nextSimulationDelay;
     }
 
+    @Override
+    public boolean isProcessingUpdateRequired() {
+        return !vmList.isEmpty() || !vmsMigratingIn.isEmpty() ||
+               stateHistoryEnabled || !onUpdateProcessingListeners.isEmpty() ||
+               (active && idleShutdownDeadline >= 0);
+    }
+
+    /**
+     * Notifies the Datacenter that the processing of this Host
+     * {@link #isProcessingUpdateRequired() has to be updated}.
+     */
+    protected void requestProcessingUpdate() {
+        //The Datacenter isn't set yet when the Host is being constructed
+        if(datacenter != null) {
+            datacenter.requestHostProcessingUpdate(this);
+        }
+    }
+
+    /**
+     * Notifies the {@link org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicy}
+     * of the Datacenter that the number of free PEs, the active state or the VmScheduler of this Host has changed.
+     */
+    private void notifyCapacityChange() {
+        //The Datacenter isn't set yet when the Host is being constructed
+        if(datacenter != null) {
+            datacenter.getVmAllocationPolicy().notifyHostCapacityChange(this);
+        }
+    }
+
     private void notifyOnUpdateProcessingListeners(final double nextSimulationTime) {
         onUpdateProcessingListeners.forEach(l -> l.update(HostUpdatesVmsProcessingEventInfo.of(l,this, nextSimulationTime)));
     }
@@ -412,6 +450,7 @@ public class HostSimple implements Host {
             return false;
         }
 
+        requestProcessingUpdate();
         return vmList.add(vm);
     }
 
@@ -460,6 +499,7 @@ public class HostSimple implements Host {
         for (final Vm vm : getVmsMigratingIn()) {
             if (!vmList.contains(vm)) {
                 vmList.add(vm);
+                requestProcessingUpdate();
             }
 
             allocateResourcesForVm(vm);
@@ -512,6 +552,14 @@ public class HostSimple implements Host {
         }
 
         this.active = activate;
+        if(activate) {
+            requestProcessingUpdate();
+        }
+
+        if(activate != wasActive) {
+            notifyCapacityChange();
+        }
+
         notifyStartupOrShutdown(activate, wasActive);
         return this;
     }
@@ -733,6 +781,7 @@ public class HostSimple implements Host {
     public final Host setVmScheduler(final VmScheduler vmScheduler) {
         this.vmScheduler = requireNonNull(vmScheduler);
         vmScheduler.setHost(this);
+        notifyCapacityChange();
         return this;
     }
 
@@ -805,6 +854,7 @@ public class HostSimple implements Host {
     @Override
     public Host setIdleShutdownDeadline(final double deadline) {
         this.idleShutdownDeadline = deadline;
+        requestProcessingUpdate();
         return this;
     }
 
@@ -832,7 +882,7 @@ public class HostSimple implements Host {
         failedPesNumber = 0;
         setPeStatus(peList, Pe.Status.FREE);
         freePesNumber = peList.size();
-
+        notifyCapacityChange();
     }
 
     @Override
@@ -847,6 +897,7 @@ public class HostSimple implements Host {
 
     protected void addVmToList(final Vm vm){
         vmList.add(requireNonNull(vm));
+        requestProcessingUpdate();
     }
 
     protected void addVmToCreatedList(final Vm vm){
@@ -870,6 +921,7 @@ public class HostSimple implements Host {
         * it must remain inactive.*/
         if(failed && this.active){
             this.active = false;
+            notifyCapacityChange();
         }
 
         return true;
@@ -883,6 +935,7 @@ public class HostSimple implements Host {
     public final void setPeStatus(final List<Pe> peList, final Pe.Status newStatus){
         /*For performance reasons, stores the number of free and failed PEs
         instead of iterating over the PE list every time to find out.*/
+        final int previousFreePesNumber = freePesNumber;
         for (final Pe pe : peList) {
             if(pe.getStatus() == newStatus) {
                 continue;
@@ -901,6 +954,10 @@ public class HostSimple implements Host {
 
             pe.setStatus(newStatus);
         }
+
+        if(freePesNumber != previousFreePesNumber) {
+            notifyCapacityChange();
+        }
     }
 
     @Override
@@ -915,6 +972,7 @@ public class HostSimple implements Host {
         }
 
         vmsMigratingIn.add(vm);
+        requestProcessingUpdate();
         if(!allocateResourcesForVm(vm, true)){
             vmsMigratingIn.remove(vm);
             return false;
@@ -979,6 +1037,7 @@ public class HostSimple implements Host {
         }
 
         this.onUpdateProcessingListeners.add(requireNonNull(listener));
+        requestProcessingUpdate();
         return this;
     }
 
@@ -1136,15 +1195,38 @@ public class HostSimple implements Host {
 
     @Override
     public SortedMap<Double, Double> getUtilizationHistorySum() {
-        /*Remaps the value of an entry inside the Utilization History map
-        from DoubleSummaryStatistics to the sum of all values
-        inside the that DoubleSummaryStatistics.*/
-        final Function<Entry<Double, DoubleSummaryStatistics>, Double> valueMapper = entry -> entry.getValue().getSum();
+        return utilizationHistory.toMap();
+    }
 
-        return getUtilizationHistory()
-                    .entrySet()
-                    .stream()
-                    .collect(toMap(Entry::getKey, valueMapper, this::mergeFunction, TreeMap::new));
+    @Override
+    public double[] getUtilizationHistorySumArray() {
+        return utilizationHistory.getSums();
+    }
+
+    @Override
+    public int getUtilizationHistorySumSize() {
+        return utilizationHistory.size();
+    }
+
+    @Override
+    public double getUtilizationHistorySumAt(final int index) {
+        return utilizationHistory.getSumAt(index);
+    }
+
+    @Override
+    public double getUtilizationHistorySum(final double time) {
+        return utilizationHistory.getSum(time);
+    }
+
+    @Override
+    public int getUtilizationHistoryMaxEntries() {
+        return utilizationHistory.getMaxEntries();
+    }
+
+    @Override
+    public Host setUtilizationHistoryMaxEntries(final int maxEntries) {
+        utilizationHistory.setMaxEntries(maxEntries);
+        return this;
     }
 
     /**
@@ -1177,7 +1259,6 @@ public class HostSimple implements Host {
      * @param usage2 the 2dn CPU utilization value found for the same key
      * @return the higher value between the given two ones
      *
-     * @see #getUtilizationHistorySum()
      * @see #remapUtilizationHistory(UtilizationHistory)
      */
     private double mergeFunction(final double usage1, final double usage2) {
@@ -1224,6 +1305,7 @@ public class HostSimple implements Host {
     @Override
     public void enableStateHistory() {
         this.stateHistoryEnabled = true;
+        requestProcessingUpdate();
     }
 
     @Override
@@ -1319,21 +1401,30 @@ public class HostSimple implements Host {
         final double requestedMips,
         final boolean isActive)
     {
-        final HostStateHistoryEntry newState = new HostStateHistoryEntry(time, allocatedMips, requestedMips, isActive);
-        if (!stateHistory.isEmpty()) {
-            final HostStateHistoryEntry previousState = stateHistory.get(stateHistory.size() - 1);
-            if (previousState.getTime() == time) {
-                stateHistory.set(stateHistory.size() - 1, newState);
-                return;
-            }
-        }
+        //If there is an entry for the given time, it's replaced
+        final int position = stateHistory.put(time);
+        stateHistory.setValue(position, 0, allocatedMips);
+        stateHistory.setValue(position, 1, requestedMips);
+        stateHistory.setValue(position, 2, isActive ? 1 : 0);
+    }
 
-        stateHistory.add(newState);
+    /**
+     * Creates a {@link HostStateHistoryEntry} from the values stored
+     * at a given position of the {@link #stateHistory}.
+     * @param position the position of the entry
+     * @return
+     */
+    private HostStateHistoryEntry getStateHistoryEntry(final int position) {
+        return new HostStateHistoryEntry(
+                    stateHistory.getTime(position),
+                    stateHistory.getValue(position, 0),
+                    stateHistory.getValue(position, 1),
+                    stateHistory.getValue(position, 2) != 0);
     }
 
     @Override
     public List<HostStateHistoryEntry> getStateHistory() {
-        return Collections.unmodifiableList(stateHistory);
+        return stateHistoryList;
     }
 
     @Override
@@ -0,0 +1,528 @@
+package org.cloudbus.cloudsim.hosts;
+
+import org.cloudbus.cloudsim.vms.UtilizationHistory;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps the total CPU utilization history of a {@link Host}
+ * (the values of {@link Host#getUtilizationHistorySum()}),
+ * updating it incrementally as its VMs add entries to their {@link UtilizationHistory}.
+ *
+ * <p>The history is stored in a ring buffer of primitive values, sorted by time,
+ * which keeps at most {@link #getMaxEntries()} entries (the most recent ones).
+ * Every time the history is read, just the entries added to each VM history
+ * since the last read are merged. The total utilization for a given time is only
+ * recomputed when some VM has added or changed the entry for that time.</p>
+ *
+ * <p>If the oldest entries are removed from a VM history (which may have a maximum size),
+ * the total utilization for the times of such entries is recomputed too.</p>
+ *
+ * <p>The total utilization for a time is the sum of the utilization
+ * (relative to the Host CPU capacity) of every VM ever created inside the Host
+ * that has an entry for that time, summed in the order VMs were created.
+ * This way, the values are exactly the same as computing the history from scratch.
+ * If the MIPS capacity of the Host or of any VM changes, all values are recomputed,
+ * since VM utilization entries are relative to such capacities.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+final class HostUtilizationHistory {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Host host;
+
+    /** @see #getMaxEntries() */
+    private int maxEntries;
+
+    /** The times of the history entries, sorted in ascending order inside the ring buffer. */
+    private double[] times;
+
+    /** The total Host CPU utilization for each time in {@link #times}. */
+    private double[] sums;
+
+    /** Indicates which entries in {@link #sums} have to be recomputed. */
+    private boolean[] dirty;
+
+    /** The physical index of the oldest entry inside the ring buffer arrays. */
+    private int head;
+
+    /** The number of entries inside the ring buffer. */
+    private int size;
+
+    /**
+     * Indicates if the history was already built from the VM histories.
+     * If false, the next read will build it from scratch.
+     */
+    private boolean built;
+
+    /**
+     * Indicates if some entry was removed from the history because
+     * the {@link #getMaxEntries() maximum number of entries} was reached.
+     */
+    private boolean truncated;
+
+    /**
+     * The Host MIPS capacity when the history was last updated.
+     */
+    private double hostMips;
+
+    /**
+     * The number of VMs from the {@link Host#getVmCreatedList()}
+     * whose histories were merged.
+     */
+    private int mergedVms;
+
+    /** The MIPS capacity of each merged VM when the history was last updated. */
+    private double[] vmMips;
+
+    /** The time of the first entry of each merged VM history. */
+    private double[] vmFirstTimes;
+
+    /** The time of the last entry of each merged VM history. */
+    private double[] vmLastTimes;
+
+    /** The utilization value of the last entry of each merged VM history. */
+    private double[] vmLastValues;
+
+    /**
+     * Creates a utilization history for a given Host.
+     * @param host the Host to keep the utilization history
+     */
+    HostUtilizationHistory(final Host host) {
+        this.host = host;
+        this.maxEntries = Integer.MAX_VALUE;
+        this.times = new double[INITIAL_CAPACITY];
+        this.sums = new double[INITIAL_CAPACITY];
+        this.dirty = new boolean[INITIAL_CAPACITY];
+        this.vmMips = new double[0];
+        this.vmFirstTimes = new double[0];
+        this.vmLastTimes = new double[0];
+        this.vmLastValues = new double[0];
+    }
+
+    /**
+     * Gets the maximum number of entries to keep in the history.
+     * When such a number is reached, the oldest entries are discarded.
+     * @return
+     */
+    int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Sets the maximum number of entries to keep in the history.
+     * @param maxEntries the value to set
+     * @see #getMaxEntries()
+     */
+    void setMaxEntries(final int maxEntries) {
+        if(maxEntries <= 0){
+            throw new IllegalArgumentException("The maximum number of history entries must be greater than 0");
+        }
+
+        this.maxEntries = maxEntries;
+        while (size > maxEntries) {
+            removeOldest();
+        }
+    }
+
+    /**
+     * Gets the total Host CPU utilization values, sorted by time.
+     * @return a new array with the values
+     */
+    double[] getSums() {
+        update();
+        final double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = sums[index(i)];
+        }
+
+        return values;
+    }
+
+    /**
+     * Gets the number of entries in the history.
+     * @return the number of entries
+     */
+    int size() {
+        update();
+        return size;
+    }
+
+    /**
+     * Gets the total Host CPU utilization at a given position of the history,
+     * without creating an array with all the values.
+     *
+     * @param i the position of the entry, where 0 is the oldest one
+     * @return the total utilization at that position
+     * @throws IndexOutOfBoundsException if the position is not in the range [0, {@link #size()})
+     */
+    double getSumAt(final int i) {
+        update();
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+
+        return sums[index(i)];
+    }
+
+    /**
+     * Gets the total Host CPU utilization for a given time.
+     * @param time the time to get the utilization
+     * @return the total utilization or 0 if there isn't a history entry for that time
+     */
+    double getSum(final double time) {
+        update();
+        final int i = find(time);
+        return i < 0 ? 0 : sums[index(i)];
+    }
+
+    /**
+     * Gets the history as a map where each key is a time and each value
+     * is the total Host CPU utilization for that time.
+     * @return a new map with the history entries
+     */
+    SortedMap<Double, Double> toMap() {
+        update();
+        final SortedMap<Double, Double> map = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(times[index(i)], sums[index(i)]);
+        }
+
+        return map;
+    }
+
+    /**
+     * Merges the new entries of VM histories and recomputes the values that have changed.
+     */
+    private void update() {
+        final List<Vm> vmList = host.getVmCreatedList();
+        if (!built || !mergeNewEntries(vmList)) {
+            build(vmList);
+        }
+
+        /*If some time has no VM entry anymore and older entries were discarded,
+        * one of those entries would be inside the history window now.*/
+        if (computeDirtySums(vmList) && truncated) {
+            build(vmList);
+            computeDirtySums(vmList);
+        }
+    }
+
+    /**
+     * Builds the history from scratch, using the entire history of every VM.
+     * @param vmList the list of VMs created inside the Host
+     */
+    private void build(final List<Vm> vmList) {
+        head = 0;
+        size = 0;
+        mergedVms = 0;
+        truncated = false;
+        ensureVmsCapacity(vmList.size());
+
+        final TreeSet<Double> allTimes = new TreeSet<>();
+        for (final Vm vm : vmList) {
+            final SortedMap<Double, Double> history = vm.getUtilizationHistory().getHistory();
+            allTimes.addAll(history.keySet());
+            setVmCursor(mergedVms++, vm, history);
+        }
+
+        allTimes.forEach(this::addNewest);
+        hostMips = host.getTotalMipsCapacity();
+        built = true;
+    }
+
+    /**
+     * Merges the entries added to VM histories since the last update.
+     *
+     * @param vmList the list of VMs created inside the Host
+     * @return true if the entries were merged,
+     *         false if some VM history had entries removed or older entries added,
+     *         requiring the history to be {@link #build(List) built} from scratch
+     */
+    private boolean mergeNewEntries(final List<Vm> vmList) {
+        ensureVmsCapacity(vmList.size());
+        final double currentHostMips = host.getTotalMipsCapacity();
+        boolean capacityChanged = currentHostMips != hostMips;
+        hostMips = currentHostMips;
+
+        for (int i = 0; i < vmList.size(); i++) {
+            final Vm vm = vmList.get(i);
+            final SortedMap<Double, Double> history = vm.getUtilizationHistory().getHistory();
+            if (i >= mergedVms) {
+                history.keySet().forEach(this::setDirty);
+                setVmCursor(i, vm, history);
+                continue;
+            }
+
+            capacityChanged = capacityChanged || vm.getTotalMipsCapacity() != vmMips[i];
+            if (history.isEmpty()) {
+                if (!Double.isNaN(vmFirstTimes[i])) {
+                    return false;
+                }
+
+                continue;
+            }
+
+            if (!Double.isNaN(vmFirstTimes[i])) {
+                final double firstTime = history.firstKey();
+                if (firstTime < vmFirstTimes[i]) {
+                    return false;
+                }
+
+                //The oldest entries were removed from the VM history (which has a maximum size)
+                setDirty(vmFirstTimes[i], firstTime);
+            }
+
+            mergeNewEntries(i, history);
+            setVmCursor(i, vm, history);
+        }
+
+        mergedVms = vmList.size();
+        if (capacityChanged) {
+            Arrays.fill(dirty, true);
+        }
+
+        return true;
+    }
+
+    /**
+     * Merges the entries added to a VM history since the last update,
+     * including the last merged entry, if its value has changed.
+     * Since VM history entries are added in ascending time order,
+     * just the last merged entry may have been changed.
+     *
+     * @param vmIndex the index of the VM in the {@link Host#getVmCreatedList()}
+     * @param history the VM history
+     */
+    private void mergeNewEntries(final int vmIndex, final SortedMap<Double, Double> history) {
+        final double lastTime = vmLastTimes[vmIndex];
+        final SortedMap<Double, Double> newEntries = Double.isNaN(lastTime) ? history : history.tailMap(lastTime);
+        for (final Map.Entry<Double, Double> entry : newEntries.entrySet()) {
+            if (entry.getKey() != lastTime || entry.getValue() != vmLastValues[vmIndex]) {
+                setDirty(entry.getKey());
+            }
+        }
+    }
+
+    private void setVmCursor(final int vmIndex, final Vm vm, final SortedMap<Double, Double> history) {
+        vmMips[vmIndex] = vm.getTotalMipsCapacity();
+        if (history.isEmpty()) {
+            vmFirstTimes[vmIndex] = Double.NaN;
+            vmLastTimes[vmIndex] = Double.NaN;
+            vmLastValues[vmIndex] = Double.NaN;
+            return;
+        }
+
+        final double lastTime = history.lastKey();
+        vmFirstTimes[vmIndex] = history.firstKey();
+        vmLastTimes[vmIndex] = lastTime;
+        vmLastValues[vmIndex] = history.get(lastTime);
+    }
+
+    private void ensureVmsCapacity(final int vmsNumber) {
+        if (vmsNumber <= vmMips.length) {
+            return;
+        }
+
+        final int capacity = Math.max(vmsNumber, vmMips.length * 2);
+        vmMips = Arrays.copyOf(vmMips, capacity);
+        vmFirstTimes = Arrays.copyOf(vmFirstTimes, capacity);
+        vmLastTimes = Arrays.copyOf(vmLastTimes, capacity);
+        vmLastValues = Arrays.copyOf(vmLastValues, capacity);
+    }
+
+    /**
+     * Recomputes the total utilization for the times where some VM entry has changed.
+     * Entries for times that don't exist in any VM history anymore are removed.
+     * @param vmList the list of VMs created inside the Host
+     * @return true if some entry was removed, false otherwise
+     */
+    private boolean computeDirtySums(final List<Vm> vmList) {
+        int removed = 0;
+        for (int i = 0; i < size; i++) {
+            final int index = index(i);
+            if (dirty[index]) {
+                final DoubleSummaryStatistics stats = computeStatistics(vmList, times[index]);
+                sums[index] = stats.getSum();
+                dirty[index] = false;
+                if (stats.getCount() == 0) {
+                    removed++;
+                    continue;
+                }
+            }
+
+            if (removed > 0) {
+                copy(index, index(i - removed));
+            }
+        }
+
+        size -= removed;
+        return removed > 0;
+    }
+
+    /**
+     * Computes the statistics of the VMs' utilization for a given time,
+     * in the same way as {@link HostSimple#getUtilizationHistory()} does.
+     */
+    private DoubleSummaryStatistics computeStatistics(final List<Vm> vmList, final double time) {
+        final DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+        for (final Vm vm : vmList) {
+            final Double vmUtilization = vm.getUtilizationHistory().getHistory().get(time);
+            if (vmUtilization != null) {
+                stats.accept(host.getExpectedRelativeCpuUtilization(vm, vmUtilization));
+            }
+        }
+
+        return stats;
+    }
+
+    /**
+     * Marks the existing entries in a given time interval to be recomputed.
+     * @param fromTime the start time (inclusive)
+     * @param toTime the end time (exclusive)
+     */
+    private void setDirty(final double fromTime, final double toTime) {
+        for (int i = 0; i < size && times[index(i)] < toTime; i++) {
+            if (times[index(i)] >= fromTime) {
+                dirty[index(i)] = true;
+            }
+        }
+    }
+
+    /**
+     * Marks the entry for a given time to be recomputed,
+     * adding such an entry if it doesn't exist yet.
+     * @param time the time of the entry
+     */
+    private void setDirty(final double time) {
+        final int i = find(time);
+        if (i >= 0) {
+            dirty[index(i)] = true;
+            return;
+        }
+
+        if (size == maxEntries && time < times[head]) {
+            //The entry is older than the ones inside the history window
+            return;
+        }
+
+        addNewest(time);
+        //Moves the entry backwards until the times are sorted again
+        for (int j = size - 1; j > 0 && times[index(j - 1)] > time; j--) {
+            swap(index(j - 1), index(j));
+        }
+    }
+
+    /**
+     * Adds an entry to the end of the ring buffer, removing the oldest entry if it's full.
+     * @param time the time of the entry to add
+     */
+    private void addNewest(final double time) {
+        if (size == maxEntries) {
+            removeOldest();
+        } else if (size == times.length) {
+            grow();
+        }
+
+        final int index = index(size++);
+        times[index] = time;
+        sums[index] = 0;
+        dirty[index] = true;
+    }
+
+    private void removeOldest() {
+        head = (head + 1) % times.length;
+        size--;
+        truncated = true;
+    }
+
+    private void grow() {
+        final int capacity = (int) Math.min((long) times.length * 2, maxEntries);
+        final double[] newTimes = new double[capacity];
+        final double[] newSums = new double[capacity];
+        final boolean[] newDirty = new boolean[capacity];
+        for (int i = 0; i < size; i++) {
+            newTimes[i] = times[index(i)];
+            newSums[i] = sums[index(i)];
+            newDirty[i] = dirty[index(i)];
+        }
+
+        times = newTimes;
+        sums = newSums;
+        dirty = newDirty;
+        head = 0;
+    }
+
+    private void copy(final int sourceIndex, final int targetIndex) {
+        times[targetIndex] = times[sourceIndex];
+        sums[targetIndex] = sums[sourceIndex];
+        dirty[targetIndex] = dirty[sourceIndex];
+    }
+
+    private void swap(final int index1, final int index2) {
+        final double time = times[index1];
+        times[index1] = times[index2];
+        times[index2] = time;
+
+        final double sum = sums[index1];
+        sums[index1] = sums[index2];
+        sums[index2] = sum;
+
+        final boolean dirtyEntry = dirty[index1];
+        dirty[index1] = dirty[index2];
+        dirty[index2] = dirtyEntry;
+    }
+
+    /**
+     * Finds the position of the entry for a given time.
+     * Since new entries usually are for the latest time,
+     * the last entry is checked before performing a binary search.
+     *
+     * @param time the time to find the entry
+     * @return the position of the entry (from 0 to size-1) or -1 if not found
+     */
+    private int find(final double time) {
+        if (size == 0) {
+            return -1;
+        }
+
+        if (times[index(size - 1)] == time) {
+            return size - 1;
+        }
+
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final double midTime = times[index(mid)];
+            if (midTime < time) {
+                low = mid + 1;
+            } else if (midTime > time) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets the physical index inside the ring buffer arrays
+     * for an entry at a given position.
+     * @param position the position of the entry, from 0 (the oldest) to size-1 (the newest)
+     * @return
+     */
+    private int index(final int position) {
+        return (head + position) % times.length;
+    }
+}
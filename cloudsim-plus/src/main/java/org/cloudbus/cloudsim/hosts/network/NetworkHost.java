@@ -8,9 +8,12 @@
 package org.cloudbus.cloudsim.hosts.network;
 
 import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter;
 import org.cloudbus.cloudsim.hosts.HostSimple;
 import org.cloudbus.cloudsim.network.HostPacket;
 import org.cloudbus.cloudsim.network.VmPacket;
+import org.cloudbus.cloudsim.network.flows.FlowNetwork;
+import org.cloudbus.cloudsim.network.flows.NetworkFlow;
 import org.cloudbus.cloudsim.network.switches.EdgeSwitch;
 import org.cloudbus.cloudsim.resources.Pe;
 import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletScheduler;
@@ -96,6 +99,11 @@ public class NetworkHost extends HostSimple {
         return  timeOfNextFinishingCloudlet;
     }
 
+    @Override
+    public boolean isProcessingUpdateRequired() {
+        return super.isProcessingUpdateRequired() || !hostPktsReceived.isEmpty();
+    }
+
     /**
      * Receives packets and forwards them to targeting VMs and respective Cloudlets.
      */
@@ -171,6 +179,12 @@ public class NetworkHost extends HostSimple {
      * Sends packets from the local packets buffer to VMs outside this host.
      */
     private void sendPacketsToExternalVms() {
+        final FlowNetwork flowNetwork = getFlowNetwork();
+        if(flowNetwork != FlowNetwork.NULL){
+            sendFlowsToExternalVms(flowNetwork);
+            return;
+        }
+
         for (final HostPacket pkt : pktsToSendForExternalVms) {
             final double delay = edgeSwitch.downlinkTransferDelay(pkt, pktsToSendForExternalVms.size());
             totalDataTransferBytes += pkt.getSize();
@@ -183,6 +197,56 @@ public class NetworkHost extends HostSimple {
         pktsToSendForExternalVms.clear();
     }
 
+    /**
+     * Sends the packets from the local packets buffer to VMs outside this host
+     * as {@link NetworkFlow}s, where each flow carries the consecutive packets
+     * from the same sender to the same receiver Cloudlet.
+     *
+     * @param flowNetwork the {@link FlowNetwork} to transfer the flows
+     */
+    private void sendFlowsToExternalVms(final FlowNetwork flowNetwork) {
+        List<HostPacket> flowPackets = new ArrayList<>();
+        for (final HostPacket pkt : pktsToSendForExternalVms) {
+            if(!flowPackets.isEmpty() && !isSameFlow(flowPackets.get(0), pkt)){
+                startFlow(flowNetwork, flowPackets);
+                flowPackets = new ArrayList<>();
+            }
+
+            totalDataTransferBytes += pkt.getSize();
+            flowPackets.add(pkt);
+        }
+
+        if(!flowPackets.isEmpty()) {
+            startFlow(flowNetwork, flowPackets);
+        }
+
+        pktsToSendForExternalVms.clear();
+    }
+
+    private boolean isSameFlow(final HostPacket pkt1, final HostPacket pkt2) {
+        return pkt1.getVmPacket().getSenderCloudlet() == pkt2.getVmPacket().getSenderCloudlet() &&
+               pkt1.getVmPacket().getReceiverCloudlet() == pkt2.getVmPacket().getReceiverCloudlet();
+    }
+
+    private void startFlow(final FlowNetwork flowNetwork, final List<HostPacket> flowPackets) {
+        final NetworkHost destination = getVmHost(flowPackets.get(0).getVmPacket().getDestination());
+        flowNetwork.startFlow(new NetworkFlow(this, destination, flowPackets));
+    }
+
+    private NetworkHost getVmHost(final Vm vm) {
+        return (NetworkHost)vm.getHost();
+    }
+
+    /**
+     * Gets the {@link FlowNetwork} of the Datacenter where this Host is placed.
+     * @return the FlowNetwork or {@link FlowNetwork#NULL} if packets are sent through the network switches
+     */
+    private FlowNetwork getFlowNetwork() {
+        return getDatacenter() instanceof NetworkDatacenter ?
+                    ((NetworkDatacenter) getDatacenter()).getFlowNetwork() :
+                    FlowNetwork.NULL;
+    }
+
     private CloudletTaskScheduler getVmPacketScheduler(final Vm vm) {
         return vm.getCloudletScheduler().getTaskScheduler();
     }
@@ -252,6 +316,7 @@ public class NetworkHost extends HostSimple {
      */
     public void addReceivedNetworkPacket(final HostPacket hostPacket){
         hostPktsReceived.add(hostPacket);
+        requestProcessingUpdate();
     }
 
     /**
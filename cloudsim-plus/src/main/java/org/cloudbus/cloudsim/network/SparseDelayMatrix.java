@@ -0,0 +1,308 @@
+package org.cloudbus.cloudsim.network;
+
+import org.cloudbus.cloudsim.network.topologies.TopologicalGraph;
+import org.cloudbus.cloudsim.network.topologies.TopologicalLink;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Provides the delay between every pair of nodes inside a network topology,
+ * as the {@link DelayMatrix}, but without storing a dense matrix
+ * nor computing all shortest paths in advance.
+ *
+ * <p>The topology is stored as adjacency arrays, requiring memory proportional
+ * to the number of nodes plus links.
+ * The delays from a source node to all the other ones (a row of the matrix)
+ * are computed on demand by the Dijkstra algorithm the first time
+ * such a source is queried. The most recently used rows are cached,
+ * up to a {@link #getMaxCachedRows() maximum number of rows}.
+ * This way, large topologies that can't fit a dense matrix can be loaded
+ * and their construction takes near-linear time.</p>
+ *
+ * <p>As in the {@link DelayMatrix}, the delay between a node and itself is zero
+ * and the delay between disconnected nodes is {@link Double#MAX_VALUE}.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class SparseDelayMatrix {
+    /**
+     * The default maximum number of rows (delays from a given source node to all the other ones)
+     * kept in the cache.
+     */
+    public static final int DEF_MAX_CACHED_ROWS = 256;
+
+    /**
+     * Number of nodes in the topology.
+     */
+    private final int nodesNumber;
+
+    /**
+     * The position inside the {@link #adjacentNodes} and {@link #adjacentDelays}
+     * where the links of each node start.
+     * The links of node i are at the positions from {@code linksStart[i]}
+     * to {@code linksStart[i+1]-1}.
+     */
+    private final int[] linksStart;
+
+    /**
+     * The destination node of each link, grouped by source node.
+     */
+    private final int[] adjacentNodes;
+
+    /**
+     * The delay of each link, grouped by source node.
+     */
+    private final double[] adjacentDelays;
+
+    /**
+     * @see #getMaxCachedRows()
+     */
+    private final int maxCachedRows;
+
+    /**
+     * A cache of computed rows, where each key is a source node
+     * and each value is the array of delays from such a node to all other ones.
+     * The map is kept in access order to remove the least recently used row when it's full.
+     */
+    private final Map<Integer, double[]> rowsCache;
+
+    /**
+     * Creates a sparse delay matrix that caches up to {@link #DEF_MAX_CACHED_ROWS} rows.
+     *
+     * @param graph the network topological graph
+     * @param directed indicates if the links are directed (true) or not (false)
+     */
+    public SparseDelayMatrix(final TopologicalGraph graph, final boolean directed) {
+        this(graph, directed, DEF_MAX_CACHED_ROWS);
+    }
+
+    /**
+     * Creates a sparse delay matrix.
+     *
+     * @param graph the network topological graph
+     * @param directed indicates if the links are directed (true) or not (false)
+     * @param maxCachedRows the maximum number of rows to keep in the cache
+     */
+    public SparseDelayMatrix(final TopologicalGraph graph, final boolean directed, final int maxCachedRows) {
+        if(maxCachedRows <= 0){
+            throw new IllegalArgumentException("The maximum number of cached rows must be greater than zero.");
+        }
+
+        this.nodesNumber = graph.getNumberOfNodes();
+        this.maxCachedRows = maxCachedRows;
+        this.rowsCache = new LinkedHashMap<Integer, double[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, double[]> eldest) {
+                return size() > SparseDelayMatrix.this.maxCachedRows;
+            }
+        };
+
+        final int linksNumber = graph.getNumberOfLinks() * (directed ? 1 : 2);
+        this.linksStart = new int[nodesNumber + 1];
+        this.adjacentNodes = new int[linksNumber];
+        this.adjacentDelays = new double[linksNumber];
+        buildAdjacencyArrays(graph, directed);
+    }
+
+    /**
+     * Fills the adjacency arrays, grouping the links by source node
+     * (a counting sort of the links).
+     *
+     * @param graph the network topological graph
+     * @param directed indicates if the links are directed (true) or not (false)
+     */
+    private void buildAdjacencyArrays(final TopologicalGraph graph, final boolean directed) {
+        for (final TopologicalLink link : graph.getLinksList()) {
+            linksStart[link.getSrcNodeID()+1]++;
+            if (!directed) {
+                linksStart[link.getDestNodeID()+1]++;
+            }
+        }
+
+        for (int node = 0; node < nodesNumber; node++) {
+            linksStart[node+1] += linksStart[node];
+        }
+
+        final int[] nextPosition = Arrays.copyOf(linksStart, nodesNumber);
+        for (final TopologicalLink link : graph.getLinksList()) {
+            addLink(nextPosition, link.getSrcNodeID(), link.getDestNodeID(), link.getLinkDelay());
+            if (!directed) {
+                addLink(nextPosition, link.getDestNodeID(), link.getSrcNodeID(), link.getLinkDelay());
+            }
+        }
+    }
+
+    private void addLink(final int[] nextPosition, final int srcID, final int destID, final double delay) {
+        final int position = nextPosition[srcID]++;
+        adjacentNodes[position] = destID;
+        adjacentDelays[position] = delay;
+    }
+
+    /**
+     * Gets the delay between two nodes, which is the delay of the shortest path between them.
+     *
+     * @param srcID the id of the source node
+     * @param destID the id of the destination node
+     * @return the delay between the given two nodes
+     * @throws ArrayIndexOutOfBoundsException when some of the ids are not a valid node
+     */
+    public double getDelay(final int srcID, final int destID) {
+        if (srcID < 0 || destID < 0 || srcID >= nodesNumber || destID >= nodesNumber) {
+            throw new ArrayIndexOutOfBoundsException("srcID or destID is not a valid node-ID!");
+        }
+
+        return getRow(srcID)[destID];
+    }
+
+    /**
+     * Gets the delays from a source node to all other ones,
+     * from the cache or by computing them.
+     * It's synchronized since the delays may be requested by entities
+     * being processed in parallel.
+     *
+     * @param srcID the id of the source node
+     * @return the delays from the given node to all other ones
+     */
+    private synchronized double[] getRow(final int srcID) {
+        double[] row = rowsCache.get(srcID);
+        if (row == null) {
+            row = computeShortestPaths(srcID);
+            rowsCache.put(srcID, row);
+        }
+
+        return row;
+    }
+
+    /**
+     * Computes the delays from a source node to all other ones
+     * using the Dijkstra algorithm with a binary heap.
+     * Nodes may be inserted in the heap more than once:
+     * outdated entries are just skipped when removed.
+     *
+     * @param srcID the id of the source node
+     * @return the delays from the given node to all other ones
+     */
+    private double[] computeShortestPaths(final int srcID) {
+        final double[] delays = new double[nodesNumber];
+        Arrays.fill(delays, Double.MAX_VALUE);
+        delays[srcID] = 0;
+
+        final NodeHeap heap = new NodeHeap();
+        heap.add(srcID, 0);
+        while (!heap.isEmpty()) {
+            final double delay = heap.firstDelay();
+            final int node = heap.poll();
+            if (delay > delays[node]) {
+                continue;
+            }
+
+            for (int i = linksStart[node]; i < linksStart[node+1]; i++) {
+                final int neighbor = adjacentNodes[i];
+                final double neighborDelay = delay + adjacentDelays[i];
+                if (neighborDelay < delays[neighbor]) {
+                    delays[neighbor] = neighborDelay;
+                    heap.add(neighbor, neighborDelay);
+                }
+            }
+        }
+
+        return delays;
+    }
+
+    /**
+     * Gets the number of nodes in the topology.
+     * @return
+     */
+    public int getNodesNumber() {
+        return nodesNumber;
+    }
+
+    /**
+     * Gets the maximum number of rows (delays from a given source node to all the other ones)
+     * kept in the cache.
+     * @return
+     */
+    public int getMaxCachedRows() {
+        return maxCachedRows;
+    }
+
+    /**
+     * Gets the number of rows currently in the cache.
+     * @return
+     */
+    public synchronized int getCachedRows() {
+        return rowsCache.size();
+    }
+
+    /**
+     * A binary min-heap of nodes keyed by their delay from the source node,
+     * stored in primitive arrays.
+     */
+    private static final class NodeHeap {
+        private int[] nodes = new int[16];
+        private double[] delays = new double[16];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double firstDelay() {
+            return delays[0];
+        }
+
+        void add(final int node, final double delay) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                delays = Arrays.copyOf(delays, size * 2);
+            }
+
+            int i = size++;
+            while (i > 0) {
+                final int parent = (i - 1) / 2;
+                if (delays[parent] <= delay) {
+                    break;
+                }
+
+                nodes[i] = nodes[parent];
+                delays[i] = delays[parent];
+                i = parent;
+            }
+
+            nodes[i] = node;
+            delays[i] = delay;
+        }
+
+        int poll() {
+            final int first = nodes[0];
+            final int lastNode = nodes[--size];
+            final double lastDelay = delays[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+
+                if (child + 1 < size && delays[child + 1] < delays[child]) {
+                    child++;
+                }
+
+                if (lastDelay <= delays[child]) {
+                    break;
+                }
+
+                nodes[i] = nodes[child];
+                delays[i] = delays[child];
+                i = child;
+            }
+
+            nodes[i] = lastNode;
+            delays[i] = lastDelay;
+            return first;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.cloudbus.cloudsim.network.flows;
+
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter;
+
+import java.util.List;
+
+/**
+ * An interface to be implemented by classes that simulate the network
+ * of a {@link NetworkDatacenter} at the flow level.
+ * Instead of sending each packet through the {@link org.cloudbus.cloudsim.network.switches.Switch}es
+ * as a separate event, the packets sent at once from a Cloudlet to another one
+ * are transferred as a single {@link NetworkFlow}.
+ * The bandwidth of the network links is shared among the active flows,
+ * which are updated just when a flow starts or finishes.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ * @see NetworkDatacenter#setFlowNetwork(FlowNetwork)
+ */
+public interface FlowNetwork {
+    /**
+     * An attribute that implements the Null Object Design Pattern for {@link FlowNetwork}
+     * objects. It's used by a {@link NetworkDatacenter} that simulates every single packet.
+     */
+    FlowNetwork NULL = new FlowNetworkNull();
+
+    /**
+     * Gets the Datacenter whose network is simulated.
+     * @return the Datacenter or {@link Datacenter#NULL} if the FlowNetwork was not set to a Datacenter yet
+     */
+    Datacenter getDatacenter();
+
+    /**
+     * Sets the Datacenter whose network is simulated.
+     * This method is to be called only by the {@link NetworkDatacenter#setFlowNetwork(FlowNetwork)} method.
+     * @param datacenter the Datacenter to set
+     */
+    void setDatacenter(NetworkDatacenter datacenter);
+
+    /**
+     * Starts transferring a flow at the current simulation time,
+     * recomputing the bandwidth of all flows sharing links with it.
+     *
+     * @param flow the flow to start
+     */
+    void startFlow(NetworkFlow flow);
+
+    /**
+     * Updates the data transferred by the active flows up to the current simulation time,
+     * delivering the packets of finished flows to their destination Hosts.
+     * It's called when the Datacenter receives a {@link CloudSimTags#NETWORK_FLOW_UPDATE} event.
+     *
+     * @return the number of flows that finished
+     */
+    int updateFlows();
+
+    /**
+     * Gets a <b>read-only</b> list of flows currently being transferred.
+     * @return
+     */
+    List<NetworkFlow> getActiveFlows();
+}
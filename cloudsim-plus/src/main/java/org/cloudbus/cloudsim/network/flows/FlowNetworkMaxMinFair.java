@@ -0,0 +1,363 @@
+package org.cloudbus.cloudsim.network.flows;
+
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.events.PredicateType;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter;
+import org.cloudbus.cloudsim.hosts.network.NetworkHost;
+import org.cloudbus.cloudsim.network.HostPacket;
+import org.cloudbus.cloudsim.network.switches.EdgeSwitch;
+import org.cloudbus.cloudsim.network.switches.Switch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * A {@link FlowNetwork} that shares the bandwidth of the network links
+ * among the active flows according to the max-min fairness criterion.
+ * The rate of each flow is computed by progressive filling:
+ * the most congested link (the one giving the lowest fair share to its flows)
+ * is found, its flows get such a share and are removed from all the links
+ * they traverse, which then have their capacity decreased.
+ * This is repeated until all flows have a rate.
+ *
+ * <p>The path of a flow is defined by the tree topology of the
+ * {@link EdgeSwitch}es, {@link org.cloudbus.cloudsim.network.switches.AggregateSwitch}es
+ * and {@link org.cloudbus.cloudsim.network.switches.RootSwitch}es
+ * connected to the source and destination Hosts.
+ * It goes up from the source Host to the first Switch that both Hosts share
+ * and then down to the destination Host.
+ * The link between a Host and its Edge Switch has the Switch downlink bandwidth,
+ * the link from a Switch to the upper layer has the Switch uplink bandwidth
+ * and the link from a Switch to the lower layer has the Switch downlink bandwidth.
+ * Switching delays are ignored, since they are negligible compared
+ * to the time to transfer large amounts of data.</p>
+ *
+ * <p>The rates are recomputed only when a flow starts or finishes,
+ * making the simulation cost proportional to the number of flows
+ * instead of the number of packets.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class FlowNetworkMaxMinFair implements FlowNetwork {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowNetworkMaxMinFair.class.getSimpleName());
+
+    /**
+     * A directional network link between two nodes (Hosts or Switches),
+     * shared by the flows going through it.
+     */
+    private static final class Link {
+        /**
+         * The link bandwidth capacity (in Megabits/s).
+         */
+        private final double capacity;
+
+        private final Set<NetworkFlow> flows = new LinkedHashSet<>();
+
+        /**
+         * The capacity not given to any flow yet while the rates are being computed.
+         */
+        private double remainingCapacity;
+
+        /**
+         * The number of flows in the link not having a rate yet while the rates are being computed.
+         */
+        private int unratedFlows;
+
+        private Link(final double capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * @see #getDatacenter()
+     */
+    private Datacenter datacenter;
+
+    /**
+     * A map where each key is a node (Host or Switch) and each value
+     * is a map of links from that node to another one.
+     * Links are created on demand and kept for reuse.
+     */
+    private final Map<Object, Map<Object, Link>> links;
+
+    /**
+     * A map where each key is an active flow and each value
+     * is the list of links in the path of such a flow.
+     */
+    private final Map<NetworkFlow, List<Link>> activeFlows;
+
+    /**
+     * The links that have at least one active flow.
+     */
+    private final Set<Link> activeLinks;
+
+    /**
+     * The last time the data transferred by the active flows was updated.
+     */
+    private double lastUpdateTime;
+
+    /**
+     * Creates a max-min fair flow network.
+     * It must be set to a Datacenter by calling {@link NetworkDatacenter#setFlowNetwork(FlowNetwork)}.
+     */
+    public FlowNetworkMaxMinFair() {
+        this.datacenter = Datacenter.NULL;
+        this.links = new HashMap<>();
+        this.activeFlows = new LinkedHashMap<>();
+        this.activeLinks = new LinkedHashSet<>();
+    }
+
+    @Override
+    public Datacenter getDatacenter() {
+        return datacenter;
+    }
+
+    @Override
+    public void setDatacenter(final NetworkDatacenter datacenter) {
+        this.datacenter = Objects.requireNonNull(datacenter);
+    }
+
+    @Override
+    public void startFlow(final NetworkFlow flow) {
+        Objects.requireNonNull(flow);
+        final List<Link> path = getPath(flow.getSource(), flow.getDestination());
+        /*A flow through a link without bandwidth would never finish,
+        since no update event would ever be scheduled for it.*/
+        if(path.stream().anyMatch(link -> link.capacity <= 0)) {
+            LOGGER.warn(
+                "{}: {}: {} was dropped because there is a link with no bandwidth in its path. Check the Switches' bandwidth.",
+                datacenter.getSimulation().clockStr(), getClass().getSimpleName(), flow);
+            return;
+        }
+
+        transferActiveFlows();
+        flow.setStartTime(datacenter.getSimulation().clock());
+        for (final Link link : path) {
+            link.flows.add(flow);
+            activeLinks.add(link);
+        }
+
+        activeFlows.put(flow, path);
+        computeRates();
+        scheduleNextUpdate();
+    }
+
+    @Override
+    public int updateFlows() {
+        transferActiveFlows();
+        final int finishedFlows = finishTransferredFlows();
+        if(finishedFlows > 0) {
+            computeRates();
+        }
+
+        scheduleNextUpdate();
+        return finishedFlows;
+    }
+
+    @Override
+    public List<NetworkFlow> getActiveFlows() {
+        return Collections.unmodifiableList(new ArrayList<>(activeFlows.keySet()));
+    }
+
+    /**
+     * Transfers the data of the active flows, at their current rates,
+     * since the last update time.
+     */
+    private void transferActiveFlows() {
+        final double clock = datacenter.getSimulation().clock();
+        final double interval = clock - lastUpdateTime;
+        if(interval > 0) {
+            for (final NetworkFlow flow : activeFlows.keySet()) {
+                flow.transfer(interval);
+            }
+        }
+
+        lastUpdateTime = clock;
+    }
+
+    /**
+     * Removes the completely transferred flows from their links
+     * and delivers their packets to the destination Hosts.
+     *
+     * @return the number of finished flows
+     */
+    private int finishTransferredFlows() {
+        final double clock = datacenter.getSimulation().clock();
+        final double minTimeBetweenEvents = datacenter.getSimulation().getMinTimeBetweenEvents();
+        int finished = 0;
+        final Iterator<Map.Entry<NetworkFlow, List<Link>>> it = activeFlows.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<NetworkFlow, List<Link>> entry = it.next();
+            final NetworkFlow flow = entry.getKey();
+            /*Considers the flow finished if the remaining data would be transferred
+            before the next event can be processed, avoiding tiny floating-point leftovers.*/
+            if(flow.getRemainingMegabits() > flow.getRate() * minTimeBetweenEvents) {
+                continue;
+            }
+
+            for (final Link link : entry.getValue()) {
+                link.flows.remove(flow);
+                if(link.flows.isEmpty()) {
+                    activeLinks.remove(link);
+                }
+            }
+
+            it.remove();
+            flow.setFinishTime(clock);
+            deliverPackets(flow);
+            finished++;
+        }
+
+        return finished;
+    }
+
+    private void deliverPackets(final NetworkFlow flow) {
+        final NetworkHost destination = flow.getDestination();
+        for (final HostPacket pkt : flow.getPackets()) {
+            pkt.setDestination(destination);
+            destination.addReceivedNetworkPacket(pkt);
+        }
+
+        LOGGER.trace(
+            "{}: {}: {} finished after {} seconds",
+            datacenter.getSimulation().clockStr(), getClass().getSimpleName(),
+            flow, flow.getFinishTime() - flow.getStartTime());
+    }
+
+    /**
+     * Computes the max-min fair rate of all active flows by progressive filling.
+     */
+    private void computeRates() {
+        for (final Link link : activeLinks) {
+            link.remainingCapacity = link.capacity;
+            link.unratedFlows = link.flows.size();
+        }
+
+        final Set<NetworkFlow> ratedFlows = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (ratedFlows.size() < activeFlows.size()) {
+            final Link bottleneck = findBottleneckLink();
+            final double fairShare = fairShare(bottleneck);
+            for (final NetworkFlow flow : bottleneck.flows) {
+                if(!ratedFlows.add(flow)){
+                    continue;
+                }
+
+                flow.setRate(fairShare);
+                for (final Link link : activeFlows.get(flow)) {
+                    link.remainingCapacity -= fairShare;
+                    link.unratedFlows--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the link giving the lowest fair share for the flows not having a rate yet.
+     * @return the bottleneck link
+     */
+    private Link findBottleneckLink() {
+        Link bottleneck = null;
+        double minFairShare = Double.MAX_VALUE;
+        for (final Link link : activeLinks) {
+            if(link.unratedFlows == 0){
+                continue;
+            }
+
+            final double fairShare = fairShare(link);
+            if(bottleneck == null || fairShare < minFairShare){
+                bottleneck = link;
+                minFairShare = fairShare;
+            }
+        }
+
+        return bottleneck;
+    }
+
+    private double fairShare(final Link link) {
+        return Math.max(0, link.remainingCapacity) / link.unratedFlows;
+    }
+
+    /**
+     * Schedules an update for the time the earliest active flow is expected to finish,
+     * cancelling a previously scheduled update.
+     */
+    private void scheduleNextUpdate() {
+        datacenter.getSimulation().cancelAll(datacenter, new PredicateType(CloudSimTags.NETWORK_FLOW_UPDATE));
+        double delay = Double.MAX_VALUE;
+        for (final NetworkFlow flow : activeFlows.keySet()) {
+            delay = Math.min(delay, flow.getExpectedRemainingTime());
+        }
+
+        if(delay != Double.MAX_VALUE) {
+            datacenter.schedule(datacenter, delay, CloudSimTags.NETWORK_FLOW_UPDATE);
+        }
+    }
+
+    /**
+     * Gets the links in the path between two Hosts.
+     * @param source the source Host
+     * @param destination the destination Host
+     * @return the list of links from the source to the destination
+     */
+    private List<Link> getPath(final NetworkHost source, final NetworkHost destination) {
+        final EdgeSwitch sourceSwitch = source.getEdgeSwitch();
+        final EdgeSwitch destinationSwitch = destination.getEdgeSwitch();
+
+        final List<Link> path = new ArrayList<>();
+        path.add(getLink(source, sourceSwitch, sourceSwitch.getDownlinkBandwidth()));
+
+        final List<Switch> upPath = getUplinkPath(sourceSwitch);
+        final List<Switch> downPath = getUplinkPath(destinationSwitch);
+        /*If the switches don't share a common upper switch,
+        the top-level switches of each path are considered to be connected.*/
+        int commonSwitchIndex = upPath.size()-1;
+        for (int i = 0; i < upPath.size(); i++) {
+            if(downPath.contains(upPath.get(i))){
+                commonSwitchIndex = i;
+                break;
+            }
+        }
+
+        for (int i = 0; i < commonSwitchIndex; i++) {
+            final Switch lower = upPath.get(i);
+            path.add(getLink(lower, upPath.get(i+1), lower.getUplinkBandwidth()));
+        }
+
+        final Switch commonSwitch = upPath.get(commonSwitchIndex);
+        final int downStartIndex = downPath.contains(commonSwitch) ? downPath.indexOf(commonSwitch) : downPath.size()-1;
+        for (int i = downStartIndex; i > 0; i--) {
+            final Switch upper = downPath.get(i);
+            path.add(getLink(upper, downPath.get(i-1), upper.getDownlinkBandwidth()));
+        }
+
+        path.add(getLink(destinationSwitch, destination, destinationSwitch.getDownlinkBandwidth()));
+        return path;
+    }
+
+    /**
+     * Gets the list of Switches from a given Switch up to the top-level one,
+     * following the first uplink Switch of each layer.
+     * @param sw the Switch to start from
+     * @return the list of Switches, starting with the given one
+     */
+    private List<Switch> getUplinkPath(final Switch sw) {
+        final List<Switch> path = new ArrayList<>(3);
+        Switch current = sw;
+        path.add(current);
+        while (!current.getUplinkSwitches().isEmpty()) {
+            current = current.getUplinkSwitches().get(0);
+            path.add(current);
+        }
+
+        return path;
+    }
+
+    private Link getLink(final Object from, final Object to, final double capacity) {
+        return links
+                .computeIfAbsent(from, key -> new HashMap<>())
+                .computeIfAbsent(to, key -> new Link(capacity));
+    }
+}
@@ -0,0 +1,28 @@
+package org.cloudbus.cloudsim.network.flows;
+
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A class that implements the Null Object Design Pattern for {@link FlowNetwork}
+ * class.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @see FlowNetwork#NULL
+ */
+final class FlowNetworkNull implements FlowNetwork {
+    @Override public Datacenter getDatacenter() {
+        return Datacenter.NULL;
+    }
+    @Override public void setDatacenter(NetworkDatacenter datacenter) {/**/}
+    @Override public void startFlow(NetworkFlow flow) {/**/}
+    @Override public int updateFlows() {
+        return 0;
+    }
+    @Override public List<NetworkFlow> getActiveFlows() {
+        return Collections.emptyList();
+    }
+}
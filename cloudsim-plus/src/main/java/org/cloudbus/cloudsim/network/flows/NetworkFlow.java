@@ -0,0 +1,200 @@
+package org.cloudbus.cloudsim.network.flows;
+
+import org.cloudbus.cloudsim.hosts.network.NetworkHost;
+import org.cloudbus.cloudsim.network.HostPacket;
+import org.cloudbus.cloudsim.util.Conversion;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A data transfer between two {@link NetworkHost}s, carrying all the
+ * {@link HostPacket}s sent at once from a sender to a receiver
+ * {@link org.cloudbus.cloudsim.cloudlets.network.NetworkCloudlet}.
+ * The packets are delivered together when the whole flow is transferred,
+ * according to the bandwidth the {@link FlowNetwork} gives to the flow along the time.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class NetworkFlow {
+    /**
+     * @see #getSource()
+     */
+    private final NetworkHost source;
+
+    /**
+     * @see #getDestination()
+     */
+    private final NetworkHost destination;
+
+    /**
+     * @see #getPackets()
+     */
+    private final List<HostPacket> packets;
+
+    /**
+     * @see #getBytes()
+     */
+    private final long bytes;
+
+    /**
+     * The amount of data yet to be transferred (in Megabits).
+     */
+    private double remainingMegabits;
+
+    /**
+     * @see #getRate()
+     */
+    private double rate;
+
+    /**
+     * @see #getStartTime()
+     */
+    private double startTime;
+
+    /**
+     * @see #getFinishTime()
+     */
+    private double finishTime;
+
+    /**
+     * Creates a flow to transfer a list of packets between two Hosts.
+     *
+     * @param source the Host sending the packets
+     * @param destination the Host where the VM receiving the packets is placed
+     * @param packets the packets to transfer, which must not be empty
+     */
+    public NetworkFlow(final NetworkHost source, final NetworkHost destination, final List<HostPacket> packets) {
+        if(packets.isEmpty()){
+            throw new IllegalArgumentException("A NetworkFlow must have at least one packet.");
+        }
+
+        this.source = Objects.requireNonNull(source);
+        this.destination = Objects.requireNonNull(destination);
+        this.packets = packets;
+
+        long total = 0;
+        for (final HostPacket pkt : packets) {
+            total += pkt.getSize();
+        }
+
+        this.bytes = total;
+        this.remainingMegabits = Conversion.bytesToMegaBits(total);
+        this.startTime = -1;
+        this.finishTime = -1;
+    }
+
+    /**
+     * Gets the Host sending the flow.
+     * @return
+     */
+    public NetworkHost getSource() {
+        return source;
+    }
+
+    /**
+     * Gets the Host receiving the flow.
+     * @return
+     */
+    public NetworkHost getDestination() {
+        return destination;
+    }
+
+    /**
+     * Gets a <b>read-only</b> list of packets carried by the flow.
+     * @return
+     */
+    public List<HostPacket> getPackets() {
+        return Collections.unmodifiableList(packets);
+    }
+
+    /**
+     * Gets the total size of the flow, which is the sum of its packets' size (in bytes).
+     * @return
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the amount of data yet to be transferred (in Megabits).
+     * @return
+     */
+    public double getRemainingMegabits() {
+        return remainingMegabits;
+    }
+
+    /**
+     * Gets the current transfer rate of the flow (in Megabits/s),
+     * defined by the {@link FlowNetwork} according to the other flows sharing the same links.
+     * @return
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Gets the time the flow started to be transferred
+     * or -1 if it didn't start yet.
+     * @return
+     */
+    public double getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Gets the time the flow was completely transferred
+     * or -1 if it didn't finish yet.
+     * @return
+     */
+    public double getFinishTime() {
+        return finishTime;
+    }
+
+    /**
+     * Checks if the flow was completely transferred.
+     * @return
+     */
+    public boolean isFinished() {
+        return finishTime >= 0;
+    }
+
+    /**
+     * Gets the expected time to transfer the remaining data of the flow
+     * at the current {@link #getRate() rate} (in seconds).
+     * @return the expected remaining time or {@link Double#MAX_VALUE} if the flow has no bandwidth
+     */
+    public double getExpectedRemainingTime() {
+        return rate > 0 ? remainingMegabits / rate : Double.MAX_VALUE;
+    }
+
+    void setRate(final double rate) {
+        this.rate = rate;
+    }
+
+    /**
+     * Transfers the data of the flow at the current {@link #getRate() rate}
+     * during a given time interval.
+     * @param interval the time interval (in seconds)
+     */
+    void transfer(final double interval) {
+        remainingMegabits = Math.max(0, remainingMegabits - rate * interval);
+    }
+
+    void setStartTime(final double startTime) {
+        this.startTime = startTime;
+    }
+
+    void setFinishTime(final double finishTime) {
+        this.finishTime = finishTime;
+        this.remainingMegabits = 0;
+        this.rate = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NetworkFlow from %s to %s (%d bytes)", source, destination, bytes);
+    }
+}
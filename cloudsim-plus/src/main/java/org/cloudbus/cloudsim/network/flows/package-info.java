@@ -0,0 +1,14 @@
+/**
+ * Provides classes to simulate the network communication among
+ * {@link org.cloudbus.cloudsim.cloudlets.network.NetworkCloudlet}s at the flow level,
+ * as an alternative to the simulation of every single packet
+ * through the {@link org.cloudbus.cloudsim.network.switches.Switch}es.
+ * A {@link org.cloudbus.cloudsim.network.flows.FlowNetwork} can be enabled
+ * for a {@link org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter}
+ * by calling its {@link org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter#setFlowNetwork(FlowNetwork)} method.
+ *
+ * <p>For more general information, see the package {@link org.cloudbus.cloudsim.network} at the upper level.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+package org.cloudbus.cloudsim.network.flows;
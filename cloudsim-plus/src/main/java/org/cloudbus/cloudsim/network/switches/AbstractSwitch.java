@@ -20,10 +20,8 @@ import org.cloudbus.cloudsim.vms.Vm;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * A base class for implementing Network Switch.
@@ -87,6 +85,11 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
      */
     private double switchingDelay;
 
+    /**
+     * @see #isPacketBatchingEnabled()
+     */
+    private boolean packetBatchingEnabled;
+
     public AbstractSwitch(final CloudSim simulation, final NetworkDatacenter dc) {
         super(simulation);
         this.packetToHostMap = new HashMap<>();
@@ -129,9 +132,26 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
      * @param evt The packet sent.
      */
     protected void processHostPacket(final SimEvent evt) {
-        final HostPacket pkt = (HostPacket) evt.getData();
-        final NetworkHost host = pkt.getDestination();
-        host.addReceivedNetworkPacket(pkt);
+        forEachReceivedPacket(evt, pkt -> pkt.getDestination().addReceivedNetworkPacket(pkt));
+    }
+
+    /**
+     * Performs an action for each packet received in an event,
+     * which may carry a single {@link HostPacket} or a batch of packets
+     * (when the sender has {@link #isPacketBatchingEnabled() packet batching enabled}).
+     *
+     * @param evt the event carrying the received packet(s)
+     * @param action the action to perform for each packet
+     */
+    protected void forEachReceivedPacket(final SimEvent evt, final Consumer<HostPacket> action) {
+        if(evt.getData() instanceof HostPacket) {
+            action.accept((HostPacket) evt.getData());
+            return;
+        }
+
+        for (final Object pkt : (List<?>) evt.getData()) {
+            action.accept((HostPacket) pkt);
+        }
     }
 
     /**
@@ -143,8 +163,19 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
         // Packet coming from up level router has to send downward.
         getSimulation().cancelAll(this, new PredicateType(CloudSimTags.NETWORK_EVENT_SEND));
         schedule(this, getSwitchingDelay(), CloudSimTags.NETWORK_EVENT_SEND);
+        forEachReceivedPacket(evt, this::routePacketDown);
     }
 
+    /**
+     * Adds a packet received from an uplink switch
+     * to the list of packets of the port it has to be forwarded to.
+     * It does nothing by default.
+     *
+     * @param pkt the received packet
+     * @see #processPacketDown(SimEvent)
+     */
+    protected void routePacketDown(final HostPacket pkt) {/**/}
+
     /**
      * Gets the Host where a VM is placed.
      * @param vm the VM to get its Host
@@ -163,8 +194,19 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
         // Packet coming from down level router has to be sent up.
         getSimulation().cancelAll(this, new PredicateType(CloudSimTags.NETWORK_EVENT_SEND));
         schedule(this, switchingDelay, CloudSimTags.NETWORK_EVENT_SEND);
+        forEachReceivedPacket(evt, this::routePacketUp);
     }
 
+    /**
+     * Adds a packet received from a downlink switch or host
+     * to the list of packets of the port it has to be forwarded to.
+     * It does nothing by default.
+     *
+     * @param pkt the received packet
+     * @see #processPacketUp(SimEvent)
+     */
+    protected void routePacketUp(final HostPacket pkt) {/**/}
+
     /**
      * Sends a packet to hosts connected to the switch.
      */
@@ -181,20 +223,38 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
      * @see #downlinkSwitchPacketMap
      */
     private void forwardPacketsToDownlinkSwitches() {
-        for (final Switch destinationSwitch: downlinkSwitchPacketMap.keySet()) {
-            final List<HostPacket> packetList = getDownlinkSwitchPacketList(destinationSwitch);
-            final double bandwidth = this.downlinkBandwidth;
-            forwardPacketsToSwitch(destinationSwitch, packetList, bandwidth, CloudSimTags.NETWORK_EVENT_DOWN);
+        for (final Map.Entry<Switch, List<HostPacket>> entry : downlinkSwitchPacketMap.entrySet()) {
+            forwardPacketsToSwitch(entry.getKey(), entry.getValue(), downlinkBandwidth, CloudSimTags.NETWORK_EVENT_DOWN);
         }
     }
 
+    /**
+     * Forwards the packets in the list of a port, clearing such a list.
+     * If {@link #isPacketBatchingEnabled() packet batching is enabled},
+     * all packets are sent as a single event.
+     * Otherwise, an event is sent for each packet.
+     *
+     * @param destinationSwitch the switch to send the packets to
+     * @param packetList the list of packets to forward
+     * @param bandwidth the bandwidth of the port (in Megabits/s)
+     * @param cloudSimTag the tag of the event(s) to send
+     */
     private void forwardPacketsToSwitch(
         final Switch destinationSwitch, final List<HostPacket> packetList,
         final double bandwidth, final int cloudSimTag)
     {
-        for (final HostPacket pkt : packetList) {
-            final double delay = packetTransferDelay(pkt, bandwidth, packetList.size());
-            send(destinationSwitch, delay, cloudSimTag, pkt);
+        if(packetList.isEmpty()){
+            return;
+        }
+
+        if(packetBatchingEnabled) {
+            final List<HostPacket> batch = new ArrayList<>(packetList);
+            send(destinationSwitch, batchTransferDelay(batch, bandwidth), cloudSimTag, batch);
+        } else {
+            for (final HostPacket pkt : packetList) {
+                final double delay = packetTransferDelay(pkt, bandwidth, packetList.size());
+                send(destinationSwitch, delay, cloudSimTag, pkt);
+            }
         }
 
         packetList.clear();
@@ -207,10 +267,8 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
      * @see #uplinkSwitchPacketMap
      */
     private void forwardPacketsToUplinkSwitches() {
-        for (final Switch destinationSwitch : uplinkSwitchPacketMap.keySet()) {
-            final List<HostPacket> packetList = getUplinkSwitchPacketList(destinationSwitch);
-            final double bandwidth = uplinkBandwidth;
-            forwardPacketsToSwitch(destinationSwitch, packetList, bandwidth, CloudSimTags.NETWORK_EVENT_UP);
+        for (final Map.Entry<Switch, List<HostPacket>> entry : uplinkSwitchPacketMap.entrySet()) {
+            forwardPacketsToSwitch(entry.getKey(), entry.getValue(), uplinkBandwidth, CloudSimTags.NETWORK_EVENT_UP);
         }
     }
 
@@ -221,8 +279,7 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
      * @see #packetToHostMap
      */
     private void forwardPacketsToHosts() {
-        for (final NetworkHost host : packetToHostMap.keySet()) {
-            final List<HostPacket> packetList = getHostPacketList(host);
+        for (final List<HostPacket> packetList : packetToHostMap.values()) {
             forwardPacketsToSwitch(this, packetList, downlinkBandwidth, CloudSimTags.NETWORK_EVENT_HOST);
         }
     }
@@ -268,6 +325,26 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
         return simultaneousPackets == 0 ? bwCapacity : bwCapacity / (double)simultaneousPackets;
     }
 
+    /**
+     * Computes the network delay to send a batch of packets through the network
+     * as a single transfer. It is the time to transfer all the packets' bytes
+     * using the whole bandwidth, which is the mean of the
+     * {@link #packetTransferDelay(HostPacket, double, int) delay of each packet}
+     * when they are sent simultaneously.
+     *
+     * @param batch the packets to be sent
+     * @param bwCapacity the total bandwidth capacity (in Megabits/s)
+     * @return the expected time to transfer the batch through the network (in seconds)
+     */
+    protected double batchTransferDelay(final List<HostPacket> batch, final double bwCapacity) {
+        long totalBytes = 0;
+        for (final HostPacket pkt : batch) {
+            totalBytes += pkt.getSize();
+        }
+
+        return Conversion.bytesToMegaBits(totalBytes) / bwCapacity;
+    }
+
     @Override
     public void shutdownEntity() {
         super.shutdownEntity();
@@ -314,6 +391,32 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
         this.switchingDelay = switchingDelay;
     }
 
+    /**
+     * Checks if the packets waiting in each port are forwarded as a single event
+     * (a batch), which takes the {@link #batchTransferDelay(List, double) aggregate transfer delay}
+     * of all packets. Otherwise, each packet is forwarded as a separate event,
+     * arriving according to its own transfer delay.
+     *
+     * <p>Batching reduces the number of events in network-heavy simulations,
+     * but all packets in a batch arrive at the same time.</p>
+     *
+     * @return true if packet batching is enabled, false otherwise (the default)
+     */
+    public boolean isPacketBatchingEnabled() {
+        return packetBatchingEnabled;
+    }
+
+    /**
+     * Enables or disables packet batching.
+     * @param packetBatchingEnabled true to enable packet batching, false to disable it
+     * @return this switch
+     * @see #isPacketBatchingEnabled()
+     */
+    public AbstractSwitch setPacketBatchingEnabled(final boolean packetBatchingEnabled) {
+        this.packetBatchingEnabled = packetBatchingEnabled;
+        return this;
+    }
+
     @Override
     public List<Switch> getUplinkSwitches() {
         return uplinkSwitches;
@@ -326,12 +429,11 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
 
     /**
      * Gets the list of packets to be sent to a downlink switch.
-     * @param downlinkSwitch the id of the switch to get the list of packets to send
+     * @param downlinkSwitch the switch to get the list of packets to send
      * @return the list of packets to be sent to the given switch.
      */
     protected List<HostPacket> getDownlinkSwitchPacketList(final Switch downlinkSwitch) {
-        downlinkSwitchPacketMap.putIfAbsent(downlinkSwitch, new ArrayList<>());
-        return downlinkSwitchPacketMap.get(downlinkSwitch);
+        return downlinkSwitchPacketMap.computeIfAbsent(downlinkSwitch, key -> new ArrayList<>());
     }
 
     /**
@@ -340,8 +442,7 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
      * @return the list of packets to be sent to the given switch.
      */
     protected List<HostPacket> getUplinkSwitchPacketList(final Switch uplinkSwitch) {
-        uplinkSwitchPacketMap.putIfAbsent(uplinkSwitch, new ArrayList<>());
-        return uplinkSwitchPacketMap.get(uplinkSwitch);
+        return uplinkSwitchPacketMap.computeIfAbsent(uplinkSwitch, key -> new ArrayList<>());
     }
 
     /**
@@ -350,8 +451,7 @@ public abstract class AbstractSwitch extends CloudSimEntity implements Switch {
      * @return the list of packets to be sent to the given host.
      */
     protected List<HostPacket> getHostPacketList(final NetworkHost host) {
-        packetToHostMap.putIfAbsent(host, new ArrayList<>());
-        return packetToHostMap.get(host);
+        return packetToHostMap.computeIfAbsent(host, key -> new ArrayList<>());
     }
 
     /**
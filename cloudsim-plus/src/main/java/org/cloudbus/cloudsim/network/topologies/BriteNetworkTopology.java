@@ -7,7 +7,7 @@
  */
 package org.cloudbus.cloudsim.network.topologies;
 
-import org.cloudbus.cloudsim.network.DelayMatrix;
+import org.cloudbus.cloudsim.network.SparseDelayMatrix;
 import org.cloudbus.cloudsim.network.topologies.readers.TopologyReaderBrite;
 import org.cloudbus.cloudsim.util.ResourceLoader;
 import org.slf4j.Logger;
@@ -50,10 +50,15 @@ public final class BriteNetworkTopology implements NetworkTopology {
     private boolean networkEnabled;
 
     /**
-     * A matrix containing the delay between every pair of nodes in the network.
+     * Provides the delay between every pair of nodes in the network,
+     * computing them on demand.
      */
-    private DelayMatrix delayMatrix;
+    private SparseDelayMatrix delayMatrix;
 
+    /**
+     * A matrix containing the bandwidth between every pair of nodes in the network,
+     * which is just created when requested by {@link #getBwMatrix()}.
+     */
     private double[][] bwMatrix;
 
     /**
@@ -87,7 +92,7 @@ public final class BriteNetworkTopology implements NetworkTopology {
         entitiesMap = new HashMap<>();
         bwMatrix = new double[0][0];
         graph = new TopologicalGraph();
-        delayMatrix = new DelayMatrix();
+        delayMatrix = new SparseDelayMatrix(graph, false);
     }
 
     /**
@@ -123,16 +128,14 @@ public final class BriteNetworkTopology implements NetworkTopology {
     }
 
     /**
-     * Generates the matrices used internally to set latency and bandwidth
+     * Generates the structures used internally to set latency and bandwidth
      * between elements.
+     * The delay between nodes is computed on demand and
+     * the bandwidth matrix is just created when requested.
      */
     private void generateMatrices() {
-        // creates the delay matrix
-        delayMatrix = new DelayMatrix(getTopologicalGraph(), false);
-
-        // creates the bw matrix
-        bwMatrix = createBwMatrix(getTopologicalGraph(), false);
-
+        delayMatrix = new SparseDelayMatrix(getTopologicalGraph(), false);
+        bwMatrix = null;
         networkEnabled = true;
     }
 
@@ -247,9 +250,14 @@ public final class BriteNetworkTopology implements NetworkTopology {
 
     /**
      * Gets a<b>copy</b> of the matrix containing the bandwidth between every pair of nodes in the
-     * network.
+     * network. The matrix is created the first time it's requested and
+     * requires memory proportional to the square of the number of nodes.
      */
     public double[][] getBwMatrix() {
+        if(bwMatrix == null) {
+            bwMatrix = createBwMatrix(getTopologicalGraph(), false);
+        }
+
         return Arrays.copyOf(bwMatrix, bwMatrix.length);
     }
 }
@@ -0,0 +1,143 @@
+package org.cloudbus.cloudsim.schedulers;
+
+import org.cloudbus.cloudsim.resources.Pe;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of MIPS shared among some processes,
+ * where each element is the MIPS capacity of a virtual {@link Pe}
+ * (such as the MIPS allocated by a VmScheduler to each PE of a VM,
+ * which is then made available to its CloudletScheduler).
+ *
+ * <p>The MIPS are stored into a primitive array
+ * and the total MIPS is computed just once, when the object is created.
+ * This way, such values can be passed along from the Host to the VM and then to the
+ * CloudletScheduler at every processing update, without boxing each MIPS or
+ * iterating over the list every time its total is required.
+ * Since it is also a {@code List<Double>}, it can be used anywhere such a List is expected.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public final class MipsShare extends AbstractList<Double> implements RandomAccess {
+    /**
+     * A MIPS share without any PE.
+     */
+    public static final MipsShare NULL = new MipsShare(new double[0]);
+
+    private final double[] mips;
+
+    /**
+     * @see #totalMips()
+     */
+    private final double totalMips;
+
+    private MipsShare(final double[] mips) {
+        this.mips = mips;
+        this.totalMips = Arrays.stream(mips).sum();
+    }
+
+    /**
+     * Creates a MIPS share where all PEs have the same MIPS capacity.
+     * @param pes the number of PEs
+     * @param mips the MIPS capacity of each PE
+     * @return the new MIPS share
+     */
+    public static MipsShare of(final int pes, final double mips) {
+        final double[] array = new double[pes];
+        Arrays.fill(array, mips);
+        return new MipsShare(array);
+    }
+
+    /**
+     * Gets a MIPS share containing the values from a given List.
+     * If such a List is already a MipsShare, the same object is returned,
+     * since it's immutable. Otherwise, the values are copied.
+     *
+     * @param mipsList the List of MIPS for each PE
+     * @return a MipsShare with the given values
+     */
+    public static MipsShare of(final List<Double> mipsList) {
+        if(mipsList instanceof MipsShare){
+            return (MipsShare) mipsList;
+        }
+
+        if(mipsList.isEmpty()){
+            return NULL;
+        }
+
+        final double[] array = new double[mipsList.size()];
+        int i = 0;
+        for (final double value : mipsList) {
+            array[i++] = value;
+        }
+
+        return new MipsShare(array);
+    }
+
+    /**
+     * Gets the number of PEs in this MIPS share.
+     * @return
+     */
+    public int pes() {
+        return mips.length;
+    }
+
+    /**
+     * Gets the MIPS capacity of a given PE, without boxing it.
+     * @param index the index of the PE
+     * @return
+     */
+    public double mips(final int index) {
+        return mips[index];
+    }
+
+    /**
+     * Gets the sum of the MIPS capacity of all PEs.
+     * @return
+     */
+    public double totalMips() {
+        return totalMips;
+    }
+
+    /**
+     * Gets the MIPS capacity of the first PE, which is considered
+     * the capacity of every PE, or 0 if there is no PE.
+     * @return
+     */
+    public double peCapacity() {
+        return mips.length == 0 ? 0 : mips[0];
+    }
+
+    /**
+     * Gets a new MIPS share without the first PEs.
+     * @param pesToRemove the number of PEs to remove from the beginning of this share
+     * @return a new MipsShare without the removed PEs
+     *         (or this object if there is no PE to remove)
+     */
+    public MipsShare removePes(final int pesToRemove) {
+        if(pesToRemove <= 0){
+            return this;
+        }
+
+        if(pesToRemove >= mips.length){
+            return NULL;
+        }
+
+        return new MipsShare(Arrays.copyOfRange(mips, pesToRemove, mips.length));
+    }
+
+    @Override
+    public Double get(final int index) {
+        return mips[index];
+    }
+
+    @Override
+    public int size() {
+        return mips.length;
+    }
+}
@@ -16,6 +16,7 @@ import org.cloudbus.cloudsim.resources.Bandwidth;
 import org.cloudbus.cloudsim.resources.Pe;
 import org.cloudbus.cloudsim.resources.Ram;
 import org.cloudbus.cloudsim.resources.ResourceManageable;
+import org.cloudbus.cloudsim.schedulers.MipsShare;
 import org.cloudbus.cloudsim.schedulers.cloudlet.network.CloudletTaskScheduler;
 import org.cloudbus.cloudsim.util.Conversion;
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
@@ -27,7 +28,6 @@ import org.cloudsimplus.listeners.EventListener;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
@@ -73,7 +73,7 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
     /**
      * @see #getCurrentMipsShare()
      */
-    private List<Double> currentMipsShare;
+    private MipsShare currentMipsShare;
     /**
      * @see #getCloudletExecList()
      */
@@ -83,6 +83,26 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
      */
     private final List<CloudletExecution> cloudletWaitingList;
 
+    /**
+     * The total number of PEs of all cloudlets in the {@link #cloudletExecList},
+     * or a negative value if it has to be computed again because such a list has changed.
+     * @see #totalPesOfAllExecCloudlets()
+     */
+    private long execCloudletsPes;
+
+    /**
+     * The number of times a Cloudlet was added to the {@link #cloudletExecList}.
+     * It's used to check if some Cloudlet was added to such a list
+     * after the processing of cloudlets was updated.
+     */
+    private long execListAdditions;
+
+    /**
+     * Indicates if some Cloudlet in the {@link #cloudletExecList}
+     * was found finished during the last processing update.
+     */
+    private boolean finishedCloudletsFound;
+
     /**
      * @see #getVm()
      */
@@ -110,9 +130,10 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
         cloudletFailedList = new ArrayList<>();
         cloudletWaitingList = new ArrayList<>();
         cloudletReturnedList = new HashSet<>();
-        currentMipsShare = new ArrayList<>();
+        currentMipsShare = MipsShare.NULL;
         taskScheduler = CloudletTaskScheduler.NULL;
         resourceAllocationFailListeners = new ArrayList<>();
+        execCloudletsPes = -1;
     }
 
     @Override
@@ -140,12 +161,13 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
      *
      */
     public List<Double> getCurrentMipsShare() {
-        return Collections.unmodifiableList(currentMipsShare);
+        return currentMipsShare;
     }
 
     /**
      * Sets the list of current mips share available for the VM using the
      * scheduler.
+     * The values are copied, unless the given list is already a {@link MipsShare}.
      *
      * @param currentMipsShare the new current mips share
      * @see #getCurrentMipsShare()
@@ -154,7 +176,7 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
         if(currentMipsShare.size() > vm.getNumberOfPes()){
             LOGGER.warn("Requested {} PEs but {} has just {}", currentMipsShare.size(), vm, vm.getNumberOfPes());
         }
-        this.currentMipsShare = currentMipsShare;
+        this.currentMipsShare = MipsShare.of(currentMipsShare);
     }
 
     /**
@@ -180,29 +202,28 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
      */
     public double getAvailableMipsByPe(){
         final long totalPesOfAllExecCloudlets = totalPesOfAllExecCloudlets();
-        if(totalPesOfAllExecCloudlets > currentMipsShare.size()) {
-            return getTotalMipsShare() / totalPesOfAllExecCloudlets;
+        if(totalPesOfAllExecCloudlets > currentMipsShare.pes()) {
+            return currentMipsShare.totalMips() / totalPesOfAllExecCloudlets;
         }
 
-        return getPeCapacity();
-    }
-
-    private Double getPeCapacity() {
-        return currentMipsShare.stream().findFirst().orElse(0.0);
+        return currentMipsShare.peCapacity();
     }
 
     /**
      * Gets the total number of PEs of all cloudlets currently executing in this processor.
+     * The value is just computed again after the list of executing cloudlets changes
+     * (or the processing of cloudlets is updated), instead of every time the
+     * {@link #getAvailableMipsByPe() MIPS available for each Cloudlet} is requested.
      * @return
      */
     private long totalPesOfAllExecCloudlets() {
-        return cloudletExecList.stream()
-            .map(CloudletExecution::getCloudlet)
-            .mapToLong(Cloudlet::getNumberOfPes).sum();
-    }
+        if(execCloudletsPes < 0) {
+            execCloudletsPes = cloudletExecList.stream()
+                .map(CloudletExecution::getCloudlet)
+                .mapToLong(Cloudlet::getNumberOfPes).sum();
+        }
 
-    private double getTotalMipsShare(){
-        return currentMipsShare.stream().mapToDouble(mips -> mips).sum();
+        return execCloudletsPes;
     }
 
     @Override
@@ -281,7 +302,7 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
             cle.setStatus(Status.INEXEC);
             cle.setFileTransferTime(fileTransferTime);
             addCloudletToExecList(cle);
-            return fileTransferTime + Math.abs(cle.getCloudletLength()/getPeCapacity()) ;
+            return fileTransferTime + Math.abs(cle.getCloudletLength()/currentMipsShare.peCapacity()) ;
         }
 
         // No enough free PEs, then add Cloudlet to the waiting queue
@@ -298,6 +319,8 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
         cle.setStatus(Cloudlet.Status.INEXEC);
         cle.setLastProcessingTime(getVm().getSimulation().clock());
         cloudletExecList.add(cle);
+        execListChanged();
+        execListAdditions++;
         addUsedPes(cle.getNumberOfPes());
     }
 
@@ -491,7 +514,7 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
         final Consumer<CloudletExecution> cloudletStatusUpdaterConsumer)
     {
         final Function<CloudletExecution, Cloudlet> removeCloudletAndUpdateStatus = cle -> {
-            cloudletList.remove(cle);
+            removeCloudletFromList(cloudletList, cle);
             cloudletStatusUpdaterConsumer.accept(cle);
             return cle.getCloudlet();
         };
@@ -510,11 +533,20 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
             return Double.MAX_VALUE;
         }
 
+        //The attributes of executing Cloudlets (such as the number of PEs) may have been changed since the last update
+        execListChanged();
         double nextSimulationDelay = updateCloudletsProcessing(currentTime);
         updateVmResourceAbsoluteUtilization(Ram.class);
         updateVmResourceAbsoluteUtilization(Bandwidth.class);
+        final long previousExecListAdditions = execListAdditions;
         nextSimulationDelay = Math.min(nextSimulationDelay, moveNextCloudletsFromWaitingToExecList(currentTime));
-        addCloudletsToFinishedList();
+
+        /*Cloudlets just finish when their processing is updated.
+        * If none was found finished and no Cloudlet has entered the execution list after that,
+        * there is no need to search the entire list for finished Cloudlets.*/
+        if(finishedCloudletsFound || execListAdditions != previousExecListAdditions) {
+            addCloudletsToFinishedList();
+        }
 
         setPreviousTime(currentTime);
         vm.getSimulation().setLastCloudletProcessingUpdate(currentTime);
@@ -535,11 +567,13 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
     private double updateCloudletsProcessing(final double currentTime) {
         double nextCloudletFinishTime = Double.MAX_VALUE;
         long usedPes = 0;
+        finishedCloudletsFound = false;
         /* Uses an indexed for to avoid ConcurrentModificationException,
          * e.g., in cases when Cloudlet is cancelled during simulation execution. */
         for (int i = 0; i < cloudletExecList.size(); i++) {
             final CloudletExecution cle = cloudletExecList.get(i);
             updateCloudletProcessingAndPacketsDispatch(cle, currentTime);
+            finishedCloudletsFound = finishedCloudletsFound || cle.getCloudlet().isFinished();
             nextCloudletFinishTime = Math.min(nextCloudletFinishTime, cloudletEstimatedFinishTime(cle, currentTime));
             usedPes += cle.getCloudlet().getNumberOfPes();
         }
@@ -750,6 +784,38 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
         removeCloudletFromExecList(cle);
     }
 
+    /**
+     * Notifies that the {@link #getCloudletExecList() list of cloudlets in execution} has changed,
+     * so that values computed from the Cloudlets in such a list must be computed again.
+     * Subclasses keeping their own values computed from that list
+     * must call the super method when overriding it.
+     */
+    protected void execListChanged() {
+        execCloudletsPes = -1;
+    }
+
+    /**
+     * Removes a Cloudlet from the {@link #getCloudletWaitingList() waiting list}.
+     *
+     * @param cle the Cloudlet to be removed
+     * @return true if the Cloudlet was in the list, false otherwise
+     */
+    protected boolean removeCloudletFromWaitingList(final CloudletExecution cle) {
+        return cloudletWaitingList.remove(cle);
+    }
+
+    private void removeCloudletFromList(final List<CloudletExecution> cloudletList, final CloudletExecution cle) {
+        if(cloudletList == cloudletWaitingList) {
+            removeCloudletFromWaitingList(cle);
+            return;
+        }
+
+        cloudletList.remove(cle);
+        if(cloudletList == cloudletExecList) {
+            execListChanged();
+        }
+    }
+
     /**
      * Removes a Cloudlet from the list of cloudlets in execution.
      *
@@ -758,6 +824,7 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
      */
     protected CloudletExecution removeCloudletFromExecList(final CloudletExecution cle) {
         removeUsedPes(cle.getNumberOfPes());
+        execListChanged();
         return cloudletExecList.remove(cle) ? cle : CloudletExecution.NULL;
     }
 
@@ -870,7 +937,7 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
     protected CloudletExecution addWaitingCloudletToExecList(final CloudletExecution cle) {
         /*If the Cloudlet is not found in the waiting List, there is no problem.
         * Just add it to the exec List.*/
-        cloudletWaitingList.remove(cle);
+        removeCloudletFromWaitingList(cle);
         addCloudletToExecList(cle);
         return cle;
     }
@@ -913,7 +980,7 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
      */
     @Override
     public long getFreePes() {
-        return currentMipsShare.size() - getUsedPes();
+        return currentMipsShare.pes() - getUsedPes();
     }
 
     /**
@@ -1065,9 +1132,9 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
 
     @Override
     public void deallocatePesFromVm(int pesToRemove) {
-        pesToRemove = Math.min(pesToRemove, currentMipsShare.size());
+        pesToRemove = Math.min(pesToRemove, currentMipsShare.pes());
         removeUsedPes(pesToRemove);
-        IntStream.range(0, pesToRemove).forEach(idx -> currentMipsShare.remove(0));
+        currentMipsShare = currentMipsShare.removePes(pesToRemove);
     }
 
     @Override
@@ -1103,7 +1170,7 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
 	 * @param cle Cloudlet to check if it can be added to the execution list
 	 * @return true if the Cloudlet can be added to the execution list, false otherwise
 	 */
-    private boolean canExecuteCloudlet(final CloudletExecution cle){
+    protected final boolean canExecuteCloudlet(final CloudletExecution cle){
         return cle.getCloudlet().getStatus().ordinal() < Status.FROZEN.ordinal() && canExecuteCloudletInternal(cle);
     }
 
@@ -1116,5 +1183,6 @@ public abstract class CloudletSchedulerAbstract implements CloudletScheduler {
     public void clear() {
         this.cloudletWaitingList.clear();
         this.cloudletExecList.clear();
+        execListChanged();
     }
 }
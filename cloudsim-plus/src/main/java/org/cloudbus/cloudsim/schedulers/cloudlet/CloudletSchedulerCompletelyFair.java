@@ -29,8 +29,7 @@ import org.cloudbus.cloudsim.datacenters.Datacenter;
 import org.cloudbus.cloudsim.resources.Pe;
 import org.cloudbus.cloudsim.util.MathUtil;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Predicate;
 
 import static java.util.stream.Collectors.toList;
@@ -64,6 +63,13 @@ import static java.util.stream.Collectors.toList;
  *     room for other process to run.
  *     The CFS scheduler uses a dynamic defined timeslice.
  *     </li>
+ *     <li>Uses a Red-Black tree (a {@link TreeSet}), as in real implementations of CFS,
+ *     to sort waiting Cloudlets (runqueue) increasingly, based on their virtual runtime (vruntime or VRT)
+ *     (placing the Cloudlets that have run the least at the leftmost position of the tree).
+ *     Since different Cloudlets may have the same virtual runtime,
+ *     ties are broken by the Cloudlet priority and ID, ensuring each Cloudlet has a unique position into the tree.
+ *     This way, the next Cloudlet to run is found without sorting the entire runqueue.
+ *     </li>
  * </ul>
  *
  * And it currently <b>DOES NOT</b> implement the following features:
@@ -86,14 +92,6 @@ import static java.util.stream.Collectors.toList;
  *     (application execution is simulated just computing the amount of instructions
  *     that can be run), it doesn't matter which PEs are "running" the application.
  *     </li>
- *	   <li>It doesn't use a Red-Black tree (such as the TreeSet), as in real implementations of CFS,
- *	   to sort waiting Cloudlets (runqueue list) increasingly, based on their virtual runtime (vruntime or VRT)
- *	   (placing the Cloudlets that have run the least at the top of the tree).
- *	   Furthermore, the use of such a data structure added some complexity to the implementation.
- *	   Since different Cloudlets may have the same virtual runtime, this introduced some issues when adding or
- *	   removing elements in a structure such as the TreeSet, that requires
- *	   each value (the virtual runtime in this case) used to sort the Set to be unique.
- *	   </li>
  * </ul>
  * </p>
  *
@@ -133,6 +131,22 @@ public final class CloudletSchedulerCompletelyFair extends CloudletSchedulerTime
 	 */
 	private int latency = 3;
 
+    /**
+     * The runqueue, containing the same Cloudlets of the {@link #getCloudletWaitingList()},
+     * sorted by the {@link #waitingCloudletsComparator(CloudletExecution, CloudletExecution)}.
+     * Since the position of a Cloudlet into the tree depends on its virtual runtime,
+     * a waiting Cloudlet must be removed from the tree before changing its virtual runtime,
+     * and then added back.
+     */
+    private final NavigableSet<CloudletExecution> runQueue = new TreeSet<>(this::waitingCloudletsComparator);
+
+    /**
+     * The weight sum of all Cloudlets in the execution list,
+     * or a negative value if it has to be computed again because such a list has changed.
+     * @see #getWeightSumOfRunningCloudlets()
+     */
+    private double weightSumOfRunningCloudlets = -1;
+
     /**
      * A comparator used to increasingly sort Cloudlets into the waiting list
      * based on their virtual runtime (vruntime or VRT). By this way, the Cloudlets in the beginning
@@ -217,7 +231,8 @@ public final class CloudletSchedulerCompletelyFair extends CloudletSchedulerTime
 
     /**
      * Gets a <b>read-only</b> list of Cloudlets which are waiting to run, the so called
-     * <a href="https://en.wikipedia.org/wiki/Run_queue">run queue</a>.
+     * <a href="https://en.wikipedia.org/wiki/Run_queue">run queue</a>,
+     * sorted by their virtual runtime.
      *
      * <p>
      * <b>NOTE:</b> Different from real implementations, this scheduler uses just one run queue
@@ -229,7 +244,7 @@ public final class CloudletSchedulerCompletelyFair extends CloudletSchedulerTime
      */
     @Override
     public List<CloudletExecution> getCloudletWaitingList() {
-        return super.getCloudletWaitingList();
+        return Collections.unmodifiableList(new ArrayList<>(runQueue));
     }
 
     /**
@@ -242,8 +257,33 @@ public final class CloudletSchedulerCompletelyFair extends CloudletSchedulerTime
      */
     @Override
     protected Optional<CloudletExecution> findSuitableWaitingCloudlet() {
-        sortCloudletWaitingList(this::waitingCloudletsComparator);
-        return super.findSuitableWaitingCloudlet();
+        for (final CloudletExecution cle : runQueue) {
+            if (cle.getCloudlet().getStatus() != Cloudlet.Status.FROZEN && canExecuteCloudlet(cle)) {
+                return Optional.of(cle);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    protected void addCloudletToWaitingList(final CloudletExecution cle) {
+        super.addCloudletToWaitingList(cle);
+        if (cle != CloudletExecution.NULL) {
+            runQueue.add(cle);
+        }
+    }
+
+    @Override
+    protected boolean removeCloudletFromWaitingList(final CloudletExecution cle) {
+        runQueue.remove(cle);
+        return super.removeCloudletFromWaitingList(cle);
+    }
+
+    @Override
+    protected void execListChanged() {
+        super.execListChanged();
+        weightSumOfRunningCloudlets = -1;
     }
 
 	/**
@@ -293,12 +333,17 @@ public final class CloudletSchedulerCompletelyFair extends CloudletSchedulerTime
 
 	/**
 	 * Gets the weight sum of all cloudlets in the executing list.
+	 * The value is just computed again after such a list changes.
 	 */
 	private double getWeightSumOfRunningCloudlets() {
-		return getCloudletExecList()
-            .stream()
-            .mapToDouble(this::getCloudletWeight)
-            .sum();
+        if(weightSumOfRunningCloudlets < 0) {
+            weightSumOfRunningCloudlets = getCloudletExecList()
+                .stream()
+                .mapToDouble(this::getCloudletWeight)
+                .sum();
+        }
+
+		return weightSumOfRunningCloudlets;
 	}
 
 	/**
@@ -492,7 +537,12 @@ public final class CloudletSchedulerCompletelyFair extends CloudletSchedulerTime
         is reset so that they can compete with other waiting Cloudlets to use
         the processor again.*/
         for(final CloudletExecution c: preemptedCloudlets) {
+            //The Cloudlet is moved to its new position into the runqueue, if it's still waiting
+            final boolean waiting = runQueue.remove(c);
             c.setVirtualRuntime(computeCloudletInitialVirtualRuntime(c));
+            if(waiting) {
+                runQueue.add(c);
+            }
         }
 
         return nextCloudletFinishTime;
@@ -520,5 +570,9 @@ public final class CloudletSchedulerCompletelyFair extends CloudletSchedulerTime
         return expiredVrtCloudlets;
     }
 
+    @Override
+    public void clear() {
+        super.clear();
+        runQueue.clear();
+    }
 }
-
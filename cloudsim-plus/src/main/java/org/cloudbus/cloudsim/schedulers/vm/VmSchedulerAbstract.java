@@ -9,6 +9,7 @@ package org.cloudbus.cloudsim.schedulers.vm;
 import org.cloudbus.cloudsim.hosts.Host;
 import org.cloudbus.cloudsim.hosts.HostSimple;
 import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.schedulers.MipsShare;
 import org.cloudbus.cloudsim.vms.Vm;
 
 import java.util.*;
@@ -206,6 +207,33 @@ public abstract class VmSchedulerAbstract implements VmScheduler {
         return pesToRemove;
     }
 
+    /**
+     * Remove a given number of PEs from the {@link #getAllocatedMipsMap() MIPS allocated to a VM}.
+     * Since the allocated {@link MipsShare} is immutable, it is replaced by
+     * a new one without the removed PEs.
+     *
+     * @param vm the VM to remove PEs from
+     * @param pesToRemove the number of PEs to remove from the MIPS allocated to the Vm
+     * @return the number of removed PEs
+     */
+    protected int removePesFromAllocatedMips(final Vm vm, int pesToRemove) {
+        final MipsShare mipsShare = getAllocatedMipsShare(vm);
+        if(mipsShare.isEmpty()){
+            return 0;
+        }
+
+        pesToRemove = Math.min((int)vm.getNumberOfPes(), pesToRemove);
+        pesToRemove = Math.min(pesToRemove, mipsShare.pes());
+        final MipsShare remainingMips = mipsShare.removePes(pesToRemove);
+        if(remainingMips.isEmpty()){
+            allocatedMipsMap.remove(vm);
+        } else {
+            allocatedMipsMap.put(vm, remainingMips);
+        }
+
+        return pesToRemove;
+    }
+
     protected abstract void deallocatePesFromVmInternal(Vm vm, int pesToRemove);
 
     @Override
@@ -216,7 +244,17 @@ public abstract class VmSchedulerAbstract implements VmScheduler {
 
     @Override
     public List<Double> getAllocatedMips(final Vm vm) {
-        final List<Double> list = allocatedMipsMap.getOrDefault(vm, new ArrayList<>());
+        return getActualAllocatedMipsShare(vm);
+    }
+
+    /**
+     * Gets the MIPS allocated to a VM as an immutable {@link MipsShare},
+     * which is returned by {@link #getAllocatedMips(Vm)}.
+     * @param vm the VM to get the allocated MIPS
+     * @return the allocated MIPS, reduced due to migration overhead if the VM is migrating out of the Host
+     */
+    private MipsShare getActualAllocatedMipsShare(final Vm vm) {
+        final MipsShare mipsShare = getAllocatedMipsShare(vm);
         /*
         When a VM is migrating out of the source Host, its allocated MIPS
         is reduced due to migration overhead.
@@ -224,7 +262,11 @@ public abstract class VmSchedulerAbstract implements VmScheduler {
         experience overhead, but for the first time the VM is allocated into
         the target Host, the allocated MIPS is stored already considering this overhead.
          */
-        return host.getVmsMigratingOut().contains(vm) ? getMipsShareRequestedReduced(vm, list) : list;
+        return host.getVmsMigratingOut().contains(vm) ? MipsShare.of(getMipsShareRequestedReduced(vm, mipsShare)) : mipsShare;
+    }
+
+    private MipsShare getAllocatedMipsShare(final Vm vm) {
+        return MipsShare.of(allocatedMipsMap.getOrDefault(vm, MipsShare.NULL));
     }
 
     /**
@@ -244,7 +286,7 @@ public abstract class VmSchedulerAbstract implements VmScheduler {
 
     @Override
     public double getTotalAllocatedMipsForVm(final Vm vm) {
-        return getAllocatedMips(vm).stream().mapToDouble(v -> v).sum();
+        return totalMips(getAllocatedMips(vm));
     }
 
     /**
@@ -298,6 +340,11 @@ public abstract class VmSchedulerAbstract implements VmScheduler {
      * This is a situation that the allocated MIPS will be
      * lower than the requested MIPS.</p>
      *
+     * <p>Each value is an immutable {@link MipsShare},
+     * which is directly passed to the {@link Vm#getCloudletScheduler() CloudletScheduler}
+     * when the processing of the VM is updated.
+     * Values must be changed using the {@link #putAllocatedMipsMap(Vm, List)} method.</p>
+     *
      * @return the allocated MIPS map
      * @see #getAllocatedMips(Vm)
      * @see #getRequestedMipsMap()
@@ -308,7 +355,7 @@ public abstract class VmSchedulerAbstract implements VmScheduler {
 
     /** @see #getAllocatedMips(Vm) */
     protected final void putAllocatedMipsMap(final Vm vm, final List<Double> requestedMips) {
-        allocatedMipsMap.put(vm, requestedMips);
+        allocatedMipsMap.put(vm, MipsShare.of(requestedMips));
     }
 
     @Override
@@ -322,6 +369,30 @@ public abstract class VmSchedulerAbstract implements VmScheduler {
         return host.getTotalMipsCapacity() - allocatedMips;
     }
 
+    /**
+     * Gets the sum of the MIPS in a list, without copying it.
+     * The values are summed sequentially, so that the result is the same
+     * as summing the values of the list in order.
+     *
+     * @param mipsList the list of MIPS for each PE (which may be null)
+     * @return the total MIPS
+     */
+    private static double totalMips(final List<Double> mipsList) {
+        double total = 0;
+        if (mipsList instanceof MipsShare) {
+            final MipsShare mipsShare = (MipsShare) mipsList;
+            for (int i = 0; i < mipsShare.pes(); i++) {
+                total += mipsShare.mips(i);
+            }
+        } else if (mipsList != null) {
+            for (final double mips : mipsList) {
+                total += mips;
+            }
+        }
+
+        return total;
+    }
+
     /**
      * Gets the sum of MIPS requested by each VM PE, including
      * the CPU overhead if the VM is in migration to this Host.
@@ -337,8 +408,7 @@ public abstract class VmSchedulerAbstract implements VmScheduler {
      * including the CPU overhead of the VM is in migration to this Host
      */
     private double actualVmTotalRequestedMips(final Map.Entry<Vm, List<Double>> entry) {
-        final List<Double> vmMipsList = entry.getValue() == null ? new ArrayList<>() : entry.getValue();
-        final double totalVmRequestedMips = vmMipsList.stream().reduce(0.0, Double::sum);
+        final double totalVmRequestedMips = totalMips(entry.getValue());
 
         /*If the VM is migrating in or out this Host,
         there is a migration overhead.
@@ -102,6 +102,6 @@ public class VmSchedulerSpaceShared extends VmSchedulerAbstract {
 
     @Override
     protected void deallocatePesFromVmInternal(final Vm vm, final int pesToRemove) {
-        removePesFromMap(vm, getAllocatedMipsMap(), pesToRemove);
+        removePesFromAllocatedMips(vm, pesToRemove);
     }
 }
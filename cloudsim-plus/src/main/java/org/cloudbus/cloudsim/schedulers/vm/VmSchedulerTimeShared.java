@@ -7,13 +7,16 @@
 package org.cloudbus.cloudsim.schedulers.vm;
 
 import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.schedulers.MipsShare;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
 
@@ -57,6 +60,13 @@ import static java.util.stream.Collectors.toList;
 public class VmSchedulerTimeShared extends VmSchedulerAbstract {
     private static final Logger LOGGER = LoggerFactory.getLogger(VmSchedulerTimeShared.class.getSimpleName());
 
+    /**
+     * The Host PEs allocated to each VM, as defined in the last
+     * update of the PEs allocation.
+     * @see #updatePesAllocationForAllVms()
+     */
+    private Map<Vm, VmPesAllocation> pesAllocationMap;
+
     /**
      * Creates a time-shared VM scheduler.
      *
@@ -73,6 +83,7 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
      */
     public VmSchedulerTimeShared(final double vmMigrationCpuOverhead){
         super(vmMigrationCpuOverhead);
+        this.pesAllocationMap = new HashMap<>();
     }
 
     @Override
@@ -119,38 +130,58 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
 
     /**
      * Update allocation of Host PEs for all VMs.
+     *
+     * <p>The allocation of every VM is computed as if the PEs of all VMs were
+     * released and allocated again, since VMs after the one that has changed
+     * may get MIPS from different PEs. However, that is computed using just
+     * the amount of free MIPS of each PE.
+     * Then, only the allocations that have in fact changed are updated
+     * into the {@link Pe#getPeProvisioner() PE provisioners}.</p>
      */
     private void updatePesAllocationForAllVms() {
-        clearAllocationOfPesForAllVms();
-        getAllocatedMipsMap().entrySet().forEach(this::allocatePesListForVm);
-    }
+        final List<Pe> workingPeList = getWorkingPeList();
+        final long[] freeMips = workingPeList.stream().mapToLong(Pe::getCapacity).toArray();
 
-    /**
-     * Clear the allocation of any PE for all VMs in order to start a new allocation.
-     * This way, a PE that was previously allocated to a given VM will be released
-     * and when the new allocation is performed, a different list of PEs can be allocated
-     * to that VM.
-     * @see #updatePesAllocationForAllVms()
-     */
-    private void clearAllocationOfPesForAllVms() {
-        getHost().getPeList().forEach(pe -> pe.getPeProvisioner().deallocateResourceForAllVms());
+        final Map<Vm, VmPesAllocation> newPesAllocationMap = new HashMap<>();
+        for (final Map.Entry<Vm, List<Double>> entry : getAllocatedMipsMap().entrySet()) {
+            newPesAllocationMap.put(entry.getKey(), allocatePesListForVm(entry, workingPeList, freeMips));
+        }
+
+        //Reduced allocations are released first, so that PEs have available MIPS for the increased ones
+        pesAllocationMap.forEach((vm, allocation) -> allocation.releaseChanged(vm, newPesAllocationMap.get(vm)));
+        newPesAllocationMap.forEach((vm, allocation) -> allocation.allocateChanged(vm, pesAllocationMap.get(vm)));
+        pesAllocationMap = newPesAllocationMap;
     }
 
     /**
-     * Allocates Host PEs for a given VM.
+     * Computes the allocation of Host PEs for a given VM.
      * @param entry an entry from the {@link #getAllocatedMipsMap()} containing a VM and
      *              the list of MIPS to be allocated for each of its PEs
+     * @param workingPeList the list of working PEs from the Host
+     * @param freeMips the MIPS not allocated yet from each working PE,
+     *                 which is reduced by the MIPS allocated to the given VM
+     * @return the Host PEs allocated to the VM and the MIPS allocated from each one
      */
-    private void allocatePesListForVm(final Map.Entry<Vm, List<Double>> entry) {
+    private VmPesAllocation allocatePesListForVm(
+        final Map.Entry<Vm, List<Double>> entry,
+        final List<Pe> workingPeList,
+        final long[] freeMips)
+    {
         final Vm vm = entry.getKey();
-        final Iterator<Pe> hostPesIterator = getWorkingPeList().iterator();
+        final MipsShare mipsShare = MipsShare.of(entry.getValue());
+        final VmPesAllocation allocation = new VmPesAllocation(mipsShare.pes());
+        final PrimitiveIterator.OfInt hostPesIterator = IntStream.range(0, freeMips.length).iterator();
         //Iterate over the list of MIPS requested by each VM PE
-        for (final double requestedMipsForVmPe : entry.getValue()) {
-            final double allocatedMipsForVmPe = allocateMipsFromHostPesToGivenVirtualPe(vm, requestedMipsForVmPe, hostPesIterator);
+        for (int i = 0; i < mipsShare.pes(); i++) {
+            final double requestedMipsForVmPe = mipsShare.mips(i);
+            final double allocatedMipsForVmPe =
+                allocateMipsFromHostPesToGivenVirtualPe(allocation, requestedMipsForVmPe, workingPeList, freeMips, hostPesIterator);
             if(requestedMipsForVmPe > 0.1 && allocatedMipsForVmPe <= 0.1){
                 logMipsUnavailable(vm, requestedMipsForVmPe, allocatedMipsForVmPe);
             }
         }
+
+        return allocation;
     }
 
     /**
@@ -175,16 +206,20 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
     /**
      * Try to allocate MIPS from one or more Host PEs to a specific Virtual PE (PE of a VM).
      *
-     * @param vm the VM to try to find Host PEs for one of its Virtual PEs
+     * @param allocation the allocation of Host PEs for the VM, where the selected PEs are added
      * @param requestedMipsForVmPe the amount of MIPS requested by such a VM PE
-     * @param hostPesIterator an {@link Iterator} over the PEs of the {@link #getHost() Host} that the scheduler will
+     * @param workingPeList the list of working PEs from the Host
+     * @param freeMips the MIPS not allocated yet from each working PE
+     * @param hostPesIterator an iterator over the indexes of the working PEs that the scheduler will
      *                        iterate over to allocate PEs for a VM
      * @return the total MIPS allocated from one or more Host PEs for the requested VM PE
      */
     private double allocateMipsFromHostPesToGivenVirtualPe(
-        final Vm vm,
+        final VmPesAllocation allocation,
         final double requestedMipsForVmPe,
-        final Iterator<Pe> hostPesIterator)
+        final List<Pe> workingPeList,
+        final long[] freeMips,
+        final PrimitiveIterator.OfInt hostPesIterator)
     {
         if(requestedMipsForVmPe <= 0){
             return 0;
@@ -196,12 +231,13 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
         * with that MIPS amount available.
         */
         while (allocatedMipsForVmPe <= 0 && hostPesIterator.hasNext()) {
-             final Pe selectedHostPe = hostPesIterator.next();
-             if(allocateAllVmPeRequestedMipsFromHostPe(vm, selectedHostPe, requestedMipsForVmPe)){
+            final int selectedHostPe = hostPesIterator.nextInt();
+            final Pe hostPe = workingPeList.get(selectedHostPe);
+            if(allocateAllVmPeRequestedMipsFromHostPe(allocation, hostPe, freeMips, selectedHostPe, requestedMipsForVmPe)){
                 allocatedMipsForVmPe = requestedMipsForVmPe;
-             } else {
-                allocatedMipsForVmPe += allocatedAvailableMipsFromHostPeToVirtualPe(vm, selectedHostPe);
-             }
+            } else {
+                allocatedMipsForVmPe += allocatedAvailableMipsFromHostPeToVirtualPe(allocation, hostPe, freeMips, selectedHostPe);
+            }
         }
 
         return allocatedMipsForVmPe;
@@ -213,15 +249,19 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
      * by a vPE is not entirely available at a Physical PE.
      * This all, this method allocates the available capacity to the vPE.
      *
-     * @param vm the VM to allocate MIPS from one of its vPEs.
+     * @param allocation the allocation of Host PEs for the VM, where the PE is added
      * @param hostPe the Physical PE to allocated MIPS from
-     * @return true if all requested MIPS of the vPE is available at the physical PE
-     * and was allocated, false otherwise
+     * @param freeMips the MIPS not allocated yet from each working PE
+     * @param hostPeIndex the index of the Physical PE into the freeMips array
+     * @return the MIPS allocated from the physical PE
      *
-     * @see #allocateAllVmPeRequestedMipsFromHostPe(org.cloudbus.cloudsim.vms.Vm, org.cloudbus.cloudsim.resources.Pe, double)
+     * @see #allocateAllVmPeRequestedMipsFromHostPe(VmPesAllocation, Pe, long[], int, double)
      */
-    private double allocatedAvailableMipsFromHostPeToVirtualPe(final Vm vm, final Pe hostPe) {
-        final double availableMips = getAvailableMipsFromHostPe(hostPe);
+    private double allocatedAvailableMipsFromHostPeToVirtualPe(
+        final VmPesAllocation allocation, final Pe hostPe,
+        final long[] freeMips, final int hostPeIndex)
+    {
+        final long availableMips = freeMips[hostPeIndex];
         if (availableMips <= 0){
            return 0;
         }
@@ -232,15 +272,17 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
         * and try to find another Host PE to allocate the remaining MIPS required by the
         * current vPE.
         */
-        allocateMipsFromHostPeForVm(vm, hostPe, availableMips);
+        allocateMipsFromHostPeForVm(allocation, hostPe, freeMips, hostPeIndex, availableMips);
         return availableMips;
     }
 
     /**
      * Try to allocate all the MIPS requested by a Virtual PE from a given Physical PE.
      *
-     * @param vm the VM to allocate MIPS from one of its vPEs.
+     * @param allocation the allocation of Host PEs for the VM, where the PE is added
      * @param hostPe the Physical PE to allocated MIPS from
+     * @param freeMips the MIPS not allocated yet from each working PE
+     * @param hostPeIndex the index of the Physical PE into the freeMips array
      * @param requestedMipsForVmPe the MIPS requested by the vPE
      * @return true if all requested MIPS of the vPE is available at the physical PE
      * and was allocated, false otherwise
@@ -256,17 +298,34 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
      *       The last picture in the following article makes it clear:
      *       https://support.rackspace.com/how-to/numa-vnuma-and-cpu-scheduling/
      */
-    private boolean allocateAllVmPeRequestedMipsFromHostPe(final Vm vm, final Pe hostPe, final double requestedMipsForVmPe) {
-        if (getAvailableMipsFromHostPe(hostPe) >= requestedMipsForVmPe) {
-            allocateMipsFromHostPeForVm(vm, hostPe, requestedMipsForVmPe);
+    private boolean allocateAllVmPeRequestedMipsFromHostPe(
+        final VmPesAllocation allocation, final Pe hostPe,
+        final long[] freeMips, final int hostPeIndex,
+        final double requestedMipsForVmPe)
+    {
+        if (freeMips[hostPeIndex] >= requestedMipsForVmPe) {
+            allocateMipsFromHostPeForVm(allocation, hostPe, freeMips, hostPeIndex, (long)requestedMipsForVmPe);
             return true;
         }
 
         return false;
     }
 
-    private long getAvailableMipsFromHostPe(final Pe hostPe) {
-        return hostPe.getPeProvisioner().getAvailableResource();
+    /**
+     * Allocates a given amount of MIPS from a specific PE for a given VM.
+     * @param allocation the allocation of Host PEs for the VM, where the PE is added
+     * @param hostPe the PE that will have MIPS allocated to the VM
+     * @param freeMips the MIPS not allocated yet from each working PE
+     * @param hostPeIndex the index of the Physical PE into the freeMips array
+     * @param mipsToAllocate the amount of MIPS from the PE that have to be allocated to the VM
+     */
+    private void allocateMipsFromHostPeForVm(
+        final VmPesAllocation allocation, final Pe hostPe,
+        final long[] freeMips, final int hostPeIndex,
+        final long mipsToAllocate)
+    {
+        allocation.add(hostPe, mipsToAllocate);
+        freeMips[hostPeIndex] -= mipsToAllocate;
     }
 
     /**
@@ -280,16 +339,6 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
         return getHost().getWorkingPesNumber() >= requestedMips.size() && getTotalAvailableMips() >= totalRequestedMips;
     }
 
-    /**
-     * Allocates a given amount of MIPS from a specific PE for a given VM.
-     * @param vm the VM to allocate the MIPS from a given PE
-     * @param pe the PE that will have MIPS allocated to the VM
-     * @param mipsToAllocate the amount of MIPS from the PE that have to be allocated to the VM
-     */
-    private void allocateMipsFromHostPeForVm(final Vm vm, final Pe pe, final double mipsToAllocate) {
-        pe.getPeProvisioner().allocateResourceForVm(vm, (long)mipsToAllocate);
-    }
-
     /**
      * Gets the actual MIPS that will be allocated to each vPE (Virtual PE),
      * considering the VM migration status.
@@ -325,7 +374,7 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
     @Override
     protected void deallocatePesFromVmInternal(final Vm vm, final int pesToRemove) {
         removePesFromMap(vm, getRequestedMipsMap(), pesToRemove);
-        removePesFromMap(vm, getAllocatedMipsMap(), pesToRemove);
+        removePesFromAllocatedMips(vm, pesToRemove);
 
         //After removing some PEs from a VM, updates the MIPS allocation for all VMs on this scheduler
         for (final Map.Entry<Vm, List<Double>> entry : getRequestedMipsMap().entrySet()) {
@@ -342,6 +391,87 @@ public class VmSchedulerTimeShared extends VmSchedulerAbstract {
     public void deallocatePesForAllVms() {
         super.deallocatePesForAllVms();
         getRequestedMipsMap().clear();
+        //Only the working PEs were released, thus the failed ones are kept to be released in the next update
+        pesAllocationMap.replaceAll((vm, allocation) -> allocation.getFailedPesAllocation());
+    }
+
+    /**
+     * The Host PEs allocated to a VM and the MIPS allocated from each one of them.
+     * Since each vPE is allocated to a different Host PE,
+     * the number of PEs is at most the number of vPEs.
+     */
+    private static final class VmPesAllocation {
+        private final Pe[] pes;
+        private final long[] mips;
+        private int size;
+
+        private VmPesAllocation(final int maxPes) {
+            this.pes = new Pe[maxPes];
+            this.mips = new long[maxPes];
+        }
+
+        private void add(final Pe pe, final long allocatedMips) {
+            pes[size] = pe;
+            mips[size++] = allocatedMips;
+        }
+
+        /**
+         * Gets the index of a given PE into this allocation.
+         * @param pe the PE to get its index
+         * @return the index of the PE or -1 if it's not allocated
+         */
+        private int indexOf(final Pe pe) {
+            for (int i = 0; i < size; i++) {
+                if(pes[i] == pe){
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        /**
+         * Releases from the PE provisioners the MIPS of this allocation
+         * that are not in a new allocation anymore or were reduced.
+         * @param vm the VM this allocation belongs to
+         * @param newAllocation the new allocation for the VM or null if the VM has no PEs allocated anymore
+         */
+        private void releaseChanged(final Vm vm, final VmPesAllocation newAllocation) {
+            for (int i = 0; i < size; i++) {
+                final int newIndex = newAllocation == null ? -1 : newAllocation.indexOf(pes[i]);
+                if(newIndex < 0) {
+                    pes[i].getPeProvisioner().deallocateResourceForVm(vm);
+                } else if(newAllocation.mips[newIndex] < mips[i]) {
+                    pes[i].getPeProvisioner().allocateResourceForVm(vm, newAllocation.mips[newIndex]);
+                }
+            }
+        }
+
+        /**
+         * Allocates from the PE provisioners the MIPS of this allocation
+         * that are not in the previous allocation or were increased.
+         * @param vm the VM this allocation belongs to
+         * @param previousAllocation the previous allocation for the VM or null if the VM had no PEs allocated
+         */
+        private void allocateChanged(final Vm vm, final VmPesAllocation previousAllocation) {
+            for (int i = 0; i < size; i++) {
+                final int previousIndex = previousAllocation == null ? -1 : previousAllocation.indexOf(pes[i]);
+                if(previousIndex < 0 || mips[i] > previousAllocation.mips[previousIndex]) {
+                    pes[i].getPeProvisioner().allocateResourceForVm(vm, mips[i]);
+                }
+            }
+        }
+
+        private VmPesAllocation getFailedPesAllocation() {
+            final VmPesAllocation allocation = new VmPesAllocation(size);
+            for (int i = 0; i < size; i++) {
+                if(pes[i].isFailed()){
+                    allocation.add(pes[i], mips[i]);
+                }
+            }
+
+            return allocation;
+        }
     }
 
 }
@@ -0,0 +1,531 @@
+package org.cloudbus.cloudsim.util;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * A compact time series storing entries sorted by time,
+ * where each entry has a time and a fixed number of values (columns).
+ * Times and values are stored into parallel arrays of primitive types,
+ * instead of creating objects for each entry (such as a {@link TreeMap} or a list of entry objects does).
+ * This way, an entry with a single value takes just 16 bytes (8 for the time and 8 for the value),
+ * or 12 bytes if the series is {@link #setCompressed(boolean) compressed}.
+ *
+ * <p>The series may have a {@link #setMaxSize(int) maximum size}.
+ * In such a case, it works as a ring buffer that keeps just the most recent entries.</p>
+ *
+ * <p>Entries are usually added in ascending time order.
+ * Adding an entry with the time of an existing entry
+ * overwrites its values, and adding an older entry inserts it at the right position.</p>
+ *
+ * <p>The entries can be read as a {@link #asSortedMap(int) SortedMap}
+ * or as a {@link #asList(IntFunction) List} of entry objects,
+ * which are read-only views backed by the series.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public final class TimeSeries {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double[] EMPTY_TIMES = new double[0];
+
+    private final int columns;
+
+    /** The times of the entries inside the ring buffer. */
+    private double[] times;
+
+    /**
+     * The values of the entries, where each row is a column
+     * (the values of all entries for that column are in the same array).
+     * Null if the series {@link #isCompressed() is compressed}.
+     */
+    private double[][] values;
+
+    /**
+     * The values of the entries when the series {@link #isCompressed() is compressed}, or null otherwise.
+     * @see #values
+     */
+    private float[][] compressedValues;
+
+    /** The physical index of the oldest entry inside the ring buffer arrays. */
+    private int head;
+
+    /** @see #size() */
+    private int size;
+
+    /** @see #getMaxSize() */
+    private int maxSize;
+
+    /**
+     * Creates a time series with no maximum size.
+     * @param columns the number of values of each entry
+     */
+    public TimeSeries(final int columns) {
+        if(columns <= 0){
+            throw new IllegalArgumentException("The number of columns must be greater than 0");
+        }
+
+        this.columns = columns;
+        this.maxSize = Integer.MAX_VALUE;
+        this.times = EMPTY_TIMES;
+        this.values = new double[columns][0];
+    }
+
+    /**
+     * Gets the number of values of each entry.
+     * @return
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of entries in the series.
+     * @return
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries from the series.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Gets the maximum number of entries the series keeps.
+     * When such a number is reached, the oldest entries are discarded to add new ones.
+     * @return
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of entries the series keeps.
+     * If the series is larger than the given size, the oldest entries are discarded.
+     * @param maxSize the maximum size to set
+     * @see #getMaxSize()
+     */
+    public void setMaxSize(final int maxSize) {
+        if(maxSize <= 0){
+            throw new IllegalArgumentException("The maximum size must be greater than 0");
+        }
+
+        this.maxSize = maxSize;
+        if (size > maxSize) {
+            head = index(size - maxSize);
+            size = maxSize;
+        }
+    }
+
+    /**
+     * Checks if values are compressed, i.e, stored as floats.
+     * @return
+     * @see #setCompressed(boolean)
+     */
+    public boolean isCompressed() {
+        return compressedValues != null;
+    }
+
+    /**
+     * Defines if values must be stored as floats, reducing memory usage at the cost of precision.
+     * Times are always stored as doubles, since they are used to find entries.
+     * Changing this attribute converts the values already stored.
+     *
+     * @param compressed true to store values as floats, false to store them as doubles
+     */
+    public void setCompressed(final boolean compressed) {
+        if (compressed == isCompressed()) {
+            return;
+        }
+
+        if (compressed) {
+            compressedValues = new float[columns][times.length];
+            for (int column = 0; column < columns; column++) {
+                for (int i = 0; i < times.length; i++) {
+                    compressedValues[column][i] = (float) values[column][i];
+                }
+            }
+            values = null;
+            return;
+        }
+
+        values = new double[columns][times.length];
+        for (int column = 0; column < columns; column++) {
+            for (int i = 0; i < times.length; i++) {
+                values[column][i] = compressedValues[column][i];
+            }
+        }
+        compressedValues = null;
+    }
+
+    /**
+     * Gets the time of an entry.
+     * @param position the position of the entry, from 0 (the oldest) to {@link #size()}-1 (the newest)
+     * @return
+     */
+    public double getTime(final int position) {
+        return times[index(checkPosition(position))];
+    }
+
+    /**
+     * Gets a value of an entry.
+     * @param position the position of the entry, from 0 (the oldest) to {@link #size()}-1 (the newest)
+     * @param column the column of the value to get
+     * @return
+     */
+    public double getValue(final int position, final int column) {
+        final int index = index(checkPosition(position));
+        return compressedValues == null ? values[column][index] : compressedValues[column][index];
+    }
+
+    /**
+     * Sets a value of an entry.
+     * @param position the position of the entry, from 0 (the oldest) to {@link #size()}-1 (the newest)
+     * @param column the column of the value to set
+     * @param value the value to set
+     */
+    public void setValue(final int position, final int column, final double value) {
+        final int index = index(checkPosition(position));
+        if (compressedValues == null) {
+            values[column][index] = value;
+        } else {
+            compressedValues[column][index] = (float) value;
+        }
+    }
+
+    private int checkPosition(final int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", Size: " + size);
+        }
+
+        return position;
+    }
+
+    /**
+     * Gets the position of the entry for a given time.
+     * Since entries are usually read and added in ascending time order,
+     * the newest entry is checked before performing a binary search.
+     *
+     * @param time the time of the entry to find
+     * @return the position of the entry or a negative value if there is no entry for that time
+     */
+    public int indexOf(final double time) {
+        if (size > 0 && times[index(size - 1)] == time) {
+            return size - 1;
+        }
+
+        final int position = lowerBound(time);
+        return position < size && times[index(position)] == time ? position : -1;
+    }
+
+    /**
+     * Gets the position of the first entry whose time is equal to or greater than a given time.
+     * @param time the time to search
+     * @return the position of the entry or {@link #size()} if all entries are older than that time
+     */
+    private int lowerBound(final double time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (times[index(mid)] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Gets the entry for a given time, adding it if it doesn't exist yet.
+     * The values of a new entry are zero and must be set using {@link #setValue(int, int, double)}.
+     *
+     * <p>If the series has reached its {@link #getMaxSize() maximum size}, the oldest entry is discarded.
+     * If the given time is older than all entries in such a series, no entry is added.</p>
+     *
+     * @param time the time of the entry
+     * @return the position of the entry for the given time,
+     *         or a negative value if the entry was not added
+     */
+    public int put(final double time) {
+        final int existing = indexOf(time);
+        if (existing >= 0) {
+            return existing;
+        }
+
+        if (size == maxSize) {
+            if (time < times[head]) {
+                return -1;
+            }
+
+            head = index(1);
+            size--;
+        } else if (size == times.length) {
+            grow();
+        }
+
+        int position = size++;
+        setEntry(index(position), time);
+        //Moves the entry backwards until the times are sorted again (usually it's already in place)
+        for (; position > 0 && times[index(position - 1)] > time; position--) {
+            swap(index(position - 1), index(position));
+        }
+
+        return position;
+    }
+
+    private void setEntry(final int index, final double time) {
+        times[index] = time;
+        for (int column = 0; column < columns; column++) {
+            if (compressedValues == null) {
+                values[column][index] = 0;
+            } else {
+                compressedValues[column][index] = 0;
+            }
+        }
+    }
+
+    private void grow() {
+        final int capacity = (int) Math.min(Math.max((long) times.length * 2, INITIAL_CAPACITY), maxSize);
+        final double[] newTimes = new double[capacity];
+        copyInOrder(times, newTimes);
+        for (int column = 0; column < columns; column++) {
+            if (compressedValues == null) {
+                final double[] newValues = new double[capacity];
+                copyInOrder(values[column], newValues);
+                values[column] = newValues;
+            } else {
+                final float[] newValues = new float[capacity];
+                copyInOrder(compressedValues[column], newValues);
+                compressedValues[column] = newValues;
+            }
+        }
+
+        times = newTimes;
+        head = 0;
+    }
+
+    /**
+     * Copies the entries from a ring buffer array to a new array,
+     * starting at the oldest entry.
+     */
+    private void copyInOrder(final Object source, final Object target) {
+        final int firstPart = Math.min(size, times.length - head);
+        System.arraycopy(source, head, target, 0, firstPart);
+        System.arraycopy(source, 0, target, firstPart, size - firstPart);
+    }
+
+    private void swap(final int index1, final int index2) {
+        final double time = times[index1];
+        times[index1] = times[index2];
+        times[index2] = time;
+        for (int column = 0; column < columns; column++) {
+            if (compressedValues == null) {
+                final double value = values[column][index1];
+                values[column][index1] = values[column][index2];
+                values[column][index2] = value;
+            } else {
+                final float value = compressedValues[column][index1];
+                compressedValues[column][index1] = compressedValues[column][index2];
+                compressedValues[column][index2] = value;
+            }
+        }
+    }
+
+    /**
+     * Gets the physical index inside the ring buffer arrays for an entry at a given position.
+     * @param position the position of the entry, from 0 (the oldest)
+     * @return
+     */
+    private int index(final int position) {
+        final int index = head + position;
+        return index < times.length ? index : index - times.length;
+    }
+
+    /**
+     * Gets a read-only {@link SortedMap} view of the series,
+     * where each key is the time of an entry and each value is the entry value for a given column.
+     * Changes in the series are reflected in the map.
+     *
+     * @param column the column of the values to get
+     * @return
+     */
+    public SortedMap<Double, Double> asSortedMap(final int column) {
+        if(column < 0 || column >= columns){
+            throw new IndexOutOfBoundsException("Column: " + column + ", Columns: " + columns);
+        }
+
+        return new SortedMapView(column, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Gets a read-only {@link List} view of the series,
+     * where each element is an object created from an entry when it's got.
+     * Changes in the series are reflected in the list.
+     *
+     * @param entryMapper a {@link IntFunction} that receives the position of an entry
+     *                    and creates the object representing the entry
+     * @param <T> the type of the objects representing the entries
+     * @return
+     */
+    public <T> List<T> asList(final IntFunction<T> entryMapper) {
+        Objects.requireNonNull(entryMapper);
+        return new ListView<>(entryMapper);
+    }
+
+    private final class ListView<T> extends AbstractList<T> implements RandomAccess {
+        private final IntFunction<T> entryMapper;
+
+        private ListView(final IntFunction<T> entryMapper) {
+            this.entryMapper = entryMapper;
+        }
+
+        @Override
+        public T get(final int position) {
+            return entryMapper.apply(checkPosition(position));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A read-only {@link SortedMap} view of the series entries in the time interval [fromTime, toTime[.
+     */
+    private final class SortedMapView extends AbstractMap<Double, Double> implements SortedMap<Double, Double> {
+        private final int column;
+        private final double fromTime;
+        private final double toTime;
+
+        private SortedMapView(final int column, final double fromTime, final double toTime) {
+            this.column = column;
+            this.fromTime = fromTime;
+            this.toTime = toTime;
+        }
+
+        private int start() {
+            return fromTime == Double.NEGATIVE_INFINITY ? 0 : lowerBound(fromTime);
+        }
+
+        private int end() {
+            return toTime == Double.POSITIVE_INFINITY ? size : lowerBound(toTime);
+        }
+
+        private boolean inRange(final double time) {
+            return time >= fromTime && time < toTime;
+        }
+
+        @Override
+        public Comparator<? super Double> comparator() {
+            return null;
+        }
+
+        @Override
+        public SortedMap<Double, Double> subMap(final Double fromKey, final Double toKey) {
+            return new SortedMapView(column, Math.max(fromTime, fromKey), Math.min(toTime, toKey));
+        }
+
+        @Override
+        public SortedMap<Double, Double> headMap(final Double toKey) {
+            return new SortedMapView(column, fromTime, Math.min(toTime, toKey));
+        }
+
+        @Override
+        public SortedMap<Double, Double> tailMap(final Double fromKey) {
+            return new SortedMapView(column, Math.max(fromTime, fromKey), toTime);
+        }
+
+        @Override
+        public Double firstKey() {
+            final int start = start();
+            if (start >= end()) {
+                throw new NoSuchElementException();
+            }
+
+            return getTime(start);
+        }
+
+        @Override
+        public Double lastKey() {
+            final int end = end();
+            if (start() >= end) {
+                throw new NoSuchElementException();
+            }
+
+            return getTime(end - 1);
+        }
+
+        @Override
+        public int size() {
+            return Math.max(0, end() - start());
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof Double && inRange((Double) key) && indexOf((Double) key) >= 0;
+        }
+
+        @Override
+        public Double get(final Object key) {
+            if (!(key instanceof Double) || !inRange((Double) key)) {
+                return null;
+            }
+
+            final int position = indexOf((Double) key);
+            return position < 0 ? null : getValue(position, column);
+        }
+
+        @Override
+        public Set<Entry<Double, Double>> entrySet() {
+            return new AbstractSet<Entry<Double, Double>>() {
+                @Override
+                public Iterator<Entry<Double, Double>> iterator() {
+                    return new Iterator<Entry<Double, Double>>() {
+                        private int position = start();
+                        private final int end = end();
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < end;
+                        }
+
+                        @Override
+                        public Entry<Double, Double> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            final Entry<Double, Double> entry =
+                                new SimpleImmutableEntry<>(getTime(position), getValue(position, column));
+                            position++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return SortedMapView.this.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package org.cloudbus.cloudsim.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the lines of a trace file from an {@link InputStream}
+ * and splits them into fields, for a {@link TraceReaderAbstract}.
+ *
+ * <p>Lines are read directly from a large byte buffer and fields are created
+ * from the bytes of each line, without creating an intermediate String for the entire line
+ * (and usually without even copying the line bytes out of the buffer).
+ * When the field delimiter is the default {@code \s+} or a single literal char (such as a comma),
+ * fields are split by a hand-written loop instead of using {@link String#split(String)},
+ * which compiles and matches a regular expression for every line.
+ * The result is the same as {@link TraceReaderAbstract#parseTraceLine(String)}:
+ * the line is trimmed and empty fields are kept.</p>
+ *
+ * <p>If the platform's default charset is not compatible with ASCII
+ * (so that line terminators and delimiters cannot be found by looking at single bytes),
+ * the delimiter is any other regular expression or the trace reader overrides
+ * {@link TraceReaderAbstract#parseTraceLine(String)},
+ * lines are read by a {@link BufferedReader} and parsed by
+ * {@link TraceReaderAbstract#parseTraceLine(String)}, as before.</p>
+ *
+ * <p>Each field is still returned as a new String,
+ * since trace readers get the fields of a line as a String array.
+ * Just the regular expression matching and the String of the entire line are avoided.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+final class TraceLineTokenizer {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String[] EMPTY_LINE = new String[0];
+
+    /**
+     * The regular expression matching a sequence of whitespaces,
+     * which is the default field delimiter.
+     */
+    private static final String WHITESPACE_REGEX = "\\s+";
+
+    /**
+     * Chars having special meaning inside a regular expression.
+     */
+    private static final String REGEX_META_CHARS = ".$|()[]{}^?*+\\";
+
+    /**
+     * A value for {@link #delimiter} indicating that fields are delimited by a sequence of whitespaces.
+     */
+    private static final int WHITESPACE_DELIMITER = -1;
+
+    /**
+     * A value for {@link #delimiter} indicating that the delimiter
+     * is not supported by the byte-level tokenizer.
+     */
+    private static final int UNSUPPORTED_DELIMITER = -2;
+
+    private final TraceReaderAbstract traceReader;
+    private final Charset charset;
+
+    /**
+     * The reader used when the byte-level tokenizer cannot be used,
+     * or null otherwise.
+     */
+    private final BufferedReader lineReader;
+
+    private final InputStream inputStream;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    /**
+     * The array containing the bytes of the last line read,
+     * which is the {@link #buffer} itself when the line is entirely inside it,
+     * or the {@link #lineCopy} when the line crosses the buffer limit.
+     */
+    private byte[] line;
+
+    /** The index of the first byte of the last line read inside the {@link #line} array. */
+    private int lineStart;
+
+    /** The index after the last byte of the last line read inside the {@link #line} array. */
+    private int lineEnd;
+
+    /** An array where lines crossing the buffer limit are copied to. */
+    private byte[] lineCopy;
+    private int lineCopyLength;
+
+    /**
+     * Indicates the last line read ended with a carriage return,
+     * so that a following line feed must be skipped.
+     */
+    private boolean skipLineFeed;
+
+    /**
+     * The field delimiter char, {@link #WHITESPACE_DELIMITER} or {@link #UNSUPPORTED_DELIMITER}.
+     */
+    private final int delimiter;
+
+    /** The bytes of each comment String. */
+    private final byte[][] comments;
+
+    /**
+     * Creates a tokenizer to read lines from a given {@link InputStream}.
+     * The stream is not closed by the tokenizer.
+     *
+     * @param inputStream the stream to read the lines from
+     * @param traceReader the reader that defines the comment Strings and field delimiter to use
+     */
+    TraceLineTokenizer(final InputStream inputStream, final TraceReaderAbstract traceReader) {
+        this.inputStream = requireNonNull(inputStream);
+        this.traceReader = requireNonNull(traceReader);
+        this.charset = Charset.defaultCharset();
+        this.delimiter = isAsciiCompatible(charset) && traceReader.isDefaultLineParser() ?
+                            getDelimiter(traceReader.getFieldDelimiterRegex()) : UNSUPPORTED_DELIMITER;
+        if (delimiter == UNSUPPORTED_DELIMITER) {
+            this.lineReader = new BufferedReader(new InputStreamReader(inputStream));
+            this.buffer = null;
+            this.comments = null;
+            return;
+        }
+
+        this.lineReader = null;
+        this.buffer = new byte[BUFFER_SIZE];
+        this.lineCopy = new byte[256];
+        this.comments = Arrays.stream(traceReader.getCommentString()).map(comment -> comment.getBytes(charset)).toArray(byte[][]::new);
+    }
+
+    private static boolean isAsciiCompatible(final Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) ||
+               charset.equals(StandardCharsets.US_ASCII) ||
+               charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Gets the delimiter char matched by a given regular expression.
+     * @param regex the field delimiter regular expression
+     * @return the delimiter char, {@link #WHITESPACE_DELIMITER} or {@link #UNSUPPORTED_DELIMITER}
+     */
+    private static int getDelimiter(final String regex) {
+        if (WHITESPACE_REGEX.equals(regex)) {
+            return WHITESPACE_DELIMITER;
+        }
+
+        if (regex.length() == 1 && regex.charAt(0) < 128 && REGEX_META_CHARS.indexOf(regex.charAt(0)) == -1) {
+            return regex.charAt(0);
+        }
+
+        if (regex.length() == 2 && regex.charAt(0) == '\\' && REGEX_META_CHARS.indexOf(regex.charAt(1)) != -1) {
+            return regex.charAt(1);
+        }
+
+        return UNSUPPORTED_DELIMITER;
+    }
+
+    /**
+     * Checks if there are bytes available to read a line without blocking,
+     * in the same way as {@link BufferedReader#ready()}.
+     *
+     * @return true if there are buffered bytes or the stream has bytes available to be read, false otherwise
+     * @throws IOException if the there was any error checking the stream
+     */
+    boolean ready() throws IOException {
+        if (lineReader != null) {
+            return lineReader.ready();
+        }
+
+        if (skipLineFeed && position < limit && buffer[position] == '\n') {
+            skipLineFeed = false;
+            position++;
+        }
+
+        return position < limit || inputStream.available() > 0;
+    }
+
+    /**
+     * Reads the next line and splits it into fields.
+     *
+     * @return the fields of the line; an empty array if the line is a comment;
+     *         or null if there isn't any more lines to read
+     * @throws IOException if the there was any error reading the stream
+     */
+    String[] nextParsedLine() throws IOException {
+        if (lineReader != null) {
+            final String str = lineReader.readLine();
+            return str == null ? null : traceReader.parseTraceLine(str);
+        }
+
+        if (!readLine()) {
+            return null;
+        }
+
+        if (isComment()) {
+            return EMPTY_LINE;
+        }
+
+        int start = lineStart;
+        int end = lineEnd;
+        while (start < end && (line[start] & 0xFF) <= ' ') {
+            start++;
+        }
+
+        while (end > start && (line[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+
+        return delimiter == WHITESPACE_DELIMITER ? splitByWhitespaces(start, end) : splitByChar(start, end);
+    }
+
+    private boolean isComment() {
+        for (final byte[] comment : comments) {
+            if (startsWith(comment)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean startsWith(final byte[] prefix) {
+        if (prefix.length > lineEnd - lineStart) {
+            return false;
+        }
+
+        for (int i = 0; i < prefix.length; i++) {
+            if (line[lineStart + i] != prefix[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Splits the line by a single delimiter char, keeping empty fields.
+     * The fields are counted first, so that the array of fields is created with the exact size.
+     */
+    private String[] splitByChar(final int start, final int end) {
+        int count = 1;
+        int allBytes = 0;
+        for (int i = start; i < end; i++) {
+            allBytes |= line[i];
+            if (line[i] == delimiter) {
+                count++;
+            }
+        }
+
+        final Charset lineCharset = getLineCharset(allBytes);
+        final String[] fields = new String[count];
+        int field = 0;
+        int fieldStart = start;
+        for (int i = start; i < end; i++) {
+            if (line[i] == delimiter) {
+                fields[field++] = newString(fieldStart, i, lineCharset);
+                fieldStart = i + 1;
+            }
+        }
+
+        fields[field] = newString(fieldStart, end, lineCharset);
+        return fields;
+    }
+
+    /**
+     * Splits the line by sequences of whitespaces.
+     * The line is expected to be trimmed.
+     */
+    private String[] splitByWhitespaces(final int start, final int end) {
+        int count = 1;
+        int allBytes = 0;
+        for (int i = start; i < end; i++) {
+            allBytes |= line[i];
+            if (isWhitespace(line[i]) && !isWhitespace(line[i - 1])) {
+                count++;
+            }
+        }
+
+        final Charset lineCharset = getLineCharset(allBytes);
+        final String[] fields = new String[count];
+        int field = 0;
+        int fieldStart = start;
+        int i = start;
+        while (i < end) {
+            if (isWhitespace(line[i])) {
+                fields[field++] = newString(fieldStart, i, lineCharset);
+                while (i < end && isWhitespace(line[i])) {
+                    i++;
+                }
+
+                fieldStart = i;
+            } else {
+                i++;
+            }
+        }
+
+        fields[field] = newString(fieldStart, end, lineCharset);
+        return fields;
+    }
+
+    /**
+     * Gets the charset to decode the fields of the line.
+     * If the line just has ASCII chars, the ISO-8859-1 charset is returned,
+     * which gives the same result as any ASCII-compatible charset, but decodes the bytes faster.
+     *
+     * @param allBytes the result of a bitwise OR between all bytes of the line,
+     *                 which is negative if any byte is not an ASCII char
+     * @return
+     */
+    private Charset getLineCharset(final int allBytes) {
+        return allBytes < 0 ? charset : StandardCharsets.ISO_8859_1;
+    }
+
+    /**
+     * Checks if a byte is one of the chars matched by the {@code \s} regular expression.
+     * @param b the byte to check
+     * @return
+     */
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == 0x0B || b == '\f' || b == '\r';
+    }
+
+    private String newString(final int start, final int end, final Charset lineCharset) {
+        return new String(line, start, end - start, lineCharset);
+    }
+
+    /**
+     * Reads the next line, following the same line terminators as {@link BufferedReader#readLine()}.
+     * The line is kept inside the {@link #buffer} when possible,
+     * avoiding to copy its bytes.
+     *
+     * @return true if a line was read, false if the end of the stream was reached
+     * @throws IOException if the there was any error reading the stream
+     */
+    private boolean readLine() throws IOException {
+        lineCopyLength = 0;
+        boolean copied = false;
+        boolean anyByteRead = false;
+        while (true) {
+            if (position == limit && !fillBuffer()) {
+                setLine(lineCopy, 0, lineCopyLength);
+                return anyByteRead;
+            }
+
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+
+            anyByteRead = true;
+            int i = position;
+            while (i < limit && buffer[i] != '\n' && buffer[i] != '\r') {
+                i++;
+            }
+
+            if (i < limit) {
+                if (copied) {
+                    appendToLineCopy(position, i);
+                    setLine(lineCopy, 0, lineCopyLength);
+                } else {
+                    setLine(buffer, position, i);
+                }
+
+                skipLineFeed = buffer[i] == '\r';
+                position = i + 1;
+                return true;
+            }
+
+            appendToLineCopy(position, limit);
+            copied = true;
+            position = limit;
+        }
+    }
+
+    private void setLine(final byte[] line, final int start, final int end) {
+        this.line = line;
+        this.lineStart = start;
+        this.lineEnd = end;
+    }
+
+    private boolean fillBuffer() throws IOException {
+        final int read = inputStream.read(buffer);
+        if (read <= 0) {
+            return false;
+        }
+
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private void appendToLineCopy(final int start, final int end) {
+        final int length = end - start;
+        if (lineCopyLength + length > lineCopy.length) {
+            lineCopy = Arrays.copyOf(lineCopy, Math.max(lineCopy.length * 2, lineCopyLength + length));
+        }
+
+        System.arraycopy(buffer, start, lineCopy, lineCopyLength, length);
+        lineCopyLength += length;
+    }
+}
@@ -5,6 +5,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
 
@@ -47,6 +48,36 @@ public abstract class TraceReaderAbstract implements TraceReader {
     /** @see #getLastLineNumber() */
     private int lastLineNumber;
 
+    /**
+     * The tokenizer used to {@link #readNextLines(Function, Predicate) read the trace file in parts},
+     * whose stream is kept open between calls to that method.
+     */
+    private TraceLineTokenizer partialTokenizer;
+
+    /**
+     * The stream used to {@link #readNextLines(Function, Predicate) read the trace file in parts}.
+     */
+    private InputStream partialInputStream;
+
+    /**
+     * The stream used to read the entries of a zip file
+     * when {@link #readNextLines(Function, Predicate) reading the trace file in parts},
+     * or null if the file isn't a zip.
+     */
+    private ZipInputStream partialZipInputStream;
+
+    /**
+     * The last line parsed when {@link #readNextLines(Function, Predicate) reading the trace file in parts},
+     * which was not processed yet because it was after the current part of the file.
+     */
+    private String[] pendingParsedLine;
+
+    /**
+     * Indicates if the end of the file was reached when
+     * {@link #readNextLines(Function, Predicate) reading the trace file in parts}.
+     */
+    private boolean partialReadingFinished;
+
     /**
      * Create a new SwfWorkloadFileReader object.
      *
@@ -128,6 +159,16 @@ public abstract class TraceReaderAbstract implements TraceReader {
         return inputStream;
     }
 
+    /**
+     * Parses a trace line, splitting it into fields according to the {@link #getFieldDelimiterRegex()}.
+     *
+     * <p>Lines read from the trace file are usually split by a {@link TraceLineTokenizer},
+     * which gives the same result without using regular expressions.
+     * If this method is overridden, it's used to parse every line instead.</p>
+     *
+     * @param line the line to parse
+     * @return the fields of the line or an empty array if the line is a comment
+     */
     protected String[] parseTraceLine(final String line){
         if (isComment(line)) {
             return new String[0];
@@ -137,6 +178,24 @@ public abstract class TraceReaderAbstract implements TraceReader {
         return line.trim().split(fieldDelimiterRegex, -1);
     }
 
+    /**
+     * Checks if lines are parsed by the {@link #parseTraceLine(String)} method
+     * defined in this class, instead of an overridden one.
+     * @return
+     */
+    /* default */ final boolean isDefaultLineParser() {
+        for (Class<?> klass = getClass(); klass != TraceReaderAbstract.class; klass = klass.getSuperclass()) {
+            try {
+                klass.getDeclaredMethod("parseTraceLine", String.class);
+                return false;
+            } catch (NoSuchMethodException e) {
+                //The method is not overridden in this class, thus checks the superclass
+            }
+        }
+
+        return true;
+    }
+
     private boolean isComment(final String line) {
         return Arrays.stream(commentString).anyMatch(line::startsWith);
     }
@@ -221,12 +280,11 @@ public abstract class TraceReaderAbstract implements TraceReader {
         requireNonNull(inputStream);
         requireNonNull(processParsedLineFunction);
 
-        //The reader is safely closed by the caller
-        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+        //The stream is safely closed by the caller
+        final TraceLineTokenizer tokenizer = new TraceLineTokenizer(inputStream, this);
         lastLineNumber = 0;
-        String line;
-        while ((line = readNextLine(reader, lastLineNumber)) != null) {
-            final String[] parsedTraceLine = parseTraceLine(line);
+        String[] parsedTraceLine;
+        while ((parsedTraceLine = readNextLine(tokenizer, lastLineNumber)) != null) {
             if(parsedTraceLine.length > 0 && processParsedLineFunction.apply(parsedTraceLine)) {
                 lastLineNumber++;
             }
@@ -234,16 +292,165 @@ public abstract class TraceReaderAbstract implements TraceReader {
     }
 
     /**
-     * Reads the next line of the workload file.
+     * Reads the next lines from the file indicated by the {@link #getFilePath()},
+     * processing them until a line for which a given predicate returns true is found.
+     * Such a line is not processed, but kept to be the first one processed the next time this method is called.
+     * The file is kept open between calls, enabling it to be read in parts
+     * instead of loading the entire file at once.
+     * Each call to this method continues from where the previous call stopped.
+     *
+     * @param processParsedLineFunction a {@link Function} that receives each parsed line as an array
+     *                          and performs an operation over it, returning true if the operation was executed
+     * @param stopPredicate a {@link Predicate} that receives each parsed line (before it's processed)
+     *                      and returns true to indicate the current part of the file ends before such a line
+     * @return true if there are more lines to read, false if the end of the file was reached
+     * @throws UncheckedIOException if the there was any error reading the file (which is closed in such a case)
+     */
+    protected boolean readNextLines(
+        final Function<String[], Boolean> processParsedLineFunction,
+        final Predicate<String[]> stopPredicate)
+    {
+        requireNonNull(processParsedLineFunction);
+        requireNonNull(stopPredicate);
+        if (partialReadingFinished) {
+            return false;
+        }
+
+        try {
+            if (partialTokenizer == null) {
+                openPartialReader();
+            }
+
+            String[] parsedTraceLine = pendingParsedLine == null ? readNextParsedLine() : pendingParsedLine;
+            pendingParsedLine = null;
+            while (parsedTraceLine != null) {
+                if (stopPredicate.test(parsedTraceLine)) {
+                    pendingParsedLine = parsedTraceLine;
+                    return true;
+                }
+
+                if (processParsedLineFunction.apply(parsedTraceLine)) {
+                    lastLineNumber++;
+                }
+
+                parsedTraceLine = readNextParsedLine();
+            }
+
+            finishPartialReading();
+            return false;
+        } catch(IOException e){
+            abortPartialReading(e);
+            throw new UncheckedIOException(e);
+        } catch(RuntimeException e){
+            abortPartialReading(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes the file being {@link #readNextLines(Function, Predicate) read in parts},
+     * if it's still open, so that no more lines are read from it.
+     * It must be called when the file is not going to be read up to the end,
+     * such as when the simulation finishes before that.
+     *
+     * @throws UncheckedIOException if the there was any error closing the file
+     */
+    protected void closePartialReading() {
+        try {
+            finishPartialReading();
+        } catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the file being {@link #readNextLines(Function, Predicate) read in parts}
+     * after an error, adding any error closing it to the original one.
+     * @param error the error that happened while reading the file
+     */
+    private void abortPartialReading(final Exception error) {
+        try {
+            finishPartialReading();
+        } catch(IOException e){
+            error.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Indicates that no more lines are to be {@link #readNextLines(Function, Predicate) read in parts}
+     * and closes the file if it's still open.
+     * @throws IOException if the there was any error closing the file
+     */
+    private void finishPartialReading() throws IOException {
+        partialReadingFinished = true;
+        pendingParsedLine = null;
+        if (partialInputStream == null) {
+            return;
+        }
+
+        final InputStream inputStream = partialInputStream;
+        partialInputStream = null;
+        partialZipInputStream = null;
+        partialTokenizer = null;
+        inputStream.close();
+    }
+
+    /**
+     * Opens the {@link #partialTokenizer} according to the format of the file.
+     * @throws IOException if the there was any error opening the file
+     */
+    private void openPartialReader() throws IOException {
+        lastLineNumber = 0;
+        final InputStream inputStream = requireNonNull(getInputStream());
+        if (getFilePath().endsWith(".gz")) {
+            partialInputStream = new GZIPInputStream(inputStream);
+        } else if (getFilePath().endsWith(".zip")) {
+            partialZipInputStream = new ZipInputStream(inputStream);
+            partialZipInputStream.getNextEntry();
+            partialInputStream = partialZipInputStream;
+        } else {
+            partialInputStream = inputStream;
+        }
+
+        partialTokenizer = new TraceLineTokenizer(partialInputStream, this);
+    }
+
+    /**
+     * Reads and parses the next non-empty and non-comment line from the {@link #partialTokenizer},
+     * moving to the next entry when reading a zip file.
+     *
+     * @return the parsed line or null if there isn't any more lines to read
+     * @throws IOException if the there was any error reading the file
+     */
+    private String[] readNextParsedLine() throws IOException {
+        while (true) {
+            final String[] parsedTraceLine = readNextLine(partialTokenizer, lastLineNumber);
+            if (parsedTraceLine == null) {
+                if (partialZipInputStream == null || partialZipInputStream.getNextEntry() == null) {
+                    return null;
+                }
+
+                partialTokenizer = new TraceLineTokenizer(partialZipInputStream, this);
+                continue;
+            }
+
+            if (parsedTraceLine.length > 0) {
+                return parsedTraceLine;
+            }
+        }
+    }
+
+    /**
+     * Reads and parses the next line of the workload file.
      *
-     * @param reader     the object that is reading the workload file
+     * @param tokenizer  the object that is reading the workload file
      * @param lineNumber the number of the line that that will be read from the workload file (starting from 0)
-     * @return the line read; or null if there isn't any more lines to read or if
+     * @return the fields of the line read (an empty array if the line is a comment); or null if there isn't any more lines to read or if
      * the number of lines read reached the {@link #getMaxLinesToRead()}
      */
-    private String readNextLine(final BufferedReader reader, final int lineNumber) throws IOException {
-        if (reader.ready() && (maxLinesToRead == -1 || lineNumber <= maxLinesToRead-1)) {
-            return reader.readLine();
+    private String[] readNextLine(final TraceLineTokenizer tokenizer, final int lineNumber) throws IOException {
+        if (tokenizer.ready() && (maxLinesToRead == -1 || lineNumber <= maxLinesToRead-1)) {
+            return tokenizer.nextParsedLine();
         }
 
         return null;
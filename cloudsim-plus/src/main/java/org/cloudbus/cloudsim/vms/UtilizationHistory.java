@@ -81,6 +81,7 @@ public interface UtilizationHistory {
      *
      * @param time the time to get the relative VM CPU utilization
      * @return the relative VM CPU usage percent (from 0 to 1)
+     *         or 0 if there is no history entry for the given time
      */
     double getHostCpuUtilization(double time);
 
@@ -110,9 +111,33 @@ public interface UtilizationHistory {
 
     /**
      * Sets the maximum number of entries to store in the history.
+     * When such a number is reached, the oldest entries are discarded.
      * @param maxHistoryEntries the value to set
      */
     void setMaxHistoryEntries(int maxHistoryEntries);
 
+    /**
+     * Checks if the utilization values are compressed
+     * (stored with float precision) to reduce memory usage.
+     * The default implementation returns false.
+     * @return
+     */
+    default boolean isCompressed() {
+        return false;
+    }
+
+    /**
+     * Defines if the utilization values must be compressed
+     * (stored with float precision) to reduce memory usage,
+     * at the cost of precision. Values already stored are converted.
+     * By default, the history is not compressed.
+     *
+     * <p>The default implementation ignores the given value,
+     * keeping the history uncompressed.</p>
+     *
+     * @param compressed true to compress the utilization values, false otherwise
+     */
+    default void setCompressed(final boolean compressed) {/**/}
+
     Vm getVm();
 }
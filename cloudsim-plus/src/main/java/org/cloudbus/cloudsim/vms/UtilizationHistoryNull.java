@@ -24,5 +24,7 @@ final class UtilizationHistoryNull implements UtilizationHistory {
     @Override public void disable() {/**/}
     @Override public int getMaxHistoryEntries() { return 0; }
     @Override public void setMaxHistoryEntries(int maxHistoryEntries) {/**/}
+    @Override public boolean isCompressed() { return false; }
+    @Override public void setCompressed(boolean compressed) {/**/}
     @Override public Vm getVm() { return Vm.NULL; }
 }
@@ -225,7 +225,7 @@ public class VmSimple extends CustomerEntityAbstract implements Vm {
 
         setSubmissionDelay(0);
         setVmm("Xen");
-        stateHistory = new LinkedList<>();
+        stateHistory = new ArrayList<>();
 
         this.onHostAllocationListeners = new HashSet<>();
         this.onHostDeallocationListeners = new HashSet<>();
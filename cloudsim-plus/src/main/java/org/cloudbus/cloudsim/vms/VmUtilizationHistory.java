@@ -1,14 +1,16 @@
 package org.cloudbus.cloudsim.vms;
 
 import org.cloudbus.cloudsim.util.MathUtil;
+import org.cloudbus.cloudsim.util.TimeSeries;
 
-import java.util.Collections;
 import java.util.SortedMap;
-import java.util.TreeMap;
-import java.util.stream.Stream;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 
 /**
  * Stores resource utilization data for a specific {@link Vm}.
+ * The history is stored into a {@link TimeSeries},
+ * which takes just 16 bytes per entry (or 12 bytes if {@link #setCompressed(boolean) compressed}).
  *
  * @author Anton Beloglazov
  * @author Manoel Campos da Silva Filho
@@ -18,8 +20,11 @@ public class VmUtilizationHistory implements UtilizationHistory {
     private boolean enabled;
     private int maxHistoryEntries;
 
+    /** The utilization history, where the 1st (and only) column is the CPU utilization percentage. */
+    private final TimeSeries history;
+
     /** @see #getHistory() */
-    private final SortedMap<Double, Double> history;
+    private final SortedMap<Double, Double> historyMap;
     private final Vm vm;
 
     /**
@@ -37,7 +42,8 @@ public class VmUtilizationHistory implements UtilizationHistory {
      *                in order to reduce memory usage
      */
     public VmUtilizationHistory(final Vm vm, final boolean enabled) {
-        this.history = new TreeMap<>();
+        this.history = new TimeSeries(1);
+        this.historyMap = history.asSortedMap(0);
         this.vm = vm;
         this.enabled = enabled;
         this.setMaxHistoryEntries(Integer.MAX_VALUE);
@@ -59,10 +65,10 @@ public class VmUtilizationHistory implements UtilizationHistory {
         }
 
         final int maxEntries = getNumEntriesToComputeStats();
-        final double median = MathUtil.median(getHistory().values());
+        final double median = MathUtil.median(getHistoryValues(history.size()).toArray());
         final double[] deviationSum = new double[maxEntries];
         for (int i = 0; i < maxEntries; i++) {
-            deviationSum[i] = Math.abs(median - getHistory().get(i));
+            deviationSum[i] = Math.abs(median - history.getValue(i, 0));
         }
 
         return MathUtil.median(deviationSum);
@@ -73,22 +79,26 @@ public class VmUtilizationHistory implements UtilizationHistory {
      * @return
      */
     private int getNumEntriesToComputeStats() {
-        return Math.min(getMaxHistoryEntries(), getHistory().size());
+        return Math.min(getMaxHistoryEntries(), history.size());
     }
 
     @Override
     public double getUtilizationMean() {
         final int maxEntries = getNumEntriesToComputeStats();
-        final double usagePercentMean = getHistoryLimitedStream(maxEntries)
-            .mapToDouble(usagePercent -> usagePercent)
+        final double usagePercentMean = getHistoryValues(maxEntries)
             .average()
             .orElse(0);
 
         return usagePercentMean * vm.getMips();
     }
 
-    private Stream<Double> getHistoryLimitedStream(final int maxEntries) {
-        return getHistory().values().stream().limit(maxEntries);
+    /**
+     * Gets a stream of the oldest utilization values in the history.
+     * @param maxEntries the number of values to get
+     * @return
+     */
+    private DoubleStream getHistoryValues(final int maxEntries) {
+        return IntStream.range(0, maxEntries).mapToDouble(i -> history.getValue(i, 0));
     }
 
     @Override
@@ -99,8 +109,8 @@ public class VmUtilizationHistory implements UtilizationHistory {
 
         final double mean = getUtilizationMean();
         final int maxEntries = getNumEntriesToComputeStats();
-        return getHistoryLimitedStream(maxEntries)
-            .mapToDouble(usagePercent -> usagePercent * vm.getMips())
+        return getHistoryValues(maxEntries)
+            .map(usagePercent -> usagePercent * vm.getMips())
             .map(usageValue -> usageValue - mean)
             .map(usageValue -> usageValue * usageValue)
             .average().orElse(0);
@@ -161,21 +171,21 @@ public class VmUtilizationHistory implements UtilizationHistory {
      * @param utilizationPercent the CPU utilization percentage to add
      */
     private void addUtilizationHistoryValue(final double time, final double utilizationPercent) {
-        history.put(time, utilizationPercent);
-        if (getHistory().size() > maxHistoryEntries) {
-            history.remove(maxHistoryEntries);
+        final int position = history.put(time);
+        if (position >= 0) {
+            history.setValue(position, 0, utilizationPercent);
         }
     }
 
     @Override
     public SortedMap<Double, Double> getHistory() {
-        return Collections.unmodifiableSortedMap(history);
+        return historyMap;
     }
 
     @Override
     public double powerConsumption(final double time){
         //The % of CPU that is being used from the Host (considering all running VMs)
-        final double hostTotalCpuUsage = vm.getHost().getUtilizationHistory().get(time).getSum();
+        final double hostTotalCpuUsage = vm.getHost().getUtilizationHistorySum(time);
 
         /* Computes the % of the CPU the VM is using, relative to the Host's USED MIPS.
          * If the Host's USED MIPS is 500 and a VM is using 250 MIPS, this value represents
@@ -190,8 +200,13 @@ public class VmUtilizationHistory implements UtilizationHistory {
 
     @Override
     public double getHostCpuUtilization(final double time){
+        final int position = history.indexOf(time);
+        if (position < 0) {
+            return 0;
+        }
+
         //VM CPU usage relative to the VM capacity.
-        final double vmCpuUtilizationPercent = history.get(time);
+        final double vmCpuUtilizationPercent = history.getValue(position, 0);
         return vm.getExpectedHostCpuUtilization(vmCpuUtilizationPercent);
     }
 
@@ -217,9 +232,20 @@ public class VmUtilizationHistory implements UtilizationHistory {
 
     @Override
     public void setMaxHistoryEntries(final int maxHistoryEntries) {
+        history.setMaxSize(maxHistoryEntries);
         this.maxHistoryEntries = maxHistoryEntries;
     }
 
+    @Override
+    public boolean isCompressed() {
+        return history.isCompressed();
+    }
+
+    @Override
+    public void setCompressed(final boolean compressed) {
+        history.setCompressed(compressed);
+    }
+
     @Override
     public Vm getVm() {
         return vm;
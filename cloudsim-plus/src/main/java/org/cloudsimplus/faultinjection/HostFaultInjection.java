@@ -291,6 +291,18 @@ public class HostFaultInjection extends CloudSimEntity {
         return faultArrivalHoursGenerator.sample() * 3600;
     }
 
+    /**
+     * {@inheritDoc}
+     * A HostFaultInjection doesn't support parallel execution, since it checks the number of future events
+     * to decide if more failures must be scheduled.
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected boolean isParallelExecutionSupported() {
+        return false;
+    }
+
     @Override
     public void processEvent(final SimEvent evt) {
         if (evt.getTag() == CloudSimTags.HOST_FAILURE) {
@@ -114,11 +114,38 @@ public class CloudletToVmMappingSimulatedAnnealing
         return vmList.get(idx);
     }
 
+    /**
+     * {@inheritDoc}
+     * The neighbor doesn't copy the source's mapping, but shares it with the source.
+     *
+     * @param source {@inheritDoc}
+     * @return {@inheritDoc}
+     */
     @Override
     public CloudletToVmMappingSolution createNeighbor(final CloudletToVmMappingSolution source) {
-        final CloudletToVmMappingSolution clone = new CloudletToVmMappingSolution(source);
-        clone.swapVmsOfTwoRandomSelectedMapEntries();
-        return clone;
+        return source.createNeighbor();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The chain shares the list of VMs and Cloudlets with this heuristic,
+     * but generates its own initial solution.
+     *
+     * @param random {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    protected CloudletToVmMappingSimulatedAnnealing newChain(final ContinuousDistribution random) {
+        final CloudletToVmMappingSimulatedAnnealing chain =
+            new CloudletToVmMappingSimulatedAnnealing(getCurrentTemperature(), random);
+        chain.setVmList(vmList);
+        chain.setCloudletList(cloudletList);
+        return chain;
+    }
+
+    @Override
+    protected boolean isChainsSupported() {
+        return true;
     }
 
 }
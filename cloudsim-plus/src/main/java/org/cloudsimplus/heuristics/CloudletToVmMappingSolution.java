@@ -33,6 +33,19 @@ import java.util.stream.Collectors;
  * A possible solution for mapping a set of Cloudlets to a set of Vm's.
  * It represents a solution generated using a {@link Heuristic} implementation.
  *
+ * <p>The mapping is stored as an array containing the index of the VM of each Cloudlet,
+ * together with the number of PEs required by the Cloudlets of each VM.
+ * This way, the cost is incrementally updated when a Cloudlet is moved to another VM,
+ * instead of being recomputed for the entire mapping.</p>
+ *
+ * <p>A neighbor solution doesn't copy such arrays. It shares them with the solution
+ * it was created from, just storing which Cloudlets had their VMs swapped.
+ * The arrays always represent one of the solutions sharing them.
+ * When another solution is accessed, the swaps separating the two solutions
+ * are applied to the arrays. Since neighbors are usually created from the last created
+ * or accepted solution, that takes constant time.
+ * Solutions sharing the arrays must not be accessed concurrently.</p>
+ *
  * @author Manoel Campos da Silva Filho
  * @see Heuristic
  * @since CloudSim Plus 1.0
@@ -46,29 +59,12 @@ public class CloudletToVmMappingSolution implements HeuristicSolution<Map<Cloudl
      */
     public static final double MIN_DIFF = 0.0001;
 
-    /**
-     * @see #getResult()
-     */
-    private final Map<Cloudlet, Vm> cloudletVmMap;
-
-    /**
-     * Indicates if the {@link #getCost() ()} has to be recomputed
-     * due to changes in {@link #cloudletVmMap}.
-     * When it is computed, its value is stored to be used
-     * in subsequent calls, until the map is changed again, in order to
-     * improve performance.
-     */
-    private boolean recomputeCost = true;
+    private final Heuristic heuristic;
 
     /**
-     * The last computed cost value, since the
-     * last time the {@link #cloudletVmMap} was changed.
-     * @see #getCost()
-     * @see #recomputeCost
+     * The version of the mapping arrays represented by this solution.
      */
-    private double lastCost;
-
-    private final Heuristic heuristic;
+    private Version version;
 
     /**
      * Creates a new solution for mapping a set of cloudlets to VMs using
@@ -78,24 +74,24 @@ public class CloudletToVmMappingSolution implements HeuristicSolution<Map<Cloudl
      * being created.
      */
     public CloudletToVmMappingSolution(final Heuristic heuristic){
-        this(heuristic, new HashMap<>());
+        this.heuristic = heuristic;
+        this.version = new Mapping(this).owner;
     }
 
-    private CloudletToVmMappingSolution(final Heuristic heuristic, final Map<Cloudlet, Vm> cloudletVmMap){
+    private CloudletToVmMappingSolution(final Heuristic heuristic, final Version version){
         this.heuristic = heuristic;
-        this.cloudletVmMap = cloudletVmMap;
+        this.version = version;
     }
 
     /**
      * Clones a given solution.
+     * The clone shares the mapping with the given solution
+     * until one of them is changed.
      *
      * @param solution the solution to be cloned
      */
     public CloudletToVmMappingSolution(final CloudletToVmMappingSolution solution){
-        this(solution.heuristic, new HashMap<>(solution.cloudletVmMap));
-        this.recomputeCost = solution.recomputeCost;
-        this.lastCost = solution.lastCost;
-        this.cloudletVmMap.putAll(solution.cloudletVmMap);
+        this(solution.heuristic, solution.getMapping().newVersion(solution.version, -1, -1));
     }
 
     /**
@@ -105,8 +101,7 @@ public class CloudletToVmMappingSolution implements HeuristicSolution<Map<Cloudl
      * @param vm the Vm to assign a cloudlet to
      */
     public void bindCloudletToVm(final Cloudlet cloudlet, final Vm vm){
-        cloudletVmMap.put(cloudlet, vm);
-        recomputeCost = true;
+        getMappingToChange().bind(cloudlet, vm);
     }
 
     @Override
@@ -114,56 +109,57 @@ public class CloudletToVmMappingSolution implements HeuristicSolution<Map<Cloudl
         return heuristic;
     }
 
-    private void recomputeCostIfRequested() {
-        if(!this.recomputeCost) {
-            return;
-        }
-
-        this.lastCost = computeCostOfAllVms();
-        this.recomputeCost = false;
-    }
-
-    private double computeCostOfAllVms() {
-        return groupCloudletsByVm()
-                .entrySet()
-                .stream()
-                .mapToDouble(this::getVmCost)
-                .sum();
+    /**
+     * Makes the mapping arrays represent this solution.
+     * @return the mapping
+     */
+    private Mapping getMapping() {
+        version.mapping.reroot(version);
+        return version.mapping;
     }
 
     /**
-     * Gets a Map of Cloudlets grouped by their VMs,
-     * where each key is a VM and the value is a List of Map Entries
-     * containing the Cloudlets running in that VM.
-     * @return
+     * Makes the mapping arrays represent this solution,
+     * copying them if they are shared with other solutions,
+     * so that they can be changed without affecting such solutions.
+     *
+     * @return the mapping
      */
-    private Map<Vm, List<Map.Entry<Cloudlet, Vm>>> groupCloudletsByVm() {
-        return cloudletVmMap.entrySet().stream()
-            .collect(Collectors.groupingBy(Map.Entry::getValue));
+    private Mapping getMappingToChange() {
+        final Mapping mapping = getMapping();
+        if (mapping.shared) {
+            version = new Mapping(mapping, version.cost).owner;
+        }
+
+        return version.mapping;
     }
 
     /**
      * {@inheritDoc}
      *
-     * It computes the cost of the entire mapping between Vm's and Cloudlets.
+     * It's the cost of the entire mapping between Vm's and Cloudlets,
+     * which is kept updated as the mapping changes.
      *
      * @return {@inheritDoc}
      */
     @Override
     public double getCost() {
-        recomputeCostIfRequested();
-        return this.lastCost;
+        return version.cost;
     }
 
     /**
      * It computes the costs of the entire mapping between Vm's and cloudlets.
      *
-     * @param forceRecompute indicate if the cost has to be recomputed anyway
+     * @param forceRecompute indicate if the cost has to be recomputed anyway,
+     *                       considering the current number of PEs of Cloudlets and Vm's
      * @return the cost of the entire mapping between Vm's and cloudlets
      * @see #getCost()
      */
     public double getCost(final boolean forceRecompute) {
-        recomputeCost |= forceRecompute;
+        if(forceRecompute) {
+            getMappingToChange().recomputeCost();
+        }
+
         return getCost();
     }
 
@@ -187,12 +183,34 @@ public class CloudletToVmMappingSolution implements HeuristicSolution<Map<Cloudl
      * The cost is based on the number of PEs from the VM that
      * will be idle or overloaded.
      *
+     * <p>Since the cost of the mapping is incrementally updated from the number of PEs
+     * required by the Cloudlets of each VM, this method just delegates to
+     * {@link #getVmCost(Vm, long)} and it isn't called when the mapping cost is updated.
+     * That is, overriding it doesn't change the cost of the mapping.</p>
+     *
      * @param vm the VM to compute the cost to host some Cloudlets
      * @param cloudlets the list of Cloudlets to be hosted by the VM in order to compute the cost
      * @return the VM cost to host the Cloudlets
+     * @deprecated To define how the cost of a VM is computed,
+     * override {@link #getVmCost(Vm, long)} instead.
      */
+    @Deprecated
     public double getVmCost(final Vm vm, final List<Cloudlet> cloudlets) {
-        return Math.abs(vm.getNumberOfPes() - getTotalCloudletsPes(cloudlets));
+        return getVmCost(vm, getTotalCloudletsPes(cloudlets));
+    }
+
+    /**
+     * Computes the cost of a Vm hosting Cloudlets that require a given number of PEs.
+     * The cost is based on the number of PEs from the VM that
+     * will be idle or overloaded.
+     * It's called every time the cost of the mapping is updated, for the VMs which had their Cloudlets changed.
+     *
+     * @param vm the VM to compute the cost to host some Cloudlets
+     * @param cloudletsPes the total number of PEs required by the Cloudlets to be hosted by the VM
+     * @return the VM cost to host the Cloudlets
+     */
+    protected double getVmCost(final Vm vm, final long cloudletsPes) {
+        return Math.abs(vm.getNumberOfPes() - cloudletsPes);
     }
 
     private List<Cloudlet> convertListOfMapEntriesToListOfCloudlets(final List<Map.Entry<Cloudlet, Vm>> entriesList) {
@@ -236,23 +254,53 @@ public class CloudletToVmMappingSolution implements HeuristicSolution<Map<Cloudl
     }
 
     /**
+     * Gets the actual solution, providing the mapping between Cloudlets and Vm's.
+     *
+     * <p>The returned Map is a read-only view of this solution's mapping, not a snapshot.
+     * Since neighbor solutions share the mapping arrays with this one,
+     * reading the view may internally change such shared arrays to represent this solution.
+     * Therefore, the view isn't thread-safe, even just for reading.
+     * To keep the current mapping, copy the returned Map.</p>
      *
      * @return the actual solution, providing the mapping between Cloudlets
      * and Vm's.
      */
     @Override
     public Map<Cloudlet, Vm> getResult() {
-        return Collections.unmodifiableMap(cloudletVmMap);
+        return Collections.unmodifiableMap(new ResultMap());
+    }
+
+    /**
+     * Creates a neighbor solution by swapping the Vm's of 2 randomly selected cloudlets.
+     * The neighbor shares the mapping with this solution, instead of copying it,
+     * and its cost is computed just from the two VMs which had their Cloudlets changed.
+     *
+     * @return the neighbor solution
+     * @see #swapVmsOfTwoRandomSelectedMapEntries()
+     */
+    CloudletToVmMappingSolution createNeighbor() {
+        final Mapping mapping = getMapping();
+        final int size = mapping.cloudletsNumber;
+        if(size < 2) {
+            return new CloudletToVmMappingSolution(this);
+        }
+
+        final int firstIdx = heuristic.getRandomValue(size);
+        final int secondIdx = heuristic.getRandomValue(size);
+        return new CloudletToVmMappingSolution(heuristic, mapping.newVersion(version, firstIdx, secondIdx));
     }
 
     /**
      * Swap the Vm's of 2 randomly selected cloudlets
-     * in the {@link #cloudletVmMap} in order to
+     * in this solution's mapping in order to
      * provide a neighbor solution.
      *
      * The method change the given Map entries, moving the
      * cloudlet of the first entry to the Vm of the second entry
      * and vice-versa.
+     * If the entries were got from {@link #getRandomMapEntries()},
+     * the cost of the solution is updated considering
+     * just the two VMs which had their Cloudlets changed.
      *
      * @param entries a List of 2 entries containing Cloudlets to swap their VMs.
      * If the entries don't have 2 elements, the method will
@@ -274,14 +322,14 @@ public class CloudletToVmMappingSolution implements HeuristicSolution<Map<Cloudl
 
     /**
      * Swap the Vm's of 2 randomly selected cloudlets
-     * in the {@link #cloudletVmMap} in order to
-     * provide a neighbor solution.
+     * in this solution's mapping.
      *
      * The method change the given Map entries, moving the
      * cloudlet of the first entry to the Vm of the second entry
      * and vice-versa.
      *
      * @see #swapVmsOfTwoMapEntries(List)
+     * @see #createNeighbor()
      * @return true if the Cloudlet's VMs where swapped, false otherwise
      */
     boolean swapVmsOfTwoRandomSelectedMapEntries() {
@@ -289,69 +337,437 @@ public class CloudletToVmMappingSolution implements HeuristicSolution<Map<Cloudl
     }
 
     /**
-     * Try to get 2 randomly selected entries from the {@link #cloudletVmMap}.
+     * Try to get 2 randomly selected entries from this solution's mapping.
+     * Changing the value of the returned entries changes the mapping.
      *
-     * @return a List with 2 entries from the {@link #cloudletVmMap} if the map size is at least 2;
+     * @return a List with 2 entries from the mapping if the map size is at least 2;
      *         an unitary List if the map has only 1 entry;
      *         or an empty List if there is no entry in the map.
      *
      * @see #swapVmsOfTwoMapEntries(List)
      */
     protected List<Map.Entry<Cloudlet, Vm>> getRandomMapEntries() {
-        if(cloudletVmMap.isEmpty()) {
+        final int size = getMapping().cloudletsNumber;
+        if(size == 0) {
             return new ArrayList<>();
         }
 
-        if(cloudletVmMap.size() == 1) {
+        if(size == 1) {
             return createListWithFirstMapEntry();
         }
 
-        return createListWithTwoRandomEntries();
+        return createListWithTwoRandomEntries(size);
     }
 
     /**
-     * Creates a List using only the first entry in the {@link #cloudletVmMap}.
-     * @return a single-entry List with either the first {@link #cloudletVmMap} entry,
-     *         or an empty List in case no entry is found.
+     * Creates a List using only the first entry in the mapping.
+     * @return a single-entry List with the first mapping entry
      */
     private List<Map.Entry<Cloudlet, Vm>> createListWithFirstMapEntry() {
-        return cloudletVmMap.entrySet()
-            .stream()
-            .limit(1)
-            .collect(Collectors.toList());
+        final List<Map.Entry<Cloudlet, Vm>> selected = new ArrayList<>(1);
+        selected.add(new MappingEntry(0));
+        return selected;
     }
 
     /**
-     * Creates a List with 2 randomly selected entries from the {@link #cloudletVmMap}.
+     * Creates a List with 2 randomly selected entries from the mapping.
      * The way the method is called is ensured there is at least to entries
-     * in the {@link #cloudletVmMap}.
+     * in the mapping.
+     * If the same entry is selected twice, it's included in the List just once.
      *
+     * @param size the number of entries in the mapping
      * @return a List with the 2 randomly selected entries
      */
-    private List<Map.Entry<Cloudlet, Vm>> createListWithTwoRandomEntries() {
-        final int size = cloudletVmMap.entrySet().size();
-
+    private List<Map.Entry<Cloudlet, Vm>> createListWithTwoRandomEntries(final int size) {
         final int firstIdx = heuristic.getRandomValue(size);
         final int secondIdx = heuristic.getRandomValue(size);
 
         final List<Map.Entry<Cloudlet, Vm>> selected = new ArrayList<>(2);
-        final Iterator<Map.Entry<Cloudlet, Vm>> it = cloudletVmMap.entrySet().iterator();
-
-        /*
-        Loop over the entries until those ones defined by the first and second index
-        are found and added to the List.
-        Since Map doesn't have an index, we can't access the ith entry directly.
-        This loop ensures we iterate the least number of times
-        until finding the required entries, without creating
-        a List with all entries in order to get just two of them.
-        */
-        for(int i = 0; selected.size() < 2 && it.hasNext(); i++){
-            final Map.Entry<Cloudlet, Vm> solution = it.next();
-            if(i == firstIdx || i == secondIdx){
-                selected.add(solution);
-            }
+        selected.add(new MappingEntry(Math.min(firstIdx, secondIdx)));
+        if(firstIdx != secondIdx) {
+            selected.add(new MappingEntry(Math.max(firstIdx, secondIdx)));
         }
 
         return selected;
     }
+
+    /**
+     * An entry of the mapping, which reads and changes the VM of a Cloudlet in this solution.
+     */
+    private final class MappingEntry implements Map.Entry<Cloudlet, Vm> {
+        private final int cloudletIndex;
+
+        private MappingEntry(final int cloudletIndex) {
+            this.cloudletIndex = cloudletIndex;
+        }
+
+        @Override
+        public Cloudlet getKey() {
+            return getMapping().cloudlets.get(cloudletIndex);
+        }
+
+        @Override
+        public Vm getValue() {
+            return getMapping().getVm(cloudletIndex);
+        }
+
+        @Override
+        public Vm setValue(final Vm vm) {
+            final Vm previousVm = getValue();
+            bindCloudletToVm(getKey(), vm);
+            return previousVm;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) obj;
+            return getKey().equals(entry.getKey()) && getValue().equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    /**
+     * A Map view of this solution's mapping.
+     */
+    private final class ResultMap extends AbstractMap<Cloudlet, Vm> {
+        @Override
+        public int size() {
+            return getMapping().cloudletsNumber;
+        }
+
+        @Override
+        public boolean containsKey(final Object cloudlet) {
+            return getMapping().cloudletIndexes.containsKey(cloudlet);
+        }
+
+        @Override
+        public Vm get(final Object cloudlet) {
+            final Mapping mapping = getMapping();
+            final Integer cloudletIndex = mapping.cloudletIndexes.get(cloudlet);
+            return cloudletIndex == null ? null : mapping.getVm(cloudletIndex);
+        }
+
+        @Override
+        public Set<Entry<Cloudlet, Vm>> entrySet() {
+            return new AbstractSet<Entry<Cloudlet, Vm>>() {
+                @Override
+                public Iterator<Entry<Cloudlet, Vm>> iterator() {
+                    return new Iterator<Entry<Cloudlet, Vm>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size();
+                        }
+
+                        @Override
+                        public Entry<Cloudlet, Vm> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            return new MappingEntry(next++);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ResultMap.this.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * A version of a {@link Mapping}, which is either the one currently
+     * represented by the mapping arrays (the owner) or one that differs from a base version
+     * just by the VMs of two Cloudlets, which are swapped.
+     */
+    private static final class Version {
+        private final Mapping mapping;
+        private Version base;
+        private int firstCloudlet = -1;
+        private int secondCloudlet = -1;
+        private double cost;
+
+        private Version(final Mapping mapping, final double cost) {
+            this.mapping = mapping;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * The arrays storing the mapping between Cloudlets and VMs,
+     * which are shared by all {@link Version}s of a mapping.
+     * Cloudlets and VMs are identified by their index in such arrays.
+     */
+    private static final class Mapping {
+        private static final int INITIAL_CAPACITY = 16;
+
+        /**
+         * The solution whose {@link CloudletToVmMappingSolution#getVmCost(Vm, long)}
+         * method is used to compute the cost of the VMs.
+         */
+        private final CloudletToVmMappingSolution costFunction;
+
+        /**
+         * The version currently represented by the arrays.
+         */
+        private Version owner;
+
+        /**
+         * Indicates if there are other versions besides the owner,
+         * so that the arrays must be copied before being changed.
+         */
+        private boolean shared;
+
+        private final List<Cloudlet> cloudlets;
+        private final Map<Cloudlet, Integer> cloudletIndexes;
+        private int cloudletsNumber;
+        private long[] cloudletPes;
+
+        /**
+         * The index of the VM of each Cloudlet.
+         */
+        private int[] cloudletVms;
+
+        private final List<Vm> vms;
+        private final Map<Vm, Integer> vmIndexes;
+
+        /**
+         * The total number of PEs required by the Cloudlets of each VM.
+         */
+        private long[] vmCloudletsPes;
+
+        /**
+         * The number of Cloudlets of each VM.
+         */
+        private int[] vmCloudletsNumber;
+
+        private Mapping(final CloudletToVmMappingSolution costFunction) {
+            this.costFunction = costFunction;
+            this.owner = new Version(this, 0);
+            this.cloudlets = new ArrayList<>();
+            this.cloudletIndexes = new HashMap<>();
+            this.cloudletPes = new long[INITIAL_CAPACITY];
+            this.cloudletVms = new int[INITIAL_CAPACITY];
+            this.vms = new ArrayList<>();
+            this.vmIndexes = new HashMap<>();
+            this.vmCloudletsPes = new long[INITIAL_CAPACITY];
+            this.vmCloudletsNumber = new int[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Creates a copy of the arrays currently in a given mapping.
+         * @param source the mapping to copy
+         * @param cost the cost of the source mapping's owner
+         */
+        private Mapping(final Mapping source, final double cost) {
+            this.costFunction = source.costFunction;
+            this.owner = new Version(this, cost);
+            this.cloudlets = new ArrayList<>(source.cloudlets);
+            this.cloudletIndexes = new HashMap<>(source.cloudletIndexes);
+            this.cloudletsNumber = source.cloudletsNumber;
+            this.cloudletPes = source.cloudletPes.clone();
+            this.cloudletVms = source.cloudletVms.clone();
+            this.vms = new ArrayList<>(source.vms);
+            this.vmIndexes = new HashMap<>(source.vmIndexes);
+            this.vmCloudletsPes = source.vmCloudletsPes.clone();
+            this.vmCloudletsNumber = source.vmCloudletsNumber.clone();
+        }
+
+        private Vm getVm(final int cloudletIndex) {
+            return vms.get(cloudletVms[cloudletIndex]);
+        }
+
+        /**
+         * Creates a version that differs from the owner by swapping the VMs of two Cloudlets.
+         *
+         * @param base the base version, which must be the owner
+         * @param firstCloudlet the index of the first Cloudlet to swap its VM or -1 to create an equal version
+         * @param secondCloudlet the index of the second Cloudlet to swap its VM or -1 to create an equal version
+         * @return the new version
+         */
+        private Version newVersion(final Version base, final int firstCloudlet, final int secondCloudlet) {
+            shared = true;
+            final Version version = new Version(this, base.cost);
+            version.base = base;
+            if (firstCloudlet != secondCloudlet) {
+                version.firstCloudlet = firstCloudlet;
+                version.secondCloudlet = secondCloudlet;
+                version.cost += getSwapCostDifference(firstCloudlet, secondCloudlet);
+            }
+
+            return version;
+        }
+
+        /**
+         * Makes the arrays represent a given version,
+         * applying the swaps from the current owner to such a version.
+         * The previous owners turn into versions based on the new one.
+         *
+         * @param version the version to make the arrays represent
+         */
+        private void reroot(final Version version) {
+            if (owner == version) {
+                return;
+            }
+
+            final Deque<Version> path = new ArrayDeque<>();
+            for (Version node = version; node != owner; node = node.base) {
+                path.push(node);
+            }
+
+            while (!path.isEmpty()) {
+                final Version node = path.pop();
+                swap(node.firstCloudlet, node.secondCloudlet);
+                owner.base = node;
+                owner.firstCloudlet = node.firstCloudlet;
+                owner.secondCloudlet = node.secondCloudlet;
+                node.base = null;
+                node.firstCloudlet = -1;
+                node.secondCloudlet = -1;
+                owner = node;
+            }
+        }
+
+        private void swap(final int firstCloudlet, final int secondCloudlet) {
+            if (firstCloudlet < 0) {
+                return;
+            }
+
+            final int firstVm = cloudletVms[firstCloudlet];
+            final int secondVm = cloudletVms[secondCloudlet];
+            cloudletVms[firstCloudlet] = secondVm;
+            cloudletVms[secondCloudlet] = firstVm;
+
+            final long pesDiff = cloudletPes[secondCloudlet] - cloudletPes[firstCloudlet];
+            vmCloudletsPes[firstVm] += pesDiff;
+            vmCloudletsPes[secondVm] -= pesDiff;
+        }
+
+        /**
+         * Computes how the cost of the owner changes if the VMs of two Cloudlets are swapped,
+         * considering just the cost of such VMs.
+         */
+        private double getSwapCostDifference(final int firstCloudlet, final int secondCloudlet) {
+            final int firstVm = cloudletVms[firstCloudlet];
+            final int secondVm = cloudletVms[secondCloudlet];
+            if (firstVm == secondVm) {
+                return 0;
+            }
+
+            final long pesDiff = cloudletPes[secondCloudlet] - cloudletPes[firstCloudlet];
+            return getVmCost(firstVm, pesDiff) + getVmCost(secondVm, -pesDiff)
+                   - getVmCost(firstVm, 0) - getVmCost(secondVm, 0);
+        }
+
+        /**
+         * Gets the cost of a VM, if the number of PEs required by its Cloudlets is changed.
+         *
+         * @param vmIndex the index of the VM
+         * @param pesDiff the number of PEs to add to the ones required by the VM's Cloudlets
+         * @return the VM cost, which is zero if the VM has no Cloudlet
+         * @see CloudletToVmMappingSolution#getVmCost(Vm, long)
+         */
+        private double getVmCost(final int vmIndex, final long pesDiff) {
+            if (vmCloudletsNumber[vmIndex] == 0) {
+                return 0;
+            }
+
+            return costFunction.getVmCost(vms.get(vmIndex), vmCloudletsPes[vmIndex] + pesDiff);
+        }
+
+        /**
+         * Binds a Cloudlet to a VM in the owner, updating its cost.
+         */
+        private void bind(final Cloudlet cloudlet, final Vm vm) {
+            final int vmIndex = getVmIndex(vm);
+            final Integer cloudletIndex = cloudletIndexes.get(cloudlet);
+            if (cloudletIndex == null) {
+                addToVm(addCloudlet(cloudlet, vmIndex));
+                return;
+            }
+
+            removeFromVm(cloudletIndex);
+            cloudletVms[cloudletIndex] = vmIndex;
+            addToVm(cloudletIndex);
+        }
+
+        private int getVmIndex(final Vm vm) {
+            final Integer vmIndex = vmIndexes.get(vm);
+            if (vmIndex != null) {
+                return vmIndex;
+            }
+
+            final int newIndex = vms.size();
+            if (newIndex == vmCloudletsPes.length) {
+                vmCloudletsPes = Arrays.copyOf(vmCloudletsPes, newIndex * 2);
+                vmCloudletsNumber = Arrays.copyOf(vmCloudletsNumber, newIndex * 2);
+            }
+
+            vms.add(vm);
+            vmIndexes.put(vm, newIndex);
+            return newIndex;
+        }
+
+        private int addCloudlet(final Cloudlet cloudlet, final int vmIndex) {
+            final int newIndex = cloudletsNumber++;
+            if (newIndex == cloudletPes.length) {
+                cloudletPes = Arrays.copyOf(cloudletPes, newIndex * 2);
+                cloudletVms = Arrays.copyOf(cloudletVms, newIndex * 2);
+            }
+
+            cloudlets.add(cloudlet);
+            cloudletIndexes.put(cloudlet, newIndex);
+            cloudletPes[newIndex] = cloudlet.getNumberOfPes();
+            cloudletVms[newIndex] = vmIndex;
+            return newIndex;
+        }
+
+        private void addToVm(final int cloudletIndex) {
+            final int vmIndex = cloudletVms[cloudletIndex];
+            owner.cost -= getVmCost(vmIndex, 0);
+            vmCloudletsNumber[vmIndex]++;
+            vmCloudletsPes[vmIndex] += cloudletPes[cloudletIndex];
+            owner.cost += getVmCost(vmIndex, 0);
+        }
+
+        private void removeFromVm(final int cloudletIndex) {
+            final int vmIndex = cloudletVms[cloudletIndex];
+            owner.cost -= getVmCost(vmIndex, 0);
+            vmCloudletsNumber[vmIndex]--;
+            vmCloudletsPes[vmIndex] -= cloudletPes[cloudletIndex];
+            owner.cost += getVmCost(vmIndex, 0);
+        }
+
+        /**
+         * Recomputes the cost of the owner from scratch,
+         * getting the current number of PEs of every Cloudlet and VM.
+         * The arrays must not be shared with other versions.
+         */
+        private void recomputeCost() {
+            Arrays.fill(vmCloudletsPes, 0);
+            Arrays.fill(vmCloudletsNumber, 0);
+            owner.cost = 0;
+            for (int i = 0; i < cloudletsNumber; i++) {
+                cloudletPes[i] = cloudlets.get(i).getNumberOfPes();
+                addToVm(i);
+            }
+        }
+    }
 }
@@ -137,7 +137,11 @@ public abstract class HeuristicAbstract<S extends HeuristicSolution<?>>  impleme
 		return getBestSolutionSoFar();
 	}
 
-    private void searchSolutionInNeighborhood() {
+    /**
+     * Performs the {@link #getNeighborhoodSearchesByIteration() neighborhood searches}
+     * of a single iteration of the heuristic.
+     */
+    /* default */ void searchSolutionInNeighborhood() {
         for (int i = 0; i < getNeighborhoodSearchesByIteration(); i++) {
             setNeighborSolution(createNeighbor(getBestSolutionSoFar()));
             if (getAcceptanceProbability() > getRandomValue(1)) {
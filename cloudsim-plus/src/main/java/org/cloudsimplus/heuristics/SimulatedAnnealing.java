@@ -24,6 +24,11 @@
 package org.cloudsimplus.heuristics;
 
 import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
+import org.cloudbus.cloudsim.distributions.UniformDistr;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * A base class for implementation of
@@ -53,6 +58,21 @@ import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
  * </ol>
  * </p>
  *
+ * <p>The search can be performed by multiple {@link #setChains(int) chains} in parallel,
+ * each one with its own pseudo random number generator, seeded from the seed of the generator
+ * given to this heuristic. This way, the result is reproducible for a fixed seed,
+ * regardless of the number of available CPU cores.
+ * The chains can either run independently (multi-start) or
+ * {@link #setParallelTemperingEnabled(boolean) exchange their temperatures}
+ * (parallel tempering, also known as replica exchange).
+ * The best solution among all chains is returned.
+ * The search budget is divided among the chains: each chain cools down faster,
+ * so that the total number of iterations of all chains is about the same
+ * as the one of a single chain. This way, the solve time drops with the number
+ * of available CPU cores, trading the depth of each search for the breadth
+ * of multiple searches. The solution quality depends on the problem, thus
+ * it's worth comparing it for different numbers of chains.</p>
+ *
  * @param <S> the class of solutions the heuristic will deal with, starting with a random solution
  *           and execute the solution search in order to achieve a satisfying solution (defined by a stop criteria)
  * @author Manoel Campos da Silva Filho
@@ -62,6 +82,19 @@ import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
  * @since CloudSim Plus 1.0
  */
 public abstract class SimulatedAnnealing<S extends HeuristicSolution<?>> extends HeuristicAbstract<S> {
+    /**
+     * The factor each chain multiplies the temperatures of the previous chain
+     * when {@link #isParallelTemperingEnabled() parallel tempering} is enabled,
+     * so that the first chain is the hottest one and the following ones are progressively colder.
+     */
+    private static final double TEMPERATURE_LADDER_FACTOR = 0.5;
+
+    /**
+     * Number of iterations each chain performs between two attempts of exchanging
+     * temperatures when {@link #isParallelTemperingEnabled() parallel tempering} is enabled.
+     */
+    private static final int ITERATIONS_BETWEEN_EXCHANGES = 100;
+
     /**
      * @see #getColdTemperature()
      */
@@ -77,6 +110,16 @@ public abstract class SimulatedAnnealing<S extends HeuristicSolution<?>> extends
      */
     private double coolingRate;
 
+    /**
+     * @see #getChains()
+     */
+    private int chains;
+
+    /**
+     * @see #isParallelTemperingEnabled()
+     */
+    private boolean parallelTemperingEnabled;
+
 	/**
      * Instantiates a simulated annealing heuristic.
      *
@@ -85,6 +128,162 @@ public abstract class SimulatedAnnealing<S extends HeuristicSolution<?>> extends
      */
     SimulatedAnnealing(final ContinuousDistribution random, final Class<S> solutionClass){
         super(random, solutionClass);
+        this.chains = 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If there are multiple {@link #getChains() chains}, they are executed in parallel
+     * and the best solution among them is returned.
+     * Each chain uses the {@link #getChainCoolingRate() chain cooling rate},
+     * so that all chains perform together about the same number of iterations
+     * as a single chain.</p>
+     *
+     * @return {@inheritDoc}
+     */
+    @Override
+    public S solve() {
+        if (chains == 1) {
+            return super.solve();
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final List<SimulatedAnnealing<S>> chainList = createChains();
+        if (parallelTemperingEnabled) {
+            solveWithParallelTempering(chainList);
+        } else {
+            chainList.parallelStream().forEach(SimulatedAnnealing::solve);
+        }
+
+        final SimulatedAnnealing<S> bestChain = chainList
+            .stream()
+            .min(Comparator.comparingDouble(chain -> chain.getBestSolutionSoFar().getCost()))
+            .orElseThrow(IllegalStateException::new);
+        setBestSolutionSoFar(bestChain.getBestSolutionSoFar());
+        setCurrentTemperature(bestChain.getCurrentTemperature());
+        setSolveTime((System.currentTimeMillis() - startTime)/1000.0);
+        return getBestSolutionSoFar();
+    }
+
+    /**
+     * Creates the chains to be executed in parallel, where the i-th chain
+     * has a pseudo random number generator seeded with the seed of the
+     * generator of this heuristic plus i+1.
+     *
+     * @return the list of created chains
+     */
+    private List<SimulatedAnnealing<S>> createChains() {
+        final long seed = getRandom().getSeed();
+        final List<SimulatedAnnealing<S>> chainList = new ArrayList<>(chains);
+        for (int i = 0; i < chains; i++) {
+            final SimulatedAnnealing<S> chain = newChain(new UniformDistr(seed + i + 1));
+            final double factor = parallelTemperingEnabled ? Math.pow(TEMPERATURE_LADDER_FACTOR, i) : 1;
+            chain.setCurrentTemperature(currentTemperature * factor);
+            chain.setColdTemperature(coldTemperature * factor);
+            chain.setCoolingRate(getChainCoolingRate());
+            chain.setNeighborhoodSearchesByIteration(getNeighborhoodSearchesByIteration());
+            chainList.add(chain);
+        }
+
+        return chainList;
+    }
+
+    /**
+     * Gets the cooling rate of each one of the {@link #getChains() chains},
+     * which divides the search budget among them.
+     * Since a chain with cooling rate r performs about ln(cold/current)/ln(1-r) iterations,
+     * a chain with rate 1-(1-r)^chains performs about 1/chains of those iterations.
+     * This way, the number of iterations of all chains together keeps about the same
+     * as the one of a single chain using the {@link #getCoolingRate() cooling rate}.
+     *
+     * @return the cooling rate of each chain (which is the {@link #getCoolingRate() cooling rate} if there is one chain)
+     */
+    /* default */ double getChainCoolingRate() {
+        return chains == 1 ? coolingRate : 1 - Math.pow(1 - coolingRate, chains);
+    }
+
+    /**
+     * Runs the chains in parallel, stopping them after every
+     * {@link #ITERATIONS_BETWEEN_EXCHANGES} iterations
+     * to try exchanging the temperatures of adjacent chains.
+     * Since each chain has its cold temperature proportional to its current temperature,
+     * all chains require the same number of iterations to cool down
+     * and an exchange keeps that.
+     *
+     * @param chainList the list of chains to run
+     */
+    private void solveWithParallelTempering(final List<SimulatedAnnealing<S>> chainList) {
+        chainList.parallelStream().forEach(chain -> chain.setBestSolutionSoFar(chain.getInitialSolution()));
+        while (chainList.stream().anyMatch(chain -> !chain.isToStopSearch())) {
+            chainList.parallelStream().forEach(chain -> {
+                for (int i = 0; i < ITERATIONS_BETWEEN_EXCHANGES && !chain.isToStopSearch(); i++) {
+                    chain.searchSolutionInNeighborhood();
+                    chain.updateSystemState();
+                }
+            });
+
+            for (int i = 0; i < chainList.size() - 1; i++) {
+                tryToExchangeTemperatures(chainList.get(i), chainList.get(i + 1));
+            }
+        }
+    }
+
+    /**
+     * Exchanges the temperatures of two chains according to the Metropolis criterion
+     * of the parallel tempering, so that lower cost solutions tend to be in colder chains.
+     * Instead of exchanging the solutions, which are bound to the chain that created them,
+     * the temperatures are exchanged, which is equivalent.
+     * The random decision uses the generator of this heuristic,
+     * since exchanges are performed sequentially.
+     *
+     * @param chain1 the first chain
+     * @param chain2 the second chain
+     */
+    private void tryToExchangeTemperatures(final SimulatedAnnealing<S> chain1, final SimulatedAnnealing<S> chain2) {
+        final double costDiff = chain1.getBestSolutionSoFar().getCost() - chain2.getBestSolutionSoFar().getCost();
+        final double betaDiff = 1/chain1.currentTemperature - 1/chain2.currentTemperature;
+        if (Math.exp(betaDiff * costDiff) <= getRandom().sample()) {
+            return;
+        }
+
+        final double temperature = chain1.currentTemperature;
+        final double cold = chain1.coldTemperature;
+        chain1.setCurrentTemperature(chain2.currentTemperature);
+        chain1.setColdTemperature(chain2.coldTemperature);
+        chain2.setCurrentTemperature(temperature);
+        chain2.setColdTemperature(cold);
+    }
+
+    /**
+     * Creates a new instance of this heuristic to be executed as one of the {@link #getChains() chains}
+     * of the solution search. The instance must be set up with the same problem data of this one
+     * (such as the list of objects being mapped), but must have its own solutions,
+     * since chains are executed in parallel.
+     * The temperatures, cooling rate and number of neighborhood searches are set
+     * by this class after the chain is created.
+     *
+     * <p>Sub-classes that support multiple chains must override this method
+     * and {@link #isChainsSupported()},
+     * since the default implementation just throws an {@link UnsupportedOperationException}.</p>
+     *
+     * @param random the pseudo random number generator to be used by the chain
+     * @return the new heuristic instance
+     */
+    protected SimulatedAnnealing<S> newChain(final ContinuousDistribution random) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " doesn't support multiple chains.");
+    }
+
+    /**
+     * Checks if this heuristic can perform the solution search using
+     * multiple {@link #getChains() chains}, that is,
+     * if it {@link #newChain(ContinuousDistribution) creates new chains}.
+     * The default implementation returns false.
+     *
+     * @return true if multiple chains are supported, false otherwise
+     */
+    protected boolean isChainsSupported() {
+        return false;
     }
 
 	/**
@@ -188,4 +387,62 @@ public abstract class SimulatedAnnealing<S extends HeuristicSolution<?>> extends
         this.coldTemperature = coldTemperature;
     }
 
+    /**
+     * Gets the number of chains that perform the solution search in parallel.
+     * If there is just one chain (the default), the search is
+     * performed sequentially by this heuristic instance.
+     *
+     * @return the number of chains
+     */
+    public int getChains() {
+        return chains;
+    }
+
+    /**
+     * Sets the number of chains that perform the solution search in parallel.
+     * The search budget is divided among the chains,
+     * so that each chain performs about 1/chains of the iterations of a single chain.
+     * Using more chains than the number of available CPU cores
+     * just reduces the iterations of each chain, without reducing the solve time.
+     *
+     * @param chains the number of chains to set
+     * @throws IllegalArgumentException when the number of chains is not greater than zero
+     * @throws UnsupportedOperationException when multiple chains are requested
+     *         but they {@link #isChainsSupported() aren't supported} by this heuristic
+     * @see #newChain(ContinuousDistribution)
+     */
+    public void setChains(final int chains) {
+        if(chains <= 0){
+            throw new IllegalArgumentException("The number of chains must be greater than zero.");
+        }
+
+        if(chains > 1 && !isChainsSupported()){
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " doesn't support multiple chains.");
+        }
+
+        this.chains = chains;
+    }
+
+    /**
+     * Checks if the {@link #getChains() chains} periodically exchange their temperatures
+     * (parallel tempering), instead of running independently.
+     * When enabled, each chain starts with half the temperatures of the previous one.
+     *
+     * @return true if parallel tempering is enabled, false otherwise
+     */
+    public boolean isParallelTemperingEnabled() {
+        return parallelTemperingEnabled;
+    }
+
+    /**
+     * Enables or disables the exchange of temperatures among the {@link #getChains() chains}
+     * (parallel tempering).
+     *
+     * @param parallelTemperingEnabled true to enable parallel tempering, false to disable it
+     * @see #isParallelTemperingEnabled()
+     */
+    public void setParallelTemperingEnabled(final boolean parallelTemperingEnabled) {
+        this.parallelTemperingEnabled = parallelTemperingEnabled;
+    }
+
 }
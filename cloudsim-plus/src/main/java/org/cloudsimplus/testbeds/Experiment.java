@@ -202,12 +202,32 @@ public abstract class Experiment implements Runnable {
      */
     @Override
     public final void run() {
+        runSimulation();
+        finish();
+    }
+
+    /**
+     * Builds the simulation scenario and runs the simulation,
+     * without performing the tasks to be executed after the experiment finishes.
+     * This way, a {@link ExperimentRunner} can run experiments in parallel
+     * and {@link #finish() finish} them in a given order.
+     *
+     * @see #finish()
+     */
+    /* default */ final void runSimulation() {
         if(vmsByBrokerFunction == null){
             throw new NullPointerException("You need to set the function that indicates the number of VMs to create for each broker.");
         }
 
         build();
         simulation.start();
+    }
+
+    /**
+     * Calls the {@link #setAfterExperimentFinish(Consumer) afterExperimentFinish Consumer}
+     * and prints the experiment results, after the {@link #runSimulation() simulation has run}.
+     */
+    /* default */ final void finish() {
         afterExperimentFinish(this);
         printResultsInternal();
     }
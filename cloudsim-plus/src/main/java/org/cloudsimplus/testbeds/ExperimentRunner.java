@@ -31,10 +31,16 @@ import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
 import org.cloudbus.cloudsim.distributions.UniformDistr;
 import org.cloudsimplus.util.Log;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 
@@ -72,6 +78,11 @@ public abstract class ExperimentRunner<T extends Experiment> implements Runnable
      */
     private long experimentsFinishTime;
 
+    /**
+     * @see #getWorkersNumber()
+     */
+    private int workersNumber;
+
     /**
      * @see #isApplyAntitheticVariatesTechnique()
      */
@@ -102,6 +113,7 @@ public abstract class ExperimentRunner<T extends Experiment> implements Runnable
         seeds = new ArrayList<>();
         setBaseSeed(baseSeed);
         setNumberOfBatches(0);
+        setWorkersNumber(1);
         setApplyAntitheticVariatesTechnique(antitheticVariatesTechnique);
     }
 
@@ -548,6 +560,17 @@ public abstract class ExperimentRunner<T extends Experiment> implements Runnable
 
     /**
      * Setups and starts the execution of all experiments.
+     *
+     * <p>If the {@link #getWorkersNumber() number of workers} is greater than 1,
+     * experiments are run in parallel. Anyway, the
+     * {@link Experiment#setAfterExperimentFinish(java.util.function.Consumer) afterExperimentFinish Consumer}
+     * of experiments is always called in the order of experiments' indexes, from the thread calling this method.
+     * This way, metrics collected by such Consumers don't require synchronization and
+     * are stored in the same order as when experiments run sequentially.</p>
+     *
+     * <p>The logging is disabled while experiments run and the previous logging level
+     * is restored when they finish. Experiments must not change the logging level,
+     * since it's global to all experiments running in parallel.</p>
      */
     @Override
     public void run() {
@@ -555,19 +578,19 @@ public abstract class ExperimentRunner<T extends Experiment> implements Runnable
 
         printSimulationParameters();
 
+        final Level previousLevel = Log.getLevel();
         Log.setLevel(Level.OFF);
         try {
             experimentsStartTime = System.currentTimeMillis();
-            for (int i = 0; i < getSimulationRuns(); i++) {
-                if (isVerbose()) {
-                    System.out.print(((i + 1) % 100 == 0 ? String.format(". Run #%d%n", i + 1) : "."));
-                }
-                createExperiment(i).run();
+            if (isParallel()) {
+                runExperimentsInParallel();
+            } else {
+                runExperimentsSequentially();
             }
             System.out.println();
             experimentsFinishTime = (System.currentTimeMillis() - experimentsStartTime) / 1000;
         } finally {
-            Log.setLevel(Level.INFO);
+            Log.setLevel(previousLevel == null ? Level.INFO : previousLevel);
         }
 
         final Map<String, List<Double>> metricsMap = createMetricsMap();
@@ -576,6 +599,72 @@ public abstract class ExperimentRunner<T extends Experiment> implements Runnable
         System.out.printf("%nExperiments finished in %d seconds!%n", getExperimentsFinishTime());
     }
 
+    private void runExperimentsSequentially() {
+        for (int i = 0; i < getSimulationRuns(); i++) {
+            printProgress(i);
+            createExperiment(i).run();
+        }
+    }
+
+    /**
+     * Runs experiments using a pool of {@link #getWorkersNumber()} threads.
+     *
+     * <p>Experiments are created in the order of their indexes by the current thread,
+     * since creating them generates the seeds in such an order.
+     * Just the simulation of each experiment runs inside the pool.
+     * The number of experiments submitted to the pool and not finished yet is limited,
+     * avoiding to keep a large number of simulated experiments in memory while
+     * previous ones haven't finished yet.</p>
+     */
+    private void runExperimentsInParallel() {
+        final ExecutorService executor = Executors.newFixedThreadPool(workersNumber);
+        final int maxPendingExperiments = workersNumber * 2;
+        final Deque<Future<T>> pendingExperiments = new ArrayDeque<>(maxPendingExperiments);
+        try {
+            int nextExperiment = 0;
+            for (int i = 0; i < getSimulationRuns(); i++) {
+                while (nextExperiment < getSimulationRuns() && pendingExperiments.size() < maxPendingExperiments) {
+                    final T experiment = createExperiment(nextExperiment++);
+                    pendingExperiments.add(executor.submit(() -> {
+                        experiment.runSimulation();
+                        return experiment;
+                    }));
+                }
+
+                printProgress(i);
+                waitExperiment(pendingExperiments.poll()).finish();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits an experiment running in parallel to finish its simulation.
+     * @param future the {@link Future} representing the experiment simulation
+     * @return the experiment
+     */
+    private T waitExperiment(final Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting experiments to finish.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void printProgress(final int experimentIndex) {
+        if (isVerbose()) {
+            System.out.print(((experimentIndex + 1) % 100 == 0 ? String.format(". Run #%d%n", experimentIndex + 1) : "."));
+        }
+    }
+
     /**
      * Creates a Map adding a List of values for each metric to be computed.
      * The computation of final experiments results are performed on this map.
@@ -685,6 +774,48 @@ public abstract class ExperimentRunner<T extends Experiment> implements Runnable
      */
     protected abstract void printFinalResults(String metricName, SummaryStatistics stats);
 
+    /**
+     * Gets the number of threads used to run experiments in parallel.
+     * If it's 1 (the default), experiments run sequentially in the thread
+     * calling {@link #run()}.
+     *
+     * <p>Since each {@link Experiment} has its own simulation instance and seed,
+     * results are the same regardless of the number of workers.</p>
+     *
+     * @return
+     * @see #run()
+     */
+    public int getWorkersNumber() {
+        return workersNumber;
+    }
+
+    /**
+     * Sets the number of threads used to run experiments in parallel.
+     *
+     * @param workersNumber the number of workers to set, which must be greater than 0.
+     *                      Use {@link Runtime#availableProcessors()} to
+     *                      use all available CPU cores.
+     * @return
+     * @see #getWorkersNumber()
+     */
+    public final ExperimentRunner setWorkersNumber(final int workersNumber) {
+        if(workersNumber <= 0){
+            throw new IllegalArgumentException("The number of workers must be greater than 0");
+        }
+
+        this.workersNumber = workersNumber;
+        return this;
+    }
+
+    /**
+     * Checks if experiments run in parallel,
+     * according to the {@link #getWorkersNumber() number of workers}.
+     * @return
+     */
+    public boolean isParallel() {
+        return workersNumber > 1;
+    }
+
     public final ExperimentRunner setBaseSeed(final long baseSeed) {
         this.baseSeed = baseSeed;
         return this;
@@ -38,11 +38,6 @@ import java.util.Objects;
  * @since CloudSim Plus 4.0.0
  */
 public abstract class TraceReaderBase extends TraceReaderAbstract {
-    /**
-     * Regular expression to check if a String corresponds to an integer number.
-     */
-    private static final String INT_REGEX = "^-?\\d+$";
-
     /** @see #getLastParsedLineArray() */
     private String[] lastParsedLineArray;
 
@@ -79,7 +74,7 @@ public abstract class TraceReaderBase extends TraceReaderAbstract {
      */
     protected <T extends Enum> double getFieldDoubleValue(final T field, final double defaultValue){
         final String value = getFieldValue(field);
-        return  value.matches("^-?\\d+(\\.?\\d+)?$") ? Double.parseDouble(value) : defaultValue;
+        return  isNumber(value, true) ? Double.parseDouble(value) : defaultValue;
     }
 
     /**
@@ -101,7 +96,7 @@ public abstract class TraceReaderBase extends TraceReaderAbstract {
      */
     protected <T extends Enum> int getFieldIntValue(final T field, final int defaultValue){
         final String value = getFieldValue(field);
-        return  value.matches(INT_REGEX) ? Integer.parseInt(value) : defaultValue;
+        return  isNumber(value, false) ? Integer.parseInt(value) : defaultValue;
     }
 
     /**
@@ -123,7 +118,46 @@ public abstract class TraceReaderBase extends TraceReaderAbstract {
      */
     protected <T extends Enum> long getFieldLongValue(final T field, final long defaultValue){
         final String value = getFieldValue(field);
-        return  value.matches(INT_REGEX) ? Long.parseLong(value) : defaultValue;
+        return  isNumber(value, false) ? Long.parseLong(value) : defaultValue;
+    }
+
+    /**
+     * Checks if a String corresponds to a number (such as -10 or 1.5),
+     * without using a regular expression (which would be compiled for every field read).
+     *
+     * @param value the String to check
+     * @param decimalAllowed true if the number may have a decimal part (such as 1.5), false if it must be an integer
+     * @return true if the String is a number, false otherwise
+     */
+    private static boolean isNumber(final String value, final boolean decimalAllowed) {
+        int i = value.startsWith("-") ? 1 : 0;
+        final int integerStart = i;
+        while (i < value.length() && isDigit(value.charAt(i))) {
+            i++;
+        }
+
+        if (i == integerStart) {
+            return false;
+        }
+
+        if (i == value.length()) {
+            return true;
+        }
+
+        if (!decimalAllowed || value.charAt(i) != '.') {
+            return false;
+        }
+
+        final int decimalStart = ++i;
+        while (i < value.length() && isDigit(value.charAt(i))) {
+            i++;
+        }
+
+        return i > decimalStart && i == value.length();
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
     }
 
     /**
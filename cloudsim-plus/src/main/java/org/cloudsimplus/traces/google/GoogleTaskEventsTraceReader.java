@@ -34,7 +34,6 @@ import org.cloudbus.cloudsim.util.ResourceLoader;
 import org.cloudbus.cloudsim.util.TimeUtil;
 import org.cloudbus.cloudsim.util.TraceReaderAbstract;
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
-import org.cloudsimplus.listeners.EventInfo;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -71,7 +70,7 @@ import static java.util.Objects.requireNonNull;
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 4.0.0
  */
-public final class GoogleTaskEventsTraceReader extends GoogleTraceReaderAbstract<Cloudlet> {
+public final class GoogleTaskEventsTraceReader extends GoogleTaskTraceReaderAbstract {
     /**
      * Defines the type of information missing in the trace file.
      * It represents the possible values for the MISSING_INFO field.
@@ -290,13 +289,6 @@ public final class GoogleTaskEventsTraceReader extends GoogleTraceReaderAbstract
         }
     }
 
-    /**
-     * List of messages to send to the {@link DatacenterBroker} that owns each created Cloudlet.
-     * Such events request a Cloudlet's status change or attributes change.
-     * @see #addCloudletStatusChangeEvents(CloudSimEvent, TaskEvent)
-     */
-    private final List<CloudSimEvent> cloudletStatusChangeEvents;
-
     /**
      * @see #setCloudletCreationFunction(Function)
      */
@@ -382,7 +374,6 @@ public final class GoogleTaskEventsTraceReader extends GoogleTraceReaderAbstract
         this.simulation = requireNonNull(simulation);
         this.cloudletCreationFunction = requireNonNull(cloudletCreationFunction);
         brokersMap = new HashMap<>();
-        cloudletStatusChangeEvents = new ArrayList<>();
     }
 
     /**
@@ -409,18 +400,8 @@ public final class GoogleTaskEventsTraceReader extends GoogleTraceReaderAbstract
     protected void preProcess(){/**/}
 
     @Override
-    protected void postProcess(){
-        simulation.addOnSimulationStartListener(this::onSimulationStart);
-    }
-
-    /**
-     * Adds an event listener that is notified when the simulation starts,
-     * so that the messages to change Cloudlet status are sent.
-     *
-     * @param info the simulation start event information
-     */
-    private void onSimulationStart(final EventInfo info) {
-        cloudletStatusChangeEvents.forEach(evt -> evt.getSource().schedule(evt));
+    protected double getLastParsedLineTime() {
+        return FieldIndex.TIMESTAMP.getValue(this);
     }
 
     @Override
@@ -474,7 +455,7 @@ public final class GoogleTaskEventsTraceReader extends GoogleTraceReaderAbstract
     {
         final TaskEvent taskEvent = createTaskEventFromTraceLine();
         final DatacenterBroker broker = getBroker(taskEvent.getUserName());
-        final double delay = taskEvent.getTimestamp();
+        final double delay = getDelayUntil(taskEvent.getTimestamp());
 
         return cloudletLookupFunction
                 .apply(broker, taskEvent.getUniqueTaskId())
@@ -495,7 +476,7 @@ public final class GoogleTaskEventsTraceReader extends GoogleTraceReaderAbstract
      */
     private Cloudlet addCloudletStatusChangeEvents(final CloudSimEvent statusChangeSimEvt, final TaskEvent taskEvent){
         //Sends the event to change the Cloudlet status.
-        cloudletStatusChangeEvents.add(statusChangeSimEvt);
+        addCloudletEvent(statusChangeSimEvt);
         /*The actual Cloudlet that needs to have its status and/or attributes changed
         * by sending a request message to the broker.*/
         final Cloudlet cloudlet = (Cloudlet)statusChangeSimEvt.getData();
@@ -571,12 +552,12 @@ public final class GoogleTaskEventsTraceReader extends GoogleTraceReaderAbstract
          * This way, it will be executed only when the event is processed.*/
         final CloudSimEvent attrsChangeSimEvt =
             new CloudSimEvent(
-                taskEvent.getTimestamp(),
+                getDelayUntil(taskEvent.getTimestamp()),
                 statusChangeSimEvt.getDestination(),
                 CloudSimTags.CLOUDLET_UPDATE_ATTRIBUTES, attributesUpdateRunnable);
 
         //Sends the event to change the Cloudlet attributes
-        cloudletStatusChangeEvents.add(attrsChangeSimEvt);
+        addCloudletEvent(attrsChangeSimEvt);
 
         return cloudlet;
     }
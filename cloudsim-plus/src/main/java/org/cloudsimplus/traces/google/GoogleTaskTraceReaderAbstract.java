@@ -0,0 +1,385 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.traces.google;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSimEntity;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.core.events.CloudSimEvent;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudsimplus.listeners.EventInfo;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An abstract class for creating readers for Google Cluster trace files
+ * related to tasks, which send events to the {@link DatacenterBroker}s
+ * to change the {@link Cloudlet}s created from the trace.
+ *
+ * <p>By default, the entire trace file is read when the {@link #process()} method is called
+ * and all the events created from it are sent when the simulation starts.
+ * Since such trace files may have hundreds of GB,
+ * a {@link #setStreamingTimeWindow(double) streaming time window} can be set
+ * to read the file in parts as the simulation clock advances.
+ * This way, the memory used just depends on the size of the time window,
+ * not on the size of the trace file.
+ * While there are lines to read, the {@link DatacenterBroker}s are kept alive
+ * (even if they become idle between time windows) to receive the Cloudlets created from the next windows.
+ * The trace file is closed when the end of the file is reached or the simulation finishes.</p>
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+abstract class GoogleTaskTraceReaderAbstract extends GoogleTraceReaderAbstract<Cloudlet> {
+    /**
+     * List of events created from the trace, which will be sent to the {@link DatacenterBroker}
+     * that owns each Cloudlet when the simulation starts
+     * (or after reading the current time window, when the streaming mode is enabled).
+     * Such events request a Cloudlet's status or attributes change.
+     */
+    private final List<CloudSimEvent> cloudletEvents;
+
+    /** @see #getStreamingTimeWindow() */
+    private double streamingTimeWindow;
+
+    /**
+     * Indicates if there are more lines to read from the trace,
+     * when the streaming mode is enabled.
+     */
+    private boolean moreLinesToRead;
+
+    /**
+     * The time of the next line to read from the trace,
+     * when the streaming mode is enabled.
+     */
+    private double nextLineTime;
+
+    /**
+     * The start time of the last time window read before the simulation start,
+     * when the streaming mode is enabled.
+     */
+    private double lastWindowStartTime;
+
+    /**
+     * The entity that reads the next time windows as the simulation clock advances,
+     * when the streaming mode is enabled.
+     */
+    private TimeWindowReader timeWindowReader;
+
+    /**
+     * The brokers which were prevented from being shut down when idle
+     * while there are more lines to read from the trace,
+     * when the streaming mode is enabled.
+     * @see DatacenterBroker#setShutdownWhenIdle(boolean)
+     */
+    private final Set<DatacenterBroker> keptAliveBrokers;
+
+    /* default */ GoogleTaskTraceReaderAbstract(final String filePath, final InputStream reader) {
+        super(filePath, reader);
+        cloudletEvents = new ArrayList<>();
+        keptAliveBrokers = new HashSet<>();
+    }
+
+    /**
+     * Gets the simulation instance that the Cloudlets and brokers belong to.
+     * @return
+     */
+    protected abstract Simulation getSimulation();
+
+    /**
+     * Gets the list of brokers that own the Cloudlets changed by the events read from the trace.
+     * @return
+     */
+    protected abstract List<DatacenterBroker> getBrokers();
+
+    /**
+     * Gets the time (in seconds) when the event represented by the last parsed trace line happens.
+     * @return
+     */
+    protected abstract double getLastParsedLineTime();
+
+    /**
+     * Gets the size of the time window (in seconds) used to read the trace file in parts,
+     * as the simulation clock advances.
+     * @return the size of the time window or 0 if the streaming mode is disabled
+     * (the entire file is read at once)
+     * @see #setStreamingTimeWindow(double)
+     */
+    public double getStreamingTimeWindow() {
+        return streamingTimeWindow;
+    }
+
+    /**
+     * Sets the size of the time window (in seconds) used to read the trace file in parts,
+     * enabling the streaming mode.
+     * When the {@link #process()} method is called, just the lines from the beginning of the trace
+     * up to the end of the first time window are read.
+     * The next lines are read as the simulation clock advances,
+     * always keeping one time window ahead of the clock.
+     *
+     * <p>This must be called before the {@link #process()} method.
+     * Since the Cloudlets are created along the simulation execution,
+     * the Set returned by {@link #process()} just contains the ones
+     * created from the first time window.</p>
+     *
+     * <p>When a "task usage" trace is also read in streaming mode, the
+     * {@link GoogleTaskEventsTraceReader} must be created first and both readers
+     * must use the same time window. This way, the Cloudlets of each window
+     * are created before their resource usage is read.</p>
+     *
+     * @param streamingTimeWindow the size of the time window or 0 to disable
+     *                            the streaming mode (reading the entire file at once)
+     */
+    public void setStreamingTimeWindow(final double streamingTimeWindow) {
+        if (streamingTimeWindow < 0) {
+            throw new IllegalArgumentException("The streaming time window cannot be negative");
+        }
+
+        this.streamingTimeWindow = streamingTimeWindow;
+    }
+
+    /**
+     * Checks if the streaming mode is enabled,
+     * so that the trace file is read in parts as the simulation clock advances.
+     * @return
+     * @see #setStreamingTimeWindow(double)
+     */
+    public boolean isStreaming() {
+        return streamingTimeWindow > 0;
+    }
+
+    @Override
+    /* default */ void readTraceFile() {
+        if (!isStreaming()) {
+            super.readTraceFile();
+            return;
+        }
+
+        /* Reads windows until some broker is available to receive
+         * the event requesting the next window to be read.*/
+        double windowStartTime = 0;
+        moreLinesToRead = readTimeWindow(windowStartTime);
+        while (moreLinesToRead && getBrokers().isEmpty()) {
+            windowStartTime = getNextWindowStartTime(windowStartTime);
+            moreLinesToRead = readTimeWindow(windowStartTime);
+        }
+
+        lastWindowStartTime = windowStartTime;
+    }
+
+    @Override
+    protected void postProcess(){
+        if (isStreaming()) {
+            timeWindowReader = new TimeWindowReader(getSimulation());
+            keepBrokersAliveWhileReading();
+        }
+
+        getSimulation().addOnSimulationStartListener(this::onSimulationStart);
+    }
+
+    /**
+     * Adds an event listener that is notified when the simulation starts,
+     * so that the events created from the trace are sent.
+     *
+     * @param info the simulation start event information
+     */
+    private void onSimulationStart(final EventInfo info) {
+        sendCloudletEvents();
+        scheduleNextTimeWindowReading(lastWindowStartTime);
+    }
+
+    /**
+     * Sends the events created from the trace lines read up to now,
+     * removing them from the list.
+     */
+    private void sendCloudletEvents() {
+        cloudletEvents.forEach(evt -> evt.getSource().schedule(evt));
+        cloudletEvents.clear();
+    }
+
+    /**
+     * Reads the trace lines whose time is up to the end of a time window.
+     *
+     * @param windowStartTime the start time of the window
+     * @return true if there are more lines to read, false if the end of the file was reached
+     */
+    private boolean readTimeWindow(final double windowStartTime) {
+        final double windowEndTime = windowStartTime + streamingTimeWindow;
+        return readNextLines(this::processParsedLine, parsedLineArray -> {
+            setLastParsedLineArray(parsedLineArray);
+            nextLineTime = getLastParsedLineTime();
+            return nextLineTime > windowEndTime;
+        });
+    }
+
+    /**
+     * Gets the start time of the time window after a given one.
+     * If there is a gap in the trace larger than a time window,
+     * the empty windows are skipped.
+     *
+     * @param windowStartTime the start time of the current window
+     * @return
+     */
+    private double getNextWindowStartTime(final double windowStartTime) {
+        return Math.max(windowStartTime + streamingTimeWindow, nextLineTime - streamingTimeWindow);
+    }
+
+    /**
+     * Schedules an event to the {@link #timeWindowReader} to read the time window after a given one,
+     * if there are more lines to read.
+     * Otherwise, shuts the {@link #timeWindowReader} down, finishing the reading of the trace.
+     *
+     * @param windowStartTime the start time of the current window
+     */
+    private void scheduleNextTimeWindowReading(final double windowStartTime) {
+        if (!isStreaming()) {
+            return;
+        }
+
+        if (!moreLinesToRead) {
+            timeWindowReader.shutdownEntity();
+            return;
+        }
+
+        final double windowReadingTime = getNextWindowStartTime(windowStartTime);
+        timeWindowReader.schedule(getDelayUntil(windowReadingTime), CloudSimTags.TRACE_WINDOW_READ, windowReadingTime);
+    }
+
+    /**
+     * Reads a time window while the simulation is running,
+     * sends the events created from it and schedules the reading of the next window.
+     *
+     * @param windowStartTime the start time of the window to read
+     */
+    private void readNextTimeWindow(final double windowStartTime) {
+        moreLinesToRead = readTimeWindow(windowStartTime);
+        keepBrokersAliveWhileReading();
+        sendCloudletEvents();
+        scheduleNextTimeWindowReading(windowStartTime);
+    }
+
+    /**
+     * Prevents the brokers (including the ones created from the last time window read)
+     * from being shut down when they become idle, if there are more lines to read from the trace.
+     * This way, they are able to receive the Cloudlets created from the next time windows.
+     */
+    private void keepBrokersAliveWhileReading() {
+        if (!moreLinesToRead) {
+            return;
+        }
+
+        for (final DatacenterBroker broker : getBrokers()) {
+            if (broker.isShutdownWhenIdle()) {
+                broker.setShutdownWhenIdle(false);
+                keptAliveBrokers.add(broker);
+            }
+        }
+    }
+
+    /**
+     * Closes the trace file (if the end of the file was not reached yet)
+     * and enables the brokers kept alive while reading it to be shut down when idle.
+     */
+    private void finishStreaming() {
+        moreLinesToRead = false;
+        keptAliveBrokers.forEach(broker -> broker.setShutdownWhenIdle(true));
+        keptAliveBrokers.clear();
+        closePartialReading();
+    }
+
+    /**
+     * Adds an event created from the trace to the list of events to be sent.
+     * @param evt the event to add
+     * @return true if the event was added, false otherwise
+     */
+    /* default */ final boolean addCloudletEvent(final CloudSimEvent evt) {
+        return cloudletEvents.add(evt);
+    }
+
+    /**
+     * Gets the delay (from the current simulation time) until a given time read from the trace.
+     * Since trace lines may be read while the simulation is running (when the streaming mode is enabled),
+     * the time of events must be relative to the current time.
+     *
+     * @param time the time read from the trace
+     * @return
+     */
+    /* default */ final double getDelayUntil(final double time) {
+        return Math.max(0, time - getSimulation().clock());
+    }
+
+    /**
+     * An entity that reads the next time windows of the trace as the simulation clock advances,
+     * when the streaming mode is enabled.
+     * Since it doesn't rely on any broker to be alive, the trace keeps being read
+     * even if the brokers are idle between time windows.
+     * When the simulation finishes, the trace file is closed.
+     */
+    private final class TimeWindowReader extends CloudSimEntity {
+        private TimeWindowReader(final Simulation simulation) {
+            super(simulation);
+        }
+
+        /**
+         * The method has no effect at the current class,
+         * since the reading of the next time window is scheduled when the simulation starts.
+         */
+        @Override
+        protected void startEntity() {/**/}
+
+        @Override
+        public void processEvent(final SimEvent evt) {
+            switch (evt.getTag()) {
+                case CloudSimTags.TRACE_WINDOW_READ:
+                    readNextTimeWindow((double) evt.getData());
+                break;
+                case CloudSimTags.END_OF_SIMULATION:
+                    shutdownEntity();
+                break;
+            }
+        }
+
+        @Override
+        public void shutdownEntity() {
+            super.shutdownEntity();
+            finishStreaming();
+        }
+
+        /**
+         * {@inheritDoc}
+         * The entity changes the brokers, thus it cannot be executed in parallel with them.
+         * @return {@inheritDoc}
+         */
+        @Override
+        protected boolean isParallelExecutionSupported() {
+            return false;
+        }
+    }
+}
@@ -34,14 +34,12 @@ import org.cloudbus.cloudsim.util.TraceReaderAbstract;
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel;
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
 import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
-import org.cloudsimplus.listeners.EventInfo;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -67,8 +65,7 @@ import static java.util.Objects.requireNonNull;
  * @author Manoel Campos da Silva Filho
  * @since CloudSim Plus 4.0.0
  */
-public final class GoogleTaskUsageTraceReader extends GoogleTraceReaderAbstract<Cloudlet> {
-    private final List<CloudSimEvent> cloudletUsageChangeEvents;
+public final class GoogleTaskUsageTraceReader extends GoogleTaskTraceReaderAbstract {
     private final List<DatacenterBroker> brokers;
 
     /**
@@ -316,7 +313,6 @@ public final class GoogleTaskUsageTraceReader extends GoogleTraceReaderAbstract<
             throw new IllegalArgumentException("The broker list cannot be empty");
         }
         this.simulation = brokers.get(0).getSimulation();
-        cloudletUsageChangeEvents = new ArrayList<>();
     }
 
     /**
@@ -359,18 +355,18 @@ public final class GoogleTaskUsageTraceReader extends GoogleTraceReaderAbstract<
     protected void preProcess(){/**/}
 
     @Override
-    protected void postProcess(){
-        simulation.addOnSimulationStartListener(this::onSimulationStart);
+    protected double getLastParsedLineTime() {
+        return FieldIndex.START_TIME.getValue(this);
     }
 
-    /**
-     * Adds an event listener that is notified when the simulation starts,
-     * so that the messages to change Cloudlet resource usage are sent.
-     *
-     * @param info the simulation start event information
-     */
-    private void onSimulationStart(final EventInfo info) {
-        cloudletUsageChangeEvents.forEach(evt -> evt.getSource().schedule(evt));
+    @Override
+    protected Simulation getSimulation() {
+        return simulation;
+    }
+
+    @Override
+    protected List<DatacenterBroker> getBrokers() {
+        return brokers;
     }
 
     @Override
@@ -440,9 +436,9 @@ public final class GoogleTaskUsageTraceReader extends GoogleTraceReaderAbstract<
             addAvailableObject(cloudlet);
             final CloudSimEvent evt =
                 new CloudSimEvent(
-                    taskUsage.getStartTime(), cloudlet.getBroker(),
+                    getDelayUntil(taskUsage.getStartTime()), cloudlet.getBroker(),
                     CloudSimTags.CLOUDLET_UPDATE_ATTRIBUTES, resourceUsageUpdateRunnable);
-            return cloudletUsageChangeEvents.add(evt);
+            return addCloudletEvent(evt);
         }
 
         return false;
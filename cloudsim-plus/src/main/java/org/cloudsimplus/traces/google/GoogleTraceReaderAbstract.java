@@ -55,6 +55,13 @@ abstract class GoogleTraceReaderAbstract<T> extends TraceReaderBase {
      */
     private final Set<T> availableObjects;
 
+    /**
+     * Indicates if the {@link #process()} method was already called,
+     * so that objects created after that (such as the ones created from the next time windows
+     * when the trace file is read in parts) are not added to the {@link #availableObjects}.
+     */
+    private boolean processed;
+
     /* default */  GoogleTraceReaderAbstract(final String filePath, final InputStream reader) {
         super(filePath, reader);
         this.setFieldDelimiterRegex(",");
@@ -72,19 +79,28 @@ abstract class GoogleTraceReaderAbstract<T> extends TraceReaderBase {
     public Set<T> process() {
         preProcess();
         //If the file was not processed yet, process it
-        if (availableObjects.isEmpty()) {
+        if (!processed) {
             try {
-                readFile(this::processParsedLine);
+                readTraceFile();
             } catch (Exception e) {
                 throw new RuntimeException("Error when processing the trace file. Current trace line: " + getLastLineNumber(), e);
             }
 
+            processed = true;
             postProcess();
         }
 
         return availableObjects;
     }
 
+    /**
+     * Reads the trace file, processing each parsed line.
+     * By default, the entire file is read at once.
+     */
+    /* default */ void readTraceFile() {
+        readFile(this::processParsedLine);
+    }
+
     /**
      * Executes any pre-process before starting to read the trace file,
      * such as checking if required attributes were set.
@@ -130,11 +146,17 @@ abstract class GoogleTraceReaderAbstract<T> extends TraceReaderBase {
 
     /**
      * Adds an object T to the list of available objects.
+     * After the {@link #process()} method returns, objects created from the trace
+     * (such as the ones from the next time windows, when the trace file is read in parts)
+     * are not added to such a list anymore, so that the memory it uses doesn't grow
+     * with the size of the trace file.
+     *
      * @param object the object T to add
-     * @return true if the object was added, false otherwise
+     * @return true if the object was added or the list is not being filled anymore, false otherwise
      * @see #availableObjects
      */
     /* default */ final boolean addAvailableObject(final T object){
-        return availableObjects.add(Objects.requireNonNull(object));
+        Objects.requireNonNull(object);
+        return processed || availableObjects.add(object);
     }
 }
@@ -50,7 +50,7 @@ public enum TaskEventType {
             final Cloudlet cloudlet = reader.createCloudlet(event);
             cloudlet.setId(event.getUniqueTaskId());
             cloudlet.setJobId(event.getJobId());
-            final double delay = FieldIndex.TIMESTAMP.getValue(reader);
+            final double delay = reader.getDelayUntil(FieldIndex.TIMESTAMP.getValue(reader));
             cloudlet.setSubmissionDelay(delay);
 
             // Since Cloudlet id must be unique, it will be the concatenation of the job and task id
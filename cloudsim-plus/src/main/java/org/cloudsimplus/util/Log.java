@@ -67,4 +67,17 @@ public final class Log {
         final Logger root = LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
         setLevel(root, level);
     }
+
+    /**
+     * Gets the logging {@link Level} of the root logger,
+     * which is the level used by all logger instances that don't have
+     * a specific level set.
+     * @return the root logging level or null if it cannot be got
+     *         because the root logger is not a logback logger
+     * @see #setLevel(Level)
+     */
+    public static Level getLevel(){
+        final Logger root = LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME);
+        return root instanceof ch.qos.logback.classic.Logger ? ((ch.qos.logback.classic.Logger) root).getLevel() : null;
+    }
 }
@@ -0,0 +1,235 @@
+package org.cloudbus.cloudsim.allocationpolicies;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks if the VmAllocationPolicies which find Hosts using a {@link HostCapacityIndex}
+ * select the same Hosts as traversing the entire Host list.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class HostCapacityIndexTest {
+    private static final int HOSTS = 60;
+    private static final int OPERATIONS = 400;
+    private static final int PE_MIPS = 1000;
+
+    /**
+     * Ordering used by the {@link VmAllocationPolicySimple} and {@link VmAllocationPolicyWorstFit}
+     * when traversing the entire Host list, getting the max Host.
+     */
+    private static final Comparator<Host> MOST_FREE_PES =
+        Comparator.comparing(Host::isActive).thenComparingLong(Host::getFreePesNumber);
+
+    /**
+     * Ordering used by the {@link VmAllocationPolicyBestFit}
+     * when traversing the entire Host list, getting the min Host.
+     */
+    private static final Comparator<Host> FEWEST_FREE_PES =
+        Comparator.comparing(Host::isActive).reversed().thenComparingLong(Host::getFreePesNumber);
+
+    @Test
+    public void testSimpleSelectsSameHostsAsScanning() {
+        assertSameHostsAsScanning(new VmAllocationPolicySimple(), true, 1);
+    }
+
+    @Test
+    public void testWorstFitSelectsSameHostsAsScanning() {
+        assertSameHostsAsScanning(new VmAllocationPolicyWorstFit(), true, 2);
+    }
+
+    @Test
+    public void testBestFitSelectsSameHostsAsScanning() {
+        assertSameHostsAsScanning(new VmAllocationPolicyBestFit(), false, 3);
+    }
+
+    @Test
+    public void testBestFitSkipsSpaceSharedHostsWithoutEnoughFreePes() {
+        assertFullHostsAreSkipped(new VmAllocationPolicyBestFit(), 1);
+    }
+
+    @Test
+    public void testWorstFitSkipsSpaceSharedHostsWithoutEnoughFreePes() {
+        assertFullHostsAreSkipped(new VmAllocationPolicyWorstFit(), 0);
+    }
+
+    @Test
+    public void testRemovedHostIsNotSelected() {
+        final CloudSim simulation = new CloudSim();
+        final List<Host> hostList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            hostList.add(new HostSimple(8000, 100000, 100000, createPeList(i < HOSTS - 1 ? 2 : 4)));
+        }
+
+        final VmAllocationPolicyAbstract policy = new VmAllocationPolicyWorstFit();
+        final DatacenterSimple datacenter = new DatacenterSimple(simulation, hostList, policy);
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        assertTrue(policy.isHostCapacityIndexAvailable());
+
+        final Host removedHost = hostList.get(HOSTS - 1);
+        datacenter.removeHost(removedHost);
+        final Vm vm = createVm(0, PE_MIPS, 1, broker);
+        assertTrue(policy.allocateHostForVm(vm));
+        assertNotSame(removedHost, vm.getHost());
+    }
+
+    /**
+     * Fills all Hosts but the last one, then checks if
+     * the Hosts using a space-shared VmScheduler without enough free PEs
+     * are skipped when finding a Host for a new VM, while time-shared ones are still checked
+     * if they come before the selected Host.
+     *
+     * @param policy the policy to check
+     * @param timeSharedHostChecks the number of times the full time-shared Host is expected to be checked
+     */
+    private void assertFullHostsAreSkipped(final VmAllocationPolicyAbstract policy, final int timeSharedHostChecks) {
+        final CloudSim simulation = new CloudSim();
+        final List<SuitabilityCountingHost> hostList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            hostList.add(new SuitabilityCountingHost(i < HOSTS - 1 ? 2 : 4));
+        }
+        hostList.get(0).setVmScheduler(new VmSchedulerTimeShared());
+
+        new DatacenterSimple(simulation, hostList, policy);
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        for (int i = 0; i < HOSTS - 1; i++) {
+            final Vm vm = createVm(i, PE_MIPS, 2, broker);
+            assertTrue(hostList.get(i).createVm(vm));
+        }
+
+        assertTrue(policy.isHostCapacityIndexAvailable());
+        hostList.forEach(host -> host.suitabilityChecks = 0);
+        final Vm vm = createVm(HOSTS, PE_MIPS, 1, broker);
+        assertTrue(policy.allocateHostForVm(vm));
+        assertSame(hostList.get(HOSTS - 1), vm.getHost());
+
+        assertEquals(timeSharedHostChecks, hostList.get(0).suitabilityChecks);
+        for (int i = 1; i < HOSTS - 1; i++) {
+            assertEquals(0, hostList.get(i).suitabilityChecks);
+        }
+    }
+
+    /**
+     * Randomly creates and destroys VMs, failing and shutting down some Hosts,
+     * checking if the Host selected by a given policy for each VM
+     * is the same one selected by traversing the entire Host list.
+     *
+     * @param policy the policy to check
+     * @param mostFreePesFirst true if the policy selects the suitable Host with most free PEs,
+     *                         false if it selects the one with the fewest free PEs
+     * @param seed the seed for the pseudo random number generator
+     */
+    private void assertSameHostsAsScanning(
+        final VmAllocationPolicyAbstract policy, final boolean mostFreePesFirst, final long seed)
+    {
+        final Random random = new Random(seed);
+        final CloudSim simulation = new CloudSim();
+        final List<Host> hostList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            hostList.add(createHost(random));
+        }
+
+        new DatacenterSimple(simulation, hostList, policy);
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        hostList.stream().filter(host -> random.nextBoolean()).forEach(host -> host.setActive(false));
+        assertTrue(policy.isHostCapacityIndexAvailable());
+
+        final List<Vm> createdVms = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            final double operation = random.nextDouble();
+            if (operation < 0.7 || createdVms.isEmpty()) {
+                final Vm vm = createVm(i, random, broker);
+                final Optional<Host> expected = findHostByScanning(hostList, vm, mostFreePesFirst);
+                assertEquals(expected.isPresent(), policy.allocateHostForVm(vm));
+                expected.ifPresent(host -> {
+                    assertSame(host, vm.getHost());
+                    createdVms.add(vm);
+                });
+            } else if (operation < 0.97) {
+                final Vm vm = createdVms.remove(random.nextInt(createdVms.size()));
+                policy.deallocateHostForVm(vm);
+            } else {
+                final Host host = hostList.get(random.nextInt(HOSTS));
+                if (host.getVmList().isEmpty()) {
+                    host.setFailed(true);
+                }
+            }
+        }
+    }
+
+    private Optional<Host> findHostByScanning(final List<Host> hostList, final Vm vm, final boolean mostFreePesFirst) {
+        if (mostFreePesFirst) {
+            return hostList.stream().filter(host -> host.isSuitableForVm(vm)).max(MOST_FREE_PES);
+        }
+
+        return hostList.stream().filter(host -> host.isSuitableForVm(vm)).min(FEWEST_FREE_PES);
+    }
+
+    private Host createHost(final Random random) {
+        final Host host = new HostSimple(8000, 100000, 100000, createPeList(2 + random.nextInt(7)));
+        //Time-shared Hosts may be suitable for VMs even if there aren't enough free PEs
+        if (random.nextBoolean()) {
+            host.setVmScheduler(new VmSchedulerTimeShared());
+        }
+
+        return host;
+    }
+
+    private Vm createVm(final int id, final Random random, final DatacenterBroker broker) {
+        final Vm vm = createVm(id, PE_MIPS / (1 + random.nextInt(4)), 1 + random.nextInt(4), broker);
+        vm.setRam(512 + random.nextInt(2048));
+        return vm;
+    }
+
+    private Vm createVm(final int id, final double mips, final long pesNumber, final DatacenterBroker broker) {
+        final Vm vm = new VmSimple(id, mips, pesNumber);
+        vm.setRam(512).setBw(1000).setSize(1000);
+        vm.setBroker(broker);
+        return vm;
+    }
+
+    /**
+     * A Host that counts how many times it was checked if suitable for a VM.
+     */
+    private static final class SuitabilityCountingHost extends HostSimple {
+        private int suitabilityChecks;
+
+        private SuitabilityCountingHost(final int pesNumber) {
+            super(8000, 100000, 100000, createPeList(pesNumber));
+        }
+
+        @Override
+        public boolean isSuitableForVm(final Vm vm) {
+            suitabilityChecks++;
+            return super.isSuitableForVm(vm);
+        }
+    }
+
+    private static List<Pe> createPeList(final int pesNumber) {
+        final List<Pe> peList = new ArrayList<>(pesNumber);
+        for (int i = 0; i < pesNumber; i++) {
+            peList.add(new PeSimple(PE_MIPS));
+        }
+
+        return peList;
+    }
+}
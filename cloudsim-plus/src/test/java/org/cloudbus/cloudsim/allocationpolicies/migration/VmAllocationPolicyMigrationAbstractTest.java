@@ -0,0 +1,129 @@
+package org.cloudbus.cloudsim.allocationpolicies.migration;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks if the VM placement planned by {@link VmAllocationPolicyMigrationAbstract#getOptimizedAllocationMap(List)}
+ * for overloaded and underloaded Hosts is the same one planned by temporarily creating VMs into the Hosts.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class VmAllocationPolicyMigrationAbstractTest {
+    private static final double PE_MIPS = 1000;
+
+    private final CloudSim simulation = new CloudSim();
+    private final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+    private final List<Vm> vmList = new ArrayList<>();
+
+    /**
+     * The first Host is overloaded and has the first 4 VMs selected to be migrated.
+     * The second Host has enough MIPS for such VMs but just 2 PEs,
+     * so the last 2 VMs have to be placed into the third Host.
+     */
+    @Test
+    public void testVmsFromOverloadedHostAreNotPlacedIntoHostWithoutFreePes() {
+        final List<Host> hostList = Arrays.asList(createHost(8, PE_MIPS), createHost(2, 4 * PE_MIPS), createHost(4, PE_MIPS));
+        final VmAllocationPolicyMigrationAbstract policy = createPolicy(hostList, 0.6);
+        final Host overloadedHost = hostList.get(0);
+        createVms(overloadedHost, 8);
+
+        final Map<Vm, Host> expected = new HashMap<>();
+        expected.put(vmList.get(0), hostList.get(1));
+        expected.put(vmList.get(1), hostList.get(1));
+        expected.put(vmList.get(2), hostList.get(2));
+        expected.put(vmList.get(3), hostList.get(2));
+        assertEquals(expected, policy.getOptimizedAllocationMap(vmList));
+        assertTrue(policy.areHostsOverloaded());
+
+        //The VMs selected to migrate are placed back into the overloaded Host
+        assertEquals(new HashSet<>(vmList), new HashSet<>(overloadedHost.getVmList()));
+        assertEquals(0, hostList.get(1).getVmList().size());
+    }
+
+    /**
+     * The first and third Hosts are underloaded.
+     * The VM from the first Host is planned to be placed into the second one,
+     * which then doesn't support the VM from the third Host without becoming overloaded.
+     * This way, the migration from the third Host is cancelled.
+     */
+    @Test
+    public void testVmsFromUnderloadedHostsConsiderPreviouslyPlannedVms() {
+        final List<Host> hostList = Arrays.asList(createHost(4, PE_MIPS), createHost(4, PE_MIPS), createHost(4, PE_MIPS));
+        final VmAllocationPolicyMigrationAbstract policy = createPolicy(hostList, 0.8);
+        createVms(hostList.get(0), 1);
+        createVms(hostList.get(1), 2);
+        createVms(hostList.get(2), 1);
+
+        assertEquals(Collections.singletonMap(vmList.get(0), hostList.get(1)), policy.getOptimizedAllocationMap(vmList));
+        assertFalse(policy.areHostsOverloaded());
+        assertTrue(policy.areHostsUnderloaded());
+    }
+
+    @Test
+    public void testMaxUtilizationAfterAllocationIgnoresPlannedVmsAfterPlanning() {
+        final List<Host> hostList = Arrays.asList(createHost(8, PE_MIPS), createHost(2, 4 * PE_MIPS), createHost(4, PE_MIPS));
+        final VmAllocationPolicyMigrationAbstract policy = createPolicy(hostList, 0.6);
+        createVms(hostList.get(0), 8);
+        assertFalse(policy.getOptimizedAllocationMap(vmList).isEmpty());
+
+        final Vm vm = new VmSimple(PE_MIPS, 1);
+        assertEquals(0.125, policy.getMaxUtilizationAfterAllocation(hostList.get(1), vm), 0.0001);
+    }
+
+    /**
+     * Creates a policy where a Host is overloaded when the MIPS requested by its VMs
+     * is higher than a given threshold, enabling the planning to be checked without running the simulation.
+     */
+    private VmAllocationPolicyMigrationAbstract createPolicy(final List<Host> hostList, final double overUtilizationThreshold) {
+        final VmAllocationPolicyMigrationAbstract policy =
+            new VmAllocationPolicyMigrationStaticThreshold(
+                host -> host.getMigratableVms().stream().findFirst().orElse(Vm.NULL), overUtilizationThreshold)
+            {
+                @Override
+                public boolean isHostOverloaded(final Host host) {
+                    final double requestedMips = host.getVmList().stream().mapToDouble(Vm::getCurrentRequestedTotalMips).sum();
+                    return requestedMips / host.getTotalMipsCapacity() > getOverUtilizationThreshold(host);
+                }
+            };
+
+        new DatacenterSimple(simulation, hostList, policy);
+        return policy;
+    }
+
+    private Host createHost(final int pesNumber, final double peMips) {
+        final List<Pe> peList = new ArrayList<>(pesNumber);
+        for (int i = 0; i < pesNumber; i++) {
+            peList.add(new PeSimple(peMips));
+        }
+
+        return new HostSimple(16000, 100000, 100000, peList);
+    }
+
+    /**
+     * Creates a given number of single-PE VMs into a Host.
+     */
+    private void createVms(final Host host, final int vmsNumber) {
+        for (int i = 0; i < vmsNumber; i++) {
+            final Vm vm = new VmSimple(vmList.size(), PE_MIPS, 1);
+            vm.setRam(512).setBw(1000).setSize(1000);
+            vm.setBroker(broker);
+            assertTrue(host.createVm(vm));
+            vmList.add(vm);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.cloudbus.cloudsim.brokers;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the destruction of VMs by the {@link DatacenterBrokerAbstract},
+ * running a simulation with real entities.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class DatacenterBrokerAbstractTest {
+    private static final double MIPS = 1000;
+    private static final double VM_DESTRUCTION_DELAY = 3;
+
+    private final CloudSim simulation = new CloudSim();
+    private Datacenter datacenter;
+    private DatacenterBroker broker;
+
+    @Test
+    public void testIdleVmsAreDestroyedAfterDelayCheckingIdlenessOncePerVm() {
+        createDatacenterAndBroker(0);
+        broker.setVmDestructionDelay(VM_DESTRUCTION_DELAY);
+        final List<Vm> vmList = createVms(3);
+        final List<Cloudlet> cloudletList = new ArrayList<>();
+        for (int i = 0; i < vmList.size(); i++) {
+            cloudletList.add(createCloudlet(10000 + i * 1000, vmList.get(i)));
+        }
+        broker.submitCloudletList(cloudletList);
+
+        final List<Double> updateTimes = new ArrayList<>();
+        simulation.addOnEventProcessingListener(evt -> {
+            if(evt.getTag() == CloudSimTags.VM_UPDATE_CLOUDLET_PROCESSING) {
+                updateTimes.add(evt.getTime());
+            }
+        });
+        simulation.start();
+
+        /* A VM already idle must not have its idleness verified again when
+         * Cloudlets from other VMs return. That way, there must be a single
+         * verification for each VM, after the destruction delay from the time it became idle. */
+        for (int i = 0; i < vmList.size(); i++) {
+            final Vm vm = vmList.get(i);
+            final double verificationTime = cloudletList.get(i).getFinishTime() + VM_DESTRUCTION_DELAY;
+            assertFalse(vm.isCreated());
+            assertEquals(verificationTime, vm.getStopTime(), 0.2);
+            assertEquals(1, updateTimes.stream().filter(time -> Math.abs(time - verificationTime) < 0.2).count());
+        }
+    }
+
+    /**
+     * Destroys a VM having a finished Cloudlet, a Cloudlet cancelled and returned to the broker
+     * and a running Cloudlet. Only the unfinished Cloudlets must be reset and removed from the submitted list.
+     */
+    @Test
+    public void testDestroyVmResetsUnfinishedCloudlets() {
+        createDatacenterAndBroker(1);
+        final List<Vm> vmList = createVms(2);
+        final Vm vm = vmList.get(0);
+        final Cloudlet finished = createCloudlet(5000, vm);
+        final Cloudlet cancelled = createCloudlet(100000, vm);
+        final Cloudlet running = createCloudlet(100000, vm);
+        final Cloudlet otherVmCloudlet = createCloudlet(100000, vmList.get(1));
+        broker.submitCloudletList(Arrays.asList(finished, cancelled, running, otherVmCloudlet));
+
+        final List<Cloudlet> affectedCloudlets = new ArrayList<>();
+        final AtomicBoolean cancelRequested = new AtomicBoolean();
+        simulation.addOnClockTickListener(info -> {
+            if (info.getTime() >= 8 && !cancelRequested.getAndSet(true)) {
+                vm.getCloudletScheduler().cloudletCancel(cancelled);
+                //Emulates a Datacenter returning the cancelled Cloudlet to the broker
+                simulation.sendNow(datacenter, broker, CloudSimTags.CLOUDLET_RETURN, cancelled);
+            } else if (info.getTime() >= 12 && vm.isCreated()) {
+                affectedCloudlets.addAll(broker.destroyVm(vm));
+            }
+        });
+        simulation.terminateAt(20);
+        simulation.start();
+
+        assertEquals(Arrays.asList(cancelled, running), affectedCloudlets);
+        for (final Cloudlet cloudlet : affectedCloudlets) {
+            assertSame(Vm.NULL, cloudlet.getVm());
+            assertEquals(Cloudlet.Status.INSTANTIATED, cloudlet.getStatus());
+            assertFalse(broker.getCloudletSubmittedList().contains(cloudlet));
+        }
+
+        assertTrue(finished.isFinished());
+        assertSame(vm, finished.getVm());
+        assertTrue(broker.getCloudletSubmittedList().containsAll(Arrays.asList(finished, otherVmCloudlet)));
+        assertSame(vmList.get(1), otherVmCloudlet.getVm());
+    }
+
+    private void createDatacenterAndBroker(final double schedulingInterval) {
+        final List<Pe> peList = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            peList.add(new PeSimple(MIPS));
+        }
+
+        final Host host = new HostSimple(16000, 100000, 100000, peList);
+        host.setVmScheduler(new VmSchedulerTimeShared());
+        datacenter = new DatacenterSimple(simulation, Arrays.asList(host));
+        datacenter.setSchedulingInterval(schedulingInterval);
+        broker = new DatacenterBrokerSimple(simulation);
+    }
+
+    private List<Vm> createVms(final int vmsNumber) {
+        final List<Vm> vmList = new ArrayList<>(vmsNumber);
+        for (int i = 0; i < vmsNumber; i++) {
+            final Vm vm = new VmSimple(MIPS, 2);
+            vm.setRam(1000).setBw(1000).setSize(1000);
+            vmList.add(vm);
+        }
+
+        broker.submitVmList(vmList);
+        return vmList;
+    }
+
+    private Cloudlet createCloudlet(final long length, final Vm vm) {
+        final Cloudlet cloudlet = new CloudletSimple(length, 1);
+        cloudlet.setVm(vm);
+        return cloudlet;
+    }
+}
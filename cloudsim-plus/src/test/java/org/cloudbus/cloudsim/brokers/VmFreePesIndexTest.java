@@ -0,0 +1,89 @@
+package org.cloudbus.cloudsim.brokers;
+
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class VmFreePesIndexTest {
+    private static final int[] VM_PES = {4, 2, 8, 2, 1};
+
+    private VmFreePesIndex index;
+    private VmSimple[] vms;
+
+    @BeforeEach
+    public void setUp() {
+        index = new VmFreePesIndex();
+        vms = new VmSimple[VM_PES.length];
+        for (int i = 0; i < VM_PES.length; i++) {
+            vms[i] = new VmSimple(i, 1000, VM_PES[i]);
+            index.add(vms[i]);
+        }
+    }
+
+    @Test
+    public void testGetBestFitVmReturnsFirstVmWithLowestEnoughPes() {
+        assertSame(vms[4], index.getBestFitVm(1));
+        assertSame(vms[1], index.getBestFitVm(2));
+        assertSame(vms[0], index.getBestFitVm(3));
+        assertSame(vms[2], index.getBestFitVm(5));
+        assertSame(Vm.NULL, index.getBestFitVm(9));
+    }
+
+    @Test
+    public void testGetBestFitVmAfterUpdatingFreePes() {
+        index.removeExpectedFreePesNumber(vms[1], 2);
+        assertSame(vms[3], index.getBestFitVm(2));
+
+        index.removeExpectedFreePesNumber(vms[2], 5);
+        assertSame(vms[2], index.getBestFitVm(3));
+
+        index.addExpectedFreePesNumber(vms[1], 2);
+        assertSame(vms[1], index.getBestFitVm(2));
+        assertEquals(2, vms[1].getExpectedFreePesNumber());
+    }
+
+    @Test
+    public void testGetFirstFitPositionMovesToBeginningWhenEndIsReached() {
+        assertEquals(0, index.getFirstFitPosition(4, 0));
+        assertEquals(2, index.getFirstFitPosition(4, 1));
+        assertEquals(0, index.getFirstFitPosition(4, 3));
+        assertEquals(3, index.getFirstFitPosition(1, 3));
+        assertEquals(-1, index.getFirstFitPosition(9, 2));
+    }
+
+    @Test
+    public void testGetFirstFitPositionAfterUpdatingFreePes() {
+        index.removeExpectedFreePesNumber(vms[2], 8);
+        assertEquals(0, index.getFirstFitPosition(3, 1));
+
+        index.addExpectedFreePesNumber(vms[3], 2);
+        assertEquals(3, index.getFirstFitPosition(3, 1));
+        assertSame(vms[3], index.getVm(3));
+    }
+
+    @Test
+    public void testUpdateFreePesAfterChangingThemDirectlyInTheVm() {
+        vms[1].removeExpectedFreePesNumber(2);
+        index.addExpectedFreePesNumber(vms[1], 1);
+        assertEquals(1, vms[1].getExpectedFreePesNumber());
+        assertSame(vms[1], index.getBestFitVm(1));
+        assertSame(vms[3], index.getBestFitVm(2));
+        assertEquals(2, index.getFirstFitPosition(2, 1));
+    }
+
+    @Test
+    public void testAddSameVmTwiceKeepsItsPosition() {
+        index.add(vms[0]);
+        index.removeExpectedFreePesNumber(vms[0], 4);
+        assertEquals(-1, index.getFirstFitPosition(9, 0));
+        assertSame(vms[2], index.getBestFitVm(3));
+    }
+}
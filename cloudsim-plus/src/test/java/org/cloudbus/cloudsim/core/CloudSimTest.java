@@ -0,0 +1,115 @@
+package org.cloudbus.cloudsim.core;
+
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks how entities querying the future event queue
+ * are executed when {@link CloudSim#enableParallelProcessing(java.util.function.ToIntFunction) parallel processing}
+ * is enabled.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class CloudSimTest {
+    private static final int TAG = 1;
+
+    /**
+     * An entity which sends a new event when it processes its first one.
+     */
+    private static class SenderEntity extends CloudSimEntity {
+        private boolean sent;
+
+        private SenderEntity(final Simulation simulation) {
+            super(simulation);
+        }
+
+        @Override
+        protected void startEntity() {
+            schedule(1, TAG);
+        }
+
+        @Override
+        public void processEvent(final SimEvent evt) {
+            if (!sent) {
+                sent = true;
+                schedule(5, TAG);
+            }
+        }
+    }
+
+    /**
+     * An entity which counts the future events when it processes its first event,
+     * at the same time the {@link SenderEntity}s send their new events.
+     */
+    private static class CounterEntity extends CloudSimEntity {
+        private final boolean parallelExecutionSupported;
+        private long futureEvents = -1;
+
+        private CounterEntity(final Simulation simulation, final boolean parallelExecutionSupported) {
+            super(simulation);
+            this.parallelExecutionSupported = parallelExecutionSupported;
+        }
+
+        @Override
+        protected void startEntity() {
+            schedule(1, TAG);
+        }
+
+        @Override
+        public void processEvent(final SimEvent evt) {
+            if (futureEvents == -1) {
+                futureEvents = getSimulation().getNumberOfFutureEvents(e -> true);
+            }
+        }
+
+        @Override
+        protected boolean isParallelExecutionSupported() {
+            return parallelExecutionSupported;
+        }
+    }
+
+    @Test
+    public void testEntityNotSupportingParallelExecutionSeesSameFutureEventsAsSequentially() {
+        final long sequentialFutureEvents = countFutureEvents(false);
+        assertEquals(2, sequentialFutureEvents);
+        assertEquals(sequentialFutureEvents, countFutureEvents(true));
+    }
+
+    @Test
+    public void testGetNumberOfFutureEventsByEntityExecutedInParallel() {
+        final CloudSim simulation = new CloudSim();
+        final Map<SimEntity, Integer> logicalProcesses = new IdentityHashMap<>();
+        logicalProcesses.put(new SenderEntity(simulation), 0);
+        logicalProcesses.put(new CounterEntity(simulation, true), 1);
+        simulation.enableParallelProcessing(ent -> logicalProcesses.getOrDefault(ent, -1));
+        assertThrows(IllegalStateException.class, simulation::start);
+    }
+
+    /**
+     * Runs a simulation where a {@link CounterEntity} counts the future events
+     * after two {@link SenderEntity}s from different logical processes send new events.
+     * @param parallel true to execute entities in parallel, false to execute them sequentially
+     * @return the number of future events counted
+     */
+    private long countFutureEvents(final boolean parallel) {
+        final CloudSim simulation = new CloudSim();
+        final Map<SimEntity, Integer> logicalProcesses = new IdentityHashMap<>();
+        logicalProcesses.put(new SenderEntity(simulation), 0);
+        logicalProcesses.put(new SenderEntity(simulation), 1);
+        final CounterEntity counter = new CounterEntity(simulation, false);
+        logicalProcesses.put(counter, 2);
+        if (parallel) {
+            simulation.enableParallelProcessing(ent -> logicalProcesses.getOrDefault(ent, -1));
+        }
+
+        simulation.start();
+        return counter.futureEvents;
+    }
+}
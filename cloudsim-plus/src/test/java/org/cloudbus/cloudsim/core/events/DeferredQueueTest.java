@@ -0,0 +1,139 @@
+package org.cloudbus.cloudsim.core.events;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.cloudbus.cloudsim.core.Simulation.ANY_EVT;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class DeferredQueueTest {
+    private DeferredQueue queue;
+    private DatacenterBroker entity1;
+    private DatacenterBroker entity2;
+
+    @BeforeEach
+    public void setUp() {
+        final CloudSim simulation = new CloudSim();
+        queue = new DeferredQueue();
+        entity1 = new DatacenterBrokerSimple(simulation);
+        entity2 = new DatacenterBrokerSimple(simulation);
+    }
+
+    @Test
+    public void testFindFirstJustGetsEventsToTheGivenEntity() {
+        final SimEvent evt1 = addEvent(1, entity1, 1);
+        final SimEvent evt2 = addEvent(2, entity2, 1);
+        final SimEvent evt3 = addEvent(3, entity2, 2);
+
+        assertSame(evt1, queue.findFirst(entity1, ANY_EVT));
+        assertSame(evt2, queue.findFirst(entity2, ANY_EVT));
+        assertSame(evt3, queue.findFirst(entity2, new PredicateType(2)));
+        assertSame(SimEvent.NULL, queue.findFirst(entity1, new PredicateType(2)));
+        assertEquals(3, queue.size());
+    }
+
+    @Test
+    public void testRemoveFirst() {
+        final SimEvent evt1 = addEvent(1, entity1, 1);
+        final SimEvent evt2 = addEvent(2, entity2, 1);
+        final SimEvent evt3 = addEvent(3, entity1, 1);
+
+        assertSame(evt1, queue.removeFirst(entity1, ANY_EVT));
+        assertSame(evt3, queue.removeFirst(entity1, ANY_EVT));
+        assertSame(SimEvent.NULL, queue.removeFirst(entity1, ANY_EVT));
+        assertEquals(1, queue.size());
+        assertSame(evt2, queue.first());
+    }
+
+    @Test
+    public void testAddEventInTheMiddleKeepsTimeOrder() {
+        final SimEvent evt1 = addEvent(1, entity1, 1);
+        final SimEvent evt3 = addEvent(3, entity1, 1);
+        final SimEvent evt4 = addEvent(4, entity2, 1);
+        final SimEvent evt2 = addEvent(2, entity1, 1);
+        final SimEvent otherEvt2 = addEvent(2, entity2, 1);
+
+        assertQueueOrder(evt1, evt2, otherEvt2, evt3, evt4);
+        assertSame(evt1, queue.removeFirst(entity1, ANY_EVT));
+        assertSame(evt2, queue.removeFirst(entity1, ANY_EVT));
+        assertSame(otherEvt2, queue.removeFirst(entity2, ANY_EVT));
+        assertSame(evt3, queue.removeFirst(entity1, ANY_EVT));
+        assertEquals(2, queue.getAddedToMiddle());
+    }
+
+    @Test
+    public void testAddEventOlderThanAllQueuedEventsInsertsItAtTheHead() {
+        final SimEvent evt2 = addEvent(2, entity1, 1);
+        final SimEvent evt3 = addEvent(3, entity2, 1);
+        final SimEvent evt1 = addEvent(1, entity1, 1);
+
+        assertQueueOrder(evt1, evt2, evt3);
+        assertSame(evt1, queue.first());
+        assertSame(evt1, queue.removeFirst(entity1, ANY_EVT));
+    }
+
+    @Test
+    public void testRemove() {
+        final SimEvent evt1 = addEvent(1, entity1, 1);
+        final SimEvent evt2 = addEvent(2, entity1, 1);
+        final SimEvent evt3 = addEvent(3, entity2, 1);
+
+        assertTrue(queue.remove(evt2));
+        assertFalse(queue.remove(evt2));
+        assertQueueOrder(evt1, evt3);
+        assertSame(evt1, queue.removeFirst(entity1, ANY_EVT));
+        assertSame(SimEvent.NULL, queue.findFirst(entity1, ANY_EVT));
+
+        assertTrue(queue.removeIf(evt -> evt.getDestination() == entity2));
+        assertTrue(queue.isEmpty());
+        assertSame(SimEvent.NULL, queue.findFirst(entity2, ANY_EVT));
+    }
+
+    @Test
+    public void testBucketIsRemovedWhenAllItsEventsAreRemoved() {
+        addEvent(1, entity1, 1);
+        final SimEvent evt2 = addEvent(2, entity2, 1);
+        addEvent(3, entity1, 1);
+        assertEquals(2, queue.getBucketsNumber());
+
+        assertTrue(queue.remove(evt2));
+        assertEquals(1, queue.getBucketsNumber());
+
+        queue.removeFirst(entity1, ANY_EVT);
+        queue.removeFirst(entity1, ANY_EVT);
+        assertEquals(0, queue.getBucketsNumber());
+
+        final SimEvent evt4 = addEvent(4, entity1, 1);
+        assertEquals(1, queue.getBucketsNumber());
+        assertSame(evt4, queue.findFirst(entity1, ANY_EVT));
+    }
+
+    /**
+     * Checks if the queue has exactly the given events, in the given order.
+     * @param expected the expected events
+     */
+    private void assertQueueOrder(final SimEvent... expected) {
+        final List<SimEvent> events = queue.stream().collect(toList());
+        assertEquals(expected.length, events.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertSame(expected[i], events.get(i));
+        }
+    }
+
+    private SimEvent addEvent(final double time, final SimEntity dest, final int tag) {
+        final SimEvent evt = new CloudSimEvent(time, entity1, dest, tag, null);
+        queue.addEvent(evt);
+        return evt;
+    }
+}
@@ -0,0 +1,202 @@
+package org.cloudbus.cloudsim.core.events;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class FutureQueueHeapTest {
+    private static final int EVENTS = 2000;
+
+    @Test
+    public void testFirstWhenEmpty() {
+        final FutureQueueHeap queue = new FutureQueueHeap();
+        assertTrue(queue.isEmpty());
+        assertThrows(NoSuchElementException.class, queue::first);
+    }
+
+    @Test
+    public void testAddEventFirstHasPriorityOverEventsAtSameTime() {
+        final FutureQueueHeap queue = new FutureQueueHeap();
+        final SimEvent evt1 = createEvent(1);
+        final SimEvent evt2 = createEvent(1);
+        final SimEvent first1 = createEvent(1);
+        final SimEvent first2 = createEvent(1);
+        //The first added event gets serial 0, as the ones added by addEventFirst
+        queue.addEvent(createEvent(0));
+        queue.addEvent(evt1);
+        queue.addEvent(evt2);
+        queue.addEventFirst(first1);
+        queue.addEventFirst(first2);
+
+        pollFirst(queue);
+        assertSame(first1, pollFirst(queue));
+        assertSame(first2, pollFirst(queue));
+        assertSame(evt1, pollFirst(queue));
+        assertSame(evt2, pollFirst(queue));
+    }
+
+    /**
+     * Checks if the events are removed from the {@link FutureQueueHeap}
+     * in the same order as they are from the {@link FutureQueue}.
+     */
+    @Test
+    public void testSameOrderAsFutureQueue() {
+        final FutureQueue expected = new FutureQueue();
+        final FutureQueueHeap heap = new FutureQueueHeap(2);
+        final Random random = new Random(1);
+        for (int i = 0; i < EVENTS; i++) {
+            final CloudSimEvent evt = createEvent(random.nextInt(100));
+            if(random.nextDouble() < 0.2) {
+                expected.addEventFirst(evt);
+                heap.addEventFirst(evt);
+            } else {
+                expected.addEvent(evt);
+                heap.addEvent(evt);
+            }
+        }
+
+        assertEquals(expected.getSerial(), heap.getSerial());
+        assertEquals(expected.getMaxEventsNumber(), heap.getMaxEventsNumber());
+        assertEquals(pollAll(expected), pollAll(heap));
+    }
+
+    @Test
+    public void testRemoveIfKeepsOrder() {
+        final FutureQueueHeap heap = new FutureQueueHeap();
+        final Random random = new Random(2);
+        int keptEvents = 0;
+        for (int i = 0; i < EVENTS; i++) {
+            final int tag = random.nextInt(3);
+            keptEvents += tag == 0 ? 0 : 1;
+            heap.addEvent(new CloudSimEvent(random.nextInt(100), SimEntity.NULL, SimEntity.NULL, tag, null));
+        }
+
+        assertTrue(heap.removeIf(evt -> evt.getTag() == 0));
+        assertFalse(heap.removeIf(evt -> evt.getTag() == 0));
+
+        final List<SimEvent> events = pollAll(heap);
+        assertEquals(keptEvents, events.size());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i - 1).compareTo(events.get(i)) < 0);
+        }
+    }
+
+    @Test
+    public void testPollFirstBatchStopsAtFirstLaterEvent() {
+        final FutureQueueHeap heap = new FutureQueueHeap();
+        final FutureQueue expected = new FutureQueue();
+        final Random random = new Random(3);
+        for (int i = 0; i < EVENTS; i++) {
+            final CloudSimEvent evt = createEvent(random.nextInt(10));
+            heap.addEvent(evt);
+            expected.addEvent(evt);
+        }
+
+        double previousTime = -1;
+        while (!heap.isEmpty()) {
+            final double time = heap.first().getTime();
+            final List<SimEvent> batch = heap.pollFirstBatch();
+            assertTrue(time > previousTime);
+            assertFalse(batch.isEmpty());
+            assertTrue(batch.stream().allMatch(evt -> evt.getTime() == time));
+            assertTrue(heap.isEmpty() || heap.first().getTime() > time);
+            assertEquals(expected.pollFirstBatch(), batch);
+            previousTime = time;
+        }
+
+        assertTrue(expected.isEmpty());
+        assertTrue(heap.pollFirstBatch().isEmpty());
+    }
+
+    @Test
+    public void testFindFirst() {
+        final FutureQueueHeap heap = new FutureQueueHeap();
+        final SimEvent evt1 = new CloudSimEvent(3, SimEntity.NULL, SimEntity.NULL, 1, null);
+        final SimEvent evt2 = new CloudSimEvent(2, SimEntity.NULL, SimEntity.NULL, 1, null);
+        heap.addEvent(new CloudSimEvent(1, SimEntity.NULL, SimEntity.NULL, 0, null));
+        heap.addEvent(evt1);
+        heap.addEvent(evt2);
+
+        assertSame(evt2, heap.findFirst(evt -> evt.getTag() == 1));
+        assertSame(SimEvent.NULL, heap.findFirst(evt -> evt.getTag() == 2));
+    }
+
+    /**
+     * Checks if cancelling events by source entity in a {@link FutureQueue} and in a {@link FutureQueueHeap}
+     * removes the same events as the former approach of traversing the entire queue.
+     */
+    @Test
+    public void testCancelBySourceSameAsScanning() {
+        final CloudSim simulation = new CloudSim();
+        final SimEntity[] sources = {new DatacenterBrokerSimple(simulation), new DatacenterBrokerSimple(simulation)};
+        final FutureQueue scanned = new FutureQueue();
+        final FutureQueue futureQueue = new FutureQueue();
+        final FutureQueueHeap heap = new FutureQueueHeap(2);
+        final Random random = new Random(4);
+        for (int i = 0; i < EVENTS; i++) {
+            final SimEntity src = sources[random.nextInt(sources.length)];
+            final int tag = random.nextInt(3);
+            final double operation = random.nextDouble();
+            if (operation < 0.6) {
+                final CloudSimEvent evt = new CloudSimEvent(random.nextInt(100), src, SimEntity.NULL, tag, null);
+                scanned.addEvent(evt);
+                futureQueue.addEvent(evt);
+                heap.addEvent(evt);
+            } else if (operation < 0.85) {
+                final SimEvent expected = scanned.findFirst(evt -> evt.getSource() == src && evt.getTag() == tag);
+                if (expected != SimEvent.NULL) {
+                    scanned.remove(expected);
+                }
+
+                assertSame(expected, futureQueue.removeFirst(src, evt -> evt.getTag() == tag));
+                assertSame(expected, heap.removeFirst(src, evt -> evt.getTag() == tag));
+            } else if (operation < 0.9) {
+                final boolean expected = scanned.removeIf(evt -> evt.getSource() == src && evt.getTag() == tag);
+                assertEquals(expected, futureQueue.removeIf(src, evt -> evt.getTag() == tag));
+                assertEquals(expected, heap.removeIf(src, evt -> evt.getTag() == tag));
+            } else if (!scanned.isEmpty()) {
+                final List<SimEvent> batch = scanned.pollFirstBatch();
+                assertEquals(batch, futureQueue.pollFirstBatch());
+                assertEquals(batch, heap.pollFirstBatch());
+            }
+
+            assertEquals(scanned.size(), futureQueue.size());
+            assertEquals(scanned.size(), heap.size());
+        }
+
+        final List<SimEvent> expected = pollAll(scanned);
+        assertEquals(expected, pollAll(futureQueue));
+        assertEquals(expected, pollAll(heap));
+    }
+
+    private static List<SimEvent> pollAll(final FutureEventQueue queue) {
+        final List<SimEvent> list = new ArrayList<>(queue.size());
+        while (!queue.isEmpty()) {
+            list.add(pollFirst(queue));
+        }
+
+        return list;
+    }
+
+    private static SimEvent pollFirst(final FutureEventQueue queue) {
+        final SimEvent evt = queue.first();
+        assertTrue(queue.remove(evt));
+        return evt;
+    }
+
+    private static CloudSimEvent createEvent(final double time) {
+        return new CloudSimEvent(time, SimEntity.NULL, SimEntity.NULL, 0, null);
+    }
+}
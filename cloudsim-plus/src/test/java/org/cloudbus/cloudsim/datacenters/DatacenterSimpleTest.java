@@ -0,0 +1,137 @@
+package org.cloudbus.cloudsim.datacenters;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class DatacenterSimpleTest {
+    private static final int CLOUDLETS = 8;
+
+    /**
+     * A Host which counts how many times its processing was updated.
+     */
+    private static final class CountingHost extends HostSimple {
+        private int updates;
+
+        private CountingHost() {
+            super(4096, 10000, 100000, createPes());
+        }
+
+        @Override
+        public double updateProcessing(final double currentTime) {
+            updates++;
+            return super.updateProcessing(currentTime);
+        }
+
+        private static List<Pe> createPes() {
+            final List<Pe> list = new ArrayList<>();
+            list.add(new PeSimple(1000));
+            list.add(new PeSimple(1000));
+            return list;
+        }
+    }
+
+    @Test
+    public void testIdleHostsAreNotUpdatedEveryTime() {
+        final CloudSim simulation = new CloudSim();
+        final CountingHost busyHost = new CountingHost();
+        final CountingHost idleHost = new CountingHost();
+        final CountingHost lateHost = new CountingHost();
+        final Datacenter datacenter = new DatacenterSimple(simulation, Arrays.asList(busyHost, lateHost, idleHost));
+        datacenter.setSchedulingInterval(1);
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        broker.submitVm(new VmSimple(1000, 2));
+        broker.submitCloudlet(new CloudletSimple(20000, 2));
+
+        //A VM which just arrives after some time is placed into an idle host
+        final Vm lateVm = new VmSimple(1000, 2);
+        lateVm.setSubmissionDelay(10);
+        broker.submitVm(lateVm);
+        simulation.start();
+
+        assertSame(lateHost, lateVm.getHost());
+        assertTrue(busyHost.updates > 10);
+        assertTrue(idleHost.updates < busyHost.updates);
+        assertTrue(lateHost.updates > idleHost.updates);
+        assertTrue(idleHost.updates <= 3, "The idle host must only be updated until the first time it's checked as idle");
+    }
+
+    @Test
+    public void testCloudletListSubmissionSharesUpdatesAndKeepsFinishTimes() {
+        final List<Cloudlet> singleCloudlet = runCloudletSubmission(1);
+        final List<Cloudlet> cloudletList = runCloudletSubmission(CLOUDLETS);
+
+        for (final Cloudlet cloudlet : cloudletList) {
+            assertTrue(cloudlet.isFinished());
+            assertEquals(singleCloudlet.get(0).getFinishTime(), cloudlet.getFinishTime());
+        }
+    }
+
+    /**
+     * Runs a simulation where a given number of Cloudlets are submitted at the same time
+     * to a single VM, checking each one is submitted by {@link DatacenterSimple#processCloudletSubmit(SimEvent, boolean)}
+     * and there is at most one Cloudlet processing update at each simulation time.
+     *
+     * @param cloudletsNumber number of Cloudlets to submit
+     * @return the submitted Cloudlets
+     */
+    private List<Cloudlet> runCloudletSubmission(final int cloudletsNumber) {
+        final CloudSim simulation = new CloudSim();
+        final List<Pe> peList = new ArrayList<>();
+        for (int i = 0; i < CLOUDLETS; i++) {
+            peList.add(new PeSimple(1000));
+        }
+
+        final List<Cloudlet> submittedCloudlets = new ArrayList<>();
+        final Datacenter datacenter = new DatacenterSimple(simulation, Arrays.asList(new HostSimple(4096, 10000, 100000, peList))) {
+            @Override
+            protected void processCloudletSubmit(final SimEvent evt, final boolean ack) {
+                submittedCloudlets.add((Cloudlet) evt.getData());
+                super.processCloudletSubmit(evt, ack);
+            }
+        };
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        broker.submitVm(new VmSimple(1000, CLOUDLETS));
+        final List<Cloudlet> cloudletList = new ArrayList<>(cloudletsNumber);
+        for (int i = 0; i < cloudletsNumber; i++) {
+            cloudletList.add(new CloudletSimple(10000, 1));
+        }
+        broker.submitCloudletList(cloudletList);
+
+        final Map<Double, Integer> updatesByTime = new HashMap<>();
+        simulation.addOnEventProcessingListener(evt -> {
+            if (evt.getDestination() == datacenter && evt.getTag() == CloudSimTags.VM_UPDATE_CLOUDLET_PROCESSING) {
+                updatesByTime.merge(evt.getTime(), 1, Integer::sum);
+            }
+        });
+        simulation.start();
+
+        assertEquals(cloudletList, submittedCloudlets);
+        updatesByTime.forEach((time, updates) -> assertEquals(1, updates.intValue(), "Updates at time " + time));
+        return cloudletList;
+    }
+}
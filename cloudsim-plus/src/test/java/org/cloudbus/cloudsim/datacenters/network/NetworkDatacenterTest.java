@@ -0,0 +1,153 @@
+package org.cloudbus.cloudsim.datacenters.network;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.network.CloudletExecutionTask;
+import org.cloudbus.cloudsim.cloudlets.network.CloudletReceiveTask;
+import org.cloudbus.cloudsim.cloudlets.network.CloudletSendTask;
+import org.cloudbus.cloudsim.cloudlets.network.NetworkCloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.hosts.network.NetworkHost;
+import org.cloudbus.cloudsim.network.flows.FlowNetworkMaxMinFair;
+import org.cloudbus.cloudsim.network.flows.NetworkFlow;
+import org.cloudbus.cloudsim.network.switches.AggregateSwitch;
+import org.cloudbus.cloudsim.network.switches.EdgeSwitch;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.util.Conversion;
+import org.cloudbus.cloudsim.vms.network.NetworkVm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a simulation where a {@link NetworkCloudlet} sends packets to another one
+ * placed on a different Host, using a {@link FlowNetworkMaxMinFair}.
+ * This way, the packets go from the sender {@link NetworkHost} to the {@link FlowNetworkMaxMinFair}
+ * as a single {@link NetworkFlow}, which is finished by a {@link CloudSimTags#NETWORK_FLOW_UPDATE}
+ * event processed by the {@link NetworkDatacenter}.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class NetworkDatacenterTest {
+    private static final int HOST_PES = 4;
+    private static final int PE_MIPS = 1000;
+    private static final int PACKETS = 1000;
+    private static final long PACKET_BYTES = 100000;
+    private static final long TASK_LENGTH = 1000;
+
+    @Test
+    public void testCloudletsExchangingPacketsThroughFlowNetworkFinish() {
+        final CloudSim simulation = new CloudSim();
+        final List<NetworkHost> hostList = Arrays.asList(createHost(), createHost());
+        final NetworkDatacenter datacenter = new NetworkDatacenter(simulation, hostList, new VmAllocationPolicySimple());
+        final EdgeSwitch edgeSwitch = createNetwork(simulation, datacenter);
+
+        final List<NetworkFlow> flows = new ArrayList<>();
+        datacenter.setFlowNetwork(new FlowNetworkMaxMinFair() {
+            @Override
+            public void startFlow(final NetworkFlow flow) {
+                flows.add(flow);
+                super.startFlow(flow);
+            }
+        });
+
+        final List<Double> flowUpdateTimes = new ArrayList<>();
+        simulation.addOnEventProcessingListener(evt -> {
+            if (evt.getDestination() == datacenter && evt.getTag() == CloudSimTags.NETWORK_FLOW_UPDATE) {
+                flowUpdateTimes.add(evt.getTime());
+            }
+        });
+
+        final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+        final NetworkVm senderVm = createVm(0);
+        final NetworkVm receiverVm = createVm(1);
+        broker.submitVmList(Arrays.asList(senderVm, receiverVm));
+
+        final NetworkCloudlet sender = createCloudlet(0, senderVm, broker);
+        final NetworkCloudlet receiver = createCloudlet(1, receiverVm, broker);
+        addTasks(sender, receiver);
+        broker.submitCloudletList(Arrays.asList(sender, receiver));
+        simulation.start();
+
+        assertNotSame(senderVm.getHost(), receiverVm.getHost());
+        assertEquals(1, flows.size());
+        final NetworkFlow flow = flows.get(0);
+        assertSame(senderVm.getHost(), flow.getSource());
+        assertSame(receiverVm.getHost(), flow.getDestination());
+        assertEquals(PACKETS * PACKET_BYTES, flow.getBytes());
+        assertTrue(flow.isFinished());
+
+        final double expectedTransferTime = Conversion.bytesToMegaBits(flow.getBytes()) / edgeSwitch.getDownlinkBandwidth();
+        assertEquals(expectedTransferTime, flow.getFinishTime() - flow.getStartTime(), 0.01);
+        assertTrue(flowUpdateTimes.contains(flow.getFinishTime()));
+        assertTrue(datacenter.getFlowNetwork().getActiveFlows().isEmpty());
+
+        assertTrue(sender.isFinished());
+        assertTrue(receiver.isFinished());
+        assertTrue(receiver.getFinishTime() >= flow.getFinishTime());
+    }
+
+    private void addTasks(final NetworkCloudlet sender, final NetworkCloudlet receiver) {
+        sender.addTask(new CloudletExecutionTask(0, TASK_LENGTH));
+        final CloudletSendTask sendTask = new CloudletSendTask(1);
+        sender.addTask(sendTask);
+        for (int i = 0; i < PACKETS; i++) {
+            sendTask.addPacket(receiver, PACKET_BYTES);
+        }
+
+        receiver.addTask(new CloudletExecutionTask(0, TASK_LENGTH));
+        final CloudletReceiveTask receiveTask = new CloudletReceiveTask(1, sender.getVm());
+        receiveTask.setExpectedPacketsToReceive(PACKETS);
+        receiver.addTask(receiveTask);
+    }
+
+    /**
+     * Connects each Host to its own {@link EdgeSwitch}, under a single {@link AggregateSwitch}.
+     * @return the first Edge Switch
+     */
+    private EdgeSwitch createNetwork(final CloudSim simulation, final NetworkDatacenter datacenter) {
+        final AggregateSwitch aggregateSwitch = new AggregateSwitch(simulation, datacenter);
+        datacenter.addSwitch(aggregateSwitch);
+
+        final List<EdgeSwitch> edgeSwitches = new ArrayList<>();
+        for (final NetworkHost host : datacenter.<NetworkHost>getHostList()) {
+            final EdgeSwitch edgeSwitch = new EdgeSwitch(simulation, datacenter);
+            edgeSwitch.getUplinkSwitches().add(aggregateSwitch);
+            aggregateSwitch.getDownlinkSwitches().add(edgeSwitch);
+            edgeSwitch.connectHost(host);
+            datacenter.addSwitch(edgeSwitch);
+            edgeSwitches.add(edgeSwitch);
+        }
+
+        return edgeSwitches.get(0);
+    }
+
+    private NetworkHost createHost() {
+        final List<Pe> peList = new ArrayList<>(HOST_PES);
+        for (int i = 0; i < HOST_PES; i++) {
+            peList.add(new PeSimple(PE_MIPS));
+        }
+
+        return new NetworkHost(16384, 100000, 1000000, peList);
+    }
+
+    private NetworkVm createVm(final int id) {
+        final NetworkVm vm = new NetworkVm(id, PE_MIPS, HOST_PES);
+        vm.setRam(1024).setBw(1000).setSize(10000);
+        return vm;
+    }
+
+    private NetworkCloudlet createCloudlet(final int id, final NetworkVm vm, final DatacenterBroker broker) {
+        final NetworkCloudlet cloudlet = new NetworkCloudlet(id, TASK_LENGTH, HOST_PES);
+        cloudlet.setMemory(100).setVm(vm).setBroker(broker);
+        return cloudlet;
+    }
+}
@@ -127,6 +127,19 @@ public class HostSimpleTest {
         assertFalse(host.isSuitableForVm(vm));
     }
 
+    @Test
+    public void testIsProcessingUpdateRequired() {
+        assertFalse(host.isProcessingUpdateRequired());
+
+        host.enableStateHistory();
+        assertTrue(host.isProcessingUpdateRequired());
+        host.disableStateHistory();
+        assertFalse(host.isProcessingUpdateRequired());
+
+        host.addVmToList(createVm(1, HOST_MIPS, A_QUARTER_STORAGE));
+        assertTrue(host.isProcessingUpdateRequired());
+    }
+
     private Vm createVm(final int pes, final double mips, final long storage) {
         final Vm vm = new VmSimple(mips, pes);
         vm.setRam(RAM);
@@ -0,0 +1,191 @@
+package org.cloudbus.cloudsim.hosts;
+
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.vms.UtilizationHistory;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks if the {@link HostUtilizationHistory} updated incrementally
+ * gives the same values as building the Host utilization history from scratch
+ * using {@link HostSimple#getUtilizationHistory()}.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class HostUtilizationHistoryTest {
+    private static final int OPERATIONS = 2000;
+    private static final int HOST_PES = 8;
+
+    @Test
+    public void testIncrementalHistorySameAsRebuilding() {
+        assertSameAsRebuilding(Integer.MAX_VALUE, 1);
+    }
+
+    @Test
+    public void testBoundedHistoryKeepsMostRecentEntries() {
+        assertSameAsRebuilding(25, 2);
+    }
+
+    @Test
+    public void testGetSumForTimeWithoutHistory() {
+        final HostSimple host = createHost();
+        final TestVm vm = new TestVm(0, 1000);
+        host.addVmToCreatedList(vm);
+        vm.history.put(1.0, 0.5);
+
+        assertEquals(0.5/HOST_PES, host.getUtilizationHistorySum(1), 0);
+        assertEquals(0, host.getUtilizationHistorySum(2), 0);
+    }
+
+    @Test
+    public void testGetSumAtInvalidIndex() {
+        final HostSimple host = createHost();
+        final TestVm vm = new TestVm(0, 1000);
+        host.addVmToCreatedList(vm);
+        vm.history.put(1.0, 0.5);
+
+        assertEquals(1, host.getUtilizationHistorySumSize());
+        assertThrows(IndexOutOfBoundsException.class, () -> host.getUtilizationHistorySumAt(1));
+    }
+
+    @Test
+    public void testSetInvalidMaxEntries() {
+        assertThrows(IllegalArgumentException.class, () -> createHost().setUtilizationHistoryMaxEntries(0));
+    }
+
+    /**
+     * Randomly adds and changes entries into the history of VMs,
+     * removes the oldest entries from the history of VMs,
+     * creates VMs having previous history (such as VMs migrated into the Host)
+     * and changes the MIPS capacity of VMs and of the Host,
+     * checking if the Host utilization history is the same as building it from scratch.
+     *
+     * @param maxEntries the maximum number of entries in the Host history
+     * @param seed the seed for the pseudo random number generator
+     */
+    private void assertSameAsRebuilding(final int maxEntries, final long seed) {
+        final Random random = new Random(seed);
+        final HostSimple host = createHost();
+        host.setUtilizationHistoryMaxEntries(maxEntries);
+        final List<TestVm> vms = new ArrayList<>();
+        double time = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            final double operation = random.nextDouble();
+            if (operation < 0.05 || vms.isEmpty()) {
+                final TestVm vm = new TestVm(vms.size(), 250 * (1 + random.nextInt(4)));
+                //Some VMs have previous history, as if they were migrated from another Host
+                for (double t = 1; random.nextBoolean() && t < time; t += 1 + random.nextInt(3)) {
+                    vm.history.put(t, random.nextDouble());
+                }
+
+                vms.add(vm);
+                host.addVmToCreatedList(vm);
+            } else if (operation < 0.08) {
+                vms.get(random.nextInt(vms.size())).mips = 250 * (1 + random.nextInt(4));
+            } else if (operation < 0.09) {
+                final Pe pe = host.getPeList().get(random.nextInt(HOST_PES));
+                pe.setStatus(pe.getStatus() == Pe.Status.FAILED ? Pe.Status.FREE : Pe.Status.FAILED);
+            } else if (operation < 0.11) {
+                //Removes the oldest entry, as a VM history having a maximum size does
+                final TestVm vm = vms.get(random.nextInt(vms.size()));
+                if (!vm.history.isEmpty()) {
+                    vm.history.remove(vm.history.firstKey());
+                }
+            } else {
+                time += random.nextInt(3) == 0 ? 0 : 0.5;
+                final TestVm vm = vms.get(random.nextInt(vms.size()));
+                final double vmTime = random.nextBoolean() ? time : Math.floor(time);
+                if (vm.history.isEmpty() || vmTime >= vm.history.lastKey()) {
+                    vm.history.put(vmTime, random.nextDouble());
+                }
+            }
+
+            if (random.nextInt(10) == 0 || i == OPERATIONS - 1) {
+                assertSameHistory(host, maxEntries);
+            }
+        }
+    }
+
+    private void assertSameHistory(final HostSimple host, final int maxEntries) {
+        final SortedMap<Double, Double> expected = new TreeMap<>();
+        host.getUtilizationHistory().forEach((time, stats) -> expected.put(time, stats.getSum()));
+        while (expected.size() > maxEntries) {
+            expected.remove(expected.firstKey());
+        }
+
+        assertEquals(expected, host.getUtilizationHistorySum());
+        final double[] expectedArray = expected.values().stream().mapToDouble(value -> value).toArray();
+        assertArrayEquals(expectedArray, host.getUtilizationHistorySumArray());
+        assertEquals(expectedArray.length, host.getUtilizationHistorySumSize());
+        for (int i = 0; i < expectedArray.length; i++) {
+            assertEquals(expectedArray[i], host.getUtilizationHistorySumAt(i));
+        }
+
+        expected.forEach((time, sum) -> assertEquals(sum, host.getUtilizationHistorySum(time)));
+    }
+
+    private HostSimple createHost() {
+        final List<Pe> peList = new ArrayList<>(HOST_PES);
+        for (int i = 0; i < HOST_PES; i++) {
+            peList.add(new PeSimple(1000));
+        }
+
+        return new HostSimple(16000, 100000, 100000, peList);
+    }
+
+    /**
+     * A VM where the utilization history entries and the MIPS capacity
+     * can be directly changed.
+     */
+    private static final class TestVm extends VmSimple {
+        private final SortedMap<Double, Double> history = new TreeMap<>();
+        private final UtilizationHistory utilizationHistory = new TestUtilizationHistory(this);
+        private double mips;
+
+        private TestVm(final long id, final double mips) {
+            super(id, mips, 1);
+            this.mips = mips;
+        }
+
+        @Override
+        public UtilizationHistory getUtilizationHistory() {
+            return utilizationHistory;
+        }
+
+        @Override
+        public double getTotalMipsCapacity() {
+            return mips;
+        }
+    }
+
+    private static final class TestUtilizationHistory implements UtilizationHistory {
+        private final TestVm vm;
+
+        private TestUtilizationHistory(final TestVm vm) {
+            this.vm = vm;
+        }
+
+        @Override public double getUtilizationMad() { return 0; }
+        @Override public double getUtilizationMean() { return 0; }
+        @Override public double getUtilizationVariance() { return 0; }
+        @Override public void addUtilizationHistory(double time) {/**/}
+        @Override public SortedMap<Double, Double> getHistory() { return Collections.unmodifiableSortedMap(vm.history); }
+        @Override public double powerConsumption(double time) { return 0; }
+        @Override public double getHostCpuUtilization(double time) { return 0; }
+        @Override public boolean isEnabled() { return true; }
+        @Override public void enable() {/**/}
+        @Override public void disable() {/**/}
+        @Override public int getMaxHistoryEntries() { return Integer.MAX_VALUE; }
+        @Override public void setMaxHistoryEntries(int maxHistoryEntries) {/**/}
+        @Override public boolean isCompressed() { return false; }
+        @Override public void setCompressed(boolean compressed) {/**/}
+        @Override public Vm getVm() { return vm; }
+    }
+}
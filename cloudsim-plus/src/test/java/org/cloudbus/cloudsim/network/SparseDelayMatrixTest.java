@@ -0,0 +1,94 @@
+package org.cloudbus.cloudsim.network;
+
+import org.cloudbus.cloudsim.network.topologies.TopologicalGraph;
+import org.cloudbus.cloudsim.network.topologies.TopologicalLink;
+import org.cloudbus.cloudsim.network.topologies.TopologicalNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks if the {@link SparseDelayMatrix} gives the same delays
+ * as the dense {@link DelayMatrix}.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class SparseDelayMatrixTest {
+    private static final int NODES = 60;
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testSameDelaysAsDelayMatrixUndirected() {
+        assertSameDelaysAsDelayMatrix(false, 1);
+    }
+
+    @Test
+    public void testSameDelaysAsDelayMatrixDirected() {
+        assertSameDelaysAsDelayMatrix(true, 2);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedRowIsRemovedFromCache() {
+        final SparseDelayMatrix matrix = new SparseDelayMatrix(createGraph(false, 3), false, 2);
+        matrix.getDelay(0, 1);
+        matrix.getDelay(1, 2);
+        matrix.getDelay(0, 2);
+        assertEquals(2, matrix.getCachedRows());
+
+        matrix.getDelay(2, 0);
+        assertEquals(2, matrix.getCachedRows());
+    }
+
+    @Test
+    public void testDelayToItselfIsZero() {
+        final SparseDelayMatrix matrix = new SparseDelayMatrix(createGraph(false, 4), false);
+        assertEquals(0, matrix.getDelay(5, 5));
+    }
+
+    @Test
+    public void testInvalidNode() {
+        final SparseDelayMatrix matrix = new SparseDelayMatrix(createGraph(false, 5), false);
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> matrix.getDelay(-1, 0));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> matrix.getDelay(0, NODES));
+    }
+
+    private void assertSameDelaysAsDelayMatrix(final boolean directed, final long seed) {
+        final TopologicalGraph graph = createGraph(directed, seed);
+        final DelayMatrix expected = new DelayMatrix(graph, directed);
+        final SparseDelayMatrix matrix = new SparseDelayMatrix(graph, directed, 10);
+        for (int src = 0; src < NODES; src++) {
+            for (int dest = 0; dest < NODES; dest++) {
+                final String msg = String.format("Delay from %d to %d", src, dest);
+                assertEquals(expected.getDelay(src, dest), matrix.getDelay(src, dest), DELTA, msg);
+            }
+        }
+    }
+
+    /**
+     * Creates a random graph where some nodes may be disconnected.
+     * There is at most one link between each pair of nodes,
+     * since the {@link DelayMatrix} just considers the last link added.
+     */
+    private TopologicalGraph createGraph(final boolean directed, final long seed) {
+        final Random random = new Random(seed);
+        final TopologicalGraph graph = new TopologicalGraph();
+        for (int i = 0; i < NODES; i++) {
+            graph.addNode(new TopologicalNode(i));
+        }
+
+        final boolean[][] linked = new boolean[NODES][NODES];
+        for (int i = 0; i < NODES*2; i++) {
+            final int src = random.nextInt(NODES-5);
+            final int dest = random.nextInt(NODES-5);
+            if(src != dest && !linked[src][dest] && !linked[dest][src]) {
+                linked[src][dest] = true;
+                graph.addLink(new TopologicalLink(src, dest, 1 + random.nextInt(50), 10));
+            }
+        }
+
+        return graph;
+    }
+}
@@ -0,0 +1,147 @@
+package org.cloudbus.cloudsim.network.flows;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter;
+import org.cloudbus.cloudsim.hosts.network.NetworkHost;
+import org.cloudbus.cloudsim.network.HostPacket;
+import org.cloudbus.cloudsim.network.VmPacket;
+import org.cloudbus.cloudsim.network.switches.AggregateSwitch;
+import org.cloudbus.cloudsim.network.switches.EdgeSwitch;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the max-min fair rates given by the {@link FlowNetworkMaxMinFair} to flows
+ * among Hosts connected to two {@link EdgeSwitch}es under the same {@link AggregateSwitch}.
+ * Hosts 0, 1 and 2 are connected to the first Edge Switch and Host 3 to the second one.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class FlowNetworkMaxMinFairTest {
+    private static final int HOSTS = 4;
+    private static final double DELTA = 0.000001;
+
+    private FlowNetworkMaxMinFair flowNetwork;
+    private List<NetworkHost> hostList;
+    private double hostLinkBw;
+
+    @BeforeEach
+    public void setUp() {
+        final CloudSim simulation = new CloudSim();
+        hostList = new ArrayList<>(HOSTS);
+        for (int i = 0; i < HOSTS; i++) {
+            final List<Pe> peList = Collections.singletonList(new PeSimple(1000));
+            hostList.add(new NetworkHost(1000, 1000, 1000, peList));
+        }
+
+        final NetworkDatacenter dc = new NetworkDatacenter(simulation, hostList, new VmAllocationPolicySimple());
+        final AggregateSwitch aggregateSwitch = new AggregateSwitch(simulation, dc);
+        final EdgeSwitch edgeSwitch1 = createEdgeSwitch(simulation, dc, aggregateSwitch);
+        final EdgeSwitch edgeSwitch2 = createEdgeSwitch(simulation, dc, aggregateSwitch);
+        for (int i = 0; i < HOSTS-1; i++) {
+            edgeSwitch1.connectHost(hostList.get(i));
+        }
+        edgeSwitch2.connectHost(hostList.get(HOSTS-1));
+
+        hostLinkBw = edgeSwitch1.getDownlinkBandwidth();
+        flowNetwork = new FlowNetworkMaxMinFair();
+        dc.setFlowNetwork(flowNetwork);
+    }
+
+    private EdgeSwitch createEdgeSwitch(
+        final CloudSim simulation, final NetworkDatacenter dc, final AggregateSwitch aggregateSwitch)
+    {
+        final EdgeSwitch edgeSwitch = new EdgeSwitch(simulation, dc);
+        edgeSwitch.getUplinkSwitches().add(aggregateSwitch);
+        aggregateSwitch.getDownlinkSwitches().add(edgeSwitch);
+        return edgeSwitch;
+    }
+
+    @Test
+    public void testFlowsToDifferentHostsGetWholeBandwidth() {
+        final NetworkFlow flow1 = startFlow(0, 2);
+        final NetworkFlow flow2 = startFlow(1, 3);
+        assertEquals(hostLinkBw, flow1.getRate(), DELTA);
+        assertEquals(hostLinkBw, flow2.getRate(), DELTA);
+    }
+
+    @Test
+    public void testFlowsToSameHostShareBandwidth() {
+        final NetworkFlow flow1 = startFlow(0, 2);
+        final NetworkFlow flow2 = startFlow(1, 2);
+        assertEquals(hostLinkBw/2, flow1.getRate(), DELTA);
+        assertEquals(hostLinkBw/2, flow2.getRate(), DELTA);
+        assertEquals(2, flowNetwork.getActiveFlows().size());
+    }
+
+    /**
+     * Three flows share the link to Host 2, getting 1/3 of its bandwidth each.
+     * The flow from Host 0 to Host 3 gets the remaining bandwidth of the Host 0 link,
+     * since it isn't limited by the link to Host 2.
+     */
+    @Test
+    public void testMaxMinFairRates() {
+        final NetworkFlow flow1 = startFlow(0, 2);
+        final NetworkFlow flow2 = startFlow(1, 2);
+        final NetworkFlow flow3 = startFlow(1, 2);
+        final NetworkFlow flow4 = startFlow(0, 3);
+
+        assertEquals(hostLinkBw/3, flow1.getRate(), DELTA);
+        assertEquals(hostLinkBw/3, flow2.getRate(), DELTA);
+        assertEquals(hostLinkBw/3, flow3.getRate(), DELTA);
+        assertEquals(hostLinkBw*2/3, flow4.getRate(), DELTA);
+    }
+
+    @Test
+    public void testFlowSize() {
+        final NetworkFlow flow = startFlow(0, 3);
+        assertEquals(2000, flow.getBytes());
+        assertEquals(0, flow.getStartTime());
+        assertFalse(flow.isFinished());
+    }
+
+    /**
+     * A flow through a link without bandwidth would never finish,
+     * so it must not be started.
+     */
+    @Test
+    public void testFlowThroughLinkWithoutBandwidthIsDropped() {
+        hostList.get(HOSTS-1).getEdgeSwitch().setDownlinkBandwidth(0);
+        final NetworkFlow droppedFlow = startFlow(0, 3);
+        final NetworkFlow flow = startFlow(0, 2);
+
+        assertEquals(-1, droppedFlow.getStartTime());
+        assertEquals(Collections.singletonList(flow), flowNetwork.getActiveFlows());
+        assertEquals(hostLinkBw, flow.getRate(), DELTA);
+    }
+
+    @Test
+    public void testFlowWithoutPackets() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new NetworkFlow(hostList.get(0), hostList.get(1), Collections.emptyList()));
+    }
+
+    private NetworkFlow startFlow(final int sourceHost, final int destinationHost) {
+        final NetworkHost source = hostList.get(sourceHost);
+        final List<HostPacket> packets = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            packets.add(new HostPacket(source, new VmPacket(Vm.NULL, Vm.NULL, 1000, Cloudlet.NULL, Cloudlet.NULL)));
+        }
+
+        final NetworkFlow flow = new NetworkFlow(source, hostList.get(destinationHost), packets);
+        flowNetwork.startFlow(flow);
+        return flow;
+    }
+}
@@ -0,0 +1,173 @@
+package org.cloudbus.cloudsim.network.switches;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimTags;
+import org.cloudbus.cloudsim.datacenters.network.NetworkDatacenter;
+import org.cloudbus.cloudsim.hosts.network.NetworkHost;
+import org.cloudbus.cloudsim.network.HostPacket;
+import org.cloudbus.cloudsim.network.VmPacket;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the time packets take to be forwarded by {@link AbstractSwitch}es,
+ * with and without {@link AbstractSwitch#isPacketBatchingEnabled() packet batching}.
+ * Host 0 is connected to the first {@link EdgeSwitch} and Host 1 to the second one,
+ * both Edge Switches being connected to the same {@link AggregateSwitch}.
+ * All switches have the same bandwidth and switching delay.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class AbstractSwitchTest {
+    private static final double DELTA = 0.000001;
+
+    /**
+     * The bandwidth of every switch port (in Megabits/s).
+     */
+    private static final double BW = 2;
+
+    private static final double SWITCHING_DELAY = 1;
+
+    /**
+     * The number of bytes in 1 Megabit.
+     */
+    private static final long MEGABIT_BYTES = 131072;
+
+    private CloudSim simulation;
+    private List<PacketRecordingHost> hostList;
+    private List<AbstractSwitch> switchList;
+    private AggregateSwitch aggregateSwitch;
+    private EdgeSwitch edgeSwitch1;
+    private VmSimple sourceVm;
+
+    /**
+     * A Host that just records the time each packet was received.
+     */
+    private static final class PacketRecordingHost extends NetworkHost {
+        private final List<Double> receptionTimes = new ArrayList<>();
+
+        private PacketRecordingHost() {
+            super(1000, 1000, 1000, Collections.singletonList(new PeSimple(1000)));
+        }
+
+        @Override
+        public void addReceivedNetworkPacket(final HostPacket hostPacket) {
+            receptionTimes.add(getSimulation().clock());
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        simulation = new CloudSim();
+        hostList = new ArrayList<>();
+        hostList.add(new PacketRecordingHost());
+        hostList.add(new PacketRecordingHost());
+
+        final NetworkDatacenter dc = new NetworkDatacenter(simulation, hostList, new VmAllocationPolicySimple());
+        aggregateSwitch = new AggregateSwitch(simulation, dc);
+        edgeSwitch1 = new EdgeSwitch(simulation, dc);
+        final EdgeSwitch edgeSwitch2 = new EdgeSwitch(simulation, dc);
+        switchList = new ArrayList<>();
+        switchList.add(aggregateSwitch);
+        switchList.add(edgeSwitch1);
+        switchList.add(edgeSwitch2);
+        for (final AbstractSwitch sw : switchList) {
+            sw.setUplinkBandwidth(BW);
+            sw.setDownlinkBandwidth(BW);
+            sw.setSwitchingDelay(SWITCHING_DELAY);
+        }
+
+        for (final EdgeSwitch edgeSwitch : new EdgeSwitch[]{edgeSwitch1, edgeSwitch2}) {
+            edgeSwitch.getUplinkSwitches().add(aggregateSwitch);
+            aggregateSwitch.getDownlinkSwitches().add(edgeSwitch);
+        }
+
+        edgeSwitch1.connectHost(hostList.get(0));
+        edgeSwitch2.connectHost(hostList.get(1));
+        sourceVm = createVm(hostList.get(0));
+    }
+
+    private VmSimple createVm(final NetworkHost host) {
+        final VmSimple vm = new VmSimple(1000, 1);
+        vm.setHost(host);
+        return vm;
+    }
+
+    @Test
+    public void testPacketsToHostInTheSameEdgeSwitchShareTheBandwidth() {
+        final VmSimple destinationVm = createVm(hostList.get(0));
+        sendPackets(destinationVm, 1, 3);
+
+        //Each packet takes the switching delay plus its size divided by half of the bandwidth
+        assertReceptionTimes(hostList.get(0), SWITCHING_DELAY + 1/(BW/2), SWITCHING_DELAY + 3/(BW/2));
+    }
+
+    @Test
+    public void testBatchedPacketsToHostInTheSameEdgeSwitchArriveTogether() {
+        edgeSwitch1.setPacketBatchingEnabled(true);
+        final VmSimple destinationVm = createVm(hostList.get(0));
+        sendPackets(destinationVm, 1, 3);
+
+        //The batch takes the switching delay plus the size of all packets divided by the whole bandwidth
+        final double time = SWITCHING_DELAY + (1 + 3)/BW;
+        assertReceptionTimes(hostList.get(0), time, time);
+    }
+
+    @Test
+    public void testPacketFromAggregateSwitchTakesTheDelayOfEachHop() {
+        sendPackets(aggregateSwitch, createVm(hostList.get(1)), 1);
+
+        //The packet goes through the Aggregate Switch and the second Edge Switch
+        assertReceptionTimes(hostList.get(1), 2 * (SWITCHING_DELAY + 1/BW));
+        assertReceptionTimes(hostList.get(0));
+    }
+
+    @Test
+    public void testBatchedPacketsFromAggregateSwitchTakeTheDelayOfEachHop() {
+        switchList.forEach(sw -> sw.setPacketBatchingEnabled(true));
+        sendPackets(aggregateSwitch, createVm(hostList.get(1)), 1, 3);
+
+        final double time = 2 * (SWITCHING_DELAY + (1 + 3)/BW);
+        assertReceptionTimes(hostList.get(1), time, time);
+    }
+
+    private void sendPackets(final VmSimple destinationVm, final long... megabits) {
+        sendPackets(edgeSwitch1, destinationVm, megabits);
+    }
+
+    /**
+     * Sends packets from the {@link #sourceVm} to a given VM,
+     * which are received by a given switch at time 0, as if they came from a lower level.
+     *
+     * @param sw the switch to send the packets to
+     * @param destinationVm the VM to send the packets to
+     * @param megabits the size of each packet (in Megabits)
+     */
+    private void sendPackets(final AbstractSwitch sw, final VmSimple destinationVm, final long... megabits) {
+        for (final long size : megabits) {
+            final VmPacket vmPacket = new VmPacket(sourceVm, destinationVm, size * MEGABIT_BYTES, Cloudlet.NULL, Cloudlet.NULL);
+            final HostPacket pkt = new HostPacket(hostList.get(0), vmPacket);
+            simulation.send(sw, sw, 0, CloudSimTags.NETWORK_EVENT_UP, pkt);
+        }
+
+        simulation.start();
+    }
+
+    private void assertReceptionTimes(final PacketRecordingHost host, final double... expectedTimes) {
+        assertEquals(expectedTimes.length, host.receptionTimes.size());
+        for (int i = 0; i < expectedTimes.length; i++) {
+            assertEquals(expectedTimes[i], host.receptionTimes.get(i), DELTA);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.cloudbus.cloudsim.schedulers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class MipsShareTest {
+    @Test
+    public void testOfListCopiesValues() {
+        final List<Double> list = new ArrayList<>(Arrays.asList(1000.0, 500.0, 250.0));
+        final MipsShare share = MipsShare.of(list);
+        list.set(0, 0.0);
+
+        assertEquals(Arrays.asList(1000.0, 500.0, 250.0), share);
+        assertEquals(3, share.pes());
+        assertEquals(1750, share.totalMips());
+        assertEquals(1000, share.peCapacity());
+        assertSame(share, MipsShare.of(share));
+    }
+
+    @Test
+    public void testOfSameMipsForEveryPe() {
+        final MipsShare share = MipsShare.of(4, 250);
+        assertEquals(4, share.pes());
+        assertEquals(250, share.mips(3));
+        assertEquals(1000, share.totalMips());
+    }
+
+    @Test
+    public void testRemovePes() {
+        final MipsShare share = MipsShare.of(Arrays.asList(1000.0, 500.0, 250.0));
+        final MipsShare remaining = share.removePes(2);
+
+        assertEquals(3, share.pes());
+        assertEquals(Arrays.asList(250.0), remaining);
+        assertEquals(250, remaining.totalMips());
+        assertSame(share, share.removePes(0));
+        assertSame(MipsShare.NULL, share.removePes(5));
+    }
+
+    @Test
+    public void testEmptyShare() {
+        assertSame(MipsShare.NULL, MipsShare.of(new ArrayList<>()));
+        assertEquals(0, MipsShare.NULL.peCapacity());
+        assertEquals(0, MipsShare.NULL.totalMips());
+    }
+
+    @Test
+    public void testIsReadOnly() {
+        final MipsShare share = MipsShare.of(2, 1000);
+        assertThrows(UnsupportedOperationException.class, () -> share.add(1000.0));
+        assertThrows(UnsupportedOperationException.class, () -> share.remove(0));
+    }
+}
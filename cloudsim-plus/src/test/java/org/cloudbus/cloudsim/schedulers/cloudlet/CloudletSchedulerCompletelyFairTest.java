@@ -0,0 +1,69 @@
+package org.cloudbus.cloudsim.schedulers.cloudlet;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletExecution;
+import org.cloudbus.cloudsim.cloudlets.CloudletTestUtil;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class CloudletSchedulerCompletelyFairTest {
+    private static final long MIPS = 1000;
+    private static final int VM_PES = 2;
+
+    private CloudletSchedulerCompletelyFair instance;
+    private Cloudlet[] cloudlets;
+
+    /**
+     * Submits Cloudlets in the reverse order of their IDs.
+     * The first ones fill the VM PEs, the other ones are added to the runqueue.
+     */
+    @BeforeEach
+    public void setUp(){
+        instance = new CloudletSchedulerCompletelyFair();
+        instance.setCurrentMipsShare(CloudletSchedulerUtil.createMipsList(VM_PES, MIPS));
+        instance.setVm(new VmSimple(0, MIPS, VM_PES));
+
+        cloudlets = new Cloudlet[6];
+        for (int id = cloudlets.length - 1; id >= 0; id--) {
+            cloudlets[id] = CloudletTestUtil.createCloudlet(id, MIPS, 1);
+            cloudlets[id].assignToDatacenter(Datacenter.NULL);
+            instance.cloudletSubmit(cloudlets[id]);
+        }
+    }
+
+    @Test
+    public void testRunQueueIsSortedByVirtualRuntime() {
+        assertEquals(Arrays.asList(5L, 4L), getIds(instance.getCloudletExecList()));
+        assertEquals(Arrays.asList(0L, 1L, 2L, 3L), getIds(instance.getCloudletWaitingList()));
+    }
+
+    @Test
+    public void testCancelledCloudletIsRemovedFromRunQueue() {
+        instance.cloudletCancel(cloudlets[1]);
+        assertEquals(Cloudlet.Status.CANCELED, cloudlets[1].getStatus());
+        assertEquals(Arrays.asList(0L, 2L, 3L), getIds(instance.getCloudletWaitingList()));
+    }
+
+    @Test
+    public void testClearRemovesCloudletsFromRunQueue() {
+        instance.clear();
+        assertTrue(instance.getCloudletWaitingList().isEmpty());
+        assertTrue(instance.isEmpty());
+    }
+
+    private static List<Long> getIds(final List<CloudletExecution> list) {
+        return list.stream().map(CloudletExecution::getCloudletId).collect(toList());
+    }
+}
@@ -282,6 +282,24 @@ public class CloudletSchedulerTimeSharedTest {
 
     }
 
+    /**
+     * Checks if the MIPS available for each cloudlet is updated
+     * after cloudlets sharing the same PE finish.
+     */
+    @Test
+    public void testGetAvailableMipsByPeAfterFinishedCloudlets() {
+        final long mips = 1000;
+        final int cloudlets = 2;
+        final int vmPes = 1;
+
+        final CloudletSchedulerTimeShared instance = newSchedulerWithSingleCoreRunningCloudlets(mips, vmPes, cloudlets);
+        assertEquals(mips/cloudlets, instance.getAvailableMipsByPe());
+
+        instance.updateProcessing(2.0, instance.getCurrentMipsShare());
+        assertEquals(cloudlets, instance.getCloudletFinishedList().size());
+        assertEquals(mips, instance.getAvailableMipsByPe());
+    }
+
     @Test
     public void testRemoveCloudletFromExecList() {
         final CloudletExecution cle = new CloudletExecution(Cloudlet.NULL);
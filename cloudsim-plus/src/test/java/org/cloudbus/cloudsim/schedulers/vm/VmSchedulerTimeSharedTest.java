@@ -18,8 +18,7 @@ import org.cloudbus.cloudsim.vms.VmTestUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
@@ -110,6 +109,21 @@ public class VmSchedulerTimeSharedTest {
         assertEquals(0, vmScheduler.getTotalAllocatedMipsForVm(vm1));
     }
 
+    @Test
+    public void testDeallocatePesKeepsPreviouslyAllocatedMipsShare() {
+        final List<Double> mipsShare = new ArrayList<>(2);
+        mipsShare.add(250.0);
+        mipsShare.add(250.0);
+        assertTrue(vmScheduler.allocatePesForVm(vm0, mipsShare));
+        final List<Double> allocatedMips = vmScheduler.getAllocatedMips(vm0);
+
+        vmScheduler.deallocatePesFromVm(vm0, 1);
+
+        assertEquals(2, allocatedMips.size());
+        assertEquals(1, vmScheduler.getAllocatedMips(vm0).size());
+        assertEquals(MIPS / 4, vmScheduler.getTotalAllocatedMipsForVm(vm0));
+    }
+
     @Test
     public void testAllocatePesWhenVmMigrationIn() {
         vm0.setInMigration(true);
@@ -200,4 +214,74 @@ public class VmSchedulerTimeSharedTest {
         final long expectedBusyPes = vm1.getNumberOfPes();
         assertEquals(expectedBusyPes, vmScheduler.getHost().getBusyPeList().size());
     }
+
+    /**
+     * Randomly allocates and deallocates PEs for VMs, also making some Host PEs to fail,
+     * checking if the MIPS allocated from each Host PE is the same as
+     * releasing all PEs and allocating them again.
+     */
+    @Test
+    public void testPesAllocationSameAsReallocatingAllPes() {
+        final int HOST_PES = 8;
+        final VmSchedulerTimeShared scheduler = (VmSchedulerTimeShared)createVmScheduler(MIPS, HOST_PES);
+        final double[] vmMips = {100, 250, 333.5, 600, 1000};
+        final Random random = new Random(1);
+        final List<Vm> vms = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            final double operation = random.nextDouble();
+            if(operation < 0.5 || vms.isEmpty()) {
+                final int pes = 1 + random.nextInt(3);
+                final Vm vm = VmTestUtil.createVm(vms.size(), vmMips[random.nextInt(vmMips.length)], pes);
+                if(scheduler.allocatePesForVm(vm, vm.getCurrentRequestedMips())) {
+                    vms.add(vm);
+                }
+            } else {
+                final Vm vm = vms.get(random.nextInt(vms.size()));
+                final List<Pe> workingPeList = scheduler.getWorkingPeList();
+                if(operation < 0.55 && workingPeList.size() > 2) {
+                    workingPeList.get(random.nextInt(workingPeList.size())).setStatus(Pe.Status.FAILED);
+                }
+
+                scheduler.deallocatePesFromVm(vm, operation < 0.8 ? 1 : (int)vm.getNumberOfPes());
+            }
+
+            assertSameAsReallocatingAllPes(scheduler, vms);
+        }
+    }
+
+    private void assertSameAsReallocatingAllPes(final VmSchedulerTimeShared scheduler, final List<Vm> vms) {
+        final List<Pe> workingPeList = scheduler.getWorkingPeList();
+        final long[] freeMips = workingPeList.stream().mapToLong(Pe::getCapacity).toArray();
+        final Map<Pe, Map<Vm, Long>> expected = new HashMap<>();
+        for (final Map.Entry<Vm, List<Double>> entry : scheduler.getAllocatedMipsMap().entrySet()) {
+            int hostPe = 0;
+            for (final double requestedMips : entry.getValue()) {
+                double allocatedMips = 0;
+                while (requestedMips > 0 && allocatedMips <= 0 && hostPe < freeMips.length) {
+                    final int i = hostPe++;
+                    final long mips;
+                    if(freeMips[i] >= requestedMips) {
+                        mips = (long)requestedMips;
+                        allocatedMips = requestedMips;
+                    } else if(freeMips[i] > 0) {
+                        mips = freeMips[i];
+                        allocatedMips += mips;
+                    } else continue;
+
+                    expected.computeIfAbsent(workingPeList.get(i), pe -> new HashMap<>()).put(entry.getKey(), mips);
+                    freeMips[i] -= mips;
+                }
+            }
+        }
+
+        for (final Pe pe : scheduler.getHost().getPeList()) {
+            final Map<Vm, Long> expectedPeMips = expected.getOrDefault(pe, Collections.emptyMap());
+            for (final Vm vm : vms) {
+                assertEquals(expectedPeMips.containsKey(vm), pe.getPeProvisioner().isResourceAllocatedToVm(vm));
+                assertEquals(expectedPeMips.getOrDefault(vm, 0L), pe.getPeProvisioner().getAllocatedResourceForVm(vm));
+            }
+
+            assertEquals(expectedPeMips.values().stream().mapToLong(mips -> mips).sum(), pe.getAllocatedResource());
+        }
+    }
 }
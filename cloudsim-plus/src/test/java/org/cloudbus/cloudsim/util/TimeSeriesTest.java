@@ -0,0 +1,163 @@
+package org.cloudbus.cloudsim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks if a {@link TimeSeries} keeps the same entries as a {@link TreeMap}.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class TimeSeriesTest {
+    private static final int OPERATIONS = 2000;
+
+    @Test
+    public void testSameEntriesAsTreeMap() {
+        assertSameAsTreeMap(Integer.MAX_VALUE, 1);
+    }
+
+    @Test
+    public void testMaxSizeKeepsMostRecentEntries() {
+        assertSameAsTreeMap(30, 2);
+    }
+
+    @Test
+    public void testPutExistingTimeOverwritesEntry() {
+        final TimeSeries series = new TimeSeries(2);
+        series.setValue(series.put(1), 0, 10);
+        series.setValue(series.put(2), 1, 20);
+        final int position = series.put(1);
+        assertEquals(0, position);
+        series.setValue(position, 0, 30);
+
+        assertEquals(2, series.size());
+        assertEquals(30, series.getValue(0, 0));
+        assertEquals(20, series.getValue(1, 1));
+    }
+
+    @Test
+    public void testPutOlderEntryInsertsSorted() {
+        final TimeSeries series = new TimeSeries(1);
+        for (final double time : new double[]{5, 1, 3, 4, 2}) {
+            series.setValue(series.put(time), 0, time * 10);
+        }
+
+        final List<Double> times = series.asList(series::getTime);
+        assertEquals(Arrays.asList(1.0, 2.0, 3.0, 4.0, 5.0), times);
+        assertEquals(30, series.asSortedMap(0).get(3.0));
+    }
+
+    @Test
+    public void testPutEntryOlderThanFullSeries() {
+        final TimeSeries series = new TimeSeries(1);
+        series.setMaxSize(2);
+        series.put(2);
+        series.put(3);
+        assertTrue(series.put(1) < 0);
+        assertEquals(2, series.size());
+        assertEquals(2, series.getTime(0));
+    }
+
+    @Test
+    public void testSetMaxSizeRemovesOldestEntries() {
+        final TimeSeries series = new TimeSeries(1);
+        for (int time = 0; time < 10; time++) {
+            series.setValue(series.put(time), 0, time);
+        }
+
+        series.setMaxSize(3);
+        assertEquals(3, series.size());
+        assertEquals(7, series.asSortedMap(0).firstKey());
+        assertEquals(9, series.getValue(2, 0));
+    }
+
+    @Test
+    public void testCompressionKeepsFloatPrecision() {
+        final TimeSeries series = new TimeSeries(1);
+        series.setValue(series.put(1), 0, 0.1);
+        series.setCompressed(true);
+        series.setValue(series.put(2), 0, 0.2);
+
+        assertTrue(series.isCompressed());
+        assertEquals((float) 0.1, series.getValue(0, 0));
+        assertEquals((float) 0.2, series.getValue(1, 0));
+
+        series.setCompressed(false);
+        series.setValue(series.put(3), 0, 0.3);
+        assertEquals((float) 0.2, series.getValue(1, 0));
+        assertEquals(0.3, series.getValue(2, 0));
+    }
+
+    @Test
+    public void testSortedMapViewIsReadOnly() {
+        final TimeSeries series = new TimeSeries(1);
+        series.put(1);
+        assertThrows(UnsupportedOperationException.class, () -> series.asSortedMap(0).put(2.0, 1.0));
+        assertThrows(UnsupportedOperationException.class, () -> series.asSortedMap(0).clear());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeSeries(0));
+        assertThrows(IllegalArgumentException.class, () -> new TimeSeries(1).setMaxSize(0));
+    }
+
+    /**
+     * Randomly adds and overwrites entries (usually in ascending time order),
+     * checking if the series has the same entries as a TreeMap,
+     * including its sub map views.
+     *
+     * @param maxSize the maximum size of the series
+     * @param seed the seed for the pseudo random number generator
+     */
+    private void assertSameAsTreeMap(final int maxSize, final long seed) {
+        final Random random = new Random(seed);
+        final TimeSeries series = new TimeSeries(1);
+        series.setMaxSize(maxSize);
+        final SortedMap<Double, Double> map = series.asSortedMap(0);
+        final TreeMap<Double, Double> expected = new TreeMap<>();
+        double time = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            time += random.nextInt(3) * 0.5;
+            final double entryTime = random.nextInt(10) == 0 ? random.nextInt((int) time + 1) : time;
+            final double value = random.nextDouble();
+            final int position = series.put(entryTime);
+            if (position >= 0) {
+                series.setValue(position, 0, value);
+                expected.put(entryTime, value);
+            }
+
+            while (expected.size() > maxSize) {
+                expected.pollFirstEntry();
+            }
+
+            if (random.nextInt(10) == 0) {
+                assertSameMap(expected, map);
+                final double from = random.nextInt((int) time + 1);
+                final double to = from + random.nextInt(10);
+                assertSameMap(expected.subMap(from, to), map.subMap(from, to));
+                assertSameMap(expected.headMap(to), map.headMap(to));
+                assertSameMap(expected.tailMap(from), map.tailMap(from));
+                assertSameMap(expected.tailMap(from).headMap(to), map.tailMap(from).headMap(to));
+            }
+        }
+    }
+
+    private void assertSameMap(final SortedMap<Double, Double> expected, final SortedMap<Double, Double> actual) {
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(actual.values()));
+        if (!expected.isEmpty()) {
+            assertEquals(expected.firstKey(), actual.firstKey());
+            assertEquals(expected.lastKey(), actual.lastKey());
+            final Double key = expected.firstKey();
+            assertTrue(actual.containsKey(key));
+            assertEquals(expected.get(key), actual.get(key));
+        }
+    }
+}
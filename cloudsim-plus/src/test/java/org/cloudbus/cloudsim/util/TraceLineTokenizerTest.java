@@ -0,0 +1,168 @@
+package org.cloudbus.cloudsim.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks if the {@link TraceLineTokenizer} parses lines just like
+ * {@link TraceReaderAbstract#parseTraceLine(String)}.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class TraceLineTokenizerTest {
+    private static final String CONTENT =
+        "# comment line\r\n" +
+        "  1   2\t3  \n" +
+        "\n" +
+        "4,5,,6,\r" +
+        ";another comment\r\n" +
+        " \t \n" +
+        "a|b|c\n" +
+        "ação,é, 7 \n" +
+        "last line without line terminator";
+
+    @Test
+    public void testWhitespaceDelimiter() throws IOException {
+        assertSameAsRegexSplitting(CONTENT, "\\s+");
+    }
+
+    @Test
+    public void testCommaDelimiter() throws IOException {
+        assertSameAsRegexSplitting(CONTENT, ",");
+    }
+
+    @Test
+    public void testEscapedDelimiter() throws IOException {
+        assertSameAsRegexSplitting(CONTENT, "\\|");
+    }
+
+    @Test
+    public void testRegexDelimiter() throws IOException {
+        assertSameAsRegexSplitting(CONTENT, "[,|]");
+    }
+
+    /**
+     * Checks lines larger than the tokenizer buffer,
+     * having line terminators split between two buffer reads.
+     */
+    @Test
+    public void testLinesCrossingBufferLimits() throws IOException {
+        final Random random = new Random(1);
+        final StringBuilder builder = new StringBuilder();
+        final String[] terminators = {"\n", "\r", "\r\n"};
+        while (builder.length() < 300_000) {
+            final int fields = 1 + random.nextInt(20000);
+            for (int i = 0; i < fields; i++) {
+                builder.append(random.nextInt(1000)).append(random.nextBoolean() ? "," : ", ");
+            }
+
+            builder.append(terminators[random.nextInt(terminators.length)]);
+        }
+
+        assertSameAsRegexSplitting(builder.toString(), ",");
+        assertSameAsRegexSplitting(builder.toString(), "\\s+");
+    }
+
+    @Test
+    public void testReadGzipFile() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(CONTENT.getBytes(Charset.defaultCharset()));
+        }
+
+        final TestTraceReader reader = new TestTraceReader("trace.gz", new ByteArrayInputStream(bytes.toByteArray()));
+        final List<String[]> lines = new ArrayList<>();
+        reader.readFile(lines::add);
+        assertEquals(split(CONTENT, "\\s+").stream().filter(fields -> fields.length > 0).count(), lines.size());
+        assertArrayEquals(new String[]{"1", "2", "3"}, lines.get(0));
+    }
+
+    @Test
+    public void testReadyUntilAllLinesAreRead() throws IOException {
+        final String content = "1 2\r\n3 4\r\n";
+        final TestTraceReader reader = new TestTraceReader("trace.txt", toStream(content));
+        final TraceLineTokenizer tokenizer = new TraceLineTokenizer(toStream(content), reader);
+
+        assertTrue(tokenizer.ready());
+        assertArrayEquals(new String[]{"1", "2"}, tokenizer.nextParsedLine());
+        assertTrue(tokenizer.ready());
+        assertArrayEquals(new String[]{"3", "4"}, tokenizer.nextParsedLine());
+        assertFalse(tokenizer.ready());
+    }
+
+    /**
+     * Checks if the reading stops when the stream has no bytes available,
+     * just as when lines were read by checking {@link java.io.BufferedReader#ready()}.
+     */
+    @Test
+    public void testReadFileStopsWhenStreamIsNotReady() throws IOException {
+        final InputStream notReadyStream = new ByteArrayInputStream(CONTENT.getBytes(Charset.defaultCharset())) {
+            @Override
+            public synchronized int available() {
+                return 0;
+            }
+        };
+
+        final TestTraceReader reader = new TestTraceReader("trace.txt", notReadyStream);
+        final List<String[]> lines = new ArrayList<>();
+        reader.readFile(lines::add);
+        assertTrue(lines.isEmpty());
+    }
+
+    private void assertSameAsRegexSplitting(final String content, final String delimiterRegex) throws IOException {
+        final List<String[]> expected = split(content, delimiterRegex);
+        final TestTraceReader reader = new TestTraceReader("trace.txt", toStream(content));
+        reader.setFieldDelimiterRegex(delimiterRegex);
+        final TraceLineTokenizer tokenizer = new TraceLineTokenizer(toStream(content), reader);
+
+        for (final String[] fields : expected) {
+            assertArrayEquals(fields, tokenizer.nextParsedLine());
+        }
+
+        assertNull(tokenizer.nextParsedLine());
+    }
+
+    /**
+     * Splits the lines of a given content using {@link TraceReaderAbstract#parseTraceLine(String)}.
+     * The content is encoded and decoded with the default charset (as an InputStreamReader does),
+     * since chars not supported by such a charset are replaced.
+     */
+    private List<String[]> split(final String content, final String delimiterRegex) {
+        final String decodedContent = new String(content.getBytes(Charset.defaultCharset()), Charset.defaultCharset());
+        final TestTraceReader reader = new TestTraceReader("trace.txt", toStream(""));
+        reader.setFieldDelimiterRegex(delimiterRegex);
+        final List<String[]> lines = new ArrayList<>();
+        for (final String line : decodedContent.split("\r\n|\r|\n", -1)) {
+            lines.add(reader.parseTraceLine(line));
+        }
+
+        //A line terminator at the end of the content doesn't start a new line
+        if (content.endsWith("\n") || content.endsWith("\r")) {
+            lines.remove(lines.size() - 1);
+        }
+
+        return lines;
+    }
+
+    private static InputStream toStream(final String content) {
+        return new ByteArrayInputStream(content.getBytes(Charset.defaultCharset()));
+    }
+
+    private static final class TestTraceReader extends TraceReaderAbstract {
+        private TestTraceReader(final String filePath, final InputStream inputStream) {
+            super(filePath, inputStream);
+        }
+    }
+}
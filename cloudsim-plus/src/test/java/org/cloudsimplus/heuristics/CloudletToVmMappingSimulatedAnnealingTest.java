@@ -0,0 +1,180 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.heuristics;
+
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
+import org.cloudbus.cloudsim.distributions.UniformDistr;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+public class CloudletToVmMappingSimulatedAnnealingTest {
+    private static final int CLOUDLETS = 100;
+    private static final int VMS = 10;
+    private static final long SEED = 7;
+
+    @Test
+    public void testSolveWithMultipleChainsIsReproducible() {
+        final CloudletToVmMappingSolution first = createHeuristic(4, false).solve();
+        final CloudletToVmMappingSolution second = createHeuristic(4, false).solve();
+        assertEquals(first.getCost(), second.getCost());
+        assertEquals(first.getResult(), second.getResult());
+    }
+
+    @Test
+    public void testSolveWithParallelTemperingIsReproducible() {
+        final CloudletToVmMappingSolution first = createHeuristic(4, true).solve();
+        final CloudletToVmMappingSolution second = createHeuristic(4, true).solve();
+        assertEquals(first.getCost(), second.getCost());
+        assertEquals(first.getResult(), second.getResult());
+    }
+
+    @Test
+    public void testSolveWithMultipleChainsReturnsTheBestChainSolution() {
+        final int chains = 4;
+        final CloudletToVmMappingSimulatedAnnealing heuristic = createHeuristic(chains, false);
+        final double cost = heuristic.solve().getCost();
+
+        for (int i = 0; i < chains; i++) {
+            final CloudletToVmMappingSimulatedAnnealing chain =
+                heuristic.newChain(new UniformDistr(SEED + i + 1));
+            chain.setColdTemperature(heuristic.getColdTemperature());
+            chain.setCoolingRate(heuristic.getChainCoolingRate());
+            chain.setCurrentTemperature(1);
+            assertTrue(cost <= chain.solve().getCost());
+        }
+
+        assertEquals(cost, heuristic.getBestSolutionSoFar().getCost(true));
+    }
+
+    @Test
+    public void testMultipleChainsDivideTheNeighborhoodSearches() {
+        final int chains = 4;
+        final long singleChainSearches = countNeighborhoodSearches(1);
+        final long multipleChainsSearches = countNeighborhoodSearches(chains);
+        assertTrue(singleChainSearches > 1000);
+        assertEquals(singleChainSearches, multipleChainsSearches, chains);
+    }
+
+    @Test
+    public void testSetChainsInvalidValue() {
+        final CloudletToVmMappingSimulatedAnnealing heuristic = createHeuristic(1, false);
+        assertThrows(IllegalArgumentException.class, () -> heuristic.setChains(0));
+    }
+
+    @Test
+    public void testSetMultipleChainsWhenNotSupported() {
+        final CloudletToVmMappingSimulatedAnnealing heuristic =
+            new CloudletToVmMappingSimulatedAnnealing(1, new UniformDistr(SEED)) {
+                @Override
+                protected boolean isChainsSupported() {
+                    return false;
+                }
+            };
+
+        assertThrows(UnsupportedOperationException.class, () -> heuristic.setChains(2));
+        heuristic.setChains(1);
+        assertEquals(1, heuristic.getChains());
+    }
+
+    /**
+     * Solves the heuristic, counting the neighbor solutions created by all its chains.
+     * @param chains the number of chains
+     * @return the number of neighborhood searches performed
+     */
+    private long countNeighborhoodSearches(final int chains) {
+        final AtomicLong searches = new AtomicLong();
+        final CloudletToVmMappingSimulatedAnnealing heuristic = new SearchCountingHeuristic(new UniformDistr(SEED), searches);
+        setUp(heuristic, chains, false);
+        heuristic.solve();
+        return searches.get();
+    }
+
+    /**
+     * A heuristic that counts the neighbor solutions created by itself and by its chains.
+     */
+    private static class SearchCountingHeuristic extends CloudletToVmMappingSimulatedAnnealing {
+        private final AtomicLong searches;
+
+        private SearchCountingHeuristic(final ContinuousDistribution random, final AtomicLong searches) {
+            super(1, random);
+            this.searches = searches;
+        }
+
+        @Override
+        public CloudletToVmMappingSolution createNeighbor(final CloudletToVmMappingSolution source) {
+            searches.incrementAndGet();
+            return super.createNeighbor(source);
+        }
+
+        @Override
+        protected CloudletToVmMappingSimulatedAnnealing newChain(final ContinuousDistribution random) {
+            final SearchCountingHeuristic chain = new SearchCountingHeuristic(random, searches);
+            chain.setVmList(getVmList());
+            chain.setCloudletList(getCloudletList());
+            return chain;
+        }
+    }
+
+    private CloudletToVmMappingSimulatedAnnealing createHeuristic(final int chains, final boolean parallelTempering) {
+        final CloudletToVmMappingSimulatedAnnealing heuristic =
+            new CloudletToVmMappingSimulatedAnnealing(1, new UniformDistr(SEED));
+        setUp(heuristic, chains, parallelTempering);
+        return heuristic;
+    }
+
+    private void setUp(
+        final CloudletToVmMappingSimulatedAnnealing heuristic,
+        final int chains, final boolean parallelTempering)
+    {
+        final List<Cloudlet> cloudletList = new ArrayList<>(CLOUDLETS);
+        for (int i = 0; i < CLOUDLETS; i++) {
+            cloudletList.add(new CloudletSimple(i, 10000, i % 4 + 1));
+        }
+
+        final List<Vm> vmList = new ArrayList<>(VMS);
+        for (int i = 0; i < VMS; i++) {
+            vmList.add(new VmSimple(i, 1000, i % 8 + 1));
+        }
+
+        heuristic.setColdTemperature(0.0001);
+        heuristic.setCoolingRate(0.003);
+        heuristic.setCloudletList(cloudletList);
+        heuristic.setVmList(vmList);
+        heuristic.setChains(chains);
+        heuristic.setParallelTemperingEnabled(parallelTempering);
+    }
+}
@@ -25,15 +25,13 @@ package org.cloudsimplus.heuristics;
 
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
 import org.cloudbus.cloudsim.cloudlets.CloudletTestUtil;
+import org.cloudbus.cloudsim.distributions.UniformDistr;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmTestUtil;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
-import java.util.AbstractMap;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -186,4 +184,130 @@ public class CloudletToVmMappingSolutionTest {
             swappedVmsEntries.get(1).getValue().getId());
         assertEquals(swappedVmsEntries, originalEntries, msg);
     }
+
+    @Test
+    public void testCostAfterSwapsIsEqualToRecomputedCost() {
+        final CloudletToVmMappingSolution instance = createRandomSolution();
+        for (int i = 0; i < 1000; i++) {
+            instance.swapVmsOfTwoRandomSelectedMapEntries();
+            assertEquals(computeCost(instance.getResult()), instance.getCost(), 0);
+        }
+
+        assertEquals(instance.getCost(), instance.getCost(true), 0);
+    }
+
+    @Test
+    public void testCostAfterRebindingCloudlet() {
+        final CloudletToVmMappingSolution instance = createSolutionWithOneVmForEachCloudlet(3, 2);
+        final Cloudlet cloudlet = instance.getResult().keySet().iterator().next();
+        final Vm otherVm = instance.getResult().values().stream()
+                                   .filter(vm -> vm != instance.getResult().get(cloudlet))
+                                   .findFirst().get();
+
+        instance.bindCloudletToVm(cloudlet, otherVm);
+        assertEquals(otherVm, instance.getResult().get(cloudlet));
+        assertEquals(computeCost(instance.getResult()), instance.getCost(), 0);
+
+        //The VM which received the Cloudlet has 2 PEs for 4 requested ones. The VM without Cloudlets has no cost.
+        assertEquals(2, instance.getCost(), 0);
+    }
+
+    /**
+     * Creates a chain of neighbors and checks that every solution in the chain,
+     * accessed in any order, keeps its own mapping and cost,
+     * even though they share the same mapping arrays.
+     */
+    @Test
+    public void testNeighborsDontChangeTheirSources() {
+        final CloudletToVmMappingSolution source = createRandomSolution();
+        final List<CloudletToVmMappingSolution> solutions = new ArrayList<>();
+        final List<Map<Cloudlet, Vm>> expectedResults = new ArrayList<>();
+        CloudletToVmMappingSolution solution = source;
+        for (int i = 0; i < 100; i++) {
+            solutions.add(solution);
+            expectedResults.add(new HashMap<>(solution.getResult()));
+            assertEquals(computeCost(solution.getResult()), solution.getCost(), 0);
+            solution = i % 3 == 0 ? solution.createNeighbor() : solutions.get(i/2).createNeighbor();
+        }
+
+        for (int i = solutions.size()-1; i >= 0; i -= 7) {
+            assertEquals(expectedResults.get(i), solutions.get(i).getResult());
+            assertEquals(computeCost(expectedResults.get(i)), solutions.get(i).getCost(), 0);
+        }
+    }
+
+    @Test
+    public void testChangingCloneDoesntChangeSource() {
+        final CloudletToVmMappingSolution source = createRandomSolution();
+        final Map<Cloudlet, Vm> expectedResult = new HashMap<>(source.getResult());
+        final double expectedCost = source.getCost();
+
+        final CloudletToVmMappingSolution clone = new CloudletToVmMappingSolution(source);
+        for (int i = 0; i < 100; i++) {
+            clone.swapVmsOfTwoRandomSelectedMapEntries();
+        }
+
+        assertEquals(expectedResult, source.getResult());
+        assertEquals(expectedCost, source.getCost(), 0);
+        assertEquals(computeCost(clone.getResult()), clone.getCost(), 0);
+    }
+
+    @Test
+    public void testOverriddenVmCostIsUsedToUpdateTheCost() {
+        final Heuristic heuristic = new CloudletToVmMappingSimulatedAnnealing(0, new UniformDistr(0, 1, 1));
+        final CloudletToVmMappingSolution instance = new CloudletToVmMappingSolution(heuristic) {
+            @Override
+            protected double getVmCost(final Vm vm, final long cloudletsPes) {
+                final double diff = vm.getNumberOfPes() - cloudletsPes;
+                return diff * diff;
+            }
+        };
+        addRandomMapping(heuristic, instance);
+
+        CloudletToVmMappingSolution neighbor = instance;
+        for (int i = 0; i < 100; i++) {
+            instance.swapVmsOfTwoRandomSelectedMapEntries();
+            assertEquals(computeCost(instance, instance.getResult()), instance.getCost(), 0);
+            neighbor = neighbor.createNeighbor();
+            assertEquals(computeCost(instance, neighbor.getResult()), neighbor.getCost(), 0);
+        }
+    }
+
+    private CloudletToVmMappingSolution createRandomSolution() {
+        final Heuristic heuristic = new CloudletToVmMappingSimulatedAnnealing(0, new UniformDistr(0, 1, 1));
+        final CloudletToVmMappingSolution instance = new CloudletToVmMappingSolution(heuristic);
+        addRandomMapping(heuristic, instance);
+        return instance;
+    }
+
+    private void addRandomMapping(final Heuristic heuristic, final CloudletToVmMappingSolution instance) {
+        final Vm[] vms = new Vm[10];
+        for (int i = 0; i < vms.length; i++) {
+            vms[i] = VmTestUtil.createVm(i, 1000, i % 4 + 1);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            final Cloudlet cloudlet = CloudletTestUtil.createCloudlet(i, 1000, i % 3 + 1);
+            instance.bindCloudletToVm(cloudlet, vms[heuristic.getRandomValue(vms.length)]);
+        }
+    }
+
+    /**
+     * Computes the cost of a mapping from scratch.
+     */
+    private double computeCost(final Map<Cloudlet, Vm> result) {
+        return computeCost(new CloudletToVmMappingSolution(Heuristic.NULL), result);
+    }
+
+    /**
+     * Computes the cost of a mapping from scratch,
+     * using the VM cost function of a given solution.
+     */
+    private double computeCost(final CloudletToVmMappingSolution instance, final Map<Cloudlet, Vm> result) {
+        final Map<Vm, List<Cloudlet>> cloudletsByVm = new HashMap<>();
+        result.forEach((cloudlet, vm) -> cloudletsByVm.computeIfAbsent(vm, key -> new ArrayList<>()).add(cloudlet));
+        return cloudletsByVm.entrySet().stream()
+                            .mapToDouble(entry -> instance.getVmCost(entry.getKey(), entry.getValue()))
+                            .sum();
+    }
 }
@@ -0,0 +1,194 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.integrationtests;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.datacenters.Datacenter;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.distributions.PoissonDistr;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.cloudsimplus.faultinjection.HostFaultInjection;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * An Integration Test (IT) running a federation of {@link Datacenter}s,
+ * each one having its own {@link DatacenterBroker}, both sequentially and
+ * {@link CloudSim#enableParallelProcessing(java.util.function.ToIntFunction) in parallel}.
+ * Each Datacenter and its broker are mapped to the same logical process.
+ * The test checks if both executions produce exactly the same results.
+ *
+ * @author Manoel Campos da Silva Filho
+ */
+public final class ParallelFederatedDatacentersTest {
+    private static final int DATACENTERS = 4;
+    private static final int HOSTS = 4;
+    private static final int HOST_PES = 8;
+    private static final int VMS = 6;
+    private static final int VM_PES = 4;
+    private static final int CLOUDLETS = 20;
+    private static final double FAULTS_PER_HOUR = 100;
+    private static final double MAX_TIME_TO_FAIL_HOURS = 0.05;
+
+    private static final long SEED = 1;
+
+    @Test
+    public void integrationTest() {
+        final Federation sequential = new Federation(false, false);
+        final Federation parallel = new Federation(true, false);
+
+        assertFalse(sequential.results.isEmpty());
+        assertSameResults(sequential, parallel);
+    }
+
+    /**
+     * Runs the same scenario in parallel twice, injecting Host faults with the same seed.
+     * A {@link HostFaultInjection} checks the number of future events to decide if more faults
+     * must be scheduled, which must not depend on the timing of the threads running the entities.
+     */
+    @Test
+    public void integrationTestWithHostFaultInjection() {
+        final Federation sequential = new Federation(false, true);
+        final Federation parallel1 = new Federation(true, true);
+        final Federation parallel2 = new Federation(true, true);
+
+        assertFalse(sequential.results.isEmpty());
+        assertTrue(sequential.faults.stream().anyMatch(faults -> faults > 0));
+        assertSameResults(parallel1, parallel2);
+        assertSameResults(sequential, parallel1);
+    }
+
+    private void assertSameResults(final Federation expected, final Federation actual) {
+        assertEquals(expected.results, actual.results);
+        assertEquals(expected.faults, actual.faults);
+        assertEquals(expected.simulation.clock(), actual.simulation.clock());
+        assertEquals(expected.simulation.getGeneratedEventsNumber(), actual.simulation.getGeneratedEventsNumber());
+    }
+
+    /**
+     * Builds and runs a simulation scenario with a federation of Datacenters.
+     */
+    private static final class Federation {
+        private final CloudSim simulation;
+        private final Map<SimEntity, Integer> logicalProcesses = new IdentityHashMap<>();
+        private final List<DatacenterBroker> brokers = new ArrayList<>(DATACENTERS);
+        private final List<HostFaultInjection> faultInjections = new ArrayList<>(DATACENTERS);
+        private final List<String> results;
+        private final List<Integer> faults;
+
+        private Federation(final boolean parallel, final boolean faultInjection) {
+            simulation = new CloudSim();
+            final Random random = new Random(SEED);
+            for (int i = 0; i < DATACENTERS; i++) {
+                final Datacenter datacenter = createDatacenter();
+                if (faultInjection) {
+                    final HostFaultInjection fault = new HostFaultInjection(datacenter, new PoissonDistr(FAULTS_PER_HOUR, SEED + i));
+                    fault.setMaxTimeToFailInHours(MAX_TIME_TO_FAIL_HOURS);
+                    logicalProcesses.put(fault, i);
+                    faultInjections.add(fault);
+                }
+
+                final DatacenterBroker broker = new DatacenterBrokerSimple(simulation);
+                broker.setDatacenterMapper((lastDatacenter, vm) -> lastDatacenter == Datacenter.NULL ? datacenter : Datacenter.NULL);
+                broker.submitVmList(createVms());
+                broker.submitCloudletList(createCloudlets(random));
+                logicalProcesses.put(datacenter, i);
+                logicalProcesses.put(broker, i);
+                brokers.add(broker);
+            }
+
+            if (parallel) {
+                simulation.enableParallelProcessing(ent -> logicalProcesses.getOrDefault(ent, -1));
+            }
+
+            simulation.start();
+            results = brokers.stream()
+                             .flatMap(broker -> broker.getCloudletFinishedList().stream())
+                             .map(this::toString)
+                             .collect(toList());
+            faults = faultInjections.stream().map(HostFaultInjection::getNumberOfHostFaults).collect(toList());
+        }
+
+        private String toString(final Cloudlet cloudlet) {
+            return String.format(
+                "%d %d %d %s %s %s",
+                cloudlet.getId(), cloudlet.getVm().getId(), cloudlet.getVm().getHost().getId(),
+                cloudlet.getExecStartTime(), cloudlet.getFinishTime(), cloudlet.getActualCpuTime());
+        }
+
+        private Datacenter createDatacenter() {
+            final List<Host> hostList = new ArrayList<>(HOSTS);
+            for (int i = 0; i < HOSTS; i++) {
+                final List<Pe> peList = new ArrayList<>(HOST_PES);
+                for (int j = 0; j < HOST_PES; j++) {
+                    peList.add(new PeSimple(1000));
+                }
+
+                hostList.add(new HostSimple(16384, 100000, 1000000, peList));
+            }
+
+            final Datacenter datacenter = new DatacenterSimple(simulation, hostList);
+            datacenter.setSchedulingInterval(2);
+            return datacenter;
+        }
+
+        private List<Vm> createVms() {
+            final List<Vm> list = new ArrayList<>(VMS);
+            for (int i = 0; i < VMS; i++) {
+                list.add(new VmSimple(1000, VM_PES).setRam(1024).setBw(1000).setSize(10000));
+            }
+
+            return list;
+        }
+
+        private List<Cloudlet> createCloudlets(final Random random) {
+            final List<Cloudlet> list = new ArrayList<>(CLOUDLETS);
+            for (int i = 0; i < CLOUDLETS; i++) {
+                final Cloudlet cloudlet = new CloudletSimple(10000 + random.nextInt(50000), 1 + random.nextInt(2));
+                cloudlet.setUtilizationModelCpu(new UtilizationModelDynamic(0.5 + random.nextDouble() / 2));
+                cloudlet.setSubmissionDelay(random.nextInt(20));
+                list.add(cloudlet);
+            }
+
+            return list;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.testbeds;
+
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.distributions.ContinuousDistribution;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.cloudlet.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks if running experiments in parallel by an {@link ExperimentRunner}
+ * gives the same results, in the same order, as running them sequentially.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class ExperimentRunnerParallelTest {
+    private static final int SIMULATION_RUNS = 12;
+    private static final long BASE_SEED = 1475098589732L;
+
+    @Test
+    public void testParallelResultsSameAsSequential() {
+        final TestRunner sequential = new TestRunner(false, 1);
+        sequential.run();
+        assertFalse(sequential.isParallel());
+        assertEquals(SIMULATION_RUNS, sequential.finishTimes.size());
+
+        for (final int workers : new int[]{2, 3, 5}) {
+            final TestRunner parallel = new TestRunner(false, workers);
+            parallel.run();
+            assertTrue(parallel.isParallel());
+            assertEquals(sequential.finishTimes, parallel.finishTimes);
+            assertEquals(sequential.experimentIndexes, parallel.experimentIndexes);
+        }
+    }
+
+    @Test
+    public void testParallelAntitheticResultsSameAsSequential() {
+        final TestRunner sequential = new TestRunner(true, 1);
+        sequential.setNumberOfBatches(2);
+        sequential.run();
+
+        final TestRunner parallel = new TestRunner(true, 4);
+        parallel.setNumberOfBatches(2);
+        parallel.run();
+        assertEquals(sequential.finishTimes, parallel.finishTimes);
+    }
+
+    @Test
+    public void testSetInvalidWorkersNumber() {
+        final TestRunner runner = new TestRunner(false, 1);
+        assertThrows(IllegalArgumentException.class, () -> runner.setWorkersNumber(0));
+    }
+
+    private static final class TestRunner extends ExperimentRunner<TestExperiment> {
+        private final List<Double> finishTimes = new ArrayList<>();
+        private final List<Integer> experimentIndexes = new ArrayList<>();
+
+        private TestRunner(final boolean antitheticVariatesTechnique, final int workersNumber) {
+            super(antitheticVariatesTechnique, BASE_SEED);
+            setSimulationRuns(SIMULATION_RUNS);
+            setWorkersNumber(workersNumber);
+        }
+
+        @Override
+        protected void setup() {/**/}
+
+        @Override
+        protected TestExperiment createExperiment(final int i) {
+            //The experiment must be created before the PRNG, since it defines the experiment seed
+            final TestExperiment experiment = new TestExperiment(i, this);
+            experiment.setRandom(createRandomGen(i));
+            experiment.setAfterExperimentFinish(this::afterExperimentFinish);
+            return experiment;
+        }
+
+        /**
+         * Collects the metrics of a finished experiment without any synchronization,
+         * since experiments must be finished in order, by the thread running the runner.
+         */
+        private void afterExperimentFinish(final TestExperiment experiment) {
+            experimentIndexes.add(experiment.getIndex());
+            finishTimes.add(experiment.getSimulation().clock());
+        }
+
+        @Override
+        protected Map<String, List<Double>> createMetricsMap() {
+            final Map<String, List<Double>> map = new HashMap<>();
+            map.put("Finish Time", finishTimes);
+            return map;
+        }
+
+        @Override
+        protected void printSimulationParameters() {/**/}
+
+        @Override
+        protected void printFinalResults(final String metricName, final SummaryStatistics stats) {/**/}
+    }
+
+    private static final class TestExperiment extends Experiment {
+        private static final int CLOUDLETS = 20;
+        private ContinuousDistribution random;
+
+        private TestExperiment(final int index, final ExperimentRunner runner) {
+            super(index, runner);
+            setHostsNumber(2);
+            setVmsByBrokerFunction(broker -> 4);
+        }
+
+        private void setRandom(final ContinuousDistribution random) {
+            this.random = random;
+        }
+
+        @Override
+        public void printResults() {/**/}
+
+        @Override
+        protected DatacenterBroker createBroker() {
+            return new DatacenterBrokerSimple(getSimulation());
+        }
+
+        @Override
+        protected List<Cloudlet> createCloudlets(final DatacenterBroker broker) {
+            final List<Cloudlet> list = new ArrayList<>(CLOUDLETS);
+            for (int i = 0; i < CLOUDLETS; i++) {
+                list.add(createCloudlet(broker));
+            }
+
+            return list;
+        }
+
+        @Override
+        protected Cloudlet createCloudlet(final DatacenterBroker broker) {
+            final long length = 1000 + (long) (random.sample() * 100000);
+            return new CloudletSimple(nextCloudletId(), length, 1);
+        }
+
+        @Override
+        protected Vm createVm(final DatacenterBroker broker, final int id) {
+            return new VmSimple(id, 1000, 2)
+                .setRam(512).setBw(1000).setSize(10000)
+                .setCloudletScheduler(new CloudletSchedulerTimeShared());
+        }
+
+        @Override
+        protected Host createHost(final int id) {
+            final List<Pe> peList = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                peList.add(new PeSimple(1000));
+            }
+
+            return new HostSimple(8192, 100000, 1000000, peList);
+        }
+    }
+}
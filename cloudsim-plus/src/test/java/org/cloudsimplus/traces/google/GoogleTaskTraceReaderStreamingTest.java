@@ -0,0 +1,313 @@
+/*
+ * CloudSim Plus: A modern, highly-extensible and easier-to-use Framework for
+ * Modeling and Simulation of Cloud Computing Infrastructures and Services.
+ * http://cloudsimplus.org
+ *
+ *     Copyright (C) 2015-2018 Universidade da Beira Interior (UBI, Portugal) and
+ *     the Instituto Federal de Educação Ciência e Tecnologia do Tocantins (IFTO, Brazil).
+ *
+ *     This file is part of CloudSim Plus.
+ *
+ *     CloudSim Plus is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     CloudSim Plus is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with CloudSim Plus. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.cloudsimplus.traces.google;
+
+import org.cloudbus.cloudsim.allocationpolicies.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.hosts.HostSimple;
+import org.cloudbus.cloudsim.resources.Pe;
+import org.cloudbus.cloudsim.resources.PeSimple;
+import org.cloudbus.cloudsim.schedulers.vm.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModel.Unit;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelDynamic;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+import org.cloudbus.cloudsim.vms.Vm;
+import org.cloudbus.cloudsim.vms.VmSimple;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks if reading Google "task events" and "task usage" trace files in parts
+ * (using a streaming time window) produces the same simulation results
+ * as reading the entire files at once.
+ *
+ * @author Manoel Campos da Silva Filho
+ * @since CloudSim Plus 5.4.4
+ */
+public class GoogleTaskTraceReaderStreamingTest {
+    private static final String USERNAME = "user1";
+    private static final int MICROSECONDS = 1000000;
+
+    /**
+     * Each task is defined as {jobId, taskIndex, submitTime, finishTime}, where times are in seconds.
+     * There is a gap between tasks larger than the time windows used.
+     * Events are sent to brokers when the simulation starts (at a time greater than 0),
+     * thus no task starts at time 0.
+     */
+    private static final int[][] TASKS = {
+        {1, 0, 1, 20}, {1, 1, 1, 35}, {2, 0, 30, 200}, {2, 1, 45, 60}, {3, 0, 500, 520}, {3, 1, 510, 700}
+    };
+
+    private static Path taskEventsFile;
+    private static Path taskUsageFile;
+
+    @BeforeAll
+    public static void createTraceFiles() throws IOException {
+        final List<String[]> taskEvents = new ArrayList<>();
+        final List<String[]> taskUsages = new ArrayList<>();
+        for (final int[] task : TASKS) {
+            final String jobId = String.valueOf(task[0]);
+            final String taskIndex = String.valueOf(task[1]);
+            final long submitTime = (long)task[2] * MICROSECONDS;
+            final long finishTime = (long)task[3] * MICROSECONDS;
+            final long usageTime = (submitTime + finishTime) / 2;
+            taskEvents.add(new String[]{String.valueOf(submitTime), "", jobId, taskIndex, "0", String.valueOf(TaskEventType.SUBMIT.ordinal()), USERNAME, "0", "0", "0.5", "0.1", "0.1", "0"});
+            taskEvents.add(new String[]{String.valueOf(submitTime), "", jobId, taskIndex, "0", String.valueOf(TaskEventType.SCHEDULE.ordinal()), USERNAME, "0", "0", "0.5", "0.1", "0.1", "0"});
+            taskEvents.add(new String[]{String.valueOf(finishTime), "", jobId, taskIndex, "0", String.valueOf(TaskEventType.FINISH.ordinal()), USERNAME, "0", "0", "0.5", "0.1", "0.1", "0"});
+            taskUsages.add(new String[]{String.valueOf(usageTime), String.valueOf(finishTime), jobId, taskIndex, "0", "0.5", "0.2", "0.2", "0.2", "0", "0", "0", "0", "0", "0", "0", "0", "0", "0", "0"});
+        }
+
+        final Comparator<String[]> byTime = Comparator.comparingLong(line -> Long.parseLong(line[0]));
+        taskEvents.sort(byTime);
+        taskUsages.sort(byTime);
+        taskEventsFile = writeTraceFile("task-events", taskEvents);
+        taskUsageFile = writeTraceFile("task-usage", taskUsages);
+    }
+
+    private static Path writeTraceFile(final String prefix, final List<String[]> lines) throws IOException {
+        final Path file = Files.createTempFile(prefix, ".csv");
+        file.toFile().deleteOnExit();
+        final List<String> csvLines = new ArrayList<>(lines.size());
+        lines.forEach(line -> csvLines.add(String.join(",", line)));
+        Files.write(file, csvLines);
+        return file;
+    }
+
+    @Test
+    public void testNegativeStreamingTimeWindow() throws IOException {
+        final GoogleTaskEventsTraceReader reader = newTaskEventsReader(new CloudSim());
+        assertThrows(IllegalArgumentException.class, () -> reader.setStreamingTimeWindow(-1));
+        assertFalse(reader.isStreaming());
+    }
+
+    @Test
+    public void testStreamingFirstWindowCreatesJustInitialCloudlets() throws IOException {
+        final GoogleTaskEventsTraceReader reader = newTaskEventsReader(new CloudSim());
+        reader.setStreamingTimeWindow(10);
+        assertTrue(reader.isStreaming());
+        assertEquals(2, reader.process().size());
+    }
+
+    @Test
+    public void testStreamingKeepsJustFirstWindowAvailableObjects() throws IOException {
+        final CloudSim simulation = createSimulation();
+        final GoogleTaskEventsTraceReader taskEventsReader = newTaskEventsReader(simulation);
+        taskEventsReader.setStreamingTimeWindow(10);
+        final Set<Cloudlet> cloudlets = taskEventsReader.process();
+        final List<DatacenterBroker> brokers = taskEventsReader.getBrokers();
+        brokers.forEach(broker -> broker.submitVmList(createVms()));
+
+        final GoogleTaskUsageTraceReader taskUsageReader = new GoogleTaskUsageTraceReader(brokers, taskUsageFile.toString());
+        taskUsageReader.setStreamingTimeWindow(10);
+        final Set<Cloudlet> changedCloudlets = taskUsageReader.process();
+        final int changedCloudletsInFirstWindow = changedCloudlets.size();
+
+        simulation.start();
+        assertEquals(TASKS.length, brokers.get(0).getCloudletSubmittedList().size());
+        assertEquals(2, cloudlets.size());
+        assertEquals(changedCloudletsInFirstWindow, changedCloudlets.size());
+        assertSame(cloudlets, taskEventsReader.process());
+    }
+
+    @Test
+    public void testStreamingSameResultsAsReadingEntireFile() throws IOException {
+        final Map<Long, String> expected = runSimulation(0);
+        assertEquals(TASKS.length, expected.size());
+        assertEquals(expected, runSimulation(10));
+        assertEquals(expected, runSimulation(45));
+        assertEquals(expected, runSimulation(1000));
+    }
+
+    @Test
+    public void testStreamingKeepsReadingWhenBrokerIsIdleBetweenWindows() throws IOException {
+        final CloudSim simulation = createSimulation();
+        final Set<Long> createdTasks = new HashSet<>();
+        final GoogleTaskEventsTraceReader reader = new GoogleTaskEventsTraceReader(
+            simulation, taskEventsFile.toString(),
+            event -> {
+                createdTasks.add(event.getUniqueTaskId());
+                return createCloudlet(event);
+            });
+        reader.setStreamingTimeWindow(10);
+        reader.process();
+
+        //VMs are destroyed when idle, making the broker idle during the gap between tasks
+        final DatacenterBroker broker = reader.getBrokers().get(0);
+        final List<Vm> vmList = createVms();
+        broker.setVmDestructionDelay(1);
+        broker.submitVmList(vmList);
+
+        /*After all VMs are destroyed, requests the destruction of one of them again,
+        which makes the broker to check if it's idle and must be shut down.*/
+        final AtomicBoolean idleBrokerChecked = new AtomicBoolean();
+        simulation.addOnClockTickListener(info -> {
+            if (broker.getVmExecList().isEmpty() && !idleBrokerChecked.getAndSet(true)) {
+                broker.requestIdleVmDestruction(vmList.get(0));
+            }
+        });
+
+        simulation.start();
+        assertTrue(idleBrokerChecked.get());
+        assertEquals(TASKS.length, createdTasks.size());
+        assertTrue(broker.isShutdownWhenIdle());
+    }
+
+    @Test
+    public void testStreamingClosesTraceWhenSimulationFinishesBeforeEndOfFile() throws IOException {
+        assumeTrue(Files.isDirectory(Paths.get("/proc/self/fd")), "Open files cannot be checked in this platform");
+
+        //Uses a copy of the trace file to ensure it's not open by readers from other tests
+        final Path traceFile = Files.createTempFile("task-events", ".csv");
+        traceFile.toFile().deleteOnExit();
+        Files.copy(taskEventsFile, traceFile, StandardCopyOption.REPLACE_EXISTING);
+
+        final CloudSim simulation = createSimulation();
+        final GoogleTaskEventsTraceReader reader =
+            new GoogleTaskEventsTraceReader(simulation, traceFile.toString(), this::createCloudlet);
+        reader.setStreamingTimeWindow(10);
+        assertEquals(2, reader.process().size());
+        reader.getBrokers().forEach(broker -> broker.submitVmList(createVms()));
+        assertTrue(isFileOpen(traceFile));
+
+        simulation.terminateAt(100);
+        simulation.start();
+        assertFalse(isFileOpen(traceFile));
+    }
+
+    /**
+     * Checks if a file is open by the current process,
+     * looking for it into the file descriptors the process has open.
+     * @param file the file to check
+     * @return true if the file is open, false if it isn't or the open files cannot be checked
+     */
+    private static boolean isFileOpen(final Path file) throws IOException {
+        final Path fileDescriptorsDir = Paths.get("/proc/self/fd");
+        if (!Files.isDirectory(fileDescriptorsDir)) {
+            return false;
+        }
+
+        final Path realFile = file.toRealPath();
+        try (Stream<Path> fileDescriptors = Files.list(fileDescriptorsDir)) {
+            return fileDescriptors.anyMatch(fd -> {
+                try {
+                    return Files.readSymbolicLink(fd).equals(realFile);
+                } catch (IOException | UnsupportedOperationException e) {
+                    return false;
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs a simulation reading the trace files.
+     * @param streamingTimeWindow the streaming time window for the readers or 0 to read the entire files at once
+     * @return a map where each key is the ID of a finished Cloudlet and each value
+     *         is a String containing the Cloudlet's status, finish time and CPU utilization
+     *         (which are defined by the trace files).
+     *         The exec start time is not included because Cloudlets submitted during the simulation
+     *         execution don't wait the delay the broker takes to send the first Cloudlets to the Datacenter.
+     */
+    private Map<Long, String> runSimulation(final double streamingTimeWindow) throws IOException {
+        final CloudSim simulation = createSimulation();
+        final GoogleTaskEventsTraceReader taskEventsReader = newTaskEventsReader(simulation);
+        taskEventsReader.setStreamingTimeWindow(streamingTimeWindow);
+        taskEventsReader.process();
+        final List<DatacenterBroker> brokers = taskEventsReader.getBrokers();
+        brokers.forEach(broker -> broker.submitVmList(createVms()));
+
+        final GoogleTaskUsageTraceReader taskUsageReader = new GoogleTaskUsageTraceReader(brokers, taskUsageFile.toString());
+        taskUsageReader.setStreamingTimeWindow(streamingTimeWindow);
+        taskUsageReader.process();
+
+        simulation.start();
+
+        final Map<Long, String> results = new TreeMap<>();
+        for (final Cloudlet cloudlet : brokers.get(0).getCloudletFinishedList()) {
+            results.put(cloudlet.getId(),
+                String.format("%s %.2f %.2f", cloudlet.getStatus(), cloudlet.getFinishTime(), cloudlet.getUtilizationOfCpu()));
+        }
+
+        return results;
+    }
+
+    /**
+     * Creates a simulation with a Datacenter to run the tasks from the trace files.
+     * @return
+     */
+    private CloudSim createSimulation() {
+        final CloudSim simulation = new CloudSim();
+        final List<Host> hostList = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            hostList.add(createHost());
+        }
+        new DatacenterSimple(simulation, hostList, new VmAllocationPolicySimple());
+        return simulation;
+    }
+
+    private GoogleTaskEventsTraceReader newTaskEventsReader(final CloudSim simulation) throws IOException {
+        return new GoogleTaskEventsTraceReader(simulation, taskEventsFile.toString(), this::createCloudlet);
+    }
+
+    private Cloudlet createCloudlet(final TaskEvent event) {
+        return new CloudletSimple(-10000, event.actualCpuCores(4))
+            .setUtilizationModelCpu(new UtilizationModelFull())
+            .setUtilizationModelBw(new UtilizationModelFull())
+            .setUtilizationModelRam(new UtilizationModelDynamic(Unit.PERCENTAGE, 0, 1));
+    }
+
+    private Host createHost() {
+        final List<Pe> peList = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            peList.add(new PeSimple(1000));
+        }
+
+        return new HostSimple(2048, 10000, 1000000, peList).setVmScheduler(new VmSchedulerTimeShared());
+    }
+
+    private List<Vm> createVms() {
+        final List<Vm> list = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            list.add(new VmSimple(1000, 4).setRam(500).setBw(100).setSize(1000));
+        }
+
+        return list;
+    }
+}